@@ -0,0 +1,109 @@
+package com.swivel.cc.auth.benchmark;
+
+import com.swivel.cc.auth.configuration.TokenValueEnhancer;
+import com.swivel.cc.auth.util.IdGenerator;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import org.springframework.security.oauth2.common.DefaultExpiringOAuth2RefreshToken;
+import org.springframework.security.oauth2.common.DefaultOAuth2AccessToken;
+import org.springframework.security.oauth2.common.OAuth2AccessToken;
+import org.springframework.security.oauth2.provider.OAuth2Authentication;
+import org.springframework.security.oauth2.provider.OAuth2Request;
+
+import java.util.Collections;
+import java.util.Date;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Throughput of the shared {@link UUID#randomUUID()} against the per thread DRBGs of the {@link IdGenerator}, with
+ * random and time ordered ids, and of minting the values of a new access and refresh token: with uuids as the token
+ * services do, with the uuids replaced by the {@link TokenValueEnhancer}, and with generator values only.
+ * <p>
+ * Run with {@code mvn -P benchmark test-compile exec:exec
+ * -Dbenchmark.main=com.swivel.cc.auth.benchmark.IdGeneratorBenchmark} to measure with 1 to 64 threads.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class IdGeneratorBenchmark {
+
+    private static final int[] THREADS = {1, 2, 4, 8, 16, 32, 64};
+    private static final String CLIENT_ID = "tokomobile";
+    private static final long TOKEN_VALIDITY_MILLIS = 3600_000L;
+    private final IdGenerator idGenerator = new IdGenerator(false);
+    private final TokenValueEnhancer tokenValueEnhancer = new TokenValueEnhancer(idGenerator);
+    private final OAuth2Authentication authentication = new OAuth2Authentication(new OAuth2Request(
+            Collections.emptyMap(), CLIENT_ID, Collections.emptyList(), true, Collections.emptySet(),
+            Collections.emptySet(), null, Collections.emptySet(), Collections.emptyMap()), null);
+
+    @Benchmark
+    public String sharedRandomUuid() {
+        return "uid-" + UUID.randomUUID();
+    }
+
+    @Benchmark
+    public String randomId() {
+        return "uid-" + idGenerator.randomUuid();
+    }
+
+    @Benchmark
+    public String timeOrderedId() {
+        return "uid-" + idGenerator.timeOrderedUuid();
+    }
+
+    @Benchmark
+    public OAuth2AccessToken uuidTokenValues() {
+        return newToken(UUID.randomUUID().toString(), UUID.randomUUID().toString());
+    }
+
+    @Benchmark
+    public OAuth2AccessToken enhancedTokenValues() {
+        return tokenValueEnhancer.enhance(newToken(UUID.randomUUID().toString(), UUID.randomUUID().toString()),
+                authentication);
+    }
+
+    @Benchmark
+    public OAuth2AccessToken generatorTokenValues() {
+        return newToken(idGenerator.nextTokenValue(), idGenerator.nextTokenValue());
+    }
+
+    /**
+     * Create an access token with its refresh token, as the token services do for a new login.
+     *
+     * @param accessTokenValue  access token value
+     * @param refreshTokenValue refresh token value
+     * @return access token
+     */
+    private static OAuth2AccessToken newToken(String accessTokenValue, String refreshTokenValue) {
+        Date expiration = new Date(System.currentTimeMillis() + TOKEN_VALIDITY_MILLIS);
+        DefaultOAuth2AccessToken accessToken = new DefaultOAuth2AccessToken(accessTokenValue);
+        accessToken.setExpiration(expiration);
+        accessToken.setRefreshToken(new DefaultExpiringOAuth2RefreshToken(refreshTokenValue, expiration));
+        return accessToken;
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        for (int threads : THREADS) {
+            Options options = new OptionsBuilder()
+                    .include(IdGeneratorBenchmark.class.getSimpleName())
+                    .threads(threads)
+                    .build();
+            new Runner(options).run();
+        }
+    }
+}
@@ -0,0 +1,128 @@
+package com.swivel.cc.auth.benchmark;
+
+import com.swivel.cc.auth.configuration.RequestPreFilter;
+import com.swivel.cc.auth.configuration.Translator;
+import com.swivel.cc.auth.domain.AuthUserDetail;
+import com.swivel.cc.auth.domain.entity.User;
+import com.swivel.cc.auth.util.FilterErrorResponseGenerator;
+import com.swivel.cc.auth.util.Validator;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.security.oauth2.provider.OAuth2Authentication;
+import org.springframework.security.oauth2.provider.OAuth2Request;
+
+import javax.servlet.FilterChain;
+import java.util.Collections;
+import java.util.concurrent.TimeUnit;
+
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+/**
+ * Per request overhead of the {@link RequestPreFilter}: a request without a route, a password grant, a user update
+ * checked against its access token, a request with the app key and a rejected password grant, which writes the
+ * pre-encoded error body.
+ * <p>
+ * Run with {@code mvn -P benchmark test-compile exec:exec -Dbenchmark.includes=RequestPreFilterBenchmark}.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class RequestPreFilterBenchmark {
+
+    private static final String APP_KEY = "auth-app-key";
+    private static final String USER_ID = "uid-1234567890";
+    private RequestPreFilter requestPreFilter;
+    private MockHttpServletRequest unmatchedRequest;
+    private MockHttpServletRequest passwordGrantRequest;
+    private MockHttpServletRequest userUpdateRequest;
+    private MockHttpServletRequest appKeyRequest;
+    private MockHttpServletRequest invalidPasswordGrantRequest;
+    private MockHttpServletResponse response;
+    private long passed;
+    private final FilterChain filterChain = (request, servletResponse) -> passed++;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        Translator translator = mock(Translator.class);
+        when(translator.toLocale(anyString())).thenReturn("Invalid username or password");
+        requestPreFilter = new RequestPreFilter(new Validator(), new FilterErrorResponseGenerator(translator),
+                APP_KEY);
+
+        unmatchedRequest = getRequest("GET", "/api/v1/users/" + USER_ID);
+        passwordGrantRequest = getRequest("POST", "/oauth/token");
+        passwordGrantRequest.addParameter("grant_type", "password");
+        passwordGrantRequest.addParameter("username", "user@example.com");
+        passwordGrantRequest.addParameter("password", "Password1");
+        userUpdateRequest = getRequest("PUT", "/api/v1/users/email");
+        userUpdateRequest.addHeader("User-Id", USER_ID);
+        appKeyRequest = getRequest("POST", "/api/v1/token/introspect");
+        appKeyRequest.addHeader("app-key", APP_KEY);
+        invalidPasswordGrantRequest = getRequest("POST", "/oauth/token");
+        invalidPasswordGrantRequest.addParameter("grant_type", "password");
+        invalidPasswordGrantRequest.addParameter("username", "user@example.com");
+        invalidPasswordGrantRequest.addParameter("password", "password");
+        response = new MockHttpServletResponse();
+
+        User user = new User();
+        user.setId(USER_ID);
+        OAuth2Request request = new OAuth2Request(null, "tokomobile", Collections.emptyList(), true,
+                Collections.emptySet(), Collections.emptySet(), "", null, null);
+        SecurityContextHolder.getContext().setAuthentication(new OAuth2Authentication(request,
+                new UsernamePasswordAuthenticationToken(new AuthUserDetail(user), null, Collections.emptyList())));
+    }
+
+    @Benchmark
+    public long unmatchedPath() throws Exception {
+        requestPreFilter.doFilter(unmatchedRequest, response, filterChain);
+        return passed;
+    }
+
+    @Benchmark
+    public long passwordGrant() throws Exception {
+        requestPreFilter.doFilter(passwordGrantRequest, response, filterChain);
+        return passed;
+    }
+
+    @Benchmark
+    public long userUpdate() throws Exception {
+        requestPreFilter.doFilter(userUpdateRequest, response, filterChain);
+        return passed;
+    }
+
+    @Benchmark
+    public long appKey() throws Exception {
+        requestPreFilter.doFilter(appKeyRequest, response, filterChain);
+        return passed;
+    }
+
+    @Benchmark
+    public MockHttpServletResponse rejectedPasswordGrant() throws Exception {
+        MockHttpServletResponse rejected = new MockHttpServletResponse();
+        requestPreFilter.doFilter(invalidPasswordGrantRequest, rejected, filterChain);
+        return rejected;
+    }
+
+    private static MockHttpServletRequest getRequest(String method, String path) {
+        MockHttpServletRequest request = new MockHttpServletRequest(method, path);
+        request.setServletPath(path);
+        return request;
+    }
+}
@@ -0,0 +1,282 @@
+package com.swivel.cc.auth.benchmark;
+
+import com.swivel.cc.auth.configuration.AuthTokenServices;
+import com.swivel.cc.auth.configuration.CompactJdbcTokenStore;
+import com.swivel.cc.auth.configuration.CustomTokenEnhancer;
+import com.swivel.cc.auth.domain.AuthUserDetail;
+import com.swivel.cc.auth.domain.TokenResponse;
+import com.swivel.cc.auth.domain.entity.Permission;
+import com.swivel.cc.auth.domain.entity.Resource;
+import com.swivel.cc.auth.domain.entity.Role;
+import com.swivel.cc.auth.domain.entity.User;
+import com.swivel.cc.auth.repository.ResourceRepository;
+import com.swivel.cc.auth.repository.RoleRepository;
+import com.swivel.cc.auth.service.CustomTokenService;
+import com.swivel.cc.auth.service.MerchantService;
+import com.swivel.cc.auth.service.PermissionAuthorizationService;
+import com.swivel.cc.auth.service.RevokedTokenService;
+import com.swivel.cc.auth.service.RoleCatalogueService;
+import com.swivel.cc.auth.service.RoleResponseCacheService;
+import org.openjdk.jmh.annotations.AuxCounters;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.SingleConnectionDataSource;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.GrantedAuthority;
+import org.springframework.security.oauth2.common.OAuth2AccessToken;
+import org.springframework.security.oauth2.common.OAuth2RefreshToken;
+import org.springframework.security.oauth2.provider.OAuth2Authentication;
+import org.springframework.security.oauth2.provider.OAuth2Request;
+import org.springframework.security.oauth2.provider.token.TokenStore;
+import org.springframework.security.oauth2.provider.token.store.JdbcTokenStore;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+/**
+ * Latency and token store writes of a social sign in, minted the way {@link CustomTokenService} did before the token
+ * services were shared (legacy) and the way it does now (unified). The tokens are written to an in-memory database
+ * with the compact token store.
+ * <p>
+ * Run with {@code mvn -P benchmark test-compile exec:exec}, the writes per login are reported as the
+ * {@code accessTokenWrites} and {@code refreshTokenWrites} secondary results.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class TokenMintingBenchmark {
+
+    private static final String CLIENT_ID = "tokomobile";
+    private static final int TOKEN_VALIDITY = 3600;
+    private static final int ROLE_ID = 2;
+    @Param({"legacy", "unified"})
+    private String pipeline;
+    private SingleConnectionDataSource dataSource;
+    private JdbcTemplate jdbcTemplate;
+    private CountingTokenStore tokenStore;
+    private AuthTokenServices authTokenServices;
+    private CustomTokenService customTokenService;
+    private RoleResponseCacheService roleResponseCacheService;
+    private Role role;
+    private long userSequence;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        dataSource = new SingleConnectionDataSource("jdbc:h2:mem:tokens;MODE=MySQL;DB_CLOSE_DELAY=-1", true);
+        jdbcTemplate = new JdbcTemplate(dataSource);
+        jdbcTemplate.execute("create table oauth_access_token (token_id VARCHAR(256), token BLOB, " +
+                "authentication_id VARCHAR(256) PRIMARY KEY, user_name VARCHAR(256), client_id VARCHAR(256), " +
+                "authentication BLOB, refresh_token VARCHAR(256))");
+        jdbcTemplate.execute("create table oauth_refresh_token (token_id VARCHAR(256), token BLOB, " +
+                "authentication BLOB)");
+        role = getRole();
+        RoleRepository roleRepository = mock(RoleRepository.class);
+        when(roleRepository.findAll()).thenReturn(Collections.singletonList(role));
+        ResourceRepository resourceRepository = mock(ResourceRepository.class);
+        when(resourceRepository.findAll()).thenReturn(Collections.emptyList());
+        roleResponseCacheService = new RoleResponseCacheService(roleRepository, resourceRepository,
+                mock(JdbcTemplate.class), mock(RoleCatalogueService.class),
+                mock(PermissionAuthorizationService.class));
+        CustomTokenEnhancer tokenEnhancer = new CustomTokenEnhancer(roleResponseCacheService,
+                mock(MerchantService.class), "full");
+        tokenStore = new CountingTokenStore(new CompactJdbcTokenStore(dataSource,
+                mock(RoleCatalogueService.class)));
+        authTokenServices = new AuthTokenServices(mock(RevokedTokenService.class));
+        authTokenServices.setTokenStore(tokenStore);
+        authTokenServices.setSupportRefreshToken(true);
+        authTokenServices.setAccessTokenValiditySeconds(TOKEN_VALIDITY);
+        authTokenServices.setTokenEnhancer(tokenEnhancer);
+        authTokenServices.setLoginResponseEnhancer(tokenEnhancer);
+        customTokenService = new CustomTokenService(authTokenServices, CLIENT_ID);
+    }
+
+    @Setup(Level.Iteration)
+    public void clearTokens() {
+        jdbcTemplate.update("delete from oauth_access_token");
+        jdbcTemplate.update("delete from oauth_refresh_token");
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        jdbcTemplate.execute("drop table oauth_access_token");
+        jdbcTemplate.execute("drop table oauth_refresh_token");
+        dataSource.destroy();
+    }
+
+    @Benchmark
+    public TokenResponse login(WriteCounters writeCounters) {
+        long accessTokenWrites = tokenStore.accessTokenWrites;
+        long refreshTokenWrites = tokenStore.refreshTokenWrites;
+        User user = getUser();
+        TokenResponse tokenResponse = "legacy".equals(pipeline) ? legacyGenerateToken(user) :
+                customTokenService.generateToken(user);
+        writeCounters.accessTokenWrites += tokenStore.accessTokenWrites - accessTokenWrites;
+        writeCounters.refreshTokenWrites += tokenStore.refreshTokenWrites - refreshTokenWrites;
+        return tokenResponse;
+    }
+
+    /**
+     * The social sign in as it was minted before: the validity is set on the shared token services on every call
+     * and the created token is stored a second time. The info logs of the token values are left out.
+     *
+     * @param user user
+     * @return token response
+     */
+    private TokenResponse legacyGenerateToken(User user) {
+        AuthUserDetail principal = new AuthUserDetail(user);
+        List<GrantedAuthority> grantedAuthorities = new ArrayList<>(principal.getAuthorities());
+        OAuth2Request authorizationRequest = new OAuth2Request(null, CLIENT_ID, grantedAuthorities,
+                true, Collections.emptySet(), Collections.emptySet(), "", null, null);
+        OAuth2Authentication authentication = new OAuth2Authentication(authorizationRequest,
+                new UsernamePasswordAuthenticationToken(principal, null, grantedAuthorities));
+        authTokenServices.setAccessTokenValiditySeconds(TOKEN_VALIDITY);
+        OAuth2AccessToken accessToken = authTokenServices.createAccessToken(authentication);
+        tokenStore.storeAccessToken(accessToken, authentication);
+        return new TokenResponse(accessToken, roleResponseCacheService.getRoleResponse(role));
+    }
+
+    private User getUser() {
+        User user = new User();
+        user.setId("uid-benchmark-" + userSequence++);
+        user.setFullName("Benchmark User");
+        user.setRole(role);
+        return user;
+    }
+
+    private static Role getRole() {
+        List<Permission> permissions = new ArrayList<>();
+        for (int i = 0; i < 20; i++) {
+            Permission permission = new Permission();
+            permission.setId(i);
+            permission.setName("PERMISSION_" + i);
+            Resource resource = new Resource();
+            resource.setId(i);
+            resource.setName("resource-" + i);
+            permission.setResource(resource);
+            permissions.add(permission);
+        }
+        Role benchmarkRole = new Role("USER");
+        benchmarkRole.setId(ROLE_ID);
+        benchmarkRole.setPermissions(permissions);
+        return benchmarkRole;
+    }
+
+    /**
+     * Token store writes, reported per login.
+     */
+    @State(Scope.Thread)
+    @AuxCounters(AuxCounters.Type.OPERATIONS)
+    public static class WriteCounters {
+
+        public long accessTokenWrites;
+        public long refreshTokenWrites;
+
+        @Setup(Level.Iteration)
+        public void clear() {
+            accessTokenWrites = 0;
+            refreshTokenWrites = 0;
+        }
+    }
+
+    /**
+     * Jdbc token store counting the stored access and refresh tokens.
+     */
+    private static class CountingTokenStore implements TokenStore {
+
+        private final JdbcTokenStore delegate;
+        private long accessTokenWrites;
+        private long refreshTokenWrites;
+
+        CountingTokenStore(JdbcTokenStore delegate) {
+            this.delegate = delegate;
+        }
+
+        @Override
+        public void storeAccessToken(OAuth2AccessToken token, OAuth2Authentication authentication) {
+            accessTokenWrites++;
+            delegate.storeAccessToken(token, authentication);
+        }
+
+        @Override
+        public void storeRefreshToken(OAuth2RefreshToken refreshToken, OAuth2Authentication authentication) {
+            refreshTokenWrites++;
+            delegate.storeRefreshToken(refreshToken, authentication);
+        }
+
+        @Override
+        public OAuth2Authentication readAuthentication(OAuth2AccessToken token) {
+            return delegate.readAuthentication(token);
+        }
+
+        @Override
+        public OAuth2Authentication readAuthentication(String token) {
+            return delegate.readAuthentication(token);
+        }
+
+        @Override
+        public OAuth2AccessToken readAccessToken(String tokenValue) {
+            return delegate.readAccessToken(tokenValue);
+        }
+
+        @Override
+        public void removeAccessToken(OAuth2AccessToken token) {
+            delegate.removeAccessToken(token);
+        }
+
+        @Override
+        public OAuth2RefreshToken readRefreshToken(String tokenValue) {
+            return delegate.readRefreshToken(tokenValue);
+        }
+
+        @Override
+        public OAuth2Authentication readAuthenticationForRefreshToken(OAuth2RefreshToken token) {
+            return delegate.readAuthenticationForRefreshToken(token);
+        }
+
+        @Override
+        public void removeRefreshToken(OAuth2RefreshToken token) {
+            delegate.removeRefreshToken(token);
+        }
+
+        @Override
+        public void removeAccessTokenUsingRefreshToken(OAuth2RefreshToken refreshToken) {
+            delegate.removeAccessTokenUsingRefreshToken(refreshToken);
+        }
+
+        @Override
+        public OAuth2AccessToken getAccessToken(OAuth2Authentication authentication) {
+            return delegate.getAccessToken(authentication);
+        }
+
+        @Override
+        public Collection<OAuth2AccessToken> findTokensByClientIdAndUserName(String clientId, String userName) {
+            return delegate.findTokensByClientIdAndUserName(clientId, userName);
+        }
+
+        @Override
+        public Collection<OAuth2AccessToken> findTokensByClientId(String clientId) {
+            return delegate.findTokensByClientId(clientId);
+        }
+    }
+}
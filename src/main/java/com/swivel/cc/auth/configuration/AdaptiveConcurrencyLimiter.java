@@ -0,0 +1,110 @@
+package com.swivel.cc.auth.configuration;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Concurrency limit adapted to the observed latency, additive increase and multiplicative decrease.
+ * <p>
+ * Every request completing under the latency threshold while the limit is in use raises the limit by one per limit
+ * requests, a request slower than the threshold or failing with a server error cuts it by the backoff ratio. So the
+ * limit follows what the database pool and the password hashing can serve, instead of a fixed number tuned once.
+ * Requests above the limit wait for a short time and are rejected when no slot is freed.
+ */
+public class AdaptiveConcurrencyLimiter {
+
+    private static final String TAG_LIMITER = "limiter";
+    private final String name;
+    private final int minLimit;
+    private final int maxLimit;
+    private final long latencyThresholdNanos;
+    private final double backoffRatio;
+    private final Counter rejected;
+    private double limit;
+    private int inFlight;
+
+    /**
+     * Create the limiter, starting half way between the minimum and maximum limit.
+     *
+     * @param name                    name of the limiter, tagged on the metrics
+     * @param minLimit                lowest limit
+     * @param maxLimit                highest limit
+     * @param latencyThresholdMillis  latency above which the limit is decreased
+     * @param backoffRatio            factor applied to the limit on a decrease
+     * @param meterRegistry           meter registry
+     */
+    public AdaptiveConcurrencyLimiter(String name, int minLimit, int maxLimit, long latencyThresholdMillis,
+                                      double backoffRatio, MeterRegistry meterRegistry) {
+        this.name = name;
+        this.minLimit = Math.max(1, minLimit);
+        this.maxLimit = Math.max(this.minLimit, maxLimit);
+        this.latencyThresholdNanos = TimeUnit.MILLISECONDS.toNanos(latencyThresholdMillis);
+        this.backoffRatio = backoffRatio;
+        this.limit = (this.minLimit + this.maxLimit) / 2.0;
+        this.rejected = meterRegistry.counter("token.concurrency.rejected", TAG_LIMITER, name);
+        Gauge.builder("token.concurrency.limit", this, AdaptiveConcurrencyLimiter::getLimit)
+                .tag(TAG_LIMITER, name).register(meterRegistry);
+        Gauge.builder("token.concurrency.in-flight", this, AdaptiveConcurrencyLimiter::getInFlight)
+                .tag(TAG_LIMITER, name).register(meterRegistry);
+    }
+
+    /**
+     * This method takes a slot, waiting until the deadline when the limit is reached.
+     *
+     * @param deadlineNanos {@link System#nanoTime()} after which the request is rejected
+     * @return true if a slot was taken, which must be given back with release or cancel
+     * @throws InterruptedException when the waiting thread is interrupted
+     */
+    public synchronized boolean acquire(long deadlineNanos) throws InterruptedException {
+        while (inFlight >= (int) limit) {
+            long remaining = deadlineNanos - System.nanoTime();
+            if (remaining <= 0) {
+                rejected.increment();
+                return false;
+            }
+            TimeUnit.NANOSECONDS.timedWait(this, remaining);
+        }
+        inFlight++;
+        return true;
+    }
+
+    /**
+     * This method gives back a slot and adapts the limit to the latency of the request.
+     *
+     * @param latencyNanos latency of the request
+     * @param failed       true when the request failed with a server error
+     */
+    public synchronized void release(long latencyNanos, boolean failed) {
+        boolean limited = inFlight * 2 >= limit;
+        inFlight--;
+        if (failed || latencyNanos > latencyThresholdNanos) {
+            limit = Math.max(minLimit, limit * backoffRatio);
+        } else if (limited) {
+            limit = Math.min(maxLimit, limit + 1 / limit);
+        }
+        notifyAll();
+    }
+
+    /**
+     * This method gives back a slot without a latency sample, used when the request did not run.
+     */
+    public synchronized void cancel() {
+        inFlight--;
+        notifyAll();
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public synchronized double getLimit() {
+        return limit;
+    }
+
+    public synchronized int getInFlight() {
+        return inFlight;
+    }
+}
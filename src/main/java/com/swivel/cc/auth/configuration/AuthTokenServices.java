@@ -0,0 +1,206 @@
+package com.swivel.cc.auth.configuration;
+
+import com.swivel.cc.auth.service.RevokedTokenService;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.security.core.AuthenticationException;
+import org.springframework.security.oauth2.common.DefaultOAuth2AccessToken;
+import org.springframework.security.oauth2.common.OAuth2AccessToken;
+import org.springframework.security.oauth2.common.OAuth2RefreshToken;
+import org.springframework.security.oauth2.common.exceptions.InvalidGrantException;
+import org.springframework.security.oauth2.common.exceptions.InvalidTokenException;
+import org.springframework.security.oauth2.provider.ClientDetails;
+import org.springframework.security.oauth2.provider.ClientDetailsService;
+import org.springframework.security.oauth2.provider.ClientRegistrationException;
+import org.springframework.security.oauth2.provider.OAuth2Authentication;
+import org.springframework.security.oauth2.provider.OAuth2Request;
+import org.springframework.security.oauth2.provider.TokenRequest;
+import org.springframework.security.oauth2.provider.token.DefaultTokenServices;
+import org.springframework.security.oauth2.provider.token.TokenEnhancer;
+import org.springframework.security.oauth2.provider.token.TokenStore;
+import org.springframework.transaction.annotation.Transactional;
+
+/**
+ * Token services shared by the /oauth/token endpoint, the social sign in and the resource server.
+ * <p>
+ * Client details are only consulted for the token validity when a token is created. They are not set on the
+ * parent, which would otherwise load the client on every authenticated request.
+ * <p>
+ * The token store does not persist the login response, so when an existing token is returned instead of a new one
+ * the login response enhancer is applied again on a copy of it.
+ * <p>
+ * Authentications of access tokens stamped with an older permissions version of their role are re-resolved by the
+ * {@link PermissionVersionResolver} when they are loaded.
+ */
+@Slf4j
+public class AuthTokenServices extends DefaultTokenServices {
+
+    private final RevokedTokenService revokedTokenService;
+    private TokenStore tokenStore;
+    private ClientDetailsService validityClientDetailsService;
+    private TokenEnhancer loginResponseEnhancer;
+    private PermissionVersionResolver permissionVersionResolver;
+
+    public AuthTokenServices(RevokedTokenService revokedTokenService) {
+        this.revokedTokenService = revokedTokenService;
+    }
+
+    @Override
+    public void setTokenStore(TokenStore tokenStore) {
+        super.setTokenStore(tokenStore);
+        this.tokenStore = tokenStore;
+    }
+
+    /**
+     * Client details service used to read the per client token validity.
+     *
+     * @param clientDetailsService client details service
+     */
+    public void setValidityClientDetailsService(ClientDetailsService clientDetailsService) {
+        this.validityClientDetailsService = clientDetailsService;
+    }
+
+    /**
+     * Enhancer which adds the login response to a token, applied again to existing tokens returned from the store.
+     *
+     * @param loginResponseEnhancer login response enhancer
+     */
+    public void setLoginResponseEnhancer(TokenEnhancer loginResponseEnhancer) {
+        this.loginResponseEnhancer = loginResponseEnhancer;
+    }
+
+    /**
+     * Resolver of the current permissions of access tokens stamped with an older permissions version.
+     *
+     * @param permissionVersionResolver permission version resolver
+     */
+    public void setPermissionVersionResolver(PermissionVersionResolver permissionVersionResolver) {
+        this.permissionVersionResolver = permissionVersionResolver;
+    }
+
+    @Override
+    @Transactional
+    public OAuth2AccessToken createAccessToken(OAuth2Authentication authentication) throws AuthenticationException {
+        OAuth2AccessToken accessToken = super.createAccessToken(authentication);
+        if (loginResponseEnhancer != null
+                && !accessToken.getAdditionalInformation().containsKey(CustomTokenEnhancer.DATA)) {
+            return loginResponseEnhancer.enhance(new DefaultOAuth2AccessToken(accessToken), authentication);
+        }
+        return accessToken;
+    }
+
+    /**
+     * Loads the authentication of an access token as the parent does, with the current permissions of its role.
+     *
+     * @param accessTokenValue access token value
+     * @return authentication
+     */
+    @Override
+    public OAuth2Authentication loadAuthentication(String accessTokenValue) throws AuthenticationException,
+            InvalidTokenException {
+        OAuth2AccessToken accessToken = tokenStore.readAccessToken(accessTokenValue);
+        if (accessToken == null) {
+            throw new InvalidTokenException("Invalid access token: " + accessTokenValue);
+        }
+        if (accessToken.isExpired()) {
+            tokenStore.removeAccessToken(accessToken);
+            throw new InvalidTokenException("Access token expired: " + accessTokenValue);
+        }
+        OAuth2Authentication authentication = tokenStore.readAuthentication(accessToken);
+        if (authentication == null) {
+            throw new InvalidTokenException("Invalid access token: " + accessTokenValue);
+        }
+        return permissionVersionResolver == null ? authentication :
+                permissionVersionResolver.resolve(accessToken, authentication);
+    }
+
+    /**
+     * Revokes the token and records the revocation, so that services verifying jwt access tokens locally
+     * can reject it until it expires.
+     *
+     * @param tokenValue access token value
+     * @return true if the token was revoked
+     */
+    @Override
+    @Transactional
+    public boolean revokeToken(String tokenValue) {
+        OAuth2AccessToken accessToken = tokenStore.readAccessToken(tokenValue);
+        OAuth2Authentication authentication = accessToken == null ? null : tokenStore.readAuthentication(accessToken);
+        boolean revoked = super.revokeToken(tokenValue);
+        if (revoked) {
+            revokedTokenService.recordRevocation(accessToken, authentication);
+        }
+        return revoked;
+    }
+
+    /**
+     * Refreshes the access token as the parent does. The parent removes the access token issued with the refresh
+     * token, so the revocation of that access token is recorded first, when the refresh token will be accepted.
+     *
+     * @param refreshTokenValue refresh token value
+     * @param tokenRequest      token request
+     * @return new access token
+     */
+    @Override
+    @Transactional(noRollbackFor = {InvalidTokenException.class, InvalidGrantException.class})
+    public OAuth2AccessToken refreshAccessToken(String refreshTokenValue, TokenRequest tokenRequest)
+            throws AuthenticationException {
+        OAuth2RefreshToken refreshToken = tokenStore.readRefreshToken(refreshTokenValue);
+        if (refreshToken != null && !isExpired(refreshToken)) {
+            OAuth2Authentication authentication = tokenStore.readAuthenticationForRefreshToken(refreshToken);
+            if (authentication != null
+                    && authentication.getOAuth2Request().getClientId().equals(tokenRequest.getClientId())) {
+                revokedTokenService.recordRevocation(tokenStore.getAccessToken(authentication), authentication);
+            }
+        }
+        return super.refreshAccessToken(refreshTokenValue, tokenRequest);
+    }
+
+    /**
+     * Returns the access token validity of a client, the configured token validity for clients without one.
+     *
+     * @param clientId client id
+     * @return access token validity in seconds
+     */
+    public int getAccessTokenValiditySeconds(String clientId) {
+        ClientDetails client = loadClient(clientId);
+        if (client != null && client.getAccessTokenValiditySeconds() != null) {
+            return client.getAccessTokenValiditySeconds();
+        }
+        return super.getAccessTokenValiditySeconds(null);
+    }
+
+    @Override
+    protected int getAccessTokenValiditySeconds(OAuth2Request clientAuth) {
+        if (clientAuth == null) {
+            return super.getAccessTokenValiditySeconds(null);
+        }
+        return getAccessTokenValiditySeconds(clientAuth.getClientId());
+    }
+
+    @Override
+    protected int getRefreshTokenValiditySeconds(OAuth2Request clientAuth) {
+        ClientDetails client = clientAuth == null ? null : loadClient(clientAuth.getClientId());
+        if (client != null && client.getRefreshTokenValiditySeconds() != null) {
+            return client.getRefreshTokenValiditySeconds();
+        }
+        return super.getRefreshTokenValiditySeconds(clientAuth);
+    }
+
+    /**
+     * Load a client, null when it is unknown or no client details service is set.
+     *
+     * @param clientId client id
+     * @return client details
+     */
+    private ClientDetails loadClient(String clientId) {
+        if (validityClientDetailsService == null || clientId == null) {
+            return null;
+        }
+        try {
+            return validityClientDetailsService.loadClientByClientId(clientId);
+        } catch (ClientRegistrationException e) {
+            log.debug("No client details found for client id: {}", clientId);
+            return null;
+        }
+    }
+}
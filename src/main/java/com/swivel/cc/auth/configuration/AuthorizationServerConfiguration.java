@@ -1,13 +1,27 @@
 package com.swivel.cc.auth.configuration;
 
-import com.swivel.cc.auth.repository.ResourceRepository;
+import com.swivel.cc.auth.enums.ErrorResponseStatusType;
+import com.swivel.cc.auth.exception.PasswordHashingRejectedException;
+import com.swivel.cc.auth.service.ClientDetailsCacheService;
 import com.swivel.cc.auth.service.MerchantService;
+import com.swivel.cc.auth.service.RevokedTokenService;
+import com.swivel.cc.auth.service.RoleCatalogueService;
+import com.swivel.cc.auth.service.RoleResponseCacheService;
+import com.swivel.cc.auth.util.IdGenerator;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.ObjectProvider;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.jdbc.DataSourceBuilder;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.context.annotation.Primary;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.authentication.AuthenticationManager;
+import org.springframework.security.authentication.ProviderManager;
+import org.springframework.security.core.userdetails.UserDetailsByNameServiceWrapper;
 import org.springframework.security.core.userdetails.UserDetailsService;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.security.oauth2.common.exceptions.InvalidGrantException;
@@ -16,51 +30,110 @@ import org.springframework.security.oauth2.config.annotation.configurers.ClientD
 import org.springframework.security.oauth2.config.annotation.web.configuration.AuthorizationServerConfigurerAdapter;
 import org.springframework.security.oauth2.config.annotation.web.configurers.AuthorizationServerEndpointsConfigurer;
 import org.springframework.security.oauth2.config.annotation.web.configurers.AuthorizationServerSecurityConfigurer;
-import org.springframework.security.oauth2.provider.token.DefaultTokenServices;
+import org.springframework.security.oauth2.provider.client.JdbcClientDetailsService;
 import org.springframework.security.oauth2.provider.token.TokenEnhancer;
+import org.springframework.security.oauth2.provider.token.TokenEnhancerChain;
 import org.springframework.security.oauth2.provider.token.TokenStore;
 import org.springframework.security.oauth2.provider.token.store.JdbcTokenStore;
+import org.springframework.security.web.authentication.preauth.PreAuthenticatedAuthenticationProvider;
 
 import javax.sql.DataSource;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
 
 @Configuration
 public class AuthorizationServerConfiguration extends AuthorizationServerConfigurerAdapter {
 
     private static final String IS_AUTHENTICATED = "isAuthenticated()";
     private static final String PERMISSION_ALL = "permitAll()";
+    private static final String TOKEN_STORE_FORMAT_COMPACT = "compact";
 
     private final DataSource dataSource;
     private final PasswordEncoder passwordEncoder;
     private final AuthenticationManager authenticationManager;
     private final UserDetailsService userDetailService;
-    private final ResourceRepository resourceRepository;
+    private final RoleResponseCacheService roleResponseCacheService;
     private final MerchantService merchantService;
+    private final boolean tokenCacheEnabled;
+    private final long tokenCacheMaximumSize;
+    private final long tokenCacheTimeToLiveSeconds;
+    private final RevokedTokenService revokedTokenService;
+    private final JwtKeyRing jwtKeyRing;
+    private final RoleCatalogueService roleCatalogueService;
+    private final String tokenStoreFormat;
+    private final List<String> tokenShardUrls;
+    private final String dataSourceUsername;
+    private final String dataSourcePassword;
+    private final String loginResponseRolePermissions;
+    private final ClientDetailsCacheService clientDetailsCacheService;
+    private final MemoizingSecretEncoder clientSecretEncoder;
+    private final int tokenValidity;
+    private final IdGenerator idGenerator;
 
     @Autowired
     public AuthorizationServerConfiguration(DataSource dataSource, PasswordEncoder passwordEncoder,
                                             AuthenticationManager authenticationManager,
                                             UserDetailsService userDetailService,
-                                            ResourceRepository resourceRepository, MerchantService merchantService) {
+                                            RoleResponseCacheService roleResponseCacheService,
+                                            MerchantService merchantService,
+                                            @Value("${application.token-cache.enabled}") boolean tokenCacheEnabled,
+                                            @Value("${application.token-cache.maximum-size}")
+                                                    long tokenCacheMaximumSize,
+                                            @Value("${application.token-cache.time-to-live-seconds}")
+                                                    long tokenCacheTimeToLiveSeconds,
+                                            RevokedTokenService revokedTokenService,
+                                            ObjectProvider<JwtKeyRing> jwtKeyRing,
+                                            RoleCatalogueService roleCatalogueService,
+                                            @Value("${application.token-store.format}") String tokenStoreFormat,
+                                            @Value("${application.token-shards.urls}") List<String> tokenShardUrls,
+                                            @Value("${spring.datasource.username}") String dataSourceUsername,
+                                            @Value("${spring.datasource.password}") String dataSourcePassword,
+                                            @Value("${application.login-response.role-permissions}")
+                                                    String loginResponseRolePermissions,
+                                            ClientDetailsCacheService clientDetailsCacheService,
+                                            MeterRegistry meterRegistry,
+                                            @Value("${application.client-details-cache.secret-time-to-live-seconds}")
+                                                    long clientSecretTimeToLiveSeconds,
+                                            @Value("${application.token-validity}") int tokenValidity,
+                                            IdGenerator idGenerator) {
         this.dataSource = dataSource;
         this.passwordEncoder = passwordEncoder;
         this.authenticationManager = authenticationManager;
         this.userDetailService = userDetailService;
-        this.resourceRepository = resourceRepository;
+        this.roleResponseCacheService = roleResponseCacheService;
         this.merchantService = merchantService;
+        this.tokenCacheEnabled = tokenCacheEnabled;
+        this.tokenCacheMaximumSize = tokenCacheMaximumSize;
+        this.tokenCacheTimeToLiveSeconds = tokenCacheTimeToLiveSeconds;
+        this.revokedTokenService = revokedTokenService;
+        this.jwtKeyRing = jwtKeyRing.getIfAvailable();
+        this.roleCatalogueService = roleCatalogueService;
+        this.tokenStoreFormat = tokenStoreFormat;
+        this.tokenShardUrls = tokenShardUrls;
+        this.dataSourceUsername = dataSourceUsername;
+        this.dataSourcePassword = dataSourcePassword;
+        this.loginResponseRolePermissions = loginResponseRolePermissions;
+        this.clientDetailsCacheService = clientDetailsCacheService;
+        this.clientSecretEncoder = new MemoizingSecretEncoder(passwordEncoder, clientSecretTimeToLiveSeconds,
+                meterRegistry);
+        this.tokenValidity = tokenValidity;
+        this.idGenerator = idGenerator;
     }
 
     // Configure the security of the Authorization Server, which means in practical terms the /oauth/token endpoint.
     // Expose /oauth/check_token endpoint
 
     /**
-     * Configure the security of the Authorization Server
+     * Configure the security of the Authorization Server. Client secrets verified recently are not hashed again.
      *
      * @param serverSecurityConfigurer security
      * @throws Exception exception
      */
     @Override
     public void configure(AuthorizationServerSecurityConfigurer serverSecurityConfigurer) throws Exception {
-        serverSecurityConfigurer.checkTokenAccess(IS_AUTHENTICATED).tokenKeyAccess(PERMISSION_ALL);
+        serverSecurityConfigurer.checkTokenAccess(IS_AUTHENTICATED).tokenKeyAccess(PERMISSION_ALL)
+                .passwordEncoder(clientSecretEncoder);
     }
 
     //Configure the ClientDetailsService, e.g. declaring individual clients and their properties
@@ -68,14 +141,17 @@ public class AuthorizationServerConfiguration extends AuthorizationServerConfigu
     // configure(AuthorizationServerEndpointsConfigurer)
 
     /**
-     * Client Details configurer
+     * Client Details configurer, the clients are read from the database through an in-process cache.
      *
      * @param clients clients
      * @throws Exception exception
      */
     @Override
     public void configure(ClientDetailsServiceConfigurer clients) throws Exception {
-        clients.jdbc(dataSource).passwordEncoder(passwordEncoder);
+        JdbcClientDetailsService jdbcClientDetailsService = new JdbcClientDetailsService(dataSource);
+        jdbcClientDetailsService.setPasswordEncoder(passwordEncoder);
+        clients.withClientDetails(new CachingClientDetailsService(jdbcClientDetailsService,
+                clientDetailsCacheService));
     }
 
     //Configure the non-security features of the Authorization Server endpoints, like token store, token customizations,
@@ -85,12 +161,23 @@ public class AuthorizationServerConfiguration extends AuthorizationServerConfigu
     @Override
     public void configure(AuthorizationServerEndpointsConfigurer endpointsConfigurer) throws Exception {
         endpointsConfigurer.userDetailsService(userDetailService);
-        endpointsConfigurer.tokenEnhancer(tokenEnhancer());
         endpointsConfigurer.tokenStore(tokenStore());
         endpointsConfigurer.authenticationManager(authenticationManager);
+        AuthTokenServices authTokenServices = tokenServices();
+        authTokenServices.setValidityClientDetailsService(endpointsConfigurer.getClientDetailsService());
+        endpointsConfigurer.tokenServices(authTokenServices);
 
         endpointsConfigurer.exceptionTranslator(exception -> {
 
+            if (isPasswordHashingRejected(exception)) {
+                return ResponseEntity
+                        .status(HttpStatus.SERVICE_UNAVAILABLE)
+                        .header(HttpHeaders.RETRY_AFTER,
+                                String.valueOf(PasswordHashingRejectedException.RETRY_AFTER_SECONDS))
+                        .body(new CustomOauthException(ErrorResponseStatusType.PASSWORD_HASHING_OVERLOADED
+                                .getMessage()));
+            }
+
             if (exception instanceof InvalidGrantException) {
                 OAuth2Exception oAuth2Exception = (OAuth2Exception) exception;
                 return ResponseEntity
@@ -110,27 +197,124 @@ public class AuthorizationServerConfiguration extends AuthorizationServerConfigu
 
     }
 
+    /**
+     * The token endpoint wraps the exceptions of the password encoder, so a rejected password hashing is found in
+     * the causes of the exception.
+     *
+     * @param exception exception of the token endpoint
+     * @return true if the password hashing was rejected
+     */
+    private static boolean isPasswordHashingRejected(Throwable exception) {
+        for (Throwable cause = exception; cause != null; cause = cause.getCause()) {
+            if (cause instanceof PasswordHashingRejectedException) {
+                return true;
+            }
+        }
+        return false;
+    }
+
     @Bean
     public TokenEnhancer tokenEnhancer() {
-        return new CustomTokenEnhancer(resourceRepository, merchantService);
+        return new CustomTokenEnhancer(roleResponseCacheService, merchantService, loginResponseRolePermissions);
     }
 
+    /**
+     * Token services used by the token endpoint, the social sign in and the resource server. As they are set on the
+     * endpoints explicitly, the token enhancer and the user re-authentication on refresh are configured here.
+     * New token values are replaced with values of the {@link IdGenerator} first. In jwt mode access tokens are
+     * signed with the active key of the {@link JwtKeyRing}. With more than one token shard the token values are
+     * prefixed with their shard before any other enhancer sees them. Tokens stamped with an older permissions version
+     * of their role get the current permissions when they are loaded. The configured token validity applies to
+     * clients without an access token validity of their own.
+     *
+     * @return token services
+     */
     @Bean
     @Primary
-    public DefaultTokenServices tokenServices() {
-        DefaultTokenServices defaultTokenServices = new DefaultTokenServices();
-        defaultTokenServices.setTokenStore(tokenStore());
-        defaultTokenServices.setSupportRefreshToken(true);
-        return defaultTokenServices;
+    public AuthTokenServices tokenServices() {
+        AuthTokenServices authTokenServices = new AuthTokenServices(revokedTokenService);
+        authTokenServices.setTokenStore(tokenStore());
+        authTokenServices.setSupportRefreshToken(true);
+        authTokenServices.setAccessTokenValiditySeconds(tokenValidity);
+        List<TokenEnhancer> tokenEnhancers = new ArrayList<>();
+        tokenEnhancers.add(new TokenValueEnhancer(idGenerator));
+        if (tokenShards().size() > 1) {
+            tokenEnhancers.add(new ShardPrefixTokenEnhancer(tokenShards()));
+        }
+        tokenEnhancers.add(tokenEnhancer());
+        if (jwtKeyRing != null) {
+            tokenEnhancers.add(new RotatingJwtAccessTokenConverter(jwtKeyRing));
+        }
+        TokenEnhancerChain tokenEnhancerChain = new TokenEnhancerChain();
+        tokenEnhancerChain.setTokenEnhancers(tokenEnhancers);
+        authTokenServices.setTokenEnhancer(tokenEnhancerChain);
+        authTokenServices.setLoginResponseEnhancer(tokenEnhancer());
+        authTokenServices.setPermissionVersionResolver(new PermissionVersionResolver(roleResponseCacheService,
+                roleCatalogueService));
+        PreAuthenticatedAuthenticationProvider provider = new PreAuthenticatedAuthenticationProvider();
+        provider.setPreAuthenticatedUserDetailsService(new UserDetailsByNameServiceWrapper<>(userDetailService));
+        authTokenServices.setAuthenticationManager(new ProviderManager(Collections.singletonList(provider)));
+        return authTokenServices;
     }
 
+    /**
+     * Token store used by the token services. Reads are served from an in-process cache when it is enabled,
+     * writes and removals always go to the jdbc token store.
+     *
+     * @return token store
+     */
     @Bean
     TokenStore tokenStore() {
-        return new JdbcTokenStore(dataSource);
+        if (tokenCacheEnabled) {
+            return new CachingTokenStore(jdbcTokenStore(), tokenCacheMaximumSize, tokenCacheTimeToLiveSeconds);
+        }
+        return jdbcTokenStore();
     }
 
+    /**
+     * Jdbc token store. With more than one token shard it routes every call to the shard of the token.
+     *
+     * @return jdbc token store
+     */
     @Bean
     JdbcTokenStore jdbcTokenStore() {
-        return new JdbcTokenStore(dataSource);
+        if (tokenShards().size() > 1) {
+            return new ShardedTokenStore(tokenShards());
+        }
+        return tokenShards().getTokenStore(0);
+    }
+
+    /**
+     * Token shards, the main datasource followed by a datasource for every configured shard url.
+     * The shard datasources share the credentials of the main datasource.
+     *
+     * @return token shards
+     */
+    @Bean
+    TokenShards tokenShards() {
+        List<DataSource> dataSources = new ArrayList<>();
+        dataSources.add(dataSource);
+        for (String url : tokenShardUrls) {
+            if (!url.trim().isEmpty()) {
+                dataSources.add(DataSourceBuilder.create().url(url.trim())
+                        .username(dataSourceUsername).password(dataSourcePassword).build());
+            }
+        }
+        return TokenShards.of(dataSources, this::createJdbcTokenStore);
+    }
+
+    /**
+     * Create the jdbc token store of a datasource. In the compact format tokens are persisted without java
+     * serialization and the authorities are rehydrated from the role catalogue; rows in the java serialized format
+     * are still read.
+     *
+     * @param shardDataSource datasource
+     * @return jdbc token store
+     */
+    private JdbcTokenStore createJdbcTokenStore(DataSource shardDataSource) {
+        if (TOKEN_STORE_FORMAT_COMPACT.equals(tokenStoreFormat)) {
+            return new CompactJdbcTokenStore(shardDataSource, roleCatalogueService);
+        }
+        return new BatchJdbcTokenStore(shardDataSource);
     }
 }
@@ -0,0 +1,79 @@
+package com.swivel.cc.auth.configuration;
+
+import lombok.Getter;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.security.oauth2.common.OAuth2AccessToken;
+import org.springframework.security.oauth2.provider.OAuth2Authentication;
+import org.springframework.security.oauth2.provider.token.store.JdbcTokenStore;
+
+import javax.sql.DataSource;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Jdbc token store which also reads many access tokens with their authentications in one query.
+ */
+@Slf4j
+public class BatchJdbcTokenStore extends JdbcTokenStore {
+
+    private static final String SELECT_ACCESS_TOKENS = "select token_id, token, authentication from " +
+            "oauth_access_token where token_id in (:tokenIds)";
+    private static final String TOKEN_IDS = "tokenIds";
+    private final NamedParameterJdbcTemplate namedParameterJdbcTemplate;
+
+    public BatchJdbcTokenStore(DataSource dataSource) {
+        super(dataSource);
+        this.namedParameterJdbcTemplate = new NamedParameterJdbcTemplate(dataSource);
+    }
+
+    /**
+     * This method reads the access tokens and authentications of the given token values in one query. Values
+     * without a token, or with a row which can not be deserialized, are left out.
+     *
+     * @param tokenValues access token values
+     * @return stored access tokens by token value
+     */
+    public Map<String, StoredAccessToken> readAccessTokens(Collection<String> tokenValues) {
+        Map<String, String> tokenValuesByKey = new HashMap<>();
+        for (String tokenValue : tokenValues) {
+            tokenValuesByKey.put(extractTokenKey(tokenValue), tokenValue);
+        }
+        Map<String, StoredAccessToken> accessTokens = new HashMap<>();
+        if (tokenValuesByKey.isEmpty()) {
+            return accessTokens;
+        }
+        namedParameterJdbcTemplate.query(SELECT_ACCESS_TOKENS,
+                new MapSqlParameterSource(TOKEN_IDS, tokenValuesByKey.keySet()), rs -> {
+                    String tokenId = rs.getString(1);
+                    try {
+                        OAuth2AccessToken accessToken = deserializeAccessToken(rs.getBytes(2));
+                        OAuth2Authentication authentication = deserializeAuthentication(rs.getBytes(3));
+                        if (accessToken != null && authentication != null) {
+                            accessTokens.put(tokenValuesByKey.get(tokenId),
+                                    new StoredAccessToken(accessToken, authentication));
+                        }
+                    } catch (IllegalArgumentException e) {
+                        log.warn("Failed to deserialize access token. token_id: {}", tokenId, e);
+                    }
+                });
+        return accessTokens;
+    }
+
+    /**
+     * Access token with its authentication as persisted in the token store.
+     */
+    @Getter
+    public static class StoredAccessToken {
+
+        private final OAuth2AccessToken accessToken;
+        private final OAuth2Authentication authentication;
+
+        public StoredAccessToken(OAuth2AccessToken accessToken, OAuth2Authentication authentication) {
+            this.accessToken = accessToken;
+            this.authentication = authentication;
+        }
+    }
+}
@@ -0,0 +1,163 @@
+package com.swivel.cc.auth.configuration;
+
+import com.swivel.cc.auth.exception.PasswordHashingRejectedException;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+import org.springframework.security.crypto.password.PasswordEncoder;
+
+import java.io.Closeable;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * BCrypt password encoder running the hashing on a dedicated executor instead of the request threads.
+ * <p>
+ * The executor has one thread per core and a bounded queue. When the queue is full the request is rejected at once
+ * with a {@link PasswordHashingRejectedException}, so a burst of logins or signups fails fast instead of pinning every
+ * request thread. A request waiting longer than the timeout is rejected the same way. Its hashing is taken off the
+ * queue when it has not started yet, a bcrypt already running can not be interrupted and finishes on its thread.
+ * Rejected requests are answered with 503 and a Retry-After header.
+ * <p>
+ * Stored hashes with another cost than the configured one need an upgrade, which spring security does on the next
+ * successful login through the user details password service.
+ */
+@Slf4j
+public class BoundedPasswordEncoder implements PasswordEncoder, Closeable {
+
+    private static final Pattern BCRYPT_COST = Pattern.compile("^\\$2[aby]?\\$(\\d\\d)\\$");
+    private static final String METRIC_LATENCY = "password.hashing.latency";
+    private static final String TAG_OPERATION = "operation";
+    private static final String REJECTED = "Password hashing is overloaded, try again later";
+    private final BCryptPasswordEncoder delegate;
+    private final int strength;
+    private final ThreadPoolExecutor executor;
+    private final long timeoutMillis;
+    private final Timer encodeTimer;
+    private final Timer matchesTimer;
+    private final Counter rejected;
+
+    /**
+     * Create the encoder.
+     *
+     * @param strength      bcrypt cost of new hashes
+     * @param threads       hashing threads, the number of cores if not positive
+     * @param queueCapacity hashing requests waiting for a thread
+     * @param timeoutMillis longest time a request waits for its hash
+     * @param meterRegistry meter registry
+     */
+    public BoundedPasswordEncoder(int strength, int threads, int queueCapacity, long timeoutMillis,
+                                  MeterRegistry meterRegistry) {
+        this.delegate = new BCryptPasswordEncoder(strength);
+        this.strength = strength;
+        this.timeoutMillis = timeoutMillis;
+        int poolSize = threads > 0 ? threads : Runtime.getRuntime().availableProcessors();
+        this.executor = new ThreadPoolExecutor(poolSize, poolSize, 0, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(queueCapacity), new HashingThreadFactory(),
+                new ThreadPoolExecutor.AbortPolicy());
+        this.encodeTimer = meterRegistry.timer(METRIC_LATENCY, TAG_OPERATION, "encode");
+        this.matchesTimer = meterRegistry.timer(METRIC_LATENCY, TAG_OPERATION, "matches");
+        this.rejected = meterRegistry.counter("password.hashing.rejected");
+        Gauge.builder("password.hashing.queue.depth", executor, e -> e.getQueue().size()).register(meterRegistry);
+        Gauge.builder("password.hashing.active", executor, ThreadPoolExecutor::getActiveCount)
+                .register(meterRegistry);
+    }
+
+    @Override
+    public String encode(CharSequence rawPassword) {
+        return execute(() -> encodeTimer.recordCallable(() -> delegate.encode(rawPassword)));
+    }
+
+    @Override
+    public boolean matches(CharSequence rawPassword, String encodedPassword) {
+        return execute(() -> matchesTimer.recordCallable(() -> delegate.matches(rawPassword, encodedPassword)));
+    }
+
+    /**
+     * A hash needs an upgrade when its cost differs from the configured strength, both when the strength was raised
+     * and when it was lowered.
+     *
+     * @param encodedPassword stored hash
+     * @return true if the hash should be replaced
+     */
+    @Override
+    public boolean upgradeEncoding(String encodedPassword) {
+        if (encodedPassword == null) {
+            return false;
+        }
+        Matcher matcher = BCRYPT_COST.matcher(encodedPassword);
+        return matcher.find() && Integer.parseInt(matcher.group(1)) != strength;
+    }
+
+    @Override
+    public void close() {
+        executor.shutdown();
+    }
+
+    private <T> T execute(Callable<T> hashing) {
+        Future<T> future;
+        try {
+            future = executor.submit(hashing);
+        } catch (RejectedExecutionException e) {
+            rejected.increment();
+            log.warn("Rejected password hashing, {} requests are waiting", executor.getQueue().size());
+            throw new PasswordHashingRejectedException(REJECTED, e);
+        }
+        try {
+            return future.get(timeoutMillis, TimeUnit.MILLISECONDS);
+        } catch (TimeoutException e) {
+            cancel(future);
+            rejected.increment();
+            throw new PasswordHashingRejectedException(REJECTED, e);
+        } catch (InterruptedException e) {
+            cancel(future);
+            Thread.currentThread().interrupt();
+            throw new PasswordHashingRejectedException("Password hashing was interrupted", e);
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof RuntimeException) {
+                throw (RuntimeException) e.getCause();
+            }
+            throw new IllegalStateException("Password hashing was failed", e.getCause());
+        }
+    }
+
+    /**
+     * Cancels a hashing and frees its place in the queue if it did not start yet.
+     *
+     * @param future hashing
+     */
+    private void cancel(Future<?> future) {
+        future.cancel(false);
+        if (future instanceof Runnable) {
+            executor.remove((Runnable) future);
+        }
+    }
+
+    /**
+     * Names the hashing threads and makes them daemon threads.
+     */
+    private static class HashingThreadFactory implements ThreadFactory {
+
+        private final AtomicInteger count = new AtomicInteger();
+
+        @Override
+        public Thread newThread(Runnable runnable) {
+            Thread thread = new Thread(runnable, "password-hashing-" + count.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        }
+    }
+}
@@ -0,0 +1,26 @@
+package com.swivel.cc.auth.configuration;
+
+import com.swivel.cc.auth.service.ClientDetailsCacheService;
+import org.springframework.security.oauth2.provider.ClientDetails;
+import org.springframework.security.oauth2.provider.ClientDetailsService;
+import org.springframework.security.oauth2.provider.ClientRegistrationException;
+
+/**
+ * Client details service reading the clients through the {@link ClientDetailsCacheService}.
+ */
+public class CachingClientDetailsService implements ClientDetailsService {
+
+    private final ClientDetailsService delegate;
+    private final ClientDetailsCacheService clientDetailsCacheService;
+
+    public CachingClientDetailsService(ClientDetailsService delegate,
+                                       ClientDetailsCacheService clientDetailsCacheService) {
+        this.delegate = delegate;
+        this.clientDetailsCacheService = clientDetailsCacheService;
+    }
+
+    @Override
+    public ClientDetails loadClientByClientId(String clientId) throws ClientRegistrationException {
+        return clientDetailsCacheService.get(clientId, delegate::loadClientByClientId);
+    }
+}
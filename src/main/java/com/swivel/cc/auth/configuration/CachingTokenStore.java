@@ -0,0 +1,164 @@
+package com.swivel.cc.auth.configuration;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.security.oauth2.common.OAuth2AccessToken;
+import org.springframework.security.oauth2.common.OAuth2RefreshToken;
+import org.springframework.security.oauth2.provider.OAuth2Authentication;
+import org.springframework.security.oauth2.provider.token.TokenStore;
+
+import java.time.Duration;
+import java.util.Collection;
+import java.util.Map;
+import java.util.function.Predicate;
+
+/**
+ * Read-through cache in front of the persistent token store.
+ * <p>
+ * Caches the results of readAccessToken/readAuthentication by token value so that authenticated requests do not
+ * hit the token tables on every call. Every remove operation evicts the affected entries before delegating, so a
+ * sign-out or revocation on this node takes effect immediately. Other nodes see it once their entries expire,
+ * which is why the time to live should be kept short.
+ */
+@Slf4j
+public class CachingTokenStore implements TokenStore {
+
+    private final TokenStore delegate;
+    private final Cache<String, OAuth2AccessToken> accessTokens;
+    private final Cache<String, OAuth2Authentication> authentications;
+
+    public CachingTokenStore(TokenStore delegate, long maximumSize, long timeToLiveSeconds) {
+        this.delegate = delegate;
+        this.accessTokens = Caffeine.newBuilder()
+                .maximumSize(maximumSize)
+                .expireAfterWrite(Duration.ofSeconds(timeToLiveSeconds))
+                .build();
+        this.authentications = Caffeine.newBuilder()
+                .maximumSize(maximumSize)
+                .expireAfterWrite(Duration.ofSeconds(timeToLiveSeconds))
+                .build();
+    }
+
+    @Override
+    public OAuth2Authentication readAuthentication(OAuth2AccessToken token) {
+        return readAuthentication(token.getValue());
+    }
+
+    @Override
+    public OAuth2Authentication readAuthentication(String token) {
+        OAuth2Authentication authentication = authentications.get(token, delegate::readAuthentication);
+        return authentication == null ? null : copyOf(authentication);
+    }
+
+    @Override
+    public void storeAccessToken(OAuth2AccessToken token, OAuth2Authentication authentication) {
+        evict(token.getValue());
+        delegate.storeAccessToken(token, authentication);
+    }
+
+    @Override
+    public OAuth2AccessToken readAccessToken(String tokenValue) {
+        return accessTokens.get(tokenValue, delegate::readAccessToken);
+    }
+
+    @Override
+    public void removeAccessToken(OAuth2AccessToken token) {
+        evict(token.getValue());
+        delegate.removeAccessToken(token);
+    }
+
+    @Override
+    public void storeRefreshToken(OAuth2RefreshToken refreshToken, OAuth2Authentication authentication) {
+        delegate.storeRefreshToken(refreshToken, authentication);
+    }
+
+    @Override
+    public OAuth2RefreshToken readRefreshToken(String tokenValue) {
+        return delegate.readRefreshToken(tokenValue);
+    }
+
+    @Override
+    public OAuth2Authentication readAuthenticationForRefreshToken(OAuth2RefreshToken token) {
+        return delegate.readAuthenticationForRefreshToken(token);
+    }
+
+    @Override
+    public void removeRefreshToken(OAuth2RefreshToken token) {
+        evictByRefreshToken(token);
+        delegate.removeRefreshToken(token);
+    }
+
+    @Override
+    public void removeAccessTokenUsingRefreshToken(OAuth2RefreshToken refreshToken) {
+        evictByRefreshToken(refreshToken);
+        delegate.removeAccessTokenUsingRefreshToken(refreshToken);
+    }
+
+    @Override
+    public OAuth2AccessToken getAccessToken(OAuth2Authentication authentication) {
+        return delegate.getAccessToken(authentication);
+    }
+
+    @Override
+    public Collection<OAuth2AccessToken> findTokensByClientIdAndUserName(String clientId, String userName) {
+        return delegate.findTokensByClientIdAndUserName(clientId, userName);
+    }
+
+    @Override
+    public Collection<OAuth2AccessToken> findTokensByClientId(String clientId) {
+        return delegate.findTokensByClientId(clientId);
+    }
+
+    /**
+     * Evict the cached entries of an access token value
+     *
+     * @param tokenValue tokenValue
+     */
+    public void evict(String tokenValue) {
+        accessTokens.invalidate(tokenValue);
+        authentications.invalidate(tokenValue);
+    }
+
+    /**
+     * Evict the cached entries of every cached authentication matching the predicate
+     *
+     * @param predicate predicate
+     */
+    public void evictMatching(Predicate<OAuth2Authentication> predicate) {
+        for (Map.Entry<String, OAuth2Authentication> entry : authentications.asMap().entrySet()) {
+            if (predicate.test(entry.getValue())) {
+                evict(entry.getKey());
+            }
+        }
+    }
+
+    /**
+     * Evict every cached access token which was issued together with the given refresh token
+     *
+     * @param refreshToken refreshToken
+     */
+    private void evictByRefreshToken(OAuth2RefreshToken refreshToken) {
+        for (Map.Entry<String, OAuth2AccessToken> entry : accessTokens.asMap().entrySet()) {
+            OAuth2RefreshToken cachedRefreshToken = entry.getValue().getRefreshToken();
+            if (cachedRefreshToken != null && cachedRefreshToken.getValue().equals(refreshToken.getValue())) {
+                log.debug("Evicting cached access token of a removed refresh token");
+                evict(entry.getKey());
+            }
+        }
+    }
+
+    /**
+     * The resource server sets the request details on the authentication it loads,
+     * so callers get their own instance instead of the shared cached one.
+     *
+     * @param authentication cached authentication
+     * @return copy of the authentication
+     */
+    private OAuth2Authentication copyOf(OAuth2Authentication authentication) {
+        OAuth2Authentication copy = new OAuth2Authentication(authentication.getOAuth2Request(),
+                authentication.getUserAuthentication());
+        copy.setDetails(authentication.getDetails());
+        return copy;
+    }
+}
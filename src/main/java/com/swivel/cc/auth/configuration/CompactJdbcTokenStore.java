@@ -0,0 +1,387 @@
+package com.swivel.cc.auth.configuration;
+
+import com.swivel.cc.auth.domain.AuthUserDetail;
+import com.swivel.cc.auth.domain.entity.Role;
+import com.swivel.cc.auth.domain.entity.User;
+import com.swivel.cc.auth.service.RoleCatalogueService;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.GrantedAuthority;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+import org.springframework.security.oauth2.common.DefaultExpiringOAuth2RefreshToken;
+import org.springframework.security.oauth2.common.DefaultOAuth2AccessToken;
+import org.springframework.security.oauth2.common.DefaultOAuth2RefreshToken;
+import org.springframework.security.oauth2.common.ExpiringOAuth2RefreshToken;
+import org.springframework.security.oauth2.common.OAuth2AccessToken;
+import org.springframework.security.oauth2.common.OAuth2RefreshToken;
+import org.springframework.security.oauth2.common.util.OAuth2Utils;
+import org.springframework.security.oauth2.provider.OAuth2Authentication;
+import org.springframework.security.oauth2.provider.OAuth2Request;
+
+import javax.sql.DataSource;
+import java.io.*;
+import java.util.*;
+import java.util.function.Function;
+
+/**
+ * Jdbc token store which persists tokens and authentications in a compact, versioned binary format instead of
+ * java serialization.
+ * <p>
+ * Only the fields needed to validate and refresh a token are written: token values, expiry, scopes, the string and
+ * number entries of the additional information, client id and the user id with its role id. Authorities are
+ * rehydrated from the {@link RoleCatalogueService} on read, so the principal is a lightweight {@link AuthUserDetail}
+ * carrying the user id and role only. Rows written with java serialization are still read, and
+ * {@link #migrateLegacyRows(int)} rewrites them.
+ */
+@Slf4j
+public class CompactJdbcTokenStore extends BatchJdbcTokenStore {
+
+    private static final byte MAGIC = (byte) 0xC7;
+    private static final byte VERSION = 1;
+    private static final byte PRINCIPAL_NONE = 0;
+    private static final byte PRINCIPAL_USER = 1;
+    private static final byte PRINCIPAL_NAME = 2;
+    private static final byte VALUE_STRING = 1;
+    private static final byte VALUE_NUMBER = 2;
+    private static final long NO_EXPIRY = -1;
+    private static final int NO_ROLE = -1;
+    private static final Set<String> LOGIN_RESPONSE_KEYS = new HashSet<>(Arrays.asList(CustomTokenEnhancer.STATUS,
+            CustomTokenEnhancer.MESSAGE, CustomTokenEnhancer.DATA));
+    private static final String SELECT_ACCESS_TOKENS = "select token_id, token, authentication from " +
+            "oauth_access_token where token_id > ? order by token_id limit ?";
+    private static final String UPDATE_ACCESS_TOKEN = "update oauth_access_token set token = ?, authentication = ? " +
+            "where token_id = ?";
+    private static final String SELECT_REFRESH_TOKENS = "select token_id, token, authentication from " +
+            "oauth_refresh_token where token_id > ? order by token_id limit ?";
+    private static final String UPDATE_REFRESH_TOKEN = "update oauth_refresh_token set token = ?, " +
+            "authentication = ? where token_id = ?";
+    private final RoleCatalogueService roleCatalogueService;
+    private final JdbcTemplate jdbcTemplate;
+
+    public CompactJdbcTokenStore(DataSource dataSource, RoleCatalogueService roleCatalogueService) {
+        super(dataSource);
+        this.roleCatalogueService = roleCatalogueService;
+        this.jdbcTemplate = new JdbcTemplate(dataSource);
+    }
+
+    @Override
+    protected byte[] serializeAccessToken(OAuth2AccessToken token) {
+        return write(out -> {
+            out.writeUTF(token.getValue());
+            out.writeUTF(token.getTokenType());
+            writeDate(out, token.getExpiration());
+            writeRefreshToken(out, token.getRefreshToken());
+            writeStrings(out, token.getScope());
+            writeAdditionalInformation(out, token.getAdditionalInformation());
+        });
+    }
+
+    @Override
+    protected OAuth2AccessToken deserializeAccessToken(byte[] token) {
+        if (!isCompact(token)) {
+            return super.deserializeAccessToken(token);
+        }
+        return read(token, in -> {
+            DefaultOAuth2AccessToken accessToken = new DefaultOAuth2AccessToken(in.readUTF());
+            accessToken.setTokenType(in.readUTF());
+            accessToken.setExpiration(readDate(in));
+            accessToken.setRefreshToken(readRefreshToken(in));
+            accessToken.setScope(readStrings(in));
+            accessToken.setAdditionalInformation(readAdditionalInformation(in));
+            return accessToken;
+        });
+    }
+
+    @Override
+    protected byte[] serializeRefreshToken(OAuth2RefreshToken token) {
+        return write(out -> writeRefreshToken(out, token));
+    }
+
+    @Override
+    protected OAuth2RefreshToken deserializeRefreshToken(byte[] token) {
+        if (!isCompact(token)) {
+            return super.deserializeRefreshToken(token);
+        }
+        return read(token, this::readRefreshToken);
+    }
+
+    @Override
+    protected byte[] serializeAuthentication(OAuth2Authentication authentication) {
+        return write(out -> {
+            OAuth2Request request = authentication.getOAuth2Request();
+            out.writeUTF(request.getClientId());
+            out.writeBoolean(request.isApproved());
+            writeStrings(out, request.getScope());
+            writeStrings(out, request.getResourceIds());
+            writeStrings(out, toNames(request.getAuthorities()));
+            writeNullableString(out, request.getRequestParameters().get(OAuth2Utils.GRANT_TYPE));
+            writeUserAuthentication(out, authentication.getUserAuthentication());
+        });
+    }
+
+    @Override
+    protected OAuth2Authentication deserializeAuthentication(byte[] authentication) {
+        if (!isCompact(authentication)) {
+            return super.deserializeAuthentication(authentication);
+        }
+        return read(authentication, in -> {
+            String clientId = in.readUTF();
+            boolean approved = in.readBoolean();
+            Set<String> scope = readStrings(in);
+            Set<String> resourceIds = readStrings(in);
+            List<GrantedAuthority> clientAuthorities = toAuthorities(readStrings(in));
+            String grantType = readNullableString(in);
+            Map<String, String> parameters = grantType == null ? Collections.emptyMap() :
+                    Collections.singletonMap(OAuth2Utils.GRANT_TYPE, grantType);
+            OAuth2Request request = new OAuth2Request(parameters, clientId, clientAuthorities, approved, scope,
+                    resourceIds, null, null, null);
+            return new OAuth2Authentication(request, readUserAuthentication(in));
+        });
+    }
+
+    /**
+     * Rewrites the java serialized rows of the token tables in the compact format, in batches ordered by token id.
+     * Rows which can not be read any more are left as they are.
+     *
+     * @param batchSize rows read per query
+     * @return number of rewritten rows
+     */
+    public int migrateLegacyRows(int batchSize) {
+        int migrated = migrateTable(SELECT_ACCESS_TOKENS, UPDATE_ACCESS_TOKEN, batchSize,
+                bytes -> serializeAccessToken(deserializeAccessToken(bytes)));
+        migrated += migrateTable(SELECT_REFRESH_TOKENS, UPDATE_REFRESH_TOKEN, batchSize,
+                bytes -> serializeRefreshToken(deserializeRefreshToken(bytes)));
+        return migrated;
+    }
+
+    /**
+     * Rewrite the legacy rows of one token table.
+     *
+     * @param selectSql      keyset select of token_id, token, authentication
+     * @param updateSql      update of token, authentication by token_id
+     * @param batchSize      rows read per query
+     * @param tokenConverter rewrites a token blob
+     * @return number of rewritten rows
+     */
+    private int migrateTable(String selectSql, String updateSql, int batchSize,
+                             Function<byte[], byte[]> tokenConverter) {
+        int migrated = 0;
+        String lastTokenId = "";
+        while (true) {
+            List<Object[]> rows = jdbcTemplate.query(selectSql, (rs, rowNum) -> new Object[]{rs.getString(1),
+                    rs.getBytes(2), rs.getBytes(3)}, lastTokenId, batchSize);
+            List<Object[]> updates = new ArrayList<>();
+            for (Object[] row : rows) {
+                byte[] token = (byte[]) row[1];
+                byte[] authentication = (byte[]) row[2];
+                if (isCompact(token) && isCompact(authentication)) {
+                    continue;
+                }
+                try {
+                    byte[] compactToken = isCompact(token) ? token : tokenConverter.apply(token);
+                    byte[] compactAuthentication = isCompact(authentication) ? authentication :
+                            serializeAuthentication(deserializeAuthentication(authentication));
+                    updates.add(new Object[]{compactToken, compactAuthentication, row[0]});
+                } catch (RuntimeException e) {
+                    log.warn("Skipping token row which can not be deserialized. token_id: {}", row[0], e);
+                }
+            }
+            if (!updates.isEmpty()) {
+                jdbcTemplate.batchUpdate(updateSql, updates);
+                migrated += updates.size();
+            }
+            if (rows.size() < batchSize) {
+                return migrated;
+            }
+            lastTokenId = (String) rows.get(rows.size() - 1)[0];
+        }
+    }
+
+    private void writeUserAuthentication(DataOutputStream out, Authentication userAuthentication) throws IOException {
+        if (userAuthentication == null) {
+            out.writeByte(PRINCIPAL_NONE);
+        } else if (userAuthentication.getPrincipal() instanceof User) {
+            User user = (User) userAuthentication.getPrincipal();
+            out.writeByte(PRINCIPAL_USER);
+            out.writeUTF(user.getId());
+            out.writeInt(user.getRole() == null ? NO_ROLE : user.getRole().getId());
+        } else {
+            out.writeByte(PRINCIPAL_NAME);
+            out.writeUTF(userAuthentication.getName());
+            writeStrings(out, toNames(userAuthentication.getAuthorities()));
+        }
+    }
+
+    private Authentication readUserAuthentication(DataInputStream in) throws IOException {
+        byte principalType = in.readByte();
+        if (principalType == PRINCIPAL_USER) {
+            AuthUserDetail principal = new AuthUserDetail();
+            principal.setId(in.readUTF());
+            principal.setEnabled(true);
+            int roleId = in.readInt();
+            Role role = roleId == NO_ROLE ? null : roleCatalogueService.getRole(roleId);
+            principal.setRole(role);
+            List<GrantedAuthority> authorities = role == null ? Collections.emptyList() :
+                    new ArrayList<>(principal.getAuthorities());
+            return new UsernamePasswordAuthenticationToken(principal, null, authorities);
+        }
+        if (principalType == PRINCIPAL_NAME) {
+            String name = in.readUTF();
+            return new UsernamePasswordAuthenticationToken(name, null, toAuthorities(readStrings(in)));
+        }
+        return null;
+    }
+
+    private void writeRefreshToken(DataOutputStream out, OAuth2RefreshToken refreshToken) throws IOException {
+        out.writeBoolean(refreshToken != null);
+        if (refreshToken != null) {
+            out.writeUTF(refreshToken.getValue());
+            writeDate(out, refreshToken instanceof ExpiringOAuth2RefreshToken ?
+                    ((ExpiringOAuth2RefreshToken) refreshToken).getExpiration() : null);
+        }
+    }
+
+    private OAuth2RefreshToken readRefreshToken(DataInputStream in) throws IOException {
+        if (!in.readBoolean()) {
+            return null;
+        }
+        String value = in.readUTF();
+        Date expiration = readDate(in);
+        return expiration == null ? new DefaultOAuth2RefreshToken(value) :
+                new DefaultExpiringOAuth2RefreshToken(value, expiration);
+    }
+
+    private void writeAdditionalInformation(DataOutputStream out, Map<String, Object> additionalInformation)
+            throws IOException {
+        Map<String, Object> entries = new LinkedHashMap<>();
+        additionalInformation.forEach((key, value) -> {
+            if (!LOGIN_RESPONSE_KEYS.contains(key) && (value instanceof String || value instanceof Number)) {
+                entries.put(key, value);
+            }
+        });
+        out.writeInt(entries.size());
+        for (Map.Entry<String, Object> entry : entries.entrySet()) {
+            out.writeUTF(entry.getKey());
+            if (entry.getValue() instanceof String) {
+                out.writeByte(VALUE_STRING);
+                out.writeUTF((String) entry.getValue());
+            } else {
+                out.writeByte(VALUE_NUMBER);
+                out.writeLong(((Number) entry.getValue()).longValue());
+            }
+        }
+    }
+
+    private Map<String, Object> readAdditionalInformation(DataInputStream in) throws IOException {
+        int size = in.readInt();
+        Map<String, Object> additionalInformation = new LinkedHashMap<>();
+        for (int i = 0; i < size; i++) {
+            String key = in.readUTF();
+            additionalInformation.put(key, in.readByte() == VALUE_STRING ? in.readUTF() : in.readLong());
+        }
+        return additionalInformation;
+    }
+
+    private static void writeDate(DataOutputStream out, Date date) throws IOException {
+        out.writeLong(date == null ? NO_EXPIRY : date.getTime());
+    }
+
+    private static Date readDate(DataInputStream in) throws IOException {
+        long time = in.readLong();
+        return time == NO_EXPIRY ? null : new Date(time);
+    }
+
+    private static void writeStrings(DataOutputStream out, Collection<String> values) throws IOException {
+        if (values == null) {
+            out.writeInt(0);
+            return;
+        }
+        out.writeInt(values.size());
+        for (String value : values) {
+            out.writeUTF(value);
+        }
+    }
+
+    private static Set<String> readStrings(DataInputStream in) throws IOException {
+        int size = in.readInt();
+        Set<String> values = new LinkedHashSet<>();
+        for (int i = 0; i < size; i++) {
+            values.add(in.readUTF());
+        }
+        return values;
+    }
+
+    private static void writeNullableString(DataOutputStream out, String value) throws IOException {
+        out.writeBoolean(value != null);
+        if (value != null) {
+            out.writeUTF(value);
+        }
+    }
+
+    private static String readNullableString(DataInputStream in) throws IOException {
+        return in.readBoolean() ? in.readUTF() : null;
+    }
+
+    private static List<String> toNames(Collection<? extends GrantedAuthority> authorities) {
+        List<String> names = new ArrayList<>();
+        if (authorities != null) {
+            authorities.forEach(authority -> names.add(authority.getAuthority()));
+        }
+        return names;
+    }
+
+    private static List<GrantedAuthority> toAuthorities(Collection<String> names) {
+        List<GrantedAuthority> authorities = new ArrayList<>();
+        names.forEach(name -> authorities.add(new SimpleGrantedAuthority(name)));
+        return authorities;
+    }
+
+    /**
+     * Compact rows start with the magic byte, java serialized rows with 0xACED.
+     *
+     * @param bytes stored bytes
+     * @return true if the bytes are in the compact format
+     */
+    private static boolean isCompact(byte[] bytes) {
+        return bytes != null && bytes.length > 1 && bytes[0] == MAGIC;
+    }
+
+    private static byte[] write(BinaryWriter writer) {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream(256);
+        try (DataOutputStream out = new DataOutputStream(bytes)) {
+            out.writeByte(MAGIC);
+            out.writeByte(VERSION);
+            writer.write(out);
+        } catch (IOException e) {
+            throw new IllegalStateException("Writing to a byte array failed", e);
+        }
+        return bytes.toByteArray();
+    }
+
+    private static <T> T read(byte[] bytes, BinaryReader<T> reader) {
+        try (DataInputStream in = new DataInputStream(new ByteArrayInputStream(bytes))) {
+            in.readByte();
+            byte version = in.readByte();
+            if (version != VERSION) {
+                log.warn("Unsupported token format version: {}", version);
+                return null;
+            }
+            return reader.read(in);
+        } catch (IOException e) {
+            log.warn("Failed to deserialize compact token", e);
+            return null;
+        }
+    }
+
+    @FunctionalInterface
+    private interface BinaryWriter {
+        void write(DataOutputStream out) throws IOException;
+    }
+
+    @FunctionalInterface
+    private interface BinaryReader<T> {
+        T read(DataInputStream in) throws IOException;
+    }
+}
@@ -1,45 +1,53 @@
 package com.swivel.cc.auth.configuration;
 
 import com.swivel.cc.auth.domain.Data;
-import com.swivel.cc.auth.domain.ResourcePermission;
-import com.swivel.cc.auth.domain.entity.Resource;
+import com.swivel.cc.auth.domain.entity.MerchantReadModel;
 import com.swivel.cc.auth.domain.entity.User;
 import com.swivel.cc.auth.enums.RoleType;
-import com.swivel.cc.auth.exception.AuthServiceException;
-import com.swivel.cc.auth.repository.ResourceRepository;
 import com.swivel.cc.auth.service.MerchantService;
-import com.swivel.cc.auth.util.ListUtils;
-import com.swivel.cc.auth.wrapper.PermissionsWrapper;
-import com.swivel.cc.auth.wrapper.RoleResponseWrapper;
+import com.swivel.cc.auth.service.RoleResponseCacheService;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Autowired;
-import org.springframework.dao.DataAccessException;
 import org.springframework.security.oauth2.common.DefaultOAuth2AccessToken;
 import org.springframework.security.oauth2.common.OAuth2AccessToken;
 import org.springframework.security.oauth2.provider.OAuth2Authentication;
 import org.springframework.security.oauth2.provider.token.TokenEnhancer;
 
 import java.util.HashMap;
-import java.util.List;
 import java.util.Map;
-import java.util.stream.Collectors;
 
 /**
- * Binding additional properties to the token
+ * Binding additional properties to the token. The token is also stamped with the permissions version of the role
+ * of the user, see {@link PermissionVersionResolver}.
  */
 
 @Slf4j
 public class CustomTokenEnhancer implements TokenEnhancer {
 
+    public static final String STATUS = "status";
+    public static final String MESSAGE = "message";
+    public static final String DATA = "data";
+    public static final String ROLE_PERMISSIONS_PARAMETER = "role_permissions";
+    public static final String ROLE_PERMISSIONS_COMPACT = "compact";
+    public static final String PERMISSIONS_VERSION = "permissions_version";
     private static final String SUCCESS_MESSAGE = "Successfully logged-in the user";
-    private static final String ERROR_TOKEN = "Error retrieving resources";
-    private final ResourceRepository resourceRepository;
+    private final RoleResponseCacheService roleResponseCacheService;
     private final MerchantService merchantService;
+    private final String defaultRolePermissions;
 
+    /**
+     * Create the enhancer of the login responses.
+     *
+     * @param roleResponseCacheService role response cache
+     * @param merchantService          merchant service
+     * @param defaultRolePermissions   full or compact, used when the token request has no role_permissions parameter
+     */
     @Autowired
-    public CustomTokenEnhancer(ResourceRepository resourceRepository, MerchantService merchantService) {
-        this.resourceRepository = resourceRepository;
+    public CustomTokenEnhancer(RoleResponseCacheService roleResponseCacheService, MerchantService merchantService,
+                               String defaultRolePermissions) {
+        this.roleResponseCacheService = roleResponseCacheService;
         this.merchantService = merchantService;
+        this.defaultRolePermissions = defaultRolePermissions;
     }
 
     @Override
@@ -47,7 +55,7 @@ public class CustomTokenEnhancer implements TokenEnhancer {
                                      OAuth2Authentication oAuth2Authentication) {
         Data data = new Data();
         User user = (User) oAuth2Authentication.getPrincipal();
-        final Map<String, Object> additionalInfo = new HashMap<>();
+        final Map<String, Object> additionalInfo = new HashMap<>(oAuth2AccessToken.getAdditionalInformation());
         data.setFullName(user.getFullName());
         data.setImageUrl(user.getImageUrl());
         data.setLanguage(user.getLanguage());
@@ -55,54 +63,47 @@ public class CustomTokenEnhancer implements TokenEnhancer {
         data.setApprovalStatus(user.getApprovalStatus());
         data.setActive(true);
         if (user.getRole().getId() == RoleType.MERCHANT.getId() || user.getRole().getId() == RoleType.BANK.getId()) {
-            data.setActive(merchantService.isMerchantOrBankActive(user.getId()));
-            data.setBusinessProfile(
-                    merchantService.getMerchantOrBankLoginResponse(user.getId(), user.getRole().getName()));
+            MerchantReadModel merchantReadModel = merchantService.getMerchantReadModel(user.getId()).orElse(null);
+            data.setActive(merchantReadModel != null && merchantReadModel.isActive());
+            data.setBusinessProfile(merchantService.getMerchantOrBankLoginResponse(merchantReadModel));
+        }
+        setRolePermissions(data, user, isCompact(oAuth2Authentication));
+        if (data.getRole() != null) {
+            additionalInfo.put(PERMISSIONS_VERSION, data.getRole().getPermissionsVersion());
         }
-        setRolePermissions(data, user);
         data.setAccessToken(oAuth2AccessToken.getValue());
         data.setTokenType(oAuth2AccessToken.getTokenType());
-        additionalInfo.put("status", "SUCCESS");
-        additionalInfo.put("message", SUCCESS_MESSAGE);
-        additionalInfo.put("data", data);
+        additionalInfo.put(STATUS, "SUCCESS");
+        additionalInfo.put(MESSAGE, SUCCESS_MESSAGE);
+        additionalInfo.put(DATA, data);
         ((DefaultOAuth2AccessToken) oAuth2AccessToken).setAdditionalInformation(additionalInfo);
         return oAuth2AccessToken;
     }
 
     /**
-     * Set the role and permissions to login response
+     * Set the role and permissions to login response, the payload of each role is cached. The compact payload only
+     * carries the version of the permissions, which the client fetches from the roles endpoint when it changed.
      *
-     * @param data data
-     * @param user user
+     * @param data    data
+     * @param user    user
+     * @param compact compact
      */
-    private void setRolePermissions(Data data, User user) {
+    private void setRolePermissions(Data data, User user, boolean compact) {
         if (user.getRole() != null) {
-            List<Resource> allResources = getAllResource();
-            RoleResponseWrapper roleResponseWrapper = new RoleResponseWrapper();
-            roleResponseWrapper.setId(user.getRole().getId());
-            roleResponseWrapper.setName(user.getRole().getName());
-            PermissionsWrapper permissionsWrapper = new PermissionsWrapper(user.getRole().getPermissions());
-            permissionsWrapper.attachResources(allResources);
-            List<ResourcePermission> collect = permissionsWrapper
-                    .getResourcePermissions()
-                    .stream().filter(ListUtils.distinctByKey(ResourcePermission::getResourceId))
-                    .collect(Collectors.toList());
-            roleResponseWrapper.setPermissions(collect);
-            data.setRole(roleResponseWrapper);
+            data.setRole(compact ? roleResponseCacheService.getCompactRoleResponse(user.getRole()) :
+                    roleResponseCacheService.getRoleResponse(user.getRole()));
         }
     }
 
     /**
-     * Get all resources
+     * Checks whether the compact role payload was requested, a refreshed token keeps the choice of the login.
      *
-     * @return list of resources
+     * @param oAuth2Authentication authentication
+     * @return true for the compact payload
      */
-    private List<Resource> getAllResource() {
-        try {
-            return resourceRepository.findAll();
-        } catch (DataAccessException e) {
-            log.error(ERROR_TOKEN, e);
-            throw new AuthServiceException(ERROR_TOKEN);
-        }
+    private boolean isCompact(OAuth2Authentication oAuth2Authentication) {
+        String rolePermissions = oAuth2Authentication.getOAuth2Request().getRequestParameters()
+                .get(ROLE_PERMISSIONS_PARAMETER);
+        return ROLE_PERMISSIONS_COMPACT.equals(rolePermissions == null ? defaultRolePermissions : rolePermissions);
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,137 @@
+package com.swivel.cc.auth.configuration;
+
+import com.swivel.cc.auth.service.LoginThrottleService;
+import com.swivel.cc.auth.util.FilterErrorResponseGenerator;
+import com.swivel.cc.auth.util.Validator;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.security.SecurityProperties;
+import org.springframework.boot.web.servlet.FilterRegistrationBean;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Registers the servlet filters of the auth service. The filters are created here rather than declared as beans, so
+ * each one is registered only on its own url patterns.
+ */
+@Configuration
+public class FilterConfiguration {
+
+    private static final String ALL_PATHS = "/*";
+    private static final String TOKEN_ENDPOINT = "/oauth/token";
+    private static final String PSW_FIELD = "password";
+    private static final String REFRESH_TOKEN = "refresh_token";
+
+    private final Validator validator;
+    private final FilterErrorResponseGenerator errorResponseGenerator;
+
+    @Autowired
+    public FilterConfiguration(Validator validator, FilterErrorResponseGenerator errorResponseGenerator) {
+        this.validator = validator;
+        this.errorResponseGenerator = errorResponseGenerator;
+    }
+
+    /**
+     * Registering the request pre-filter, after the security filters so the access token of the request is loaded.
+     *
+     * @param applicationKey app key of the internal services
+     * @return FilterRegistrationBean
+     */
+    @Bean
+    public FilterRegistrationBean<RequestPreFilter> requestPreFilter(
+            @Value("${spring.application.app-key}") String applicationKey) {
+        FilterRegistrationBean<RequestPreFilter> preFilterRegistrationBean =
+                new FilterRegistrationBean<>(new RequestPreFilter(validator, errorResponseGenerator, applicationKey));
+        preFilterRegistrationBean.addUrlPatterns(ALL_PATHS);
+        preFilterRegistrationBean.setOrder(SecurityProperties.DEFAULT_FILTER_ORDER + 1);
+        return preFilterRegistrationBean;
+    }
+
+    /**
+     * Registering the concurrency limit of the token endpoint, ahead of the security filters so rejected requests
+     * do not hash the client secret.
+     *
+     * @param meterRegistry meter registry
+     * @param enabled       enabled
+     * @param minLimit      lowest limit of each limiter
+     * @param passwordLimit highest limit of the password grant
+     * @param refreshLimit  highest limit of the refresh_token grant
+     * @param otherLimit    highest limit of the other grant types
+     * @param clientLimits  highest limits by client id, as client=limit pairs separated by commas
+     * @param clientLimit   highest limit of the other clients
+     * @param latency       latency in milliseconds above which the limits are decreased
+     * @param backoffRatio  factor applied to a limit on a decrease
+     * @param queueTimeout  longest time in milliseconds a request waits for a slot
+     * @param retryAfter    Retry-After seconds of a rejected request
+     * @return FilterRegistrationBean
+     */
+    @Bean
+    public FilterRegistrationBean<TokenConcurrencyLimitFilter> tokenConcurrencyLimitFilter(
+            MeterRegistry meterRegistry,
+            @Value("${application.token-concurrency-limit.enabled}") boolean enabled,
+            @Value("${application.token-concurrency-limit.min-limit}") int minLimit,
+            @Value("${application.token-concurrency-limit.password-max-limit}") int passwordLimit,
+            @Value("${application.token-concurrency-limit.refresh-token-max-limit}") int refreshLimit,
+            @Value("${application.token-concurrency-limit.other-grant-max-limit}") int otherLimit,
+            @Value("${application.token-concurrency-limit.client-max-limits}") String clientLimits,
+            @Value("${application.token-concurrency-limit.default-client-max-limit}") int clientLimit,
+            @Value("${application.token-concurrency-limit.latency-threshold-millis}") long latency,
+            @Value("${application.token-concurrency-limit.backoff-ratio}") double backoffRatio,
+            @Value("${application.token-concurrency-limit.queue-timeout-millis}") long queueTimeout,
+            @Value("${application.token-concurrency-limit.retry-after-seconds}") long retryAfter) {
+        Map<String, AdaptiveConcurrencyLimiter> grantTypeLimiters = new HashMap<>();
+        grantTypeLimiters.put(PSW_FIELD, new AdaptiveConcurrencyLimiter("grant:" + PSW_FIELD, minLimit,
+                passwordLimit, latency, backoffRatio, meterRegistry));
+        grantTypeLimiters.put(REFRESH_TOKEN, new AdaptiveConcurrencyLimiter("grant:" + REFRESH_TOKEN, minLimit,
+                refreshLimit, latency, backoffRatio, meterRegistry));
+        Map<String, AdaptiveConcurrencyLimiter> clientLimiters = new HashMap<>();
+        for (String clientMaxLimit : clientLimits.split(",")) {
+            String[] pair = clientMaxLimit.split("=");
+            if (pair.length == 2) {
+                clientLimiters.put(pair[0].trim(), new AdaptiveConcurrencyLimiter("client:" + pair[0].trim(),
+                        minLimit, Integer.parseInt(pair[1].trim()), latency, backoffRatio, meterRegistry));
+            }
+        }
+        TokenConcurrencyLimitFilter filter = new TokenConcurrencyLimitFilter(grantTypeLimiters,
+                new AdaptiveConcurrencyLimiter("grant:other", minLimit, otherLimit, latency, backoffRatio,
+                        meterRegistry),
+                clientLimiters,
+                new AdaptiveConcurrencyLimiter("client:other", minLimit, clientLimit, latency, backoffRatio,
+                        meterRegistry),
+                queueTimeout, retryAfter, errorResponseGenerator);
+
+        FilterRegistrationBean<TokenConcurrencyLimitFilter> limitFilterRegistrationBean =
+                new FilterRegistrationBean<>(filter);
+        limitFilterRegistrationBean.addUrlPatterns(TOKEN_ENDPOINT);
+        limitFilterRegistrationBean.setOrder(SecurityProperties.DEFAULT_FILTER_ORDER - 1);
+        limitFilterRegistrationBean.setEnabled(enabled);
+        return limitFilterRegistrationBean;
+    }
+
+    /**
+     * Registering the login throttle of the token endpoint and the password reset, ahead of the concurrency limit so
+     * throttled requests do not take a slot.
+     *
+     * @param loginThrottleService login throttle
+     * @param enabled              enabled
+     * @param clientIpHeader       header the proxy appends the client ip to
+     * @return FilterRegistrationBean
+     */
+    @Bean
+    public FilterRegistrationBean<LoginThrottleFilter> loginThrottleFilter(
+            LoginThrottleService loginThrottleService,
+            @Value("${application.login-throttle.enabled}") boolean enabled,
+            @Value("${application.login-throttle.client-ip-header}") String clientIpHeader) {
+        FilterRegistrationBean<LoginThrottleFilter> throttleFilterRegistrationBean = new FilterRegistrationBean<>(
+                new LoginThrottleFilter(loginThrottleService, errorResponseGenerator, clientIpHeader));
+        throttleFilterRegistrationBean.addUrlPatterns(TOKEN_ENDPOINT,
+                ResourceServerConfiguration.RESET_PASSWORD_ENDPOINT);
+        throttleFilterRegistrationBean.setOrder(SecurityProperties.DEFAULT_FILTER_ORDER - 2);
+        throttleFilterRegistrationBean.setEnabled(enabled);
+        return throttleFilterRegistrationBean;
+    }
+}
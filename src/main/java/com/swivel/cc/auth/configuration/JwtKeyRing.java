@@ -0,0 +1,124 @@
+package com.swivel.cc.auth.configuration;
+
+import com.swivel.cc.auth.exception.AuthServiceException;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.core.io.Resource;
+import org.springframework.security.jwt.crypto.sign.RsaSigner;
+import org.springframework.security.jwt.crypto.sign.RsaVerifier;
+import org.springframework.security.jwt.crypto.sign.SignatureVerifier;
+import org.springframework.security.jwt.crypto.sign.Signer;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.math.BigInteger;
+import java.security.GeneralSecurityException;
+import java.security.Key;
+import java.security.KeyStore;
+import java.security.PublicKey;
+import java.security.cert.Certificate;
+import java.security.interfaces.RSAPrivateKey;
+import java.security.interfaces.RSAPublicKey;
+import java.util.*;
+
+/**
+ * RSA keys used to sign and verify jwt access tokens.
+ * <p>
+ * Every alias of the key store is a key id. Tokens are signed with the active key only, but all keys are
+ * published on the jwk set endpoint so tokens signed with a previous key stay verifiable. To rotate, add the new key
+ * to the key store and deploy, switch the active key id once consumers have picked up the new jwk set, and remove the
+ * old alias after the longest access token validity has passed.
+ */
+@Slf4j
+@Component
+@ConditionalOnProperty(name = "application.token-format", havingValue = "jwt")
+public class JwtKeyRing {
+
+    private static final String KEY_STORE_TYPE = "PKCS12";
+    private static final String ALGORITHM = "RS256";
+    private final String activeKeyId;
+    private final Signer activeSigner;
+    private final Map<String, RSAPublicKey> publicKeys = new LinkedHashMap<>();
+    private final Map<String, SignatureVerifier> verifiers = new HashMap<>();
+
+    public JwtKeyRing(@Value("${application.jwt.key-store}") Resource keyStore,
+                      @Value("${application.jwt.key-store-password}") String keyStorePassword,
+                      @Value("${application.jwt.active-key-id}") String activeKeyId) {
+        this.activeKeyId = activeKeyId;
+        char[] password = keyStorePassword.toCharArray();
+        try (InputStream inputStream = keyStore.getInputStream()) {
+            KeyStore store = KeyStore.getInstance(KEY_STORE_TYPE);
+            store.load(inputStream, password);
+            for (String alias : Collections.list(store.aliases())) {
+                Certificate certificate = store.getCertificate(alias);
+                PublicKey publicKey = certificate == null ? null : certificate.getPublicKey();
+                if (publicKey instanceof RSAPublicKey) {
+                    publicKeys.put(alias, (RSAPublicKey) publicKey);
+                    verifiers.put(alias, new RsaVerifier((RSAPublicKey) publicKey));
+                }
+            }
+            Key activeKey = store.getKey(activeKeyId, password);
+            if (!(activeKey instanceof RSAPrivateKey)) {
+                throw new AuthServiceException("No RSA private key found for active key id: " + activeKeyId);
+            }
+            this.activeSigner = new RsaSigner((RSAPrivateKey) activeKey);
+        } catch (IOException | GeneralSecurityException e) {
+            throw new AuthServiceException("Loading jwt signing keys was failed.", e);
+        }
+        log.info("Loaded jwt keys: {}, active key id: {}", publicKeys.keySet(), activeKeyId);
+    }
+
+    public String getActiveKeyId() {
+        return activeKeyId;
+    }
+
+    public Signer getActiveSigner() {
+        return activeSigner;
+    }
+
+    /**
+     * Returns the verifier of a key id, or null for an unknown key id.
+     *
+     * @param keyId key id
+     * @return signature verifier
+     */
+    public SignatureVerifier getVerifier(String keyId) {
+        return keyId == null ? null : verifiers.get(keyId);
+    }
+
+    /**
+     * Returns the public keys as a jwk set (RFC 7517).
+     *
+     * @return jwk set
+     */
+    public Map<String, Object> getJwkSet() {
+        List<Map<String, Object>> keys = new ArrayList<>();
+        publicKeys.forEach((keyId, publicKey) -> {
+            Map<String, Object> key = new LinkedHashMap<>();
+            key.put("kty", "RSA");
+            key.put("kid", keyId);
+            key.put("use", "sig");
+            key.put("alg", ALGORITHM);
+            key.put("n", base64UrlUnsigned(publicKey.getModulus()));
+            key.put("e", base64UrlUnsigned(publicKey.getPublicExponent()));
+            keys.add(key);
+        });
+        return Collections.singletonMap("keys", keys);
+    }
+
+    /**
+     * Base64url encoding of the unsigned big-endian value, as required for jwk parameters.
+     *
+     * @param value value
+     * @return encoded value
+     */
+    private static String base64UrlUnsigned(BigInteger value) {
+        byte[] bytes = value.toByteArray();
+        if (bytes.length > 1 && bytes[0] == 0) {
+            bytes = Arrays.copyOfRange(bytes, 1, bytes.length);
+        }
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(bytes);
+    }
+}
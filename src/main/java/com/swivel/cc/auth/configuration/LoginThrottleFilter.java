@@ -0,0 +1,103 @@
+package com.swivel.cc.auth.configuration;
+
+import com.swivel.cc.auth.enums.ErrorResponseStatusType;
+import com.swivel.cc.auth.service.LoginThrottleService;
+import com.swivel.cc.auth.util.FilterErrorResponseGenerator;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
+
+import javax.servlet.Filter;
+import javax.servlet.FilterChain;
+import javax.servlet.ServletException;
+import javax.servlet.ServletRequest;
+import javax.servlet.ServletResponse;
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Throttles password logins on the token endpoint and password resets by their failures.
+ * <p>
+ * A request of a blocked username or client ip is answered with 429 and a Retry-After header, before the user is
+ * read and the password is hashed. The outcome of the other requests is recorded from their response status: a
+ * rejected login or reset token counts as a failure, a successful login clears the failures of its username. The
+ * password reset request carries no username, so resets are throttled by client ip only.
+ */
+@Slf4j
+public class LoginThrottleFilter implements Filter {
+
+    private static final String TOKEN_ENDPOINT = "/oauth/token";
+    private static final String GRANT_TYPE = "grant_type";
+    private static final String PSW_GRANT = "password";
+    private static final String USERNAME = "username";
+    private final LoginThrottleService loginThrottleService;
+    private final FilterErrorResponseGenerator errorResponseGenerator;
+    private final String clientIpHeader;
+
+    /**
+     * Create the filter.
+     *
+     * @param loginThrottleService   login throttle
+     * @param errorResponseGenerator error response generator
+     * @param clientIpHeader         header the proxy appends the client ip to, empty to use the remote address
+     */
+    public LoginThrottleFilter(LoginThrottleService loginThrottleService,
+                               FilterErrorResponseGenerator errorResponseGenerator, String clientIpHeader) {
+        this.loginThrottleService = loginThrottleService;
+        this.errorResponseGenerator = errorResponseGenerator;
+        this.clientIpHeader = clientIpHeader == null || clientIpHeader.trim().isEmpty() ? null :
+                clientIpHeader.trim();
+    }
+
+    @Override
+    public void doFilter(ServletRequest servletRequest, ServletResponse servletResponse,
+                         FilterChain filterChain) throws IOException, ServletException {
+
+        HttpServletRequest request = (HttpServletRequest) servletRequest;
+        HttpServletResponse response = (HttpServletResponse) servletResponse;
+        boolean login = TOKEN_ENDPOINT.equals(request.getServletPath());
+        if (login ? !PSW_GRANT.equals(request.getParameter(GRANT_TYPE)) :
+                !HttpMethod.PUT.matches(request.getMethod())) {
+            filterChain.doFilter(servletRequest, servletResponse);
+            return;
+        }
+
+        String username = login ? request.getParameter(USERNAME) : null;
+        String clientIp = getClientIp(request);
+        long retryAfterMillis = loginThrottleService.getRetryAfterMillis(username, clientIp);
+        if (retryAfterMillis > 0) {
+            log.debug("Rejected throttled {} request of ip: {}", login ? "login" : "password reset", clientIp);
+            response.setHeader(HttpHeaders.RETRY_AFTER,
+                    String.valueOf(TimeUnit.MILLISECONDS.toSeconds(retryAfterMillis + 999)));
+            errorResponseGenerator.sendErrorResponse(response, ErrorResponseStatusType.TOO_MANY_REQUESTS,
+                    HttpStatus.TOO_MANY_REQUESTS);
+            return;
+        }
+
+        filterChain.doFilter(servletRequest, servletResponse);
+        int status = response.getStatus();
+        if (status == HttpStatus.BAD_REQUEST.value() || status == HttpStatus.UNAUTHORIZED.value()) {
+            loginThrottleService.recordFailure(username, clientIp);
+        } else if (login && status == HttpStatus.OK.value()) {
+            loginThrottleService.recordSuccess(username);
+        }
+    }
+
+    /**
+     * Returns the client ip. Behind a proxy the last address of the configured header is the one the proxy added,
+     * the addresses before it are sent by the client and can not be trusted.
+     *
+     * @param request request
+     * @return client ip
+     */
+    private String getClientIp(HttpServletRequest request) {
+        String forwardedFor = clientIpHeader == null ? null : request.getHeader(clientIpHeader);
+        if (forwardedFor == null || forwardedFor.trim().isEmpty()) {
+            return request.getRemoteAddr();
+        }
+        return forwardedFor.substring(forwardedFor.lastIndexOf(',') + 1).trim();
+    }
+}
@@ -0,0 +1,88 @@
+package com.swivel.cc.auth.configuration;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.springframework.security.crypto.password.PasswordEncoder;
+
+import javax.crypto.Mac;
+import javax.crypto.spec.SecretKeySpec;
+import java.nio.charset.StandardCharsets;
+import java.security.GeneralSecurityException;
+import java.security.MessageDigest;
+import java.security.SecureRandom;
+import java.time.Duration;
+
+/**
+ * Password encoder of the client secrets, remembering the secrets verified recently.
+ * <p>
+ * After a successful verification a HMAC of the presented secret is kept under the stored hash, with a key generated
+ * at startup that never leaves the process. A later request presenting the same secret is verified by comparing the
+ * HMAC in constant time instead of running bcrypt again. Only successful verifications are remembered, and a changed
+ * secret has another stored hash, so it never matches a remembered one.
+ */
+public class MemoizingSecretEncoder implements PasswordEncoder {
+
+    private static final String HMAC_SHA_256 = "HmacSHA256";
+    private static final int KEY_LENGTH = 32;
+    private final PasswordEncoder delegate;
+    private final SecretKeySpec key;
+    private final Cache<String, byte[]> verifiedSecrets;
+
+    /**
+     * Create the encoder.
+     *
+     * @param delegate          encoder of the stored hashes
+     * @param timeToLiveSeconds how long a verified secret is remembered
+     * @param meterRegistry     meter registry
+     */
+    public MemoizingSecretEncoder(PasswordEncoder delegate, long timeToLiveSeconds, MeterRegistry meterRegistry) {
+        this.delegate = delegate;
+        byte[] keyBytes = new byte[KEY_LENGTH];
+        new SecureRandom().nextBytes(keyBytes);
+        this.key = new SecretKeySpec(keyBytes, HMAC_SHA_256);
+        this.verifiedSecrets = CaffeineCacheMetrics.monitor(meterRegistry, Caffeine.newBuilder()
+                .maximumSize(1000)
+                .expireAfterWrite(Duration.ofSeconds(timeToLiveSeconds))
+                .recordStats()
+                .<String, byte[]>build(), "oauth.client-secrets");
+    }
+
+    @Override
+    public String encode(CharSequence rawPassword) {
+        return delegate.encode(rawPassword);
+    }
+
+    @Override
+    public boolean matches(CharSequence rawPassword, String encodedPassword) {
+        if (rawPassword == null || encodedPassword == null) {
+            return delegate.matches(rawPassword, encodedPassword);
+        }
+        byte[] mac = mac(rawPassword);
+        byte[] verified = verifiedSecrets.getIfPresent(encodedPassword);
+        if (verified != null && MessageDigest.isEqual(verified, mac)) {
+            return true;
+        }
+        if (delegate.matches(rawPassword, encodedPassword)) {
+            verifiedSecrets.put(encodedPassword, mac);
+            return true;
+        }
+        return false;
+    }
+
+    @Override
+    public boolean upgradeEncoding(String encodedPassword) {
+        return delegate.upgradeEncoding(encodedPassword);
+    }
+
+    private byte[] mac(CharSequence rawPassword) {
+        try {
+            Mac hmac = Mac.getInstance(HMAC_SHA_256);
+            hmac.init(key);
+            return hmac.doFinal(rawPassword.toString().getBytes(StandardCharsets.UTF_8));
+        } catch (GeneralSecurityException e) {
+            throw new IllegalStateException("HmacSHA256 algorithm not available.", e);
+        }
+    }
+}
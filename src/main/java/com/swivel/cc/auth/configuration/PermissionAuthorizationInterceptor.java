@@ -0,0 +1,41 @@
+package com.swivel.cc.auth.configuration;
+
+import com.swivel.cc.auth.service.PermissionAuthorizationService;
+import org.springframework.http.HttpMethod;
+import org.springframework.security.access.AccessDeniedException;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.web.method.HandlerMethod;
+import org.springframework.web.servlet.HandlerInterceptor;
+import org.springframework.web.servlet.HandlerMapping;
+
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+import java.util.Collections;
+
+/**
+ * Checks the request against the permission grants of the roles in its token, once the request is mapped to an
+ * endpoint. A denied request is answered by the security filters, like any other access denied.
+ */
+public class PermissionAuthorizationInterceptor implements HandlerInterceptor {
+
+    private final PermissionAuthorizationService permissionAuthorizationService;
+
+    public PermissionAuthorizationInterceptor(PermissionAuthorizationService permissionAuthorizationService) {
+        this.permissionAuthorizationService = permissionAuthorizationService;
+    }
+
+    @Override
+    public boolean preHandle(HttpServletRequest request, HttpServletResponse response, Object handler) {
+        if (!(handler instanceof HandlerMethod)) {
+            return true;
+        }
+        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+        if (!permissionAuthorizationService.isAllowed(HttpMethod.resolve(request.getMethod()),
+                (String) request.getAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE),
+                authentication == null ? Collections.emptyList() : authentication.getAuthorities())) {
+            throw new AccessDeniedException("Access is denied");
+        }
+        return true;
+    }
+}
@@ -0,0 +1,78 @@
+package com.swivel.cc.auth.configuration;
+
+import com.swivel.cc.auth.domain.AuthUserDetail;
+import com.swivel.cc.auth.domain.entity.Role;
+import com.swivel.cc.auth.domain.entity.User;
+import com.swivel.cc.auth.exception.AuthServiceException;
+import com.swivel.cc.auth.service.RoleCatalogueService;
+import com.swivel.cc.auth.service.RoleResponseCacheService;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.oauth2.common.OAuth2AccessToken;
+import org.springframework.security.oauth2.provider.OAuth2Authentication;
+
+import java.util.ArrayList;
+
+/**
+ * Re-resolves the authorities of access tokens issued before the permissions of their role changed.
+ * <p>
+ * Every access token is stamped with the permissions version of the role of its user by {@link CustomTokenEnhancer},
+ * and the current version of every role is kept in memory by the {@link RoleResponseCacheService}. A token whose
+ * stamp differs from the current version gets the role read again from the {@link RoleCatalogueService} when it is
+ * used, so editing the permissions of a role does not require revoking the tokens of its users.
+ */
+@Slf4j
+public class PermissionVersionResolver {
+
+    private final RoleResponseCacheService roleResponseCacheService;
+    private final RoleCatalogueService roleCatalogueService;
+
+    public PermissionVersionResolver(RoleResponseCacheService roleResponseCacheService,
+                                     RoleCatalogueService roleCatalogueService) {
+        this.roleResponseCacheService = roleResponseCacheService;
+        this.roleCatalogueService = roleCatalogueService;
+    }
+
+    /**
+     * This method returns the authentication of an access token with the current permissions of its role. The given
+     * authentication is returned as it is when the token carries the current version, has no user with a role, or the
+     * current role can not be read.
+     *
+     * @param accessToken    access token
+     * @param authentication stored authentication of the access token
+     * @return authentication with the current permissions
+     */
+    public OAuth2Authentication resolve(OAuth2AccessToken accessToken, OAuth2Authentication authentication) {
+        Authentication userAuthentication = authentication.getUserAuthentication();
+        if (userAuthentication == null || !(userAuthentication.getPrincipal() instanceof User)) {
+            return authentication;
+        }
+        User user = (User) userAuthentication.getPrincipal();
+        if (user.getRole() == null) {
+            return authentication;
+        }
+        int roleId = user.getRole().getId();
+        try {
+            String currentVersion = roleResponseCacheService.getPermissionsVersion(roleId);
+            if (currentVersion == null || currentVersion.equals(accessToken.getAdditionalInformation()
+                    .get(CustomTokenEnhancer.PERMISSIONS_VERSION))) {
+                return authentication;
+            }
+            Role role = roleCatalogueService.getRole(roleId);
+            if (role == null) {
+                return authentication;
+            }
+            AuthUserDetail principal = new AuthUserDetail(user);
+            principal.setRole(role);
+            UsernamePasswordAuthenticationToken resolvedUserAuthentication = new UsernamePasswordAuthenticationToken(
+                    principal, null, new ArrayList<>(principal.getAuthorities()));
+            resolvedUserAuthentication.setDetails(userAuthentication.getDetails());
+            log.debug("Re-resolved the permissions of role: {} for user: {}", roleId, user.getId());
+            return new OAuth2Authentication(authentication.getOAuth2Request(), resolvedUserAuthentication);
+        } catch (AuthServiceException e) {
+            log.warn("Re-resolving the permissions of role: {} was failed, using the stored permissions", roleId, e);
+            return authentication;
+        }
+    }
+}
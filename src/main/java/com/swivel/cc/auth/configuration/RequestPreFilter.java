@@ -0,0 +1,299 @@
+package com.swivel.cc.auth.configuration;
+
+import com.swivel.cc.auth.domain.AuthUserDetail;
+import com.swivel.cc.auth.enums.ErrorResponseStatusType;
+import com.swivel.cc.auth.util.FilterErrorResponseGenerator;
+import com.swivel.cc.auth.util.Validator;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.HttpStatus;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.security.oauth2.provider.OAuth2Authentication;
+
+import javax.servlet.Filter;
+import javax.servlet.FilterChain;
+import javax.servlet.ServletException;
+import javax.servlet.ServletRequest;
+import javax.servlet.ServletResponse;
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Validates the requests before they reach the token endpoints and the controllers.
+ * <p>
+ * Replaces the login, user id and app key filters with one filter and one route table. The table is compiled once:
+ * exact paths are looked up in a map and wildcard paths are matched by prefix, so a request of any other path passes
+ * with a single lookup. A matching request is checked in one pass, reading only the headers and parameters its checks
+ * need, and a rejected request is answered with a pre-encoded error body.
+ */
+@Slf4j
+public class RequestPreFilter implements Filter {
+
+    private static final String FACEBOOK_TOKEN_ENDPOINT = "/oauth/token/facebook";
+    private static final String TOKEN_ENDPOINT = "/oauth/token";
+    private static final String UPDATE_EMAIL = "/api/v1/users/email";
+    private static final String UPDATE_MOBILE = "/api/v1/users/mobileNo";
+    private static final String UPDATE_PSW = "/api/v1/users/password";
+    private static final String[] APP_KEY_ENDPOINTS = {"/api/v1/users/mobile-no/updates/*",
+            "/api/v1/users/MERCHANT/bulk-info", "/api/v1/token/revocations", "/api/v1/token/claims",
+            "/api/v1/token/introspect", "/api/v1/token/revocations/events"};
+    private static final String PUT = "PUT";
+    private static final String WILDCARD = "/*";
+    private static final String USER_NAME = "username";
+    private static final String ACCESS_TOKEN = "accessToken";
+    private static final String PSW_FIELD = "password";
+    private static final String GRANT_TYPE = "grant_type";
+    private static final String HEADER_USER_ID = "User-Id";
+    private static final String APPLICATION_HEADER = "app-key";
+    private static final String MISSING_APP_KEY = "Missing app key";
+    private static final String INVALID_APP_KEY = "Invalid app key";
+    private static final Route[] NO_ROUTES = new Route[0];
+
+    private final Validator validator;
+    private final FilterErrorResponseGenerator errorResponseGenerator;
+    private final String applicationKey;
+    private final Map<String, Route[]> exactRoutes = new HashMap<>();
+    private final List<String> prefixes = new ArrayList<>();
+    private final List<Route[]> prefixRoutes = new ArrayList<>();
+
+    /**
+     * Create the filter and compile its route table.
+     *
+     * @param validator              validator
+     * @param errorResponseGenerator error response generator
+     * @param applicationKey         app key of the internal services
+     */
+    public RequestPreFilter(Validator validator, FilterErrorResponseGenerator errorResponseGenerator,
+                            String applicationKey) {
+        this.validator = validator;
+        this.errorResponseGenerator = errorResponseGenerator;
+        this.applicationKey = applicationKey;
+
+        addRoute(null, FACEBOOK_TOKEN_ENDPOINT, Check.FACEBOOK_ACCESS_TOKEN);
+        addRoute(null, TOKEN_ENDPOINT, Check.PASSWORD_GRANT);
+        addRoute(PUT, UPDATE_EMAIL, Check.TOKEN_USER_ID);
+        addRoute(PUT, UPDATE_MOBILE, Check.TOKEN_USER_ID);
+        addRoute(PUT, UPDATE_PSW, Check.TOKEN_USER_ID);
+        for (String endpoint : APP_KEY_ENDPOINTS) {
+            addRoute(null, endpoint, Check.APP_KEY);
+        }
+    }
+
+    /**
+     * Runs the checks of the routes matching the request.
+     *
+     * @param servletRequest  request
+     * @param servletResponse response
+     * @param filterChain     filterChain
+     * @throws IOException      IOException
+     * @throws ServletException ServletException
+     */
+    @Override
+    public void doFilter(ServletRequest servletRequest, ServletResponse servletResponse,
+                         FilterChain filterChain) throws IOException, ServletException {
+        HttpServletRequest request = (HttpServletRequest) servletRequest;
+        HttpServletResponse response = (HttpServletResponse) servletResponse;
+
+        Route[] routes = findRoutes(request.getServletPath());
+        if (routes.length > 0) {
+            String method = request.getMethod();
+            for (Route route : routes) {
+                if ((route.method == null || route.method.equals(method)) && !passes(route.check, request, response)) {
+                    return;
+                }
+            }
+        }
+        filterChain.doFilter(servletRequest, servletResponse);
+    }
+
+    /**
+     * This method returns the routes of the given path.
+     *
+     * @param path servlet path
+     * @return routes, empty when no route matches
+     */
+    private Route[] findRoutes(String path) {
+        Route[] routes = exactRoutes.get(path);
+        if (routes != null) {
+            return routes;
+        }
+        for (int i = 0; i < prefixes.size(); i++) {
+            String prefix = prefixes.get(i);
+            if (path.startsWith(prefix) && (path.length() == prefix.length() || path.charAt(prefix.length()) == '/')) {
+                return prefixRoutes.get(i);
+            }
+        }
+        return NO_ROUTES;
+    }
+
+    /**
+     * This method runs a check and writes the error response when the request fails it.
+     *
+     * @param check    check
+     * @param request  request
+     * @param response response
+     * @return true when the request passes the check
+     * @throws IOException IOException
+     */
+    private boolean passes(Check check, HttpServletRequest request, HttpServletResponse response) throws IOException {
+        switch (check) {
+            case FACEBOOK_ACCESS_TOKEN:
+                return isNonEmpty(request.getParameter(ACCESS_TOKEN))
+                        || reject(response, ErrorResponseStatusType.MISSING_REQUIRED_FIELDS, HttpStatus.BAD_REQUEST);
+            case PASSWORD_GRANT:
+                return !PSW_FIELD.equals(request.getParameter(GRANT_TYPE)) || passesPasswordGrant(request, response);
+            case TOKEN_USER_ID:
+                String userId = getTokenUserId();
+                return (userId != null && userId.equals(request.getHeader(HEADER_USER_ID)))
+                        || reject(response, ErrorResponseStatusType.UNAUTHORIZED, HttpStatus.UNAUTHORIZED);
+            case APP_KEY:
+                String appKey = request.getHeader(APPLICATION_HEADER);
+                if (appKey == null) {
+                    response.sendError(HttpServletResponse.SC_UNAUTHORIZED, MISSING_APP_KEY);
+                    return false;
+                }
+                if (!appKey.equals(applicationKey)) {
+                    response.sendError(HttpServletResponse.SC_UNAUTHORIZED, INVALID_APP_KEY);
+                    return false;
+                }
+                return true;
+            default:
+                return true;
+        }
+    }
+
+    /**
+     * This method checks the username and password of a password grant.
+     *
+     * @param request  request
+     * @param response response
+     * @return true when the request passes the check
+     * @throws IOException IOException
+     */
+    private boolean passesPasswordGrant(HttpServletRequest request, HttpServletResponse response) throws IOException {
+        String password = request.getParameter(PSW_FIELD);
+        if (!isNonEmpty(request.getParameter(USER_NAME)) || !isNonEmpty(password)) {
+            return reject(response, ErrorResponseStatusType.MISSING_REQUIRED_FIELDS, HttpStatus.BAD_REQUEST);
+        }
+        return validator.isValidPassword(password)
+                || reject(response, ErrorResponseStatusType.INVALID_USERNAME_OR_PASS, HttpStatus.BAD_REQUEST);
+    }
+
+    /**
+     * This method returns the user id of the access token of the request.
+     *
+     * @return user id, null when the request is not authenticated with a user token
+     */
+    private String getTokenUserId() {
+        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+        if (!(authentication instanceof OAuth2Authentication)) {
+            return null;
+        }
+        Authentication userAuthentication = ((OAuth2Authentication) authentication).getUserAuthentication();
+        if (userAuthentication == null || !(userAuthentication.getPrincipal() instanceof AuthUserDetail)) {
+            return null;
+        }
+        return ((AuthUserDetail) userAuthentication.getPrincipal()).getId();
+    }
+
+    /**
+     * This method writes the error response of a rejected request.
+     *
+     * @param response   response
+     * @param type       error type
+     * @param httpStatus http status
+     * @return false
+     * @throws IOException IOException
+     */
+    private boolean reject(HttpServletResponse response, ErrorResponseStatusType type,
+                           HttpStatus httpStatus) throws IOException {
+        log.debug("Rejected the request with {}", type);
+        errorResponseGenerator.sendErrorResponse(response, type, httpStatus);
+        return false;
+    }
+
+    /**
+     * This method adds a route to the route table.
+     *
+     * @param method http method, null for all methods
+     * @param path   exact path, or a path ending with /* for the path and all paths below it
+     * @param check  check of the route
+     */
+    private void addRoute(String method, String path, Check check) {
+        Route route = new Route(method, check);
+        if (path.endsWith(WILDCARD)) {
+            String prefix = path.substring(0, path.length() - WILDCARD.length());
+            int index = prefixes.indexOf(prefix);
+            if (index < 0) {
+                prefixes.add(prefix);
+                prefixRoutes.add(new Route[]{route});
+            } else {
+                prefixRoutes.set(index, append(prefixRoutes.get(index), route));
+            }
+        } else {
+            exactRoutes.merge(path, new Route[]{route}, RequestPreFilter::concat);
+        }
+    }
+
+    private static Route[] append(Route[] routes, Route route) {
+        return concat(routes, new Route[]{route});
+    }
+
+    private static Route[] concat(Route[] first, Route[] second) {
+        Route[] routes = new Route[first.length + second.length];
+        System.arraycopy(first, 0, routes, 0, first.length);
+        System.arraycopy(second, 0, routes, first.length, second.length);
+        return routes;
+    }
+
+    /**
+     * Check for empty fields
+     *
+     * @param field field
+     * @return true/false
+     */
+    private static boolean isNonEmpty(String field) {
+        return field != null && !field.trim().isEmpty();
+    }
+
+    /**
+     * Checks of the routes.
+     */
+    private enum Check {
+        /**
+         * The facebook token request has an access token.
+         */
+        FACEBOOK_ACCESS_TOKEN,
+        /**
+         * A password grant has a username and a valid password.
+         */
+        PASSWORD_GRANT,
+        /**
+         * The User-Id header is the user of the access token.
+         */
+        TOKEN_USER_ID,
+        /**
+         * The request of an internal service has the app key.
+         */
+        APP_KEY
+    }
+
+    /**
+     * Check of the requests of one http method, or of all methods.
+     */
+    private static final class Route {
+
+        private final String method;
+        private final Check check;
+
+        Route(String method, Check check) {
+            this.method = method;
+            this.check = check;
+        }
+    }
+}
@@ -2,6 +2,7 @@ package com.swivel.cc.auth.configuration;
 
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
 import org.springframework.http.HttpMethod;
 import org.springframework.security.config.annotation.web.builders.HttpSecurity;
 import org.springframework.security.oauth2.config.annotation.web.configuration.EnableResourceServer;
@@ -25,6 +26,11 @@ public class ResourceServerConfiguration extends ResourceServerConfigurerAdapter
     private static final String FORGET_PASSWORD = "/api/v1/users/forgot-password";
     private static final String ADMIN_URLS = "/api/v1/admin/**";
     private static final String BULK_MERCHANT_ENDPOINT = "/api/v1/users/{userType}/bulk-info";
+    private static final String REVOKED_TOKENS = "/api/v1/token/revocations";
+    private static final String REVOCATION_EVENTS = "/api/v1/token/revocations/events";
+    private static final String JWK_SET = "/.well-known/jwks.json";
+    private static final String HEALTH = "/actuator/health";
+    private static final String VERSIONED_ROLE_PERMISSIONS = "/api/v1/roles/*/permissions/*";
 
     /**
      * Configure a resource id for resource server api's
@@ -54,6 +60,11 @@ public class ResourceServerConfiguration extends ResourceServerConfigurerAdapter
                 .antMatchers(HttpMethod.POST, FACEBOOK_SIGNUP).permitAll()
                 .antMatchers(HttpMethod.POST, FORGET_PASSWORD).permitAll()
                 .antMatchers(HttpMethod.POST, BULK_MERCHANT_ENDPOINT).permitAll()
+                .antMatchers(HttpMethod.GET, REVOKED_TOKENS).permitAll()
+                .antMatchers(HttpMethod.GET, REVOCATION_EVENTS).permitAll()
+                .antMatchers(HttpMethod.GET, JWK_SET).permitAll()
+                .antMatchers(HttpMethod.GET, HEALTH).permitAll()
+                .antMatchers(HttpMethod.GET, VERSIONED_ROLE_PERMISSIONS).permitAll()
                 .antMatchers(ADMIN_URLS).access("hasAuthority('ADMIN')")
                 .anyRequest().authenticated().and().cors().and()
                 .csrf().disable();
@@ -73,6 +84,7 @@ public class ResourceServerConfiguration extends ResourceServerConfigurerAdapter
     }
 
     @Bean
+    @Primary
     public RestTemplate restTemplate() {
         return new RestTemplate();
     }
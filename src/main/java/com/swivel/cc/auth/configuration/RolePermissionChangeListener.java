@@ -0,0 +1,64 @@
+package com.swivel.cc.auth.configuration;
+
+import com.swivel.cc.auth.service.PermissionAuthorizationService;
+import com.swivel.cc.auth.service.RoleCatalogueService;
+import com.swivel.cc.auth.service.RoleResponseCacheService;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.annotation.Lazy;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronizationAdapter;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import javax.persistence.PostPersist;
+import javax.persistence.PostRemove;
+import javax.persistence.PostUpdate;
+
+/**
+ * Entity listener of the role, permission and resource entities. Drops the cached role data once the transaction
+ * writing them is committed, so the next read sees the new rows.
+ */
+@Component
+public class RolePermissionChangeListener {
+
+    private final RoleResponseCacheService roleResponseCacheService;
+    private final RoleCatalogueService roleCatalogueService;
+    private final PermissionAuthorizationService permissionAuthorizationService;
+
+    /**
+     * The services are injected lazily, as hibernate creates its entity listeners before the repositories exist.
+     *
+     * @param roleResponseCacheService       role response cache
+     * @param roleCatalogueService           role catalogue
+     * @param permissionAuthorizationService permission authorization
+     */
+    @Autowired
+    public RolePermissionChangeListener(@Lazy RoleResponseCacheService roleResponseCacheService,
+                                        @Lazy RoleCatalogueService roleCatalogueService,
+                                        @Lazy PermissionAuthorizationService permissionAuthorizationService) {
+        this.roleResponseCacheService = roleResponseCacheService;
+        this.roleCatalogueService = roleCatalogueService;
+        this.permissionAuthorizationService = permissionAuthorizationService;
+    }
+
+    @PostPersist
+    @PostUpdate
+    @PostRemove
+    public void onChange(Object entity) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronizationAdapter() {
+                @Override
+                public void afterCommit() {
+                    invalidate();
+                }
+            });
+        } else {
+            invalidate();
+        }
+    }
+
+    private void invalidate() {
+        roleResponseCacheService.invalidate();
+        roleCatalogueService.invalidate();
+        permissionAuthorizationService.rebuild();
+    }
+}
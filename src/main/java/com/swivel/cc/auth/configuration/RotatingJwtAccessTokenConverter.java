@@ -0,0 +1,104 @@
+package com.swivel.cc.auth.configuration;
+
+import com.swivel.cc.auth.domain.Data;
+import com.swivel.cc.auth.domain.ResourcePermission;
+import org.springframework.security.jwt.Jwt;
+import org.springframework.security.jwt.JwtHelper;
+import org.springframework.security.jwt.crypto.sign.SignatureVerifier;
+import org.springframework.security.oauth2.common.DefaultOAuth2AccessToken;
+import org.springframework.security.oauth2.common.OAuth2AccessToken;
+import org.springframework.security.oauth2.common.OAuth2RefreshToken;
+import org.springframework.security.oauth2.common.exceptions.InvalidTokenException;
+import org.springframework.security.oauth2.common.util.JsonParser;
+import org.springframework.security.oauth2.common.util.JsonParserFactory;
+import org.springframework.security.oauth2.provider.OAuth2Authentication;
+import org.springframework.security.oauth2.provider.token.store.JwtAccessTokenConverter;
+
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.stream.Collectors;
+
+/**
+ * Issues access tokens as RS256 signed jwt with a key id header, so that other services can verify them locally
+ * against the published jwk set. Refresh tokens stay opaque and are only ever presented to this service.
+ * <p>
+ * The login response fields added by {@link CustomTokenEnhancer} are not copied into the claims; only the user id,
+ * the role and the resource permissions are.
+ */
+public class RotatingJwtAccessTokenConverter extends JwtAccessTokenConverter {
+
+    public static final String USER_ID = "user_id";
+    public static final String ROLE = "role";
+    public static final String PERMISSIONS = "permissions";
+    public static final String PERMISSIONS_VERSION = CustomTokenEnhancer.PERMISSIONS_VERSION;
+    private static final String KEY_ID = "kid";
+    private final JwtKeyRing jwtKeyRing;
+    private final JsonParser jsonParser = JsonParserFactory.create();
+
+    public RotatingJwtAccessTokenConverter(JwtKeyRing jwtKeyRing) {
+        this.jwtKeyRing = jwtKeyRing;
+        setSigner(jwtKeyRing.getActiveSigner());
+        setVerifier(jwtKeyRing.getVerifier(jwtKeyRing.getActiveKeyId()));
+    }
+
+    @Override
+    public OAuth2AccessToken enhance(OAuth2AccessToken accessToken, OAuth2Authentication authentication) {
+        OAuth2RefreshToken refreshToken = accessToken.getRefreshToken();
+        DefaultOAuth2AccessToken withoutRefreshToken = new DefaultOAuth2AccessToken(accessToken);
+        withoutRefreshToken.setRefreshToken(null);
+        DefaultOAuth2AccessToken result = (DefaultOAuth2AccessToken) super.enhance(withoutRefreshToken,
+                authentication);
+        result.setRefreshToken(refreshToken);
+        Object data = result.getAdditionalInformation().get(CustomTokenEnhancer.DATA);
+        if (data instanceof Data) {
+            ((Data) data).setAccessToken(result.getValue());
+        }
+        return result;
+    }
+
+    @Override
+    protected String encode(OAuth2AccessToken accessToken, OAuth2Authentication authentication) {
+        Map<String, Object> claims = new LinkedHashMap<>(getAccessTokenConverter()
+                .convertAccessToken(accessToken, authentication));
+        claims.remove(CustomTokenEnhancer.STATUS);
+        claims.remove(CustomTokenEnhancer.MESSAGE);
+        Object data = claims.remove(CustomTokenEnhancer.DATA);
+        if (data instanceof Data) {
+            Data loginData = (Data) data;
+            claims.put(USER_ID, loginData.getUserId());
+            if (loginData.getRole() != null) {
+                claims.put(ROLE, loginData.getRole().getName());
+                if (loginData.getRole().getPermissions() != null) {
+                    claims.put(PERMISSIONS, loginData.getRole().getPermissions().stream()
+                            .map(ResourcePermission::getResource).collect(Collectors.toList()));
+                }
+                if (loginData.getRole().getPermissionsVersion() != null) {
+                    claims.put(PERMISSIONS_VERSION, loginData.getRole().getPermissionsVersion());
+                }
+            }
+        }
+        return JwtHelper.encode(jsonParser.formatMap(claims), jwtKeyRing.getActiveSigner(),
+                Collections.singletonMap(KEY_ID, jwtKeyRing.getActiveKeyId())).getEncoded();
+    }
+
+    @Override
+    protected Map<String, Object> decode(String token) {
+        try {
+            SignatureVerifier verifier = jwtKeyRing.getVerifier(JwtHelper.headers(token).get(KEY_ID));
+            if (verifier == null) {
+                throw new InvalidTokenException("Unknown jwt key id");
+            }
+            Jwt jwt = JwtHelper.decodeAndVerify(token, verifier);
+            Map<String, Object> claims = jsonParser.parseMap(jwt.getClaims());
+            if (claims.get(EXP) instanceof Integer) {
+                claims.put(EXP, Long.valueOf((Integer) claims.get(EXP)));
+            }
+            return claims;
+        } catch (InvalidTokenException e) {
+            throw e;
+        } catch (RuntimeException e) {
+            throw new InvalidTokenException("Cannot convert access token to JSON", e);
+        }
+    }
+}
@@ -0,0 +1,42 @@
+package com.swivel.cc.auth.configuration;
+
+import org.springframework.security.oauth2.common.DefaultExpiringOAuth2RefreshToken;
+import org.springframework.security.oauth2.common.DefaultOAuth2AccessToken;
+import org.springframework.security.oauth2.common.DefaultOAuth2RefreshToken;
+import org.springframework.security.oauth2.common.ExpiringOAuth2RefreshToken;
+import org.springframework.security.oauth2.common.OAuth2AccessToken;
+import org.springframework.security.oauth2.common.OAuth2RefreshToken;
+import org.springframework.security.oauth2.provider.OAuth2Authentication;
+import org.springframework.security.oauth2.provider.token.TokenEnhancer;
+
+/**
+ * Prefixes new access and refresh token values with the shard of their authentication.
+ * Must follow the {@link TokenValueEnhancer} and precede the other enhancers of the chain, so the login response and
+ * the jwt id carry the prefixed value.
+ */
+public class ShardPrefixTokenEnhancer implements TokenEnhancer {
+
+    private final TokenShards tokenShards;
+
+    public ShardPrefixTokenEnhancer(TokenShards tokenShards) {
+        this.tokenShards = tokenShards;
+    }
+
+    @Override
+    public OAuth2AccessToken enhance(OAuth2AccessToken accessToken, OAuth2Authentication authentication) {
+        String prefix = tokenShards.prefix(tokenShards.shardOf(authentication));
+        DefaultOAuth2AccessToken result = new DefaultOAuth2AccessToken(accessToken);
+        if (!tokenShards.isPrefixed(accessToken.getValue())) {
+            result.setValue(prefix + accessToken.getValue());
+        }
+        OAuth2RefreshToken refreshToken = accessToken.getRefreshToken();
+        if (refreshToken != null && !tokenShards.isPrefixed(refreshToken.getValue())) {
+            String value = prefix + refreshToken.getValue();
+            result.setRefreshToken(refreshToken instanceof ExpiringOAuth2RefreshToken ?
+                    new DefaultExpiringOAuth2RefreshToken(value,
+                            ((ExpiringOAuth2RefreshToken) refreshToken).getExpiration()) :
+                    new DefaultOAuth2RefreshToken(value));
+        }
+        return result;
+    }
+}
@@ -0,0 +1,165 @@
+package com.swivel.cc.auth.configuration;
+
+import org.springframework.security.oauth2.common.OAuth2AccessToken;
+import org.springframework.security.oauth2.common.OAuth2RefreshToken;
+import org.springframework.security.oauth2.provider.OAuth2Authentication;
+import org.springframework.security.oauth2.provider.token.store.JdbcTokenStore;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+
+/**
+ * Token store spreading the token tables over the {@link TokenShards}.
+ * <p>
+ * Lookups by token value go to the shard encoded in the value, lookups by authentication to the shard of the
+ * authentication key. Lookups by user name or client id query every shard. Batch reads query each shard once with
+ * the tokens of that shard. It extends the jdbc token store so the services depending on it keep working, but never
+ * uses the parent's datasource itself.
+ */
+public class ShardedTokenStore extends BatchJdbcTokenStore {
+
+    private final TokenShards tokenShards;
+
+    public ShardedTokenStore(TokenShards tokenShards) {
+        super(tokenShards.getDataSource(0));
+        this.tokenShards = tokenShards;
+    }
+
+    @Override
+    public OAuth2AccessToken getAccessToken(OAuth2Authentication authentication) {
+        return tokenShards.getTokenStore(tokenShards.shardOf(authentication)).getAccessToken(authentication);
+    }
+
+    @Override
+    public void storeAccessToken(OAuth2AccessToken token, OAuth2Authentication authentication) {
+        shardOf(token.getValue()).storeAccessToken(token, authentication);
+    }
+
+    @Override
+    public OAuth2AccessToken readAccessToken(String tokenValue) {
+        return shardOf(tokenValue).readAccessToken(tokenValue);
+    }
+
+    @Override
+    public Map<String, StoredAccessToken> readAccessTokens(Collection<String> tokenValues) {
+        Map<Integer, List<String>> tokenValuesByShard = new HashMap<>();
+        for (String tokenValue : tokenValues) {
+            tokenValuesByShard.computeIfAbsent(tokenShards.shardOf(tokenValue), shard -> new ArrayList<>())
+                    .add(tokenValue);
+        }
+        Map<String, StoredAccessToken> accessTokens = new HashMap<>();
+        tokenValuesByShard.forEach((shard, shardTokenValues) -> {
+            JdbcTokenStore store = tokenShards.getTokenStore(shard);
+            if (store instanceof BatchJdbcTokenStore) {
+                accessTokens.putAll(((BatchJdbcTokenStore) store).readAccessTokens(shardTokenValues));
+            } else {
+                for (String tokenValue : shardTokenValues) {
+                    OAuth2AccessToken accessToken = store.readAccessToken(tokenValue);
+                    OAuth2Authentication authentication = accessToken == null ? null :
+                            store.readAuthentication(tokenValue);
+                    if (authentication != null) {
+                        accessTokens.put(tokenValue, new StoredAccessToken(accessToken, authentication));
+                    }
+                }
+            }
+        });
+        return accessTokens;
+    }
+
+    @Override
+    public void removeAccessToken(OAuth2AccessToken token) {
+        removeAccessToken(token.getValue());
+    }
+
+    @Override
+    public void removeAccessToken(String tokenValue) {
+        shardOf(tokenValue).removeAccessToken(tokenValue);
+    }
+
+    @Override
+    public OAuth2Authentication readAuthentication(OAuth2AccessToken token) {
+        return readAuthentication(token.getValue());
+    }
+
+    @Override
+    public OAuth2Authentication readAuthentication(String token) {
+        return shardOf(token).readAuthentication(token);
+    }
+
+    @Override
+    public void storeRefreshToken(OAuth2RefreshToken refreshToken, OAuth2Authentication authentication) {
+        shardOf(refreshToken.getValue()).storeRefreshToken(refreshToken, authentication);
+    }
+
+    @Override
+    public OAuth2RefreshToken readRefreshToken(String token) {
+        return shardOf(token).readRefreshToken(token);
+    }
+
+    @Override
+    public void removeRefreshToken(OAuth2RefreshToken token) {
+        removeRefreshToken(token.getValue());
+    }
+
+    @Override
+    public void removeRefreshToken(String token) {
+        shardOf(token).removeRefreshToken(token);
+    }
+
+    @Override
+    public OAuth2Authentication readAuthenticationForRefreshToken(OAuth2RefreshToken token) {
+        return readAuthenticationForRefreshToken(token.getValue());
+    }
+
+    @Override
+    public OAuth2Authentication readAuthenticationForRefreshToken(String value) {
+        return shardOf(value).readAuthenticationForRefreshToken(value);
+    }
+
+    /**
+     * The access token of a refreshed authentication with narrowed scopes may be on another shard than its
+     * refresh token, so this is sent to every shard.
+     *
+     * @param refreshToken refresh token
+     */
+    @Override
+    public void removeAccessTokenUsingRefreshToken(OAuth2RefreshToken refreshToken) {
+        removeAccessTokenUsingRefreshToken(refreshToken.getValue());
+    }
+
+    @Override
+    public void removeAccessTokenUsingRefreshToken(String refreshToken) {
+        tokenShards.getTokenStores().forEach(store -> store.removeAccessTokenUsingRefreshToken(refreshToken));
+    }
+
+    @Override
+    public Collection<OAuth2AccessToken> findTokensByClientIdAndUserName(String clientId, String userName) {
+        return fanOut(store -> store.findTokensByClientIdAndUserName(clientId, userName));
+    }
+
+    @Override
+    public Collection<OAuth2AccessToken> findTokensByUserName(String userName) {
+        return fanOut(store -> store.findTokensByUserName(userName));
+    }
+
+    @Override
+    public Collection<OAuth2AccessToken> findTokensByClientId(String clientId) {
+        return fanOut(store -> store.findTokensByClientId(clientId));
+    }
+
+    private JdbcTokenStore shardOf(String tokenValue) {
+        return tokenShards.getTokenStore(tokenShards.shardOf(tokenValue));
+    }
+
+    private List<OAuth2AccessToken> fanOut(Function<JdbcTokenStore, Collection<OAuth2AccessToken>> query) {
+        List<OAuth2AccessToken> tokens = new ArrayList<>();
+        for (JdbcTokenStore store : tokenShards.getTokenStores()) {
+            tokens.addAll(query.apply(store));
+        }
+        return tokens;
+    }
+}
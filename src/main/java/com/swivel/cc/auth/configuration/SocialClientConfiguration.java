@@ -0,0 +1,51 @@
+package com.swivel.cc.auth.configuration;
+
+import org.apache.http.client.config.RequestConfig;
+import org.apache.http.impl.client.CloseableHttpClient;
+import org.apache.http.impl.client.HttpClients;
+import org.apache.http.impl.conn.PoolingHttpClientConnectionManager;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.http.client.HttpComponentsClientHttpRequestFactory;
+import org.springframework.web.client.RestTemplate;
+
+/**
+ * Http client of the social sign in providers. The connections to Facebook and Google are pooled and kept alive, and
+ * every call has strict timeouts, so a slow provider fails the sign in instead of holding the request thread.
+ */
+@Configuration
+public class SocialClientConfiguration {
+
+    public static final String SOCIAL_REST_TEMPLATE = "socialRestTemplate";
+
+    /**
+     * Rest template with a pooled http client of the social sign in providers.
+     *
+     * @param maxConnections                 maximum connections, per provider and in total
+     * @param connectTimeoutMillis           connect timeout
+     * @param readTimeoutMillis              socket read timeout
+     * @param connectionRequestTimeoutMillis longest wait for a pooled connection
+     * @return rest template
+     */
+    @Bean(name = SOCIAL_REST_TEMPLATE)
+    public RestTemplate socialRestTemplate(
+            @Value("${application.social-client.max-connections}") int maxConnections,
+            @Value("${application.social-client.connect-timeout-millis}") int connectTimeoutMillis,
+            @Value("${application.social-client.read-timeout-millis}") int readTimeoutMillis,
+            @Value("${application.social-client.connection-request-timeout-millis}")
+                    int connectionRequestTimeoutMillis) {
+        PoolingHttpClientConnectionManager connectionManager = new PoolingHttpClientConnectionManager();
+        connectionManager.setMaxTotal(maxConnections);
+        connectionManager.setDefaultMaxPerRoute(maxConnections);
+        CloseableHttpClient httpClient = HttpClients.custom()
+                .setConnectionManager(connectionManager)
+                .setDefaultRequestConfig(RequestConfig.custom()
+                        .setConnectTimeout(connectTimeoutMillis)
+                        .setSocketTimeout(readTimeoutMillis)
+                        .setConnectionRequestTimeout(connectionRequestTimeoutMillis)
+                        .build())
+                .build();
+        return new RestTemplate(new HttpComponentsClientHttpRequestFactory(httpClient));
+    }
+}
@@ -0,0 +1,141 @@
+package com.swivel.cc.auth.configuration;
+
+import com.swivel.cc.auth.enums.ErrorResponseStatusType;
+import com.swivel.cc.auth.util.FilterErrorResponseGenerator;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+
+import javax.servlet.Filter;
+import javax.servlet.FilterChain;
+import javax.servlet.ServletException;
+import javax.servlet.ServletRequest;
+import javax.servlet.ServletResponse;
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Limits the concurrent token requests per grant type and per client id.
+ * <p>
+ * A request needs a slot of the limiter of its client and of its grant type. Clients and grant types without an own
+ * limiter share the default ones. When no slot is freed within the queue timeout the request is answered with 429
+ * and a Retry-After header, before the client secret and the password are hashed.
+ */
+@Slf4j
+public class TokenConcurrencyLimitFilter implements Filter {
+
+    private static final String GRANT_TYPE = "grant_type";
+    private static final String CLIENT_ID = "client_id";
+    private static final String BASIC = "Basic ";
+    private final Map<String, AdaptiveConcurrencyLimiter> grantTypeLimiters;
+    private final AdaptiveConcurrencyLimiter defaultGrantTypeLimiter;
+    private final Map<String, AdaptiveConcurrencyLimiter> clientLimiters;
+    private final AdaptiveConcurrencyLimiter defaultClientLimiter;
+    private final long queueTimeoutNanos;
+    private final long retryAfterSeconds;
+    private final FilterErrorResponseGenerator errorResponseGenerator;
+
+    /**
+     * Create the filter.
+     *
+     * @param grantTypeLimiters       limiters by grant type
+     * @param defaultGrantTypeLimiter limiter of the other grant types
+     * @param clientLimiters          limiters by client id
+     * @param defaultClientLimiter    limiter of the other clients
+     * @param queueTimeoutMillis      longest time a request waits for a slot
+     * @param retryAfterSeconds       Retry-After of a rejected request
+     * @param errorResponseGenerator  error response generator
+     */
+    public TokenConcurrencyLimitFilter(Map<String, AdaptiveConcurrencyLimiter> grantTypeLimiters,
+                                       AdaptiveConcurrencyLimiter defaultGrantTypeLimiter,
+                                       Map<String, AdaptiveConcurrencyLimiter> clientLimiters,
+                                       AdaptiveConcurrencyLimiter defaultClientLimiter,
+                                       long queueTimeoutMillis, long retryAfterSeconds,
+                                       FilterErrorResponseGenerator errorResponseGenerator) {
+        this.grantTypeLimiters = grantTypeLimiters;
+        this.defaultGrantTypeLimiter = defaultGrantTypeLimiter;
+        this.clientLimiters = clientLimiters;
+        this.defaultClientLimiter = defaultClientLimiter;
+        this.queueTimeoutNanos = TimeUnit.MILLISECONDS.toNanos(queueTimeoutMillis);
+        this.retryAfterSeconds = retryAfterSeconds;
+        this.errorResponseGenerator = errorResponseGenerator;
+    }
+
+    @Override
+    public void doFilter(ServletRequest servletRequest, ServletResponse servletResponse,
+                         FilterChain filterChain) throws IOException, ServletException {
+
+        HttpServletRequest request = (HttpServletRequest) servletRequest;
+        HttpServletResponse response = (HttpServletResponse) servletResponse;
+        AdaptiveConcurrencyLimiter clientLimiter = clientLimiters.getOrDefault(getClientId(request),
+                defaultClientLimiter);
+        AdaptiveConcurrencyLimiter grantTypeLimiter = grantTypeLimiters.getOrDefault(
+                request.getParameter(GRANT_TYPE), defaultGrantTypeLimiter);
+
+        long deadline = System.nanoTime() + queueTimeoutNanos;
+        if (!acquire(clientLimiter, deadline)) {
+            reject(response, clientLimiter);
+            return;
+        }
+        if (!acquire(grantTypeLimiter, deadline)) {
+            clientLimiter.cancel();
+            reject(response, grantTypeLimiter);
+            return;
+        }
+
+        long start = System.nanoTime();
+        boolean failed = true;
+        try {
+            filterChain.doFilter(servletRequest, servletResponse);
+            failed = response.getStatus() >= HttpStatus.INTERNAL_SERVER_ERROR.value();
+        } finally {
+            long latency = System.nanoTime() - start;
+            grantTypeLimiter.release(latency, failed);
+            clientLimiter.release(latency, failed);
+        }
+    }
+
+    private boolean acquire(AdaptiveConcurrencyLimiter limiter, long deadline) {
+        try {
+            return limiter.acquire(deadline);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return false;
+        }
+    }
+
+    private void reject(HttpServletResponse response, AdaptiveConcurrencyLimiter limiter) throws IOException {
+        log.warn("Rejected token request by the {} limiter, limit: {}", limiter.getName(), limiter.getLimit());
+        response.setHeader(HttpHeaders.RETRY_AFTER, String.valueOf(retryAfterSeconds));
+        errorResponseGenerator.sendErrorResponse(response, ErrorResponseStatusType.TOO_MANY_REQUESTS,
+                HttpStatus.TOO_MANY_REQUESTS);
+    }
+
+    /**
+     * Returns the client id of the basic authorization header, or of the client_id parameter. The secret is not
+     * checked here, an unknown client only gets the default limiter.
+     *
+     * @param request request
+     * @return client id or null
+     */
+    private String getClientId(HttpServletRequest request) {
+        String authorization = request.getHeader(HttpHeaders.AUTHORIZATION);
+        if (authorization != null && authorization.regionMatches(true, 0, BASIC, 0, BASIC.length())) {
+            try {
+                String credentials = new String(Base64.getDecoder().decode(
+                        authorization.substring(BASIC.length()).trim()), StandardCharsets.UTF_8);
+                int separator = credentials.indexOf(':');
+                return separator < 0 ? credentials : credentials.substring(0, separator);
+            } catch (IllegalArgumentException e) {
+                log.debug("Invalid basic authorization header of a token request");
+                return null;
+            }
+        }
+        return request.getParameter(CLIENT_ID);
+    }
+}
@@ -0,0 +1,179 @@
+package com.swivel.cc.auth.configuration;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.security.jwt.JwtHelper;
+import org.springframework.security.oauth2.common.util.JsonParser;
+import org.springframework.security.oauth2.common.util.JsonParserFactory;
+import org.springframework.security.oauth2.provider.OAuth2Authentication;
+import org.springframework.security.oauth2.provider.token.AuthenticationKeyGenerator;
+import org.springframework.security.oauth2.provider.token.DefaultAuthenticationKeyGenerator;
+import org.springframework.security.oauth2.provider.token.store.JdbcTokenStore;
+
+import javax.sql.DataSource;
+import java.io.Closeable;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.function.Function;
+
+/**
+ * The datasources holding the token tables, shard 0 being the main datasource.
+ * <p>
+ * Tokens are placed on a shard by the hash of their authentication key, and the shard is encoded as a prefix of the
+ * token values ("s3-..."), so a token value can be resolved to its shard without a lookup. Jwt access tokens carry the
+ * prefixed value in their jti claim. Values without a prefix were issued before sharding and live on shard 0.
+ * Shards can be added but not removed, as existing token values keep pointing to their shard.
+ */
+@Slf4j
+public class TokenShards implements Closeable {
+
+    private static final char PREFIX = 's';
+    private static final char SEPARATOR = '-';
+    private static final String JTI = "jti";
+    private static final int MAX_PREFIX_LENGTH = 5;
+    private final List<DataSource> dataSources;
+    private final List<JdbcTemplate> jdbcTemplates;
+    private final List<JdbcTokenStore> tokenStores;
+    private final AuthenticationKeyGenerator authenticationKeyGenerator = new DefaultAuthenticationKeyGenerator();
+    private final JsonParser jsonParser = JsonParserFactory.create();
+
+    public TokenShards(List<DataSource> dataSources, List<JdbcTemplate> jdbcTemplates,
+                       List<JdbcTokenStore> tokenStores) {
+        this.dataSources = Collections.unmodifiableList(dataSources);
+        this.jdbcTemplates = Collections.unmodifiableList(jdbcTemplates);
+        this.tokenStores = Collections.unmodifiableList(tokenStores);
+    }
+
+    /**
+     * Create the shards of the given datasources.
+     *
+     * @param dataSources       datasources, the main datasource first
+     * @param tokenStoreFactory creates the token store of a datasource
+     * @return token shards
+     */
+    public static TokenShards of(List<DataSource> dataSources, Function<DataSource, JdbcTokenStore> tokenStoreFactory) {
+        List<JdbcTemplate> jdbcTemplates = new ArrayList<>();
+        List<JdbcTokenStore> tokenStores = new ArrayList<>();
+        for (DataSource dataSource : dataSources) {
+            jdbcTemplates.add(new JdbcTemplate(dataSource));
+            tokenStores.add(tokenStoreFactory.apply(dataSource));
+        }
+        return new TokenShards(dataSources, jdbcTemplates, tokenStores);
+    }
+
+    public int size() {
+        return dataSources.size();
+    }
+
+    public DataSource getDataSource(int shard) {
+        return dataSources.get(shard);
+    }
+
+    public JdbcTemplate getJdbcTemplate(int shard) {
+        return jdbcTemplates.get(shard);
+    }
+
+    public List<JdbcTemplate> getJdbcTemplates() {
+        return jdbcTemplates;
+    }
+
+    public JdbcTokenStore getTokenStore(int shard) {
+        return tokenStores.get(shard);
+    }
+
+    public List<JdbcTokenStore> getTokenStores() {
+        return tokenStores;
+    }
+
+    /**
+     * Returns the shard new tokens of an authentication are placed on.
+     *
+     * @param authentication authentication
+     * @return shard
+     */
+    public int shardOf(OAuth2Authentication authentication) {
+        return Math.floorMod(authenticationKeyGenerator.extractKey(authentication).hashCode(), size());
+    }
+
+    /**
+     * Returns the shard of a token value.
+     *
+     * @param tokenValue access or refresh token value
+     * @return shard
+     */
+    public int shardOf(String tokenValue) {
+        int shard = parsePrefix(tokenValue);
+        if (shard < 0 && isJwt(tokenValue)) {
+            shard = parsePrefix(readJti(tokenValue));
+        }
+        return shard < 0 || shard >= size() ? 0 : shard;
+    }
+
+    /**
+     * Returns the prefix of the token values of a shard.
+     *
+     * @param shard shard
+     * @return prefix
+     */
+    public String prefix(int shard) {
+        return PREFIX + String.valueOf(shard) + SEPARATOR;
+    }
+
+    /**
+     * Checks whether a token value is already prefixed with a shard.
+     *
+     * @param tokenValue token value
+     * @return true if prefixed
+     */
+    public boolean isPrefixed(String tokenValue) {
+        return parsePrefix(tokenValue) >= 0;
+    }
+
+    /**
+     * Close the datasources of the additional shards, the main datasource is managed by spring.
+     */
+    @Override
+    public void close() {
+        for (int shard = 1; shard < dataSources.size(); shard++) {
+            if (dataSources.get(shard) instanceof Closeable) {
+                try {
+                    ((Closeable) dataSources.get(shard)).close();
+                } catch (IOException e) {
+                    log.warn("Closing token shard datasource {} was failed", shard, e);
+                }
+            }
+        }
+    }
+
+    private static int parsePrefix(String value) {
+        if (value == null || value.length() < 3 || value.charAt(0) != PREFIX) {
+            return -1;
+        }
+        int end = value.indexOf(SEPARATOR);
+        if (end < 2 || end > MAX_PREFIX_LENGTH) {
+            return -1;
+        }
+        for (int i = 1; i < end; i++) {
+            if (!Character.isDigit(value.charAt(i))) {
+                return -1;
+            }
+        }
+        return Integer.parseInt(value.substring(1, end));
+    }
+
+    private static boolean isJwt(String value) {
+        return value != null && value.indexOf('.') > 0 && value.indexOf('.') != value.lastIndexOf('.');
+    }
+
+    private String readJti(String jwt) {
+        try {
+            Object jti = jsonParser.parseMap(JwtHelper.decode(jwt).getClaims()).get(JTI);
+            return jti instanceof String ? (String) jti : null;
+        } catch (RuntimeException e) {
+            log.debug("Reading jti of a jwt token was failed", e);
+            return null;
+        }
+    }
+}
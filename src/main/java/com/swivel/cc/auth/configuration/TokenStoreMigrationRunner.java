@@ -0,0 +1,42 @@
+package com.swivel.cc.auth.configuration;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+/**
+ * Rewrites the java serialized rows of the token tables in the compact format on startup.
+ * Enable it on a single instance, once all instances run with the compact token store format. Every token shard is
+ * migrated in turn.
+ */
+@Slf4j
+@Component
+@ConditionalOnProperty(name = "application.token-store.migrate-on-startup", havingValue = "true")
+public class TokenStoreMigrationRunner implements ApplicationRunner {
+
+    private final TokenShards tokenShards;
+    private final int batchSize;
+
+    public TokenStoreMigrationRunner(TokenShards tokenShards,
+                                     @Value("${application.token-store.migration-batch-size}") int batchSize) {
+        this.tokenShards = tokenShards;
+        this.batchSize = batchSize;
+    }
+
+    @Override
+    public void run(ApplicationArguments args) {
+        if (!(tokenShards.getTokenStore(0) instanceof CompactJdbcTokenStore)) {
+            log.warn("Token store migration skipped, the compact token store format is not enabled");
+            return;
+        }
+        for (int shard = 0; shard < tokenShards.size(); shard++) {
+            long start = System.currentTimeMillis();
+            int migrated = ((CompactJdbcTokenStore) tokenShards.getTokenStore(shard)).migrateLegacyRows(batchSize);
+            log.info("Migrated {} token rows of shard {} to the compact format in {} ms", migrated, shard,
+                    System.currentTimeMillis() - start);
+        }
+    }
+}
@@ -0,0 +1,89 @@
+package com.swivel.cc.auth.configuration;
+
+import com.swivel.cc.auth.util.IdGenerator;
+import org.springframework.security.oauth2.common.DefaultExpiringOAuth2RefreshToken;
+import org.springframework.security.oauth2.common.DefaultOAuth2AccessToken;
+import org.springframework.security.oauth2.common.DefaultOAuth2RefreshToken;
+import org.springframework.security.oauth2.common.ExpiringOAuth2RefreshToken;
+import org.springframework.security.oauth2.common.OAuth2AccessToken;
+import org.springframework.security.oauth2.common.OAuth2RefreshToken;
+import org.springframework.security.oauth2.provider.OAuth2Authentication;
+import org.springframework.security.oauth2.provider.OAuth2Request;
+import org.springframework.security.oauth2.provider.token.TokenEnhancer;
+
+import java.util.UUID;
+
+/**
+ * Replaces the values of new access and refresh tokens with values of the {@link IdGenerator}, 32 hex characters
+ * drawn from its per thread generators. Must be the first enhancer of the chain, so every other enhancer sees the
+ * final value.
+ * <p>
+ * The parent token services create the values of new tokens with {@link UUID#randomUUID()} in private methods before
+ * any enhancer runs, so every new token still draws from the shared random, and this enhancer draws a second value
+ * on top. It changes the source and format of the issued values, it does not take the token creation off the shared
+ * random.
+ * <p>
+ * New values are the uuids the token services have just created. A refresh token reused by the token services keeps
+ * its value: it is either a value of the generator, prefixed with its shard or a jwt, or it is the refresh token of
+ * the refresh request. A uuid refresh token issued before the generator was used gets a new value when a new login
+ * reuses it, the login response carries the new value.
+ */
+public class TokenValueEnhancer implements TokenEnhancer {
+
+    private static final String REFRESH_TOKEN = "refresh_token";
+    private static final int UUID_LENGTH = 36;
+    private final IdGenerator idGenerator;
+
+    public TokenValueEnhancer(IdGenerator idGenerator) {
+        this.idGenerator = idGenerator;
+    }
+
+    @Override
+    public OAuth2AccessToken enhance(OAuth2AccessToken accessToken, OAuth2Authentication authentication) {
+        DefaultOAuth2AccessToken result = new DefaultOAuth2AccessToken(accessToken);
+        if (isNewValue(accessToken.getValue())) {
+            result.setValue(idGenerator.nextTokenValue());
+        }
+        OAuth2RefreshToken refreshToken = accessToken.getRefreshToken();
+        if (refreshToken != null && isNewValue(refreshToken.getValue())
+                && !refreshToken.getValue().equals(getRequestedRefreshToken(authentication))) {
+            String value = idGenerator.nextTokenValue();
+            result.setRefreshToken(refreshToken instanceof ExpiringOAuth2RefreshToken ?
+                    new DefaultExpiringOAuth2RefreshToken(value,
+                            ((ExpiringOAuth2RefreshToken) refreshToken).getExpiration()) :
+                    new DefaultOAuth2RefreshToken(value));
+        }
+        return result;
+    }
+
+    /**
+     * Checks whether a token value is a uuid created by the token services.
+     *
+     * @param tokenValue token value
+     * @return true if the value is a uuid
+     */
+    private static boolean isNewValue(String tokenValue) {
+        if (tokenValue == null || tokenValue.length() != UUID_LENGTH) {
+            return false;
+        }
+        try {
+            return UUID.fromString(tokenValue).toString().equals(tokenValue);
+        } catch (IllegalArgumentException e) {
+            return false;
+        }
+    }
+
+    /**
+     * Returns the refresh token value of a refresh request, null for other requests.
+     *
+     * @param authentication authentication
+     * @return refresh token value
+     */
+    private static String getRequestedRefreshToken(OAuth2Authentication authentication) {
+        OAuth2Request request = authentication.getOAuth2Request();
+        if (request == null || !request.isRefresh()) {
+            return null;
+        }
+        return request.getRefreshTokenRequest().getRequestParameters().get(REFRESH_TOKEN);
+    }
+}
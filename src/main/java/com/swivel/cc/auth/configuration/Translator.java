@@ -6,6 +6,7 @@ import org.springframework.context.support.ResourceBundleMessageSource;
 import org.springframework.stereotype.Component;
 
 import java.util.Locale;
+import java.util.ResourceBundle;
 
 /**
  * Build messages according to the language
@@ -13,6 +14,7 @@ import java.util.Locale;
 @Component
 public class Translator {
 
+    private static final String ERROR_BUNDLE = "error";
     private final ResourceBundleMessageSource messageSource;
 
     @Autowired
@@ -31,4 +33,14 @@ public class Translator {
         return messageSource.getMessage(msgCode, null, locale);
     }
 
+    /**
+     * This method returns the locale of the error messages of the language, e.g. the root locale for every language
+     * without its own bundle.
+     *
+     * @return locale of the error bundle
+     */
+    public Locale getErrorMessageLocale() {
+        return ResourceBundle.getBundle(ERROR_BUNDLE, LocaleContextHolder.getLocale()).getLocale();
+    }
+
 }
\ No newline at end of file
@@ -0,0 +1,26 @@
+package com.swivel.cc.auth.configuration;
+
+import com.swivel.cc.auth.service.PermissionAuthorizationService;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.web.servlet.config.annotation.InterceptorRegistry;
+import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+
+/**
+ * Registers the interceptors of the controllers.
+ */
+@Configuration
+public class WebMvcConfiguration implements WebMvcConfigurer {
+
+    private final PermissionAuthorizationService permissionAuthorizationService;
+
+    @Autowired
+    public WebMvcConfiguration(PermissionAuthorizationService permissionAuthorizationService) {
+        this.permissionAuthorizationService = permissionAuthorizationService;
+    }
+
+    @Override
+    public void addInterceptors(InterceptorRegistry registry) {
+        registry.addInterceptor(new PermissionAuthorizationInterceptor(permissionAuthorizationService));
+    }
+}
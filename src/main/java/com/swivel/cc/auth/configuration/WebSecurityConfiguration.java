@@ -1,25 +1,47 @@
 package com.swivel.cc.auth.configuration;
 
 import com.swivel.cc.auth.service.UserDetailService;
+import io.micrometer.core.instrument.MeterRegistry;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.http.HttpMethod;
 import org.springframework.security.authentication.AuthenticationManager;
 import org.springframework.security.config.annotation.authentication.builders.AuthenticationManagerBuilder;
+import org.springframework.security.config.annotation.web.builders.WebSecurity;
 import org.springframework.security.config.annotation.web.configuration.WebSecurityConfigurerAdapter;
-import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
 import org.springframework.security.crypto.password.PasswordEncoder;
 
 @Configuration
 @Slf4j
 public class WebSecurityConfiguration extends WebSecurityConfigurerAdapter {
 
+    private static final String TOKEN_CLAIMS_ENDPOINT = "/api/v1/token/claims";
+    private static final String TOKEN_INTROSPECTION_ENDPOINT = "/api/v1/token/introspect";
+
     private final UserDetailService userDetailService;
+    private final MeterRegistry meterRegistry;
+    private final int passwordHashingStrength;
+    private final int passwordHashingThreads;
+    private final int passwordHashingQueueCapacity;
+    private final long passwordHashingTimeoutMillis;
 
     @Autowired
-    public WebSecurityConfiguration(UserDetailService userDetailService) {
+    public WebSecurityConfiguration(UserDetailService userDetailService, MeterRegistry meterRegistry,
+                                    @Value("${application.password-hashing.strength}") int passwordHashingStrength,
+                                    @Value("${application.password-hashing.threads}") int passwordHashingThreads,
+                                    @Value("${application.password-hashing.queue-capacity}")
+                                            int passwordHashingQueueCapacity,
+                                    @Value("${application.password-hashing.timeout-millis}")
+                                            long passwordHashingTimeoutMillis) {
         this.userDetailService = userDetailService;
+        this.meterRegistry = meterRegistry;
+        this.passwordHashingStrength = passwordHashingStrength;
+        this.passwordHashingThreads = passwordHashingThreads;
+        this.passwordHashingQueueCapacity = passwordHashingQueueCapacity;
+        this.passwordHashingTimeoutMillis = passwordHashingTimeoutMillis;
     }
 
     @Bean
@@ -34,6 +56,18 @@ public class WebSecurityConfiguration extends WebSecurityConfigurerAdapter {
 
     }
 
+    /**
+     * The token claims and introspection endpoints are authenticated by the app key filter and read the tokens
+     * themselves, so they skip the security filters which would load the token once more.
+     *
+     * @param web web security
+     */
+    @Override
+    public void configure(WebSecurity web) {
+        web.ignoring().antMatchers(HttpMethod.GET, TOKEN_CLAIMS_ENDPOINT)
+                .antMatchers(HttpMethod.POST, TOKEN_INTROSPECTION_ENDPOINT);
+    }
+
 //    Todo: commit to be removed and check csrf
 //    @Override
 //    protected void configure(HttpSecurity http) throws Exception {
@@ -42,9 +76,16 @@ public class WebSecurityConfiguration extends WebSecurityConfigurerAdapter {
 //                .csrf().disable();
 //    }
 
+    /**
+     * Password encoder of users and clients, hashing on a dedicated bounded executor. Hashes of another cost are
+     * upgraded on the next login, as the user details service also updates passwords.
+     *
+     * @return password encoder
+     */
     @Bean
     PasswordEncoder passwordEncoder() {
-        return new BCryptPasswordEncoder();
+        return new BoundedPasswordEncoder(passwordHashingStrength, passwordHashingThreads,
+                passwordHashingQueueCapacity, passwordHashingTimeoutMillis, meterRegistry);
     }
 
 }
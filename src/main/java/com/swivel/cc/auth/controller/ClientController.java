@@ -0,0 +1,57 @@
+package com.swivel.cc.auth.controller;
+
+import com.swivel.cc.auth.configuration.Translator;
+import com.swivel.cc.auth.enums.SuccessResponseStatusType;
+import com.swivel.cc.auth.service.ClientDetailsCacheService;
+import com.swivel.cc.auth.wrapper.ResponseWrapper;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.annotation.Secured;
+import org.springframework.web.bind.annotation.*;
+
+/**
+ * OAuth client controller for admins
+ */
+@Slf4j
+@RestController
+@RequestMapping("/api/v1/admin/clients")
+public class ClientController extends Controller {
+
+    private final ClientDetailsCacheService clientDetailsCacheService;
+
+    public ClientController(Translator translator, ClientDetailsCacheService clientDetailsCacheService) {
+        super(translator);
+        this.clientDetailsCacheService = clientDetailsCacheService;
+    }
+
+    /**
+     * This method reloads the details of all clients from the database.
+     *
+     * @param adminId admin userId
+     * @return success response
+     */
+    @Secured({ADMIN_ROLE})
+    @PostMapping(path = "/reload", produces = APPLICATION_JSON_UTF_8)
+    public ResponseEntity<ResponseWrapper> reloadClients(@RequestHeader(name = HEADER_USER_ID) String adminId) {
+        clientDetailsCacheService.reload();
+        log.debug("Reloaded all clients by admin: {}", adminId);
+        return getSuccessResponse(SuccessResponseStatusType.RELOADED_CLIENTS, null);
+    }
+
+    /**
+     * This method reloads the details of a client from the database, after its secret, scopes or token validity
+     * were changed.
+     *
+     * @param adminId  admin userId
+     * @param clientId clientId
+     * @return success response
+     */
+    @Secured({ADMIN_ROLE})
+    @PostMapping(path = "/{clientId}/reload", produces = APPLICATION_JSON_UTF_8)
+    public ResponseEntity<ResponseWrapper> reloadClient(@RequestHeader(name = HEADER_USER_ID) String adminId,
+                                                        @PathVariable String clientId) {
+        clientDetailsCacheService.reload(clientId);
+        log.debug("Reloaded client: {} by admin: {}", clientId, adminId);
+        return getSuccessResponse(SuccessResponseStatusType.RELOADED_CLIENTS, null);
+    }
+}
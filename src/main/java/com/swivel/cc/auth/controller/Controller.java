@@ -10,6 +10,7 @@ import com.swivel.cc.auth.wrapper.ResponseWrapper;
 import com.swivel.cc.auth.wrapper.SuccessLoginResponseWrapper;
 import com.swivel.cc.auth.wrapper.SuccessResponseWrapper;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 
@@ -66,6 +67,24 @@ public class Controller {
         return new ResponseEntity<>(responseWrapper, HttpStatus.INTERNAL_SERVER_ERROR);
     }
 
+    /**
+     * This method creates the empty data response for a request rejected because the service is overloaded.
+     *
+     * @param errorResponseStatusType errorResponseStatusType
+     * @param retryAfterSeconds       seconds after which the request may be retried
+     * @return service unavailable error response
+     */
+    protected ResponseEntity<ResponseWrapper> getServiceUnavailableError(
+            ErrorResponseStatusType errorResponseStatusType, long retryAfterSeconds) {
+        ResponseWrapper responseWrapper =
+                new ErrorResponseWrapper(errorResponseStatusType,
+                        translator.toLocale(errorResponseStatusType.getCodeString(errorResponseStatusType.getCode())),
+                        null);
+        return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE)
+                .header(HttpHeaders.RETRY_AFTER, String.valueOf(retryAfterSeconds))
+                .body(responseWrapper);
+    }
+
     /**
      * This method creates empty data response for success response
      *
@@ -0,0 +1,39 @@
+package com.swivel.cc.auth.controller;
+
+import com.swivel.cc.auth.configuration.JwtKeyRing;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.http.CacheControl;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Publishes the public keys of the jwt access tokens, only available in jwt token mode.
+ */
+@RestController
+@ConditionalOnProperty(name = "application.token-format", havingValue = "jwt")
+public class JwkSetController {
+
+    private static final long MAX_AGE_MINUTES = 5;
+    private final JwtKeyRing jwtKeyRing;
+
+    public JwkSetController(JwtKeyRing jwtKeyRing) {
+        this.jwtKeyRing = jwtKeyRing;
+    }
+
+    /**
+     * This method returns the jwk set of all keys which may have signed a valid access token.
+     *
+     * @return jwk set
+     */
+    @GetMapping(path = "/.well-known/jwks.json", produces = MediaType.APPLICATION_JSON_VALUE)
+    public ResponseEntity<Map<String, Object>> getJwkSet() {
+        return ResponseEntity.ok()
+                .cacheControl(CacheControl.maxAge(MAX_AGE_MINUTES, TimeUnit.MINUTES).cachePublic())
+                .body(jwtKeyRing.getJwkSet());
+    }
+}
@@ -0,0 +1,49 @@
+package com.swivel.cc.auth.controller;
+
+import com.swivel.cc.auth.configuration.Translator;
+import com.swivel.cc.auth.domain.response.LoginOffenderListResponseDto;
+import com.swivel.cc.auth.enums.SuccessResponseStatusType;
+import com.swivel.cc.auth.service.LoginThrottleService;
+import com.swivel.cc.auth.wrapper.ResponseWrapper;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.annotation.Secured;
+import org.springframework.web.bind.annotation.*;
+
+import javax.validation.constraints.Max;
+import javax.validation.constraints.Positive;
+
+/**
+ * Login throttle controller for admins
+ */
+@Slf4j
+@RestController
+@RequestMapping("/api/v1/admin/login-throttle")
+public class LoginThrottleController extends Controller {
+
+    private final LoginThrottleService loginThrottleService;
+
+    public LoginThrottleController(Translator translator, LoginThrottleService loginThrottleService) {
+        super(translator);
+        this.loginThrottleService = loginThrottleService;
+    }
+
+    /**
+     * This method returns the usernames and client ips with the most failed logins and password resets within the
+     * throttle window, on this node.
+     *
+     * @param adminId admin userId
+     * @param size    maximum number of offenders
+     * @return offenders
+     */
+    @Secured({ADMIN_ROLE})
+    @GetMapping(path = "/offenders/{size}", produces = APPLICATION_JSON_UTF_8)
+    public ResponseEntity<ResponseWrapper> getTopOffenders(@RequestHeader(name = HEADER_USER_ID) String adminId,
+                                                           @Max(PAGE_MAX_SIZE) @Positive
+                                                           @PathVariable("size") Integer size) {
+        LoginOffenderListResponseDto responseDto = new LoginOffenderListResponseDto(
+                loginThrottleService.getTopOffenders(Math.max(1, Math.min(size, PAGE_MAX_SIZE))));
+        log.debug("Returned {} login offenders to admin: {}", responseDto.getOffenders().size(), adminId);
+        return getSuccessResponse(SuccessResponseStatusType.GET_LOGIN_OFFENDERS, responseDto);
+    }
+}
@@ -10,6 +10,7 @@ import com.swivel.cc.auth.enums.SuccessResponseStatusType;
 import com.swivel.cc.auth.exception.*;
 import com.swivel.cc.auth.service.MerchantService;
 import com.swivel.cc.auth.service.UserService;
+import com.swivel.cc.auth.util.IdGenerator;
 import com.swivel.cc.auth.util.Validator;
 import com.swivel.cc.auth.wrapper.ResponseWrapper;
 import lombok.extern.slf4j.Slf4j;
@@ -37,15 +38,17 @@ public class MerchantController extends Controller {
     private final MerchantService merchantService;
     private final Validator validator;
     private final UserService userService;
+    private final IdGenerator idGenerator;
     Translator translator;
 
     public MerchantController(Translator translator, MerchantService merchantService, Validator validator,
-                              UserService userService) {
+                              UserService userService, IdGenerator idGenerator) {
         super(translator);
         this.translator = translator;
         this.merchantService = merchantService;
         this.validator = validator;
         this.userService = userService;
+        this.idGenerator = idGenerator;
     }
 
     /**
@@ -527,7 +530,7 @@ public class MerchantController extends Controller {
             if (!merchantInfoStatusUpdateRequestDto.isRequiredAvailable()) {
                 return getBadRequestError(ErrorResponseStatusType.MISSING_REQUIRED_FIELDS);
             }
-            var rejectedProfileUpdates = new RejectedProfileUpdates(merchantInfoStatusUpdateRequestDto);
+            var rejectedProfileUpdates = new RejectedProfileUpdates(merchantInfoStatusUpdateRequestDto, idGenerator);
             merchantService.updateMerchantBusinessApprovalStatus(rejectedProfileUpdates,
                     merchantInfoStatusUpdateRequestDto.getAction(), timeZone, roleType);
             log.debug("Successfully approved/rejected business info by: {}, action: {}, roleType: {}",
@@ -568,7 +571,7 @@ public class MerchantController extends Controller {
             if (!merchantInfoStatusUpdateRequestDto.isRequiredAvailable()) {
                 return getBadRequestError(ErrorResponseStatusType.MISSING_REQUIRED_FIELDS);
             }
-            var rejectedProfileUpdates = new RejectedProfileUpdates(merchantInfoStatusUpdateRequestDto);
+            var rejectedProfileUpdates = new RejectedProfileUpdates(merchantInfoStatusUpdateRequestDto, idGenerator);
             merchantService.updateMerchantContactApprovalStatus(rejectedProfileUpdates,
                     merchantInfoStatusUpdateRequestDto.getAction(), timeZone);
             log.debug("Successfully approved/rejected contact info by: {}, action: {}",
@@ -681,7 +684,6 @@ public class MerchantController extends Controller {
             }
             if (!isUserTypeMerchantOrBank(roleType))
                 return getBadRequestError(ErrorResponseStatusType.INVALID_USER_TYPE);
-            merchantService.validateMerchantId(toUserId);
             Business approvedBusiness = merchantService.getApprovedBusinessInfoByUserId(toUserId, roleType);
             if (approvedBusiness != null) {
                 BusinessResponseDto businessResponseDto = new BusinessResponseDto(approvedBusiness, timeZone);
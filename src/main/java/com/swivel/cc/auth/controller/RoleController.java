@@ -0,0 +1,92 @@
+package com.swivel.cc.auth.controller;
+
+import com.swivel.cc.auth.configuration.Translator;
+import com.swivel.cc.auth.enums.ErrorResponseStatusType;
+import com.swivel.cc.auth.enums.SuccessResponseStatusType;
+import com.swivel.cc.auth.exception.AuthServiceException;
+import com.swivel.cc.auth.service.RoleResponseCacheService;
+import com.swivel.cc.auth.wrapper.ResponseWrapper;
+import com.swivel.cc.auth.wrapper.RoleResponseWrapper;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Serves the permissions of a role to the clients receiving the compact login response.
+ * <p>
+ * A permissions version identifies one permission set of a role, so the versioned endpoint is cached for a year by
+ * clients and shared caches. Both endpoints answer conditional requests with 304 by the version as strong etag.
+ */
+@Slf4j
+@RestController
+@RequestMapping("/api/v1/roles")
+public class RoleController extends Controller {
+
+    private static final long VERSIONED_MAX_AGE_DAYS = 365;
+    private static final String IMMUTABLE = ", immutable";
+    private final RoleResponseCacheService roleResponseCacheService;
+
+    public RoleController(Translator translator, RoleResponseCacheService roleResponseCacheService) {
+        super(translator);
+        this.roleResponseCacheService = roleResponseCacheService;
+    }
+
+    /**
+     * This method returns the current permissions of a role.
+     *
+     * @param roleId roleId
+     * @return role with permissions
+     */
+    @GetMapping(path = "/{roleId}/permissions", produces = APPLICATION_JSON_UTF_8)
+    public ResponseEntity<ResponseWrapper> getRolePermissions(@PathVariable int roleId) {
+        try {
+            RoleResponseWrapper roleResponse = roleResponseCacheService.getRoleResponse(roleId);
+            if (roleResponse == null) {
+                return getBadRequestError(ErrorResponseStatusType.INVALID_ROLE);
+            }
+            return ResponseEntity.ok()
+                    .eTag(roleResponse.getPermissionsVersion())
+                    .cacheControl(CacheControl.noCache().cachePrivate())
+                    .body(getSuccessResponse(SuccessResponseStatusType.GET_ROLE_PERMISSIONS, roleResponse).getBody());
+        } catch (AuthServiceException e) {
+            log.error("Getting permissions was failed for roleId: {}", roleId, e);
+            return getInternalServerError();
+        }
+    }
+
+    /**
+     * This method returns the permissions of a role for the version received with the compact login response.
+     *
+     * @param roleId  roleId
+     * @param version permissions version
+     * @return role with permissions, or outdated version if the permissions of the role changed since
+     */
+    @GetMapping(path = "/{roleId}/permissions/{version}", produces = APPLICATION_JSON_UTF_8)
+    public ResponseEntity<ResponseWrapper> getVersionedRolePermissions(@PathVariable int roleId,
+                                                                       @PathVariable String version) {
+        try {
+            RoleResponseWrapper roleResponse = roleResponseCacheService.getRoleResponse(roleId);
+            if (roleResponse == null) {
+                return getBadRequestError(ErrorResponseStatusType.INVALID_ROLE);
+            }
+            if (!version.equals(roleResponse.getPermissionsVersion())) {
+                return getBadRequestError(ErrorResponseStatusType.OUTDATED_PERMISSIONS_VERSION);
+            }
+            return ResponseEntity.ok()
+                    .eTag(version)
+                    .header(HttpHeaders.CACHE_CONTROL, CacheControl.maxAge(VERSIONED_MAX_AGE_DAYS, TimeUnit.DAYS)
+                            .cachePublic().getHeaderValue() + IMMUTABLE)
+                    .body(getSuccessResponse(SuccessResponseStatusType.GET_ROLE_PERMISSIONS, roleResponse).getBody());
+        } catch (AuthServiceException e) {
+            log.error("Getting permissions was failed for roleId: {}, version: {}", roleId, version, e);
+            return getInternalServerError();
+        }
+    }
+}
@@ -1,18 +1,40 @@
 package com.swivel.cc.auth.controller;
 
+import com.fasterxml.jackson.databind.ObjectMapper;
 import com.swivel.cc.auth.configuration.Translator;
+import com.swivel.cc.auth.domain.entity.RevokedToken;
+import com.swivel.cc.auth.domain.request.TokenIntrospectionRequestDto;
+import com.swivel.cc.auth.domain.response.RevokedTokenListResponseDto;
+import com.swivel.cc.auth.domain.response.TokenClaimsResponseDto;
+import com.swivel.cc.auth.domain.response.TokenIntrospectionResponseDto;
 import com.swivel.cc.auth.enums.ErrorResponseStatusType;
 import com.swivel.cc.auth.enums.SuccessResponseStatusType;
+import com.swivel.cc.auth.enums.TokenStatus;
 import com.swivel.cc.auth.exception.AuthServiceException;
 import com.swivel.cc.auth.exception.InvalidUserException;
+import com.swivel.cc.auth.service.RevocationFeedService;
+import com.swivel.cc.auth.service.RevokedTokenService;
+import com.swivel.cc.auth.service.TokenValidationService;
 import com.swivel.cc.auth.service.UserService;
 import com.swivel.cc.auth.wrapper.ResponseWrapper;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.bind.annotation.RequestHeader;
 import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+import java.util.Date;
+import java.util.List;
+import java.util.stream.Collectors;
 
 @Slf4j
 @RestController
@@ -21,11 +43,35 @@ public class TokenController extends Controller {
 
     private static final String AUTHORIZATION = "Authorization";
     private static final String PREFIX = "Bearer";
+    private static final String LAST_EVENT_ID = "Last-Event-ID";
+    private static final String APPLICATION_NDJSON = "application/x-ndjson";
+    private static final int NEW_LINE = '\n';
     private final UserService userService;
+    private final RevokedTokenService revokedTokenService;
+    private final TokenValidationService tokenValidationService;
+    private final ObjectMapper objectMapper;
+    private final RevocationFeedService revocationFeedService;
+    private final int maxIntrospectionBatchSize;
+    private final int maxIntrospectionStreamSize;
+    private final long revocationGapTimeoutMillis;
 
-    public TokenController(Translator translator, UserService userService) {
+    public TokenController(Translator translator, UserService userService,
+                           RevokedTokenService revokedTokenService, TokenValidationService tokenValidationService,
+                           ObjectMapper objectMapper, RevocationFeedService revocationFeedService,
+                           @Value("${application.token-introspection.max-batch-size}") int maxIntrospectionBatchSize,
+                           @Value("${application.token-introspection.max-stream-size}")
+                                   int maxIntrospectionStreamSize,
+                           @Value("${application.token-revocation-feed.gap-timeout-millis}")
+                                   long revocationGapTimeoutMillis) {
         super(translator);
         this.userService = userService;
+        this.revokedTokenService = revokedTokenService;
+        this.tokenValidationService = tokenValidationService;
+        this.objectMapper = objectMapper;
+        this.revocationFeedService = revocationFeedService;
+        this.maxIntrospectionBatchSize = maxIntrospectionBatchSize;
+        this.maxIntrospectionStreamSize = maxIntrospectionStreamSize;
+        this.revocationGapTimeoutMillis = revocationGapTimeoutMillis;
     }
 
     /**
@@ -51,4 +97,130 @@ public class TokenController extends Controller {
             return getInternalServerError();
         }
     }
+
+    /**
+     * This method validates an access token for other services and returns its user id, role and expiry. It is
+     * authenticated by the app key instead of the resource server filters, so the token is only read once.
+     *
+     * @param accessToken bearer access token
+     * @return claims of an active token, otherwise unauthorized with the status of the token
+     */
+    @GetMapping(path = "/claims", produces = APPLICATION_JSON)
+    public ResponseEntity<TokenClaimsResponseDto> getTokenClaims(
+            @RequestHeader(value = AUTHORIZATION) String accessToken) {
+        try {
+            if (!accessToken.regionMatches(true, 0, PREFIX, 0, PREFIX.length())) {
+                return new ResponseEntity<>(new TokenClaimsResponseDto(TokenStatus.INVALID), HttpStatus.UNAUTHORIZED);
+            }
+            TokenClaimsResponseDto claims = tokenValidationService.validate(
+                    accessToken.substring(PREFIX.length()).trim());
+            return new ResponseEntity<>(claims,
+                    claims.getStatus() == TokenStatus.ACTIVE ? HttpStatus.OK : HttpStatus.UNAUTHORIZED);
+        } catch (AuthServiceException e) {
+            log.error("Validating token was failed.", e);
+            return new ResponseEntity<>(HttpStatus.INTERNAL_SERVER_ERROR);
+        }
+    }
+
+    /**
+     * This method validates a batch of access tokens and returns their status and claims in the order of the
+     * request. Authenticated by the app key.
+     *
+     * @param requestDto access tokens
+     * @return claims of the tokens
+     */
+    @PostMapping(path = "/introspect", consumes = APPLICATION_JSON_UTF_8, produces = APPLICATION_JSON_UTF_8)
+    public ResponseEntity<ResponseWrapper> introspectTokens(@RequestBody TokenIntrospectionRequestDto requestDto) {
+        try {
+            if (!requestDto.isRequiredAvailable()) {
+                return getBadRequestError(ErrorResponseStatusType.MISSING_REQUIRED_FIELDS);
+            }
+            if (requestDto.getTokens().size() > maxIntrospectionBatchSize) {
+                return getBadRequestError(ErrorResponseStatusType.MAX_TOKEN_REQUEST_COUNT);
+            }
+            List<TokenClaimsResponseDto> claims = tokenValidationService.validate(requestDto.getTokens());
+            return getSuccessResponse(SuccessResponseStatusType.INTROSPECTED_TOKENS,
+                    new TokenIntrospectionResponseDto(claims));
+        } catch (AuthServiceException e) {
+            log.error("Introspecting tokens was failed. request: {}", requestDto.toLogJson(), e);
+            return getInternalServerError();
+        }
+    }
+
+    /**
+     * This method validates a large batch of access tokens and streams their status and claims as one json line
+     * per token, in the order of the request. The tokens are read in batches of the maximum batch size, and each
+     * batch is flushed once it is read.
+     *
+     * @param requestDto access tokens
+     * @return newline delimited claims of the tokens
+     */
+    @PostMapping(path = "/introspect", consumes = APPLICATION_JSON_UTF_8, produces = APPLICATION_NDJSON)
+    public ResponseEntity<StreamingResponseBody> streamTokenIntrospection(
+            @RequestBody TokenIntrospectionRequestDto requestDto) {
+        if (!requestDto.isRequiredAvailable() || requestDto.getTokens().size() > maxIntrospectionStreamSize) {
+            return ResponseEntity.badRequest().build();
+        }
+        List<String> tokens = requestDto.getTokens();
+        StreamingResponseBody responseBody = outputStream -> {
+            for (int from = 0; from < tokens.size(); from += maxIntrospectionBatchSize) {
+                List<String> batch = tokens.subList(from, Math.min(tokens.size(), from + maxIntrospectionBatchSize));
+                try {
+                    for (TokenClaimsResponseDto claims : tokenValidationService.validate(batch)) {
+                        outputStream.write(objectMapper.writeValueAsBytes(claims));
+                        outputStream.write(NEW_LINE);
+                    }
+                } catch (AuthServiceException e) {
+                    log.error("Streaming token introspection was failed after {} tokens.", from, e);
+                    throw e;
+                }
+                outputStream.flush();
+            }
+        };
+        return ResponseEntity.ok().contentType(MediaType.parseMediaType(APPLICATION_NDJSON)).body(responseBody);
+    }
+
+    /**
+     * This method returns a page of the revoked access tokens which are not expired yet, ordered by their sequence
+     * number. Services verifying jwt access tokens locally read the pages by passing the last id of the previous page
+     * as since id, and reject the listed token ids (md5 of the token value). Revocations after a sequence number which
+     * may still be committed are held back, so the last id can be used to poll for new revocations.
+     *
+     * @param sinceId sequence number of the last revocation read
+     * @param size    maximum number of revocations read
+     * @return revoked tokens
+     */
+    @GetMapping(path = "/revocations", produces = APPLICATION_JSON_UTF_8)
+    public ResponseEntity<ResponseWrapper> getRevokedTokens(@RequestParam(value = "sinceId", defaultValue = "0")
+                                                                    long sinceId,
+                                                            @RequestParam(value = "size", defaultValue = "250")
+                                                                    int size) {
+        try {
+            if (size <= 0 || size > PAGE_MAX_SIZE) {
+                return getBadRequestError(ErrorResponseStatusType.INVALID_PAGE_SIZE);
+            }
+            List<RevokedToken> revocations = revokedTokenService.getRevocationsAfter(sinceId,
+                    revocationGapTimeoutMillis, size);
+            long lastId = revocations.isEmpty() ? sinceId : revocations.get(revocations.size() - 1).getId();
+            Date now = new Date();
+            RevokedTokenListResponseDto responseDto = new RevokedTokenListResponseDto(revocations.stream()
+                    .filter(revocation -> revocation.getExpiresAt().after(now)).collect(Collectors.toList()), lastId);
+            return getSuccessResponse(SuccessResponseStatusType.GET_REVOKED_TOKENS, responseDto);
+        } catch (AuthServiceException e) {
+            log.error("Getting revoked tokens after sequence: {} was failed.", sinceId, e);
+            return getInternalServerError();
+        }
+    }
+
+    /**
+     * This method streams every token revocation as a server-sent event whose id is the sequence number of the
+     * revocation. A reconnecting client sends the Last-Event-ID header and resumes after it.
+     *
+     * @param lastEventId sequence number of the last event received
+     * @return revocation events
+     */
+    @GetMapping(path = "/revocations/events", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public SseEmitter getRevocationEvents(@RequestHeader(value = LAST_EVENT_ID, required = false) Long lastEventId) {
+        return revocationFeedService.subscribe(lastEventId);
+    }
 }
@@ -0,0 +1,90 @@
+package com.swivel.cc.auth.controller;
+
+import com.swivel.cc.auth.configuration.Translator;
+import com.swivel.cc.auth.enums.SuccessResponseStatusType;
+import com.swivel.cc.auth.exception.AuthServiceException;
+import com.swivel.cc.auth.service.TokenRevocationService;
+import com.swivel.cc.auth.wrapper.ResponseWrapper;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.annotation.Secured;
+import org.springframework.web.bind.annotation.*;
+
+/**
+ * Token revocation controller for admins
+ */
+@Slf4j
+@RestController
+@RequestMapping("/api/v1/admin/tokens")
+public class TokenRevocationController extends Controller {
+
+    private final TokenRevocationService tokenRevocationService;
+
+    public TokenRevocationController(Translator translator, TokenRevocationService tokenRevocationService) {
+        super(translator);
+        this.tokenRevocationService = tokenRevocationService;
+    }
+
+    /**
+     * This method revokes all tokens of a user.
+     *
+     * @param adminId admin userId
+     * @param userId  userId
+     * @return success/failure response
+     */
+    @Secured({ADMIN_ROLE})
+    @DeleteMapping(path = "/users/{userId}", produces = APPLICATION_JSON_UTF_8)
+    public ResponseEntity<ResponseWrapper> revokeUserTokens(@RequestHeader(name = HEADER_USER_ID) String adminId,
+                                                            @PathVariable String userId) {
+        try {
+            int removed = tokenRevocationService.revokeByUser(userId);
+            log.debug("Revoked tokens of user: {} by admin: {}, removed rows: {}", userId, adminId, removed);
+            return getSuccessResponse(SuccessResponseStatusType.REVOKED_TOKENS, null);
+        } catch (AuthServiceException e) {
+            log.error("Revoking tokens of user: {} by admin: {} was failed", userId, adminId, e);
+            return getInternalServerError();
+        }
+    }
+
+    /**
+     * This method revokes all tokens of the users holding a role.
+     *
+     * @param adminId admin userId
+     * @param roleId  roleId
+     * @return success/failure response
+     */
+    @Secured({ADMIN_ROLE})
+    @DeleteMapping(path = "/roles/{roleId}", produces = APPLICATION_JSON_UTF_8)
+    public ResponseEntity<ResponseWrapper> revokeRoleTokens(@RequestHeader(name = HEADER_USER_ID) String adminId,
+                                                            @PathVariable int roleId) {
+        try {
+            int removed = tokenRevocationService.revokeByRole(roleId);
+            log.debug("Revoked tokens of role: {} by admin: {}, removed rows: {}", roleId, adminId, removed);
+            return getSuccessResponse(SuccessResponseStatusType.REVOKED_TOKENS, null);
+        } catch (AuthServiceException e) {
+            log.error("Revoking tokens of role: {} by admin: {} was failed", roleId, adminId, e);
+            return getInternalServerError();
+        }
+    }
+
+    /**
+     * This method revokes all tokens issued to a client.
+     *
+     * @param adminId  admin userId
+     * @param clientId clientId
+     * @return success/failure response
+     */
+    @Secured({ADMIN_ROLE})
+    @DeleteMapping(path = "/clients/{clientId}", produces = APPLICATION_JSON_UTF_8)
+    public ResponseEntity<ResponseWrapper> revokeClientTokens(@RequestHeader(name = HEADER_USER_ID) String adminId,
+                                                              @PathVariable String clientId) {
+        try {
+            int removed = tokenRevocationService.revokeByClient(clientId);
+            log.debug("Revoked tokens of client: {} by admin: {}, removed rows: {}", clientId, adminId, removed);
+            return getSuccessResponse(SuccessResponseStatusType.REVOKED_TOKENS, null);
+        } catch (AuthServiceException e) {
+            log.error("Revoking tokens of client: {} by admin: {} was failed", clientId, adminId, e);
+            return getInternalServerError();
+        }
+    }
+}
@@ -11,8 +11,10 @@ import com.swivel.cc.auth.enums.Language;
 import com.swivel.cc.auth.enums.RoleType;
 import com.swivel.cc.auth.enums.SuccessResponseStatusType;
 import com.swivel.cc.auth.exception.*;
+import com.swivel.cc.auth.service.TokenRevocationService;
 import com.swivel.cc.auth.service.UserRoleService;
 import com.swivel.cc.auth.service.UserService;
+import com.swivel.cc.auth.util.IdGenerator;
 import com.swivel.cc.auth.util.Validator;
 import com.swivel.cc.auth.wrapper.ResponseWrapper;
 import lombok.extern.slf4j.Slf4j;
@@ -26,7 +28,6 @@ import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.annotation.Secured;
 import org.springframework.security.core.context.SecurityContextHolder;
-import org.springframework.security.oauth2.common.OAuth2AccessToken;
 import org.springframework.security.oauth2.provider.OAuth2Authentication;
 import org.springframework.security.oauth2.provider.token.DefaultTokenServices;
 import org.springframework.web.bind.annotation.*;
@@ -34,8 +35,6 @@ import org.springframework.web.bind.annotation.*;
 import javax.validation.constraints.Max;
 import javax.validation.constraints.Min;
 import javax.validation.constraints.Positive;
-import java.util.ArrayList;
-import java.util.Collection;
 import java.util.List;
 
 /**
@@ -55,16 +54,21 @@ public class UserController extends Controller {
     private final Validator validator;
     private final DefaultTokenServices defaultTokenServices;
     private final UserRoleService userRoleService;
+    private final TokenRevocationService tokenRevocationService;
+    private final IdGenerator idGenerator;
 
     @Autowired
     public UserController(UserService userService, Validator validator,
                           @Qualifier("tokenServices") DefaultTokenServices defaultTokenServices, Translator translator,
-                          UserRoleService userRoleService) {
+                          UserRoleService userRoleService, TokenRevocationService tokenRevocationService,
+                          IdGenerator idGenerator) {
         super(translator);
         this.userService = userService;
         this.validator = validator;
         this.defaultTokenServices = defaultTokenServices;
         this.userRoleService = userRoleService;
+        this.tokenRevocationService = tokenRevocationService;
+        this.idGenerator = idGenerator;
     }
 
     /**
@@ -88,7 +92,8 @@ public class UserController extends Controller {
             }
             if (userRequestDto.isRequiredAvailable()) {
                 if (isValidInput(userRequestDto)) {
-                    User user = new User(userRequestDto);
+                    User user = new User(userRequestDto, userService.encodePassword(userRequestDto.getPassword()),
+                            idGenerator);
                     return createUser(user, timeZone);
                 } else {
                     return getBadRequestError(getCreateUserInvalidFields(userRequestDto));
@@ -96,6 +101,10 @@ public class UserController extends Controller {
             } else {
                 return getBadRequestError(ErrorResponseStatusType.MISSING_REQUIRED_FIELDS);
             }
+        } catch (PasswordHashingRejectedException e) {
+            log.warn("Creating user was rejected, password hashing is overloaded");
+            return getServiceUnavailableError(ErrorResponseStatusType.PASSWORD_HASHING_OVERLOADED,
+                    PasswordHashingRejectedException.RETRY_AFTER_SECONDS);
         } catch (AuthServiceException e) {
             log.error("Creating user was failed for user: {}", userRequestDto.toLogJson(), e);
             return getInternalServerError();
@@ -164,7 +173,7 @@ public class UserController extends Controller {
             }
             if (unregisterUserDto.isRequiredAvailable()) {
                 if (validator.isValidMobileNoWithCountryCode(unregisterUserDto.getMobileNo().getNo())) {
-                    User user = new User(unregisterUserDto);
+                    User user = new User(unregisterUserDto, idGenerator);
                     return createUnregisteredUserIfValidUser(unregisterUserDto, user, timeZone);
                 } else {
                     return getBadRequestError(ErrorResponseStatusType.INVALID_MOBILE_NO);
@@ -273,6 +282,10 @@ public class UserController extends Controller {
             } else {
                 return getBadRequestError(ErrorResponseStatusType.MISSING_REQUIRED_FIELDS);
             }
+        } catch (PasswordHashingRejectedException e) {
+            log.warn("Updating password was rejected, password hashing is overloaded");
+            return getServiceUnavailableError(ErrorResponseStatusType.PASSWORD_HASHING_OVERLOADED,
+                    PasswordHashingRejectedException.RETRY_AFTER_SECONDS);
         } catch (AuthServiceException e) {
             log.error("Updating password was failed for userId: {}", userId, e);
             return getInternalServerError();
@@ -336,6 +349,10 @@ public class UserController extends Controller {
         } catch (ExpiredPasswordResetTokenException e) {
             log.error("Reset password token was expired ", e);
             return getBadRequestError(ErrorResponseStatusType.PASSWORD_RESET_TOKEN_WAS_EXPIRED);
+        } catch (PasswordHashingRejectedException e) {
+            log.warn("Resetting password was rejected, password hashing is overloaded");
+            return getServiceUnavailableError(ErrorResponseStatusType.PASSWORD_HASHING_OVERLOADED,
+                    PasswordHashingRejectedException.RETRY_AFTER_SECONDS);
         } catch (AuthServiceException e) {
             log.error("Resetting password was failed for userId: ", e);
             return getInternalServerError();
@@ -380,12 +397,7 @@ public class UserController extends Controller {
     private ResponseEntity<ResponseWrapper> resetPasswordForValidInputs(ResetPasswordRequestDto
                                                                                 resetPasswordRequestDto) {
         User user = userService.resetPassword(resetPasswordRequestDto);
-        Collection<OAuth2AccessToken> accessTokens = userService.getTokenByUserId(user.getId());
-        for (OAuth2AccessToken token : new ArrayList<>(accessTokens)) {
-            if (token != null) {
-                defaultTokenServices.revokeToken(token.getValue());
-            }
-        }
+        tokenRevocationService.revokeByUser(user.getId());
         return getSuccessResponse(SuccessResponseStatusType.RESET_PASSWORD, null);
     }
 
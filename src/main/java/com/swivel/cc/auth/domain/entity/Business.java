@@ -2,13 +2,13 @@ package com.swivel.cc.auth.domain.entity;
 
 import com.swivel.cc.auth.domain.request.BusinessRequestDto;
 import com.swivel.cc.auth.enums.ApprovalStatus;
+import com.swivel.cc.auth.util.IdGenerator;
 import lombok.Getter;
 import lombok.NoArgsConstructor;
 import lombok.Setter;
 
 import javax.persistence.*;
 import java.util.Date;
-import java.util.UUID;
 
 @Entity
 @Table(name = "business")
@@ -40,8 +40,8 @@ public class Business {
     @Enumerated(EnumType.STRING)
     private ApprovalStatus approvalStatus;
 
-    public Business(BusinessRequestDto businessRequestDto, User user) {
-        this.id = BUSINESS_ID_PREFIX + UUID.randomUUID();
+    public Business(BusinessRequestDto businessRequestDto, User user, IdGenerator idGenerator) {
+        this.id = idGenerator.nextId(BUSINESS_ID_PREFIX);
         this.merchant = user;
         this.businessName = businessRequestDto.getBusinessName();
         this.ownerName = businessRequestDto.getOwnerName();
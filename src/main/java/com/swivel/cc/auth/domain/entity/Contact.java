@@ -3,13 +3,13 @@ package com.swivel.cc.auth.domain.entity;
 import com.swivel.cc.auth.domain.request.ContactRequestDto;
 import com.swivel.cc.auth.enums.ApprovalStatus;
 import com.swivel.cc.auth.enums.RoleType;
+import com.swivel.cc.auth.util.IdGenerator;
 import lombok.Getter;
 import lombok.NoArgsConstructor;
 import lombok.Setter;
 
 import javax.persistence.*;
 import java.util.Date;
-import java.util.UUID;
 
 @Entity
 @Table(name = "contact")
@@ -36,8 +36,8 @@ public class Contact {
     @Enumerated(EnumType.STRING)
     private RoleType roleType;
 
-    public Contact(ContactRequestDto contactRequestDto, User user, RoleType roleType) {
-        this.id = CONTACT_ID_PREFIX + UUID.randomUUID();
+    public Contact(ContactRequestDto contactRequestDto, User user, RoleType roleType, IdGenerator idGenerator) {
+        this.id = idGenerator.nextId(CONTACT_ID_PREFIX);
         this.merchant = user;
         this.name = contactRequestDto.getName();
         this.designation = contactRequestDto.getDesignation();
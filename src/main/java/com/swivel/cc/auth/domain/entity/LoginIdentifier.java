@@ -0,0 +1,92 @@
+package com.swivel.cc.auth.domain.entity;
+
+import com.swivel.cc.auth.enums.LoginIdentifierType;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+import javax.persistence.*;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+
+/**
+ * Normalized identifier of a user, the user id, the mobile number without separators or the lower-cased email.
+ * The identifier is the primary key, so resolving a username is a single point lookup.
+ */
+@Entity
+@Table(name = "login_identifier")
+@Setter
+@Getter
+@NoArgsConstructor
+public class LoginIdentifier {
+
+    private static final String USER_ID_PREFIX = "uid-";
+    private static final String EMAIL_SEPARATOR = "@";
+    private static final String MOBILE_NO_SEPARATOR = "-";
+
+    @Id
+    private String identifier;
+    @Enumerated(EnumType.STRING)
+    private LoginIdentifierType type;
+    @ManyToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "user_id", nullable = false)
+    private User user;
+
+    public LoginIdentifier(String identifier, LoginIdentifierType type, User user) {
+        this.identifier = identifier;
+        this.type = type;
+        this.user = user;
+    }
+
+    /**
+     * This method returns the identifiers of a user.
+     *
+     * @param user user
+     * @return login identifiers
+     */
+    public static List<LoginIdentifier> of(User user) {
+        List<LoginIdentifier> loginIdentifiers = new ArrayList<>();
+        loginIdentifiers.add(new LoginIdentifier(user.getId(), LoginIdentifierType.USER_ID, user));
+        if (user.getMobileNo() != null && !user.getMobileNo().isEmpty()) {
+            loginIdentifiers.add(new LoginIdentifier(normalizeMobileNo(user.getMobileNo()),
+                    LoginIdentifierType.MOBILE_NO, user));
+        }
+        if (user.getEmail() != null && !user.getEmail().isEmpty()) {
+            loginIdentifiers.add(new LoginIdentifier(normalizeEmail(user.getEmail()), LoginIdentifierType.EMAIL,
+                    user));
+        }
+        return loginIdentifiers;
+    }
+
+    /**
+     * This method normalizes a username, which is a user id, a mobile number with or without separators or an email.
+     *
+     * @param userName userName
+     * @return identifier
+     */
+    public static String normalize(String userName) {
+        if (userName.contains(EMAIL_SEPARATOR)) {
+            return normalizeEmail(userName);
+        }
+        return isUserId(userName) ? userName : normalizeMobileNo(userName);
+    }
+
+    /**
+     * This method checks whether a username is a user id.
+     *
+     * @param userName userName
+     * @return true if the username is a user id
+     */
+    public static boolean isUserId(String userName) {
+        return userName.startsWith(USER_ID_PREFIX);
+    }
+
+    private static String normalizeMobileNo(String mobileNo) {
+        return mobileNo.replace(MOBILE_NO_SEPARATOR, "");
+    }
+
+    private static String normalizeEmail(String email) {
+        return email.toLowerCase(Locale.ROOT);
+    }
+}
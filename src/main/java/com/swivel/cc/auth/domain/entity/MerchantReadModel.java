@@ -0,0 +1,131 @@
+package com.swivel.cc.auth.domain.entity;
+
+import com.swivel.cc.auth.domain.BusinessProfile;
+import com.swivel.cc.auth.enums.ApprovalStatus;
+import com.swivel.cc.auth.enums.RoleType;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+import javax.persistence.*;
+import java.util.Date;
+
+/**
+ * Denormalized state of a merchant or bank, maintained by the merchant service whenever the user approval status or
+ * a business profile changes. Login, bulk-info and approved profile reads are served from this row.
+ */
+@Entity
+@Table(name = "merchant_read_model")
+@Getter
+@Setter
+@NoArgsConstructor
+public class MerchantReadModel {
+
+    @Id
+    private String userId;
+    @Enumerated(EnumType.STRING)
+    private RoleType userRole;
+    @Enumerated(EnumType.STRING)
+    private ApprovalStatus merchantApprovalStatus;
+    private Date joinedOn;
+    private boolean active;
+    @Enumerated(EnumType.STRING)
+    private ApprovalStatus profileApprovalStatus;
+    private String businessId;
+    private String businessName;
+    private String ownerName;
+    private String mobileNo;
+    private String telephone;
+    private String email;
+    private String businessRegNo;
+    private String address;
+    private String imageUrl;
+    private String webSite;
+    private String facebook;
+    private String instagram;
+    private Date businessCreatedAt;
+    private Date businessUpdatedAt;
+    @Enumerated(EnumType.STRING)
+    private ApprovalStatus businessApprovalStatus;
+
+    /**
+     * Build the state of a merchant or bank from its user and business profiles.
+     *
+     * @param merchant         merchant or bank user
+     * @param approvedBusiness approved business profile or null
+     * @param latestBusiness   latest business profile or null
+     */
+    public MerchantReadModel(User merchant, Business approvedBusiness, Business latestBusiness) {
+        this.userId = merchant.getId();
+        this.userRole = RoleType.valueOf(merchant.getRole().getName());
+        this.merchantApprovalStatus = merchant.getApprovalStatus();
+        this.joinedOn = merchant.getCreatedAt();
+        this.active = approvedBusiness != null && (merchantApprovalStatus == ApprovalStatus.APPROVED
+                || merchantApprovalStatus == ApprovalStatus.UNBLOCKED);
+        Business loginBusiness = approvedBusiness != null ? approvedBusiness : latestBusiness;
+        this.profileApprovalStatus = loginBusiness == null ? null : loginBusiness.getApprovalStatus();
+        if (approvedBusiness != null) {
+            this.businessId = approvedBusiness.getId();
+            this.businessName = approvedBusiness.getBusinessName();
+            this.ownerName = approvedBusiness.getOwnerName();
+            this.mobileNo = approvedBusiness.getMobileNo();
+            this.telephone = approvedBusiness.getTelephone();
+            this.email = approvedBusiness.getEmail();
+            this.businessRegNo = approvedBusiness.getBusinessRegNo();
+            this.address = approvedBusiness.getAddress();
+            this.imageUrl = approvedBusiness.getImageUrl();
+            this.webSite = approvedBusiness.getWebSite();
+            this.facebook = approvedBusiness.getFacebook();
+            this.instagram = approvedBusiness.getInstagram();
+            this.businessCreatedAt = approvedBusiness.getCreatedAt();
+            this.businessUpdatedAt = approvedBusiness.getUpdatedAt();
+            this.businessApprovalStatus = approvedBusiness.getApprovalStatus();
+        }
+    }
+
+    /**
+     * This method returns the business profile details of the login response.
+     *
+     * @return business profile
+     */
+    public BusinessProfile toBusinessProfile() {
+        BusinessProfile businessProfile = new BusinessProfile();
+        businessProfile.setUpdated(profileApprovalStatus != null);
+        businessProfile.setApprovalStatus(profileApprovalStatus);
+        return businessProfile;
+    }
+
+    /**
+     * This method returns the approved business profile as a detached business, for the existing response dtos.
+     *
+     * @return approved business or null if there is none
+     */
+    public Business toApprovedBusiness() {
+        if (businessId == null) {
+            return null;
+        }
+        User merchant = new User();
+        merchant.setId(userId);
+        merchant.setApprovalStatus(merchantApprovalStatus);
+        merchant.setCreatedAt(joinedOn);
+        merchant.setRole(new Role(userRole));
+        Business business = new Business();
+        business.setId(businessId);
+        business.setMerchant(merchant);
+        business.setBusinessName(businessName);
+        business.setOwnerName(ownerName);
+        business.setMobileNo(mobileNo);
+        business.setTelephone(telephone);
+        business.setEmail(email);
+        business.setBusinessRegNo(businessRegNo);
+        business.setAddress(address);
+        business.setImageUrl(imageUrl);
+        business.setWebSite(webSite);
+        business.setFacebook(facebook);
+        business.setInstagram(instagram);
+        business.setCreatedAt(businessCreatedAt);
+        business.setUpdatedAt(businessUpdatedAt);
+        business.setApprovalStatus(businessApprovalStatus);
+        return business;
+    }
+}
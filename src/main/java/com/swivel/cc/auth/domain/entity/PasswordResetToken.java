@@ -1,13 +1,12 @@
 package com.swivel.cc.auth.domain.entity;
 
+import com.swivel.cc.auth.util.IdGenerator;
 import lombok.Data;
 import lombok.NoArgsConstructor;
 
 import javax.persistence.*;
 import java.util.Calendar;
 import java.util.Date;
-import java.util.Random;
-import java.util.UUID;
 
 @Entity
 @Data
@@ -30,9 +29,9 @@ public class PasswordResetToken {
     private User user;
     private Date expiryDate;
 
-    public PasswordResetToken(User user) {
-        this.id = PSW_RESET_TOKEN_PREFIX + UUID.randomUUID();
-        int randomDigit = new Random().nextInt(BOUND_LIMIT);
+    public PasswordResetToken(User user, IdGenerator idGenerator) {
+        this.id = idGenerator.nextId(PSW_RESET_TOKEN_PREFIX);
+        int randomDigit = idGenerator.nextNumber(BOUND_LIMIT);
         this.token = String.format(TOKEN_FORMATTER, randomDigit);
         this.user = user;
         setExpiration(TOKEN_EXPIRATION_TIME);
@@ -1,11 +1,13 @@
 package com.swivel.cc.auth.domain.entity;
 
+import com.swivel.cc.auth.configuration.RolePermissionChangeListener;
 import lombok.Data;
 
 import javax.persistence.*;
 import java.io.Serializable;
 
 @Entity
+@EntityListeners(RolePermissionChangeListener.class)
 @Table(name = "permission")
 @Data
 public class Permission implements Serializable {
@@ -1,13 +1,13 @@
 package com.swivel.cc.auth.domain.entity;
 
 import com.swivel.cc.auth.domain.request.MerchantStatusUpdateRequestDto;
+import com.swivel.cc.auth.util.IdGenerator;
 import lombok.Getter;
 import lombok.NoArgsConstructor;
 import lombok.Setter;
 
 import javax.persistence.*;
 import java.util.Date;
-import java.util.UUID;
 
 /**
  * Rejected merchant entity
@@ -28,8 +28,8 @@ public class RejectedMerchant {
     private String comment;
     private Date createdAt;
 
-    public RejectedMerchant(MerchantStatusUpdateRequestDto merchantStatusUpdateRequestDto) {
-        this.id = REJECTED_MERCHANT_ID_PREFIX + UUID.randomUUID();
+    public RejectedMerchant(MerchantStatusUpdateRequestDto merchantStatusUpdateRequestDto, IdGenerator idGenerator) {
+        this.id = idGenerator.nextId(REJECTED_MERCHANT_ID_PREFIX);
         this.merchantId = merchantStatusUpdateRequestDto.getMerchantId();
         this.comment = merchantStatusUpdateRequestDto.getComment();
         this.createdAt = new Date();
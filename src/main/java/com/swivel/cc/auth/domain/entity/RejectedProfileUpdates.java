@@ -3,13 +3,13 @@ package com.swivel.cc.auth.domain.entity;
 import com.swivel.cc.auth.domain.request.MerchantInfoStatusUpdateRequestDto;
 import com.swivel.cc.auth.enums.MerchantInfo;
 import com.swivel.cc.auth.enums.RoleType;
+import com.swivel.cc.auth.util.IdGenerator;
 import lombok.Getter;
 import lombok.NoArgsConstructor;
 import lombok.Setter;
 
 import javax.persistence.*;
 import java.util.Date;
-import java.util.UUID;
 
 @Entity
 @Table(name = "rejected_profile_updates")
@@ -30,8 +30,9 @@ public class RejectedProfileUpdates {
     @Enumerated(EnumType.STRING)
     private RoleType roleType;
 
-    public RejectedProfileUpdates(MerchantInfoStatusUpdateRequestDto merchantInfoStatusUpdateRequestDto) {
-        this.id = REJECTED_PROFILE_UPDATES_ID_PREFIX + UUID.randomUUID();
+    public RejectedProfileUpdates(MerchantInfoStatusUpdateRequestDto merchantInfoStatusUpdateRequestDto,
+                                  IdGenerator idGenerator) {
+        this.id = idGenerator.nextId(REJECTED_PROFILE_UPDATES_ID_PREFIX);
         this.referenceId = merchantInfoStatusUpdateRequestDto.getId();
         this.comment = merchantInfoStatusUpdateRequestDto.getComment();
         this.createdAt = new Date();
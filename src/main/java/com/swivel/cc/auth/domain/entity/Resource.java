@@ -1,11 +1,13 @@
 package com.swivel.cc.auth.domain.entity;
 
+import com.swivel.cc.auth.configuration.RolePermissionChangeListener;
 import lombok.Data;
 
 import javax.persistence.*;
 import java.io.Serializable;
 
 @Entity
+@EntityListeners(RolePermissionChangeListener.class)
 @Table(name = "resource")
 @Data
 public class Resource implements Serializable {
@@ -0,0 +1,43 @@
+package com.swivel.cc.auth.domain.entity;
+
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+import javax.persistence.*;
+import java.util.Date;
+
+/**
+ * Revoked token entity. Keeps the key of a revoked access token until the token would have expired,
+ * so that services verifying tokens locally can reject it.
+ */
+@Entity
+@Table(name = "oauth_revoked_token", indexes = {@Index(name = "expires_at", columnList = "expires_at"),
+        @Index(name = "token_id", columnList = "token_id")})
+@Getter
+@Setter
+@NoArgsConstructor
+public class RevokedToken {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+    @Column(name = "token_id")
+    private String tokenId;
+    @Column(name = "user_name")
+    private String userName;
+    @Column(name = "client_id")
+    private String clientId;
+    @Column(name = "revoked_at")
+    private Date revokedAt;
+    @Column(name = "expires_at")
+    private Date expiresAt;
+
+    public RevokedToken(String tokenId, String userName, String clientId, Date expiresAt) {
+        this.tokenId = tokenId;
+        this.userName = userName;
+        this.clientId = clientId;
+        this.revokedAt = new Date();
+        this.expiresAt = expiresAt;
+    }
+}
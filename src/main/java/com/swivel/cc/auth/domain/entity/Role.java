@@ -1,5 +1,6 @@
 package com.swivel.cc.auth.domain.entity;
 
+import com.swivel.cc.auth.configuration.RolePermissionChangeListener;
 import com.swivel.cc.auth.enums.RoleType;
 import lombok.Data;
 import lombok.NoArgsConstructor;
@@ -9,6 +10,7 @@ import java.io.Serializable;
 import java.util.List;
 
 @Entity
+@EntityListeners(RolePermissionChangeListener.class)
 @Table(name = "role")
 @Data
 @NoArgsConstructor
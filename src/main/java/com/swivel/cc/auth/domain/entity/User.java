@@ -5,15 +5,14 @@ import com.swivel.cc.auth.domain.request.UserRequestDto;
 import com.swivel.cc.auth.domain.request.UserUpdateRequestDto;
 import com.swivel.cc.auth.enums.ApprovalStatus;
 import com.swivel.cc.auth.enums.Language;
+import com.swivel.cc.auth.util.IdGenerator;
 import com.swivel.cc.auth.wrapper.FacebookResponseWrapper;
 import com.swivel.cc.auth.wrapper.GoogleResponseWrapper;
 import lombok.Data;
-import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
 
 import javax.persistence.*;
 import java.io.Serializable;
 import java.util.Date;
-import java.util.UUID;
 
 @Entity
 @Data
@@ -22,8 +21,6 @@ public class User implements Serializable {
 
     @Transient
     private static final String USER_ID_PREFIX = "uid-";
-    @Transient
-    private static final BCryptPasswordEncoder bCryptPasswordEncoder = new BCryptPasswordEncoder();
     @Id
     private String id;
     @Column(name = "fullname")
@@ -76,8 +73,8 @@ public class User implements Serializable {
         this.role = user.getRole();
     }
 
-    public User(GoogleResponseWrapper googleResponseWrapper) {
-        this.id = USER_ID_PREFIX + UUID.randomUUID();
+    public User(GoogleResponseWrapper googleResponseWrapper, IdGenerator idGenerator) {
+        this.id = idGenerator.nextId(USER_ID_PREFIX);
         this.fullName = googleResponseWrapper.getName();
         this.email = googleResponseWrapper.getEmail();
         this.imageUrl = googleResponseWrapper.getPicture();
@@ -91,14 +88,14 @@ public class User implements Serializable {
     }
 
 
-    public User(UserRequestDto userRequestDto) {
-        this.id = USER_ID_PREFIX + UUID.randomUUID();
+    public User(UserRequestDto userRequestDto, String encodedPassword, IdGenerator idGenerator) {
+        this.id = idGenerator.nextId(USER_ID_PREFIX);
         this.fullName = userRequestDto.getFullName().trim();
         this.email = userRequestDto.getEmail() != null && !userRequestDto.getEmail().isEmpty() ?
                 userRequestDto.getEmail().trim() : null;
         this.mobileNo = userRequestDto.getMobileNo().getNo();
         this.mobileNoAsUserName = userRequestDto.getMobileNo().getNo().replace("-", "");
-        this.password = bCryptPasswordEncoder.encode(userRequestDto.getPassword());
+        this.password = encodedPassword;
         this.language = Language.getLanguage(userRequestDto.getLanguage());
         this.role = new Role(userRequestDto.getRoleType());
         this.isRegisteredUser = true;
@@ -108,8 +105,8 @@ public class User implements Serializable {
         this.approvalStatus = ApprovalStatus.APPROVED;
     }
 
-    public User(UnregisterUserDto unregisterUserDto) {
-        this.id = USER_ID_PREFIX + UUID.randomUUID();
+    public User(UnregisterUserDto unregisterUserDto, IdGenerator idGenerator) {
+        this.id = idGenerator.nextId(USER_ID_PREFIX);
         this.mobileNo = unregisterUserDto.getMobileNo().getNo();
         this.language = Language.getLanguage(unregisterUserDto.getLanguage());
         this.isRegisteredUser = false;
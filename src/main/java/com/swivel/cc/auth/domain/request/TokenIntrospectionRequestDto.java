@@ -0,0 +1,34 @@
+package com.swivel.cc.auth.domain.request;
+
+import lombok.Getter;
+import lombok.Setter;
+
+import java.util.List;
+
+@Getter
+@Setter
+public class TokenIntrospectionRequestDto extends RequestDto {
+
+    private List<String> tokens;
+
+    /**
+     * This method checks all required fields are available.
+     *
+     * @return true/ false
+     */
+    @Override
+    public boolean isRequiredAvailable() {
+        return tokens != null && !tokens.isEmpty();
+    }
+
+    /**
+     * This method converts this object to json string for logging purpose.
+     * The tokens are not logged, only their count.
+     *
+     * @return json string
+     */
+    @Override
+    public String toLogJson() {
+        return "{\"tokens\":" + (tokens == null ? 0 : tokens.size()) + "}";
+    }
+}
@@ -0,0 +1,23 @@
+package com.swivel.cc.auth.domain.response;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.Setter;
+
+import java.util.List;
+
+/**
+ * LoginOffenderList DTO for Response
+ */
+@Getter
+@Setter
+@AllArgsConstructor
+public class LoginOffenderListResponseDto implements ResponseDto {
+
+    private List<LoginOffenderResponseDto> offenders;
+
+    @Override
+    public String toLogJson() {
+        return toJson();
+    }
+}
@@ -0,0 +1,26 @@
+package com.swivel.cc.auth.domain.response;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+/**
+ * LoginOffender DTO for Response
+ */
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+public class LoginOffenderResponseDto implements ResponseDto {
+
+    private String type;
+    private String identity;
+    private int failures;
+    private long blockedUntil;
+
+    @Override
+    public String toLogJson() {
+        return toJson();
+    }
+}
@@ -0,0 +1,29 @@
+package com.swivel.cc.auth.domain.response;
+
+import com.swivel.cc.auth.domain.entity.RevokedToken;
+import lombok.Getter;
+import lombok.Setter;
+
+import java.util.List;
+import java.util.stream.Collectors;
+
+/**
+ * RevokedTokenList DTO for Response
+ */
+@Getter
+@Setter
+public class RevokedTokenListResponseDto implements ResponseDto {
+
+    private List<RevokedTokenResponseDto> revokedTokens;
+    private long lastId;
+
+    public RevokedTokenListResponseDto(List<RevokedToken> revokedTokens, long lastId) {
+        this.revokedTokens = revokedTokens.stream().map(RevokedTokenResponseDto::new).collect(Collectors.toList());
+        this.lastId = lastId;
+    }
+
+    @Override
+    public String toLogJson() {
+        return toJson();
+    }
+}
@@ -0,0 +1,28 @@
+package com.swivel.cc.auth.domain.response;
+
+import com.swivel.cc.auth.domain.entity.RevokedToken;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+/**
+ * RevokedToken DTO for Response
+ */
+@Getter
+@Setter
+@NoArgsConstructor
+public class RevokedTokenResponseDto implements ResponseDto {
+
+    private String tokenId;
+    private long expiresAt;
+
+    public RevokedTokenResponseDto(RevokedToken revokedToken) {
+        this.tokenId = revokedToken.getTokenId();
+        this.expiresAt = revokedToken.getExpiresAt().getTime();
+    }
+
+    @Override
+    public String toLogJson() {
+        return toJson();
+    }
+}
@@ -0,0 +1,30 @@
+package com.swivel.cc.auth.domain.response;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import com.swivel.cc.auth.enums.TokenStatus;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+/**
+ * Claims of a validated access token, returned as they are without the response wrapper. The user id, role and
+ * expiry in epoch seconds are only set for an active token.
+ */
+@Getter
+@AllArgsConstructor
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class TokenClaimsResponseDto implements ResponseDto {
+
+    private final TokenStatus status;
+    private final String userId;
+    private final String role;
+    private final Long exp;
+
+    public TokenClaimsResponseDto(TokenStatus status) {
+        this(status, null, null, null);
+    }
+
+    @Override
+    public String toLogJson() {
+        return toJson();
+    }
+}
@@ -0,0 +1,21 @@
+package com.swivel.cc.auth.domain.response;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+import java.util.List;
+
+/**
+ * Claims of a batch of access tokens, in the order of the request.
+ */
+@Getter
+@AllArgsConstructor
+public class TokenIntrospectionResponseDto implements ResponseDto {
+
+    private final List<TokenClaimsResponseDto> tokens;
+
+    @Override
+    public String toLogJson() {
+        return toJson();
+    }
+}
@@ -56,7 +56,12 @@ public enum ErrorResponseStatusType {
     NO_APPROVED_BUSINESS_INFO_FOUND(4422, "Approved business information are not available for the merchant.."),
     INVALID_MOBILE_NUMBER(4423, "Invalid mobile number."),
     FAILED_TO_SEND_PW_RESET_TOKEN(4424, "Failed to send the password reset token."),
-    INVALID_USER_ID_OR_ROLE(4425, "Invalid userId or userRole.");
+    INVALID_USER_ID_OR_ROLE(4425, "Invalid userId or userRole."),
+    OUTDATED_PERMISSIONS_VERSION(4426, "Outdated permissions version."),
+    TOO_MANY_REQUESTS(4427, "Too many requests, please try again later."),
+    MAX_TOKEN_REQUEST_COUNT(4428, "Exceeded maximum tokens."),
+    PASSWORD_HASHING_OVERLOADED(4429, "The service is busy, please try again later."),
+    INVALID_PAGE_SIZE(4430, "Invalid page size.");
 
     private final int code;
     private final String message;
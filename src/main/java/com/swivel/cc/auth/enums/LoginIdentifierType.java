@@ -0,0 +1,11 @@
+package com.swivel.cc.auth.enums;
+
+/**
+ * Identifiers a user can log in with.
+ */
+public enum LoginIdentifierType {
+
+    USER_ID,
+    MOBILE_NO,
+    EMAIL
+}
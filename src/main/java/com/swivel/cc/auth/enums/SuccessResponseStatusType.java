@@ -46,7 +46,13 @@ public enum SuccessResponseStatusType {
     GET_BUSINESS_PROFILE_VIEWS(2033, "Successfully returned business profile views."),
     GET_TODAY_SUMMARY(2034, "Successfully returned today's summary."),
     PASSWORD_RESET_TOKEN(2035, "Password reset token has been sent."),
-    GET_BANK_LIST(2036, "Successfully returned bank list.");
+    GET_BANK_LIST(2036, "Successfully returned bank list."),
+    GET_REVOKED_TOKENS(2037, "Successfully returned revoked tokens."),
+    REVOKED_TOKENS(2038, "Successfully revoked tokens."),
+    GET_ROLE_PERMISSIONS(2039, "Successfully returned role permissions."),
+    RELOADED_CLIENTS(2040, "Successfully reloaded clients."),
+    INTROSPECTED_TOKENS(2041, "Successfully introspected tokens."),
+    GET_LOGIN_OFFENDERS(2042, "Successfully returned login offenders.");
 
 
     private final String code;
@@ -0,0 +1,12 @@
+package com.swivel.cc.auth.enums;
+
+/**
+ * Status of a validated access token.
+ */
+public enum TokenStatus {
+
+    ACTIVE,
+    EXPIRED,
+    REVOKED,
+    INVALID
+}
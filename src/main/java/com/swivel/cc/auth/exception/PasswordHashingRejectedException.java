@@ -0,0 +1,22 @@
+package com.swivel.cc.auth.exception;
+
+/**
+ * Password hashing rejected exception
+ */
+public class PasswordHashingRejectedException extends AuthServiceException {
+
+    /**
+     * Retry-After of the responses to a rejected request, in seconds.
+     */
+    public static final long RETRY_AFTER_SECONDS = 1;
+
+    /**
+     * Password hashing rejected exception with error message and throwable error
+     *
+     * @param errorMessage error message
+     * @param error        error
+     */
+    public PasswordHashingRejectedException(String errorMessage, Throwable error) {
+        super(errorMessage, error);
+    }
+}
@@ -0,0 +1,46 @@
+package com.swivel.cc.auth.repository;
+
+import com.swivel.cc.auth.domain.entity.LoginIdentifier;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * Login identifier repository
+ */
+public interface LoginIdentifierRepository extends JpaRepository<LoginIdentifier, String> {
+
+    /**
+     * Used to get a login identifier with its user.
+     *
+     * @param identifier normalized identifier
+     * @return login identifier
+     */
+    @Query("SELECT li FROM LoginIdentifier li JOIN FETCH li.user WHERE li.identifier = ?1")
+    Optional<LoginIdentifier> findWithUserByIdentifier(String identifier);
+
+    /**
+     * Used to get the login identifiers of a user.
+     *
+     * @param userId userId
+     * @return login identifiers
+     */
+    List<LoginIdentifier> findByUserId(String userId);
+
+    /**
+     * Used to insert a login identifier. Unlike save, it fails when another user holds the identifier.
+     *
+     * @param identifier normalized identifier
+     * @param type       identifier type
+     * @param userId     userId
+     */
+    @Modifying
+    @Transactional
+    @Query(value = "INSERT INTO login_identifier (identifier, type, user_id) VALUES (?1, ?2, ?3)",
+            nativeQuery = true)
+    void insert(String identifier, String type, String userId);
+}
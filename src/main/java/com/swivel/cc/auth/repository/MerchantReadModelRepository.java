@@ -0,0 +1,10 @@
+package com.swivel.cc.auth.repository;
+
+import com.swivel.cc.auth.domain.entity.MerchantReadModel;
+import org.springframework.data.jpa.repository.JpaRepository;
+
+/**
+ * Merchant read model repository
+ */
+public interface MerchantReadModelRepository extends JpaRepository<MerchantReadModel, String> {
+}
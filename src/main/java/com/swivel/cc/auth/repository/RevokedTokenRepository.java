@@ -0,0 +1,45 @@
+package com.swivel.cc.auth.repository;
+
+import com.swivel.cc.auth.domain.entity.RevokedToken;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.stereotype.Repository;
+
+import java.util.Collection;
+import java.util.Date;
+import java.util.List;
+
+/**
+ * Revoked token repository
+ */
+@Repository
+public interface RevokedTokenRepository extends JpaRepository<RevokedToken, Long> {
+
+    /**
+     * This method returns which of the given token ids are revoked and not expired yet.
+     *
+     * @param tokenIds token ids
+     * @param date     current date
+     * @return revoked token ids
+     */
+    @Query("SELECT r.tokenId FROM RevokedToken r WHERE r.tokenId IN ?1 AND r.expiresAt > ?2")
+    List<String> findRevokedTokenIds(Collection<String> tokenIds, Date date);
+
+    /**
+     * This method returns the revoked tokens after a sequence number (id).
+     *
+     * @param id       last sequence number already read
+     * @param pageable page size
+     * @return revoked tokens ordered by sequence number
+     */
+    List<RevokedToken> findByIdGreaterThanOrderByIdAsc(Long id, Pageable pageable);
+
+    /**
+     * This method returns the sequence number of the latest revoked token.
+     *
+     * @return latest sequence number or null
+     */
+    @Query("SELECT MAX(r.id) FROM RevokedToken r")
+    Long findLatestId();
+}
@@ -6,8 +6,10 @@ import com.swivel.cc.auth.enums.ApprovalStatus;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
 
 import java.util.Date;
 import java.util.List;
@@ -142,4 +144,16 @@ public interface UserRepository extends JpaRepository<User, String> {
      * @return total number of new users for particular roleId.
      */
     int countByRoleIdAndCreatedAtGreaterThanEqual(int roleId, Date date);
+
+    /**
+     * This method replaces the password hash of a user.
+     *
+     * @param userId   userId
+     * @param password encoded password
+     * @return number of updated users
+     */
+    @Transactional
+    @Modifying
+    @Query("UPDATE User u SET u.password = ?2 WHERE u.id = ?1")
+    int updatePassword(String userId, String password);
 }
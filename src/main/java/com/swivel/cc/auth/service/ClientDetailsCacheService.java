@@ -0,0 +1,99 @@
+package com.swivel.cc.auth.service;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataAccessException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.security.oauth2.provider.ClientDetails;
+import org.springframework.stereotype.Service;
+
+import java.time.Duration;
+import java.util.function.Function;
+
+/**
+ * In-process cache of the oauth client details, read on every token request.
+ * <p>
+ * Entries expire after their time to live, and all of them are dropped when the checksum of the
+ * oauth_client_details table changes or an admin reloads the clients. Unknown clients are not cached.
+ */
+@Slf4j
+@Service
+public class ClientDetailsCacheService {
+
+    private static final String CHECKSUM_CLIENT_DETAILS = "CHECKSUM TABLE oauth_client_details";
+    private static final String CACHE_NAME = "oauth.clients";
+    private final JdbcTemplate jdbcTemplate;
+    private final Cache<String, ClientDetails> clients;
+    private volatile String checksum;
+
+    @Autowired
+    public ClientDetailsCacheService(JdbcTemplate jdbcTemplate, MeterRegistry meterRegistry,
+                                     @Value("${application.client-details-cache.time-to-live-seconds}")
+                                             long timeToLiveSeconds) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.clients = CaffeineCacheMetrics.monitor(meterRegistry, Caffeine.newBuilder()
+                .expireAfterWrite(Duration.ofSeconds(timeToLiveSeconds))
+                .recordStats()
+                .<String, ClientDetails>build(), CACHE_NAME);
+    }
+
+    /**
+     * This method returns the details of a client, loading them when they are not cached.
+     *
+     * @param clientId clientId
+     * @param loader   reads the client from the database, throws when there is no such client
+     * @return client details
+     */
+    public ClientDetails get(String clientId, Function<String, ClientDetails> loader) {
+        return clients.get(clientId, loader);
+    }
+
+    /**
+     * This method drops the cached details of a client.
+     *
+     * @param clientId clientId
+     */
+    public void reload(String clientId) {
+        clients.invalidate(clientId);
+        log.info("Reloading the details of client: {}", clientId);
+    }
+
+    /**
+     * This method drops the cached details of all clients.
+     */
+    public void reload() {
+        clients.invalidateAll();
+        log.info("Reloading the details of all clients");
+    }
+
+    /**
+     * Drop the cached clients when the oauth_client_details table changed.
+     */
+    @Scheduled(fixedDelayString = "${application.client-details-cache.check-interval-millis}")
+    public void checkForChanges() {
+        try {
+            String current = readChecksum();
+            if (checksum != null && !checksum.equals(current)) {
+                log.info("Client details table changed");
+                reload();
+            }
+            checksum = current;
+        } catch (DataAccessException e) {
+            log.error("Checking the client details table for changes was failed", e);
+        }
+    }
+
+    private String readChecksum() {
+        StringBuilder tableChecksum = new StringBuilder();
+        jdbcTemplate.query(CHECKSUM_CLIENT_DETAILS, rs -> {
+            tableChecksum.append(rs.getString(2));
+        });
+        return tableChecksum.toString();
+    }
+}
@@ -1,66 +1,51 @@
 package com.swivel.cc.auth.service;
 
+import com.swivel.cc.auth.configuration.AuthTokenServices;
 import com.swivel.cc.auth.configuration.CustomTokenEnhancer;
+import com.swivel.cc.auth.domain.AuthUserDetail;
+import com.swivel.cc.auth.domain.Data;
 import com.swivel.cc.auth.domain.TokenResponse;
-import com.swivel.cc.auth.domain.entity.Resource;
-import com.swivel.cc.auth.domain.entity.Role;
 import com.swivel.cc.auth.domain.entity.User;
-import com.swivel.cc.auth.exception.AuthServiceException;
-import com.swivel.cc.auth.repository.ResourceRepository;
-import com.swivel.cc.auth.wrapper.RoleResponseWrapper;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Value;
-import org.springframework.dao.DataAccessException;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
 import org.springframework.security.core.GrantedAuthority;
-import org.springframework.security.core.authority.SimpleGrantedAuthority;
 import org.springframework.security.oauth2.common.OAuth2AccessToken;
 import org.springframework.security.oauth2.provider.OAuth2Authentication;
 import org.springframework.security.oauth2.provider.OAuth2Request;
-import org.springframework.security.oauth2.provider.token.DefaultTokenServices;
-import org.springframework.security.oauth2.provider.token.store.JdbcTokenStore;
 import org.springframework.stereotype.Service;
 
 import java.util.*;
 
+/**
+ * Mints the tokens of the social sign in with the token services of the token endpoint, so every grant type stores
+ * its token once, takes the validity from the client details and gets the cached login response.
+ */
 @Service
 @Slf4j
 public class CustomTokenService {
 
-    private final DefaultTokenServices authTokenServices;
-    private final JdbcTokenStore jdbcTokenStore;
+    private final AuthTokenServices authTokenServices;
     private final String clientId;
-    private final int tokenValidity;
-    private final ResourceRepository resourceRepository;
 
     @Autowired
-    public CustomTokenService(DefaultTokenServices authTokenServices,
-                              JdbcTokenStore jdbcTokenStore,
-                              @Value("${application.client-id}") String clientId,
-                              @Value("${application.token-validity}") int tokenValidity,
-                              ResourceRepository resourceRepository) {
+    public CustomTokenService(AuthTokenServices authTokenServices,
+                              @Value("${application.client-id}") String clientId) {
         this.authTokenServices = authTokenServices;
-        this.jdbcTokenStore = jdbcTokenStore;
         this.clientId = clientId;
-        this.tokenValidity = tokenValidity;
-        this.resourceRepository = resourceRepository;
     }
 
     /**
-     * Generate bearer token for social sign in
+     * Generate bearer token for social sign in. The role payload is the one added to the token by the login response
+     * enhancer.
      *
      * @param user user
      * @return tokenResponse
      */
     public TokenResponse generateToken(User user) {
-        List<GrantedAuthority> grantedAuthorities = new ArrayList<>();
-
-        Role role = user.getRole();
-        grantedAuthorities.add(new SimpleGrantedAuthority(role.getName()));
-
-        role.getPermissions().forEach(permission ->
-                grantedAuthorities.add(new SimpleGrantedAuthority(permission.getName())));
+        AuthUserDetail principal = new AuthUserDetail(user);
+        List<GrantedAuthority> grantedAuthorities = new ArrayList<>(principal.getAuthorities());
 
         // set scopes if have any
         Set<String> scopes = new HashSet<>();
@@ -73,41 +58,17 @@ public class CustomTokenService {
                 true, scopes, resourceIdSet, "", null, null);
 
         UsernamePasswordAuthenticationToken authenticationToken =
-                new UsernamePasswordAuthenticationToken(user.getId(), null, grantedAuthorities);
+                new UsernamePasswordAuthenticationToken(principal, null, grantedAuthorities);
 
         OAuth2Authentication authenticationRequest = new OAuth2Authentication(authorizationRequest, authenticationToken);
         authenticationRequest.setAuthenticated(true);
-        authTokenServices.setAccessTokenValiditySeconds(tokenValidity);
 
         OAuth2AccessToken accessToken = authTokenServices.createAccessToken(authenticationRequest);
-
-        // This block of logs to be removed after verification
-        log.info("Access Token {} ", accessToken.getValue());
-        log.info("Expire IN .......... {} ", accessToken.getExpiration());
-        log.info("Refresh token -------- {} ", accessToken.getRefreshToken().getValue());
-
-
-        List<Resource> allResource = getAllResource();
-
-        jdbcTokenStore.storeAccessToken(accessToken, authenticationRequest);
-        return new TokenResponse(accessToken, user, allResource);
+        log.debug("Issued access token for social sign in of user: {}", user.getId());
+        Object data = accessToken.getAdditionalInformation().get(CustomTokenEnhancer.DATA);
+        return new TokenResponse(accessToken, data instanceof Data ? ((Data) data).getRole() : null);
     }
 
-    /**
-     * Get all resources
-     *
-     * @return list of resources
-     */
-    private List<Resource> getAllResource() {
-        try {
-            return resourceRepository.findAll();
-        } catch (DataAccessException e) {
-            log.error("ERROR_TOKEN", e);
-            throw new AuthServiceException("ERrror");
-        }
-    }
-
-
     /**
      * Use this if need to set authorization parameters
      *
@@ -1,6 +1,7 @@
 package com.swivel.cc.auth.service;
 
 
+import com.swivel.cc.auth.configuration.SocialClientConfiguration;
 import com.swivel.cc.auth.domain.TokenResponse;
 import com.swivel.cc.auth.domain.entity.User;
 import com.swivel.cc.auth.domain.response.SocialSignInResponseDto;
@@ -11,6 +12,7 @@ import com.swivel.cc.auth.exception.UserAlreadyExistsException;
 import com.swivel.cc.auth.repository.UserRepository;
 import com.swivel.cc.auth.wrapper.FacebookResponseWrapper;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Qualifier;
 import org.springframework.dao.DataAccessException;
 import org.springframework.http.*;
 import org.springframework.stereotype.Service;
@@ -34,16 +36,21 @@ public class FacebookAuthService {
     private static final String FAILED_LOG_MESSAGE = "{}. statusCode: {}, body: {}";
     private static final int SUCCESS_STATUS_CODE = HttpStatus.OK.value();
     private static final int BAD_REQUEST_CODE = HttpStatus.BAD_REQUEST.value();
-    private final RestTemplate restTemplate = new RestTemplate();
+    private final RestTemplate restTemplate;
     private final CustomTokenService customTokenService;
     private final UserRepository userRepository;
     private final UserService userService;
+    private final FacebookTokenCacheService facebookTokenCacheService;
 
     public FacebookAuthService(CustomTokenService customTokenService,
-                               UserRepository userRepository, UserService userService) {
+                               UserRepository userRepository, UserService userService,
+                               FacebookTokenCacheService facebookTokenCacheService,
+                               @Qualifier(SocialClientConfiguration.SOCIAL_REST_TEMPLATE) RestTemplate restTemplate) {
         this.customTokenService = customTokenService;
         this.userRepository = userRepository;
         this.userService = userService;
+        this.facebookTokenCacheService = facebookTokenCacheService;
+        this.restTemplate = restTemplate;
     }
 
 //    public GoogleUser getUser(String userId) {
@@ -89,7 +96,7 @@ public class FacebookAuthService {
             boolean emailExist = userService.isEmailExist(facebookResponseWrapper.getEmail());
             if (!emailExist) {
                 user.setRole(userService.getDefaultRole());
-                userRepository.save(user);
+                userService.createUser(user);
                 return user;
             } else {
                 throw new UserAlreadyExistsException("Already existing user.");
@@ -135,13 +142,30 @@ public class FacebookAuthService {
 //    }
 
 
+    /**
+     * This method validates the given access token with the Graph API. Validated tokens are cached for a short
+     * while, so sign in retries with the same token do not call the Graph API again.
+     *
+     * @param accessToken facebook access token
+     * @return facebook profile
+     */
     public FacebookResponseWrapper validate(String accessToken) {
+        return facebookTokenCacheService.get(accessToken, this::validateRemotely);
+    }
+
+    /**
+     * This method validates the given access token with the Graph API.
+     *
+     * @param accessToken facebook access token
+     * @return facebook profile
+     */
+    private FacebookResponseWrapper validateRemotely(String accessToken) {
 
         String url = VALIDATE_URL.replace(ACCESS_TOKEN_KEY, accessToken);
         HttpHeaders headers = getAuthHeaders();
         HttpEntity<String> entity = new HttpEntity<>(null, headers);
         try {
-            log.debug("Calling google service to validate user. url: {}", url);
+            log.debug("Calling facebook graph api to validate user.");
 
             ResponseEntity<FacebookResponseWrapper> result =
                     restTemplate.exchange(url, HttpMethod.GET, entity, FacebookResponseWrapper.class);
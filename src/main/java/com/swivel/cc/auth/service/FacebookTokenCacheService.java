@@ -0,0 +1,120 @@
+package com.swivel.cc.auth.service;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.swivel.cc.auth.exception.AuthServiceException;
+import com.swivel.cc.auth.wrapper.FacebookResponseWrapper;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Duration;
+import java.util.Base64;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.function.Function;
+
+/**
+ * Short lived cache of validated Facebook access tokens and the profiles they resolved to.
+ * <p>
+ * Tokens are cached by their SHA-256 hash, so the cache never holds a usable token. Only validated tokens are
+ * cached. Concurrent validations of the same token share one Graph call: the first caller validates it and the
+ * others wait for its result, including its failure.
+ */
+@Slf4j
+@Service
+public class FacebookTokenCacheService {
+
+    private static final String CACHE_NAME = "facebook.tokens";
+    private static final String SHA_256 = "SHA-256";
+    private final boolean enabled;
+    private final Cache<String, FacebookResponseWrapper> profiles;
+    private final ConcurrentMap<String, CompletableFuture<FacebookResponseWrapper>> inFlight =
+            new ConcurrentHashMap<>();
+
+    @Autowired
+    public FacebookTokenCacheService(MeterRegistry meterRegistry,
+                                     @Value("${application.facebook-token-cache.enabled}") boolean enabled,
+                                     @Value("${application.facebook-token-cache.maximum-size}") long maximumSize,
+                                     @Value("${application.facebook-token-cache.time-to-live-seconds}")
+                                             long timeToLiveSeconds) {
+        this.enabled = enabled;
+        this.profiles = CaffeineCacheMetrics.monitor(meterRegistry, Caffeine.newBuilder()
+                .maximumSize(maximumSize)
+                .expireAfterWrite(Duration.ofSeconds(timeToLiveSeconds))
+                .recordStats()
+                .<String, FacebookResponseWrapper>build(), CACHE_NAME);
+    }
+
+    /**
+     * This method returns the profile of a validated access token, validating the token when it is not cached.
+     *
+     * @param accessToken facebook access token
+     * @param validator   validates the token with the Graph API
+     * @return facebook profile
+     */
+    public FacebookResponseWrapper get(String accessToken, Function<String, FacebookResponseWrapper> validator) {
+        if (!enabled || accessToken == null) {
+            return validator.apply(accessToken);
+        }
+        String key = hash(accessToken);
+        FacebookResponseWrapper profile = profiles.getIfPresent(key);
+        if (profile != null) {
+            return profile;
+        }
+
+        CompletableFuture<FacebookResponseWrapper> validation = new CompletableFuture<>();
+        CompletableFuture<FacebookResponseWrapper> running = inFlight.putIfAbsent(key, validation);
+        if (running != null) {
+            log.debug("Waiting for the running validation of a facebook token");
+            return await(running);
+        }
+        try {
+            profile = profiles.getIfPresent(key);
+            if (profile == null) {
+                profile = validator.apply(accessToken);
+                if (profile != null) {
+                    profiles.put(key, profile);
+                }
+            }
+            validation.complete(profile);
+            return profile;
+        } catch (RuntimeException | Error e) {
+            validation.completeExceptionally(e);
+            throw e;
+        } finally {
+            inFlight.remove(key, validation);
+        }
+    }
+
+    private static FacebookResponseWrapper await(CompletableFuture<FacebookResponseWrapper> validation) {
+        try {
+            return validation.join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException) {
+                throw (RuntimeException) e.getCause();
+            }
+            if (e.getCause() instanceof Error) {
+                throw (Error) e.getCause();
+            }
+            throw new AuthServiceException("Validating the facebook token was failed.", e.getCause());
+        }
+    }
+
+    private static String hash(String accessToken) {
+        try {
+            byte[] digest = MessageDigest.getInstance(SHA_256).digest(accessToken.getBytes(StandardCharsets.UTF_8));
+            return Base64.getEncoder().encodeToString(digest);
+        } catch (NoSuchAlgorithmException e) {
+            throw new AuthServiceException("SHA-256 algorithm not available.", e);
+        }
+    }
+}
@@ -1,15 +1,18 @@
 package com.swivel.cc.auth.service;
 
+import com.swivel.cc.auth.configuration.SocialClientConfiguration;
 import com.swivel.cc.auth.domain.entity.User;
 import com.swivel.cc.auth.exception.AuthServiceException;
 import com.swivel.cc.auth.exception.InvalidUserException;
 import com.swivel.cc.auth.exception.NoUserException;
 import com.swivel.cc.auth.exception.UserAlreadyExistsException;
 import com.swivel.cc.auth.repository.UserRepository;
+import com.swivel.cc.auth.util.IdGenerator;
 import com.swivel.cc.auth.wrapper.GoogleResponseWrapper;
 import com.swivel.cc.auth.domain.TokenResponse;
 import com.swivel.cc.auth.domain.response.SocialSignInResponseDto;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Qualifier;
 import org.springframework.dao.DataAccessException;
 import org.springframework.http.*;
 import org.springframework.stereotype.Service;
@@ -34,16 +37,23 @@ public class GoogleAuthService {
     private static final int BAD_REQUEST_CODE = HttpStatus.BAD_REQUEST.value();
     public static final String FAILED_CHECK_EMAIL_EXISTENCE = "Checking email existence was failed";
     public static final String USER_NOT_FOUND = "Invalid user";
-    private final RestTemplate restTemplate = new RestTemplate();
+    private final RestTemplate restTemplate;
     private final UserRepository userRepository;
     private final UserService userService;
     private final CustomTokenService customTokenService;
+    private final GoogleIdTokenValidator googleIdTokenValidator;
+    private final IdGenerator idGenerator;
 
     public GoogleAuthService(UserRepository userRepository, UserService userService,
-                             CustomTokenService customTokenService) {
+                             CustomTokenService customTokenService, GoogleIdTokenValidator googleIdTokenValidator,
+                             @Qualifier(SocialClientConfiguration.SOCIAL_REST_TEMPLATE) RestTemplate restTemplate,
+                             IdGenerator idGenerator) {
         this.userRepository = userRepository;
         this.userService = userService;
         this.customTokenService = customTokenService;
+        this.googleIdTokenValidator = googleIdTokenValidator;
+        this.restTemplate = restTemplate;
+        this.idGenerator = idGenerator;
     }
 
 //    public GoogleUser updateUser(UserUpdateRequestDto userUpdateRequestDto, String userId) {
@@ -71,12 +81,12 @@ public class GoogleAuthService {
 
     public User createUser(String idToken) {
         GoogleResponseWrapper googleResponseWrapper = validate(idToken);
-        User user = new User(googleResponseWrapper);
+        User user = new User(googleResponseWrapper, idGenerator);
         try {
             boolean emailExist = userService.isEmailExist(googleResponseWrapper.getEmail());
             if (!emailExist) {
                 user.setRole(userService.getDefaultRole());
-                userRepository.save(user);
+                userService.createUser(user);
                 return user;
             } else {
                 throw new UserAlreadyExistsException("Already existing user.");
@@ -101,18 +111,46 @@ public class GoogleAuthService {
         }
     }
 
+    /**
+     * This method validates the given id token against the cached google signing keys. The token info endpoint of
+     * google is only called when the signing keys are not available.
+     *
+     * @param idToken google id token
+     * @return google user
+     */
     public GoogleResponseWrapper validate(String idToken) {
+        try {
+            return googleIdTokenValidator.validate(idToken);
+        } catch (InvalidUserException e) {
+            throw e;
+        } catch (AuthServiceException e) {
+            log.warn("Validating the google id token locally was failed, calling the token info endpoint. {}",
+                    e.getMessage());
+            return validateRemotely(idToken);
+        }
+    }
+
+    /**
+     * This method validates the given id token with the token info endpoint of google.
+     *
+     * @param idToken google id token
+     * @return google user
+     */
+    private GoogleResponseWrapper validateRemotely(String idToken) {
 
         String url = VALIDATE_URL.replace(ID_TOKEN_KEY, idToken);
         HttpHeaders headers = getAuthHeaders();
         HttpEntity<String> entity = new HttpEntity<>(null, headers);
         try {
-            log.debug("Calling google service to validate user. url: {}", url);
+            log.debug("Calling google token info endpoint to validate user.");
 
             ResponseEntity<GoogleResponseWrapper> result =
                     restTemplate.exchange(url, HttpMethod.GET, entity, GoogleResponseWrapper.class);
             log.debug("Getting user by mobile no was successful. statusCode: {}, response: {}",
                     result.getStatusCode(), result.getBody().toLogJson());
+            if (!googleIdTokenValidator.hasAudience(result.getBody().getAud())) {
+                throw new InvalidUserException("Invalid user token");
+            }
             return result.getBody();
         } catch (HttpClientErrorException e) {
             if (e.getRawStatusCode() == BAD_REQUEST_CODE) {
@@ -0,0 +1,291 @@
+package com.swivel.cc.auth.service;
+
+import com.swivel.cc.auth.configuration.SocialClientConfiguration;
+import com.swivel.cc.auth.exception.AuthServiceException;
+import com.swivel.cc.auth.exception.InvalidUserException;
+import com.swivel.cc.auth.wrapper.GoogleResponseWrapper;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.ResponseEntity;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.security.jwt.JwtHelper;
+import org.springframework.security.jwt.crypto.sign.RsaVerifier;
+import org.springframework.security.jwt.crypto.sign.SignatureVerifier;
+import org.springframework.security.oauth2.common.util.JsonParser;
+import org.springframework.security.oauth2.common.util.JsonParserFactory;
+import org.springframework.stereotype.Service;
+import org.springframework.web.client.RestClientException;
+import org.springframework.web.client.RestTemplate;
+
+import java.math.BigInteger;
+import java.security.GeneralSecurityException;
+import java.security.KeyFactory;
+import java.security.interfaces.RSAPublicKey;
+import java.security.spec.RSAPublicKeySpec;
+import java.util.Arrays;
+import java.util.Base64;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import java.util.stream.Collectors;
+
+/**
+ * Verifies Google id tokens locally, against the signing keys Google publishes as a JWKS.
+ * <p>
+ * The keys are fetched once and kept for the max-age of their Cache-Control header. They are refreshed in the
+ * background shortly before they expire, and right away when a token names an unknown key, at most once a minute.
+ * Besides the signature the issuer, the audience and the expiry of the token are checked.
+ */
+@Slf4j
+@Service
+public class GoogleIdTokenValidator {
+
+    private static final String INVALID_TOKEN = "Invalid user token";
+    private static final String KEYS_NOT_AVAILABLE = "Google signing keys are not available";
+    private static final Set<String> ISSUERS = Set.of("accounts.google.com", "https://accounts.google.com");
+    private static final Pattern MAX_AGE = Pattern.compile("max-age=(\\d+)");
+    private static final String RS256 = "RS256";
+    private static final String RSA = "RSA";
+    private static final String ALG = "alg";
+    private static final String KID = "kid";
+    private static final String KTY = "kty";
+    private static final String KEYS = "keys";
+    private static final String MODULUS = "n";
+    private static final String EXPONENT = "e";
+    private static final String ISS = "iss";
+    private static final String AUD = "aud";
+    private static final String EXP = "exp";
+    private static final long DEFAULT_MAX_AGE_MILLIS = 3600_000;
+    private static final long REFRESH_AHEAD_MILLIS = 300_000;
+    private static final long MIN_REFRESH_MILLIS = 60_000;
+    private static final long CLOCK_SKEW_MILLIS = 60_000;
+    private final JsonParser jsonParser = JsonParserFactory.create();
+    private final RestTemplate restTemplate;
+    private final String jwksUrl;
+    private final Set<String> audiences;
+    private volatile SigningKeys signingKeys = new SigningKeys(Collections.emptyMap(), 0, 0);
+
+    @Autowired
+    public GoogleIdTokenValidator(@Qualifier(SocialClientConfiguration.SOCIAL_REST_TEMPLATE) RestTemplate restTemplate,
+                                  @Value("${application.google-id-token.jwks-url}") String jwksUrl,
+                                  @Value("${application.google-id-token.audiences}") String audiences) {
+        this.restTemplate = restTemplate;
+        this.jwksUrl = jwksUrl;
+        this.audiences = Arrays.stream(audiences.split(",")).map(String::trim).filter(audience -> !audience.isEmpty())
+                .collect(Collectors.toSet());
+    }
+
+    /**
+     * This method verifies the given id token and returns the user of it.
+     *
+     * @param idToken google id token
+     * @return google user
+     * @throws InvalidUserException when the token is not a valid id token for this service
+     * @throws AuthServiceException when the signing key of the token is not available
+     */
+    public GoogleResponseWrapper validate(String idToken) {
+        String keyId;
+        try {
+            Map<String, String> headers = JwtHelper.headers(idToken);
+            if (!RS256.equals(headers.get(ALG))) {
+                throw new InvalidUserException(INVALID_TOKEN);
+            }
+            keyId = headers.get(KID);
+        } catch (InvalidUserException e) {
+            throw e;
+        } catch (RuntimeException e) {
+            throw new InvalidUserException(INVALID_TOKEN, e);
+        }
+
+        Map<String, Object> claims;
+        try {
+            claims = jsonParser.parseMap(JwtHelper.decodeAndVerify(idToken, getVerifier(keyId)).getClaims());
+        } catch (AuthServiceException e) {
+            throw e;
+        } catch (RuntimeException e) {
+            throw new InvalidUserException(INVALID_TOKEN, e);
+        }
+
+        if (!ISSUERS.contains(claims.get(ISS)) || !hasAudience(claims.get(AUD)) || isExpired(claims.get(EXP))) {
+            throw new InvalidUserException(INVALID_TOKEN);
+        }
+        GoogleResponseWrapper googleResponseWrapper = new GoogleResponseWrapper();
+        googleResponseWrapper.setName((String) claims.get("name"));
+        googleResponseWrapper.setEmail((String) claims.get("email"));
+        googleResponseWrapper.setPicture((String) claims.get("picture"));
+        googleResponseWrapper.setLocale((String) claims.get("locale"));
+        googleResponseWrapper.setEmail_verified(Boolean.parseBoolean(String.valueOf(claims.get("email_verified"))));
+        googleResponseWrapper.setAud(String.valueOf(claims.get(AUD)));
+        return googleResponseWrapper;
+    }
+
+    /**
+     * This method checks that the given audience is one of the client ids of this service.
+     *
+     * @param audience audience claim, a client id or a list of them
+     * @return true if the token is issued for this service
+     */
+    public boolean hasAudience(Object audience) {
+        if (audience instanceof Collection) {
+            return ((Collection<?>) audience).stream().anyMatch(audiences::contains);
+        }
+        return audience != null && audiences.contains(audience.toString());
+    }
+
+    /**
+     * Refresh the signing keys shortly before they expire, so logins do not wait on the JWKS endpoint.
+     */
+    @Scheduled(fixedDelayString = "${application.google-id-token.refresh-check-millis}")
+    public void refreshExpiringKeys() {
+        SigningKeys keys = signingKeys;
+        if (!keys.verifiers.isEmpty() && System.currentTimeMillis() >= keys.expiresAt - REFRESH_AHEAD_MILLIS) {
+            try {
+                refresh(keys);
+            } catch (AuthServiceException e) {
+                log.warn("Refreshing the google signing keys was failed, keeping the current keys.", e);
+            }
+        }
+    }
+
+    /**
+     * This method returns the verifier of the given key, fetching the keys when they are not loaded yet, expired,
+     * or do not have the key.
+     *
+     * @param keyId key id
+     * @return verifier
+     */
+    private SignatureVerifier getVerifier(String keyId) {
+        SigningKeys keys = signingKeys;
+        long now = System.currentTimeMillis();
+        SignatureVerifier verifier = keys.verifiers.get(keyId);
+        if (keys.verifiers.isEmpty() || now >= keys.expiresAt
+                || (verifier == null && now - keys.fetchedAt >= MIN_REFRESH_MILLIS)) {
+            verifier = refreshQuietly(keys).verifiers.get(keyId);
+        }
+        if (verifier == null) {
+            throw new AuthServiceException(KEYS_NOT_AVAILABLE);
+        }
+        return verifier;
+    }
+
+    /**
+     * This method refreshes the keys, falling back to the current keys when they cannot be fetched.
+     *
+     * @param seenKeys keys seen by the caller
+     * @return current keys
+     */
+    private SigningKeys refreshQuietly(SigningKeys seenKeys) {
+        try {
+            return refresh(seenKeys);
+        } catch (AuthServiceException e) {
+            if (seenKeys.verifiers.isEmpty()) {
+                throw e;
+            }
+            log.warn("Refreshing the google signing keys was failed, using the expired keys.", e);
+            return seenKeys;
+        }
+    }
+
+    /**
+     * This method fetches the keys, unless another thread replaced the seen keys meanwhile.
+     *
+     * @param seenKeys keys seen by the caller
+     * @return current keys
+     */
+    private synchronized SigningKeys refresh(SigningKeys seenKeys) {
+        if (signingKeys != seenKeys) {
+            return signingKeys;
+        }
+        try {
+            ResponseEntity<String> response = restTemplate.getForEntity(jwksUrl, String.class);
+            long now = System.currentTimeMillis();
+            Map<String, SignatureVerifier> verifiers = parseKeys(response.getBody());
+            if (verifiers.isEmpty()) {
+                throw new AuthServiceException(KEYS_NOT_AVAILABLE);
+            }
+            signingKeys = new SigningKeys(verifiers, now, now + getMaxAgeMillis(response.getHeaders()
+                    .getCacheControl()));
+            log.debug("Fetched {} google signing keys: {}", verifiers.size(), verifiers.keySet());
+            return signingKeys;
+        } catch (RestClientException | IllegalArgumentException e) {
+            throw new AuthServiceException("Fetching the google signing keys was failed.", e);
+        }
+    }
+
+    /**
+     * This method creates the verifiers of the RSA keys of the given JWKS.
+     *
+     * @param jwks JWKS
+     * @return verifiers by key id
+     */
+    @SuppressWarnings("unchecked")
+    private Map<String, SignatureVerifier> parseKeys(String jwks) {
+        Map<String, SignatureVerifier> verifiers = new HashMap<>();
+        if (jwks == null) {
+            return verifiers;
+        }
+        Object keys = jsonParser.parseMap(jwks).get(KEYS);
+        if (!(keys instanceof List)) {
+            return verifiers;
+        }
+        for (Map<String, Object> key : (List<Map<String, Object>>) keys) {
+            Object keyId = key.get(KID);
+            Object modulus = key.get(MODULUS);
+            Object exponent = key.get(EXPONENT);
+            if (RSA.equals(key.get(KTY)) && keyId != null && modulus instanceof String
+                    && exponent instanceof String) {
+                try {
+                    verifiers.put(keyId.toString(), new RsaVerifier(toPublicKey((String) modulus,
+                            (String) exponent)));
+                } catch (GeneralSecurityException | IllegalArgumentException e) {
+                    log.warn("Skipping the invalid google signing key {}", keyId, e);
+                }
+            }
+        }
+        return verifiers;
+    }
+
+    private static RSAPublicKey toPublicKey(String modulus, String exponent) throws GeneralSecurityException {
+        Base64.Decoder decoder = Base64.getUrlDecoder();
+        return (RSAPublicKey) KeyFactory.getInstance(RSA).generatePublic(new RSAPublicKeySpec(
+                new BigInteger(1, decoder.decode(modulus)), new BigInteger(1, decoder.decode(exponent))));
+    }
+
+    private static long getMaxAgeMillis(String cacheControl) {
+        if (cacheControl != null) {
+            Matcher matcher = MAX_AGE.matcher(cacheControl);
+            if (matcher.find()) {
+                return Long.parseLong(matcher.group(1)) * 1000;
+            }
+        }
+        return DEFAULT_MAX_AGE_MILLIS;
+    }
+
+    private static boolean isExpired(Object expiry) {
+        return !(expiry instanceof Number)
+                || ((Number) expiry).longValue() * 1000 + CLOCK_SKEW_MILLIS < System.currentTimeMillis();
+    }
+
+    /**
+     * Verifiers of the signing keys, with the time they were fetched and expire.
+     */
+    private static final class SigningKeys {
+
+        private final Map<String, SignatureVerifier> verifiers;
+        private final long fetchedAt;
+        private final long expiresAt;
+
+        SigningKeys(Map<String, SignatureVerifier> verifiers, long fetchedAt, long expiresAt) {
+            this.verifiers = verifiers;
+            this.fetchedAt = fetchedAt;
+            this.expiresAt = expiresAt;
+        }
+    }
+}
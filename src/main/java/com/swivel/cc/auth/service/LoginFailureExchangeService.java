@@ -0,0 +1,74 @@
+package com.swivel.cc.auth.service;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.dao.DataAccessException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+/**
+ * Exchanges the login failures between the nodes of the auth service through the login_failure table.
+ * <p>
+ * Every node adds the failures it recorded since the last exchange to its row of the identity and the current bucket,
+ * then reads the failures the other nodes recorded within the window. Rows of buckets out of the window are deleted
+ * in small batches. When an exchange fails the failures it carried are only counted on this node.
+ */
+@Slf4j
+@Service
+@ConditionalOnProperty(name = "application.login-throttle.cluster.enabled", havingValue = "true")
+public class LoginFailureExchangeService {
+
+    private static final String INSERT_FAILURES = "INSERT INTO login_failure (identity, node_id, bucket, failures) " +
+            "VALUES (?, ?, ?, ?) ON DUPLICATE KEY UPDATE failures = failures + VALUES(failures)";
+    private static final String SELECT_FAILURES = "SELECT identity, SUM(failures) AS failures FROM login_failure " +
+            "WHERE node_id <> ? AND bucket > ? GROUP BY identity ORDER BY failures DESC LIMIT ?";
+    private static final String DELETE_EXPIRED = "DELETE FROM login_failure WHERE bucket <= ? LIMIT ?";
+    private static final int DELETE_BATCH_SIZE = 1000;
+    private final LoginThrottleService loginThrottleService;
+    private final JdbcTemplate jdbcTemplate;
+    private final int maxIdentities;
+    private final String nodeId = UUID.randomUUID().toString();
+
+    @Autowired
+    public LoginFailureExchangeService(LoginThrottleService loginThrottleService, JdbcTemplate jdbcTemplate,
+                                       @Value("${application.login-throttle.cluster.max-identities}")
+                                               int maxIdentities) {
+        this.loginThrottleService = loginThrottleService;
+        this.jdbcTemplate = jdbcTemplate;
+        this.maxIdentities = maxIdentities;
+    }
+
+    /**
+     * Publish the failures of this node and read those of the other nodes.
+     */
+    @Scheduled(fixedDelayString = "${application.login-throttle.cluster.exchange-interval-millis}")
+    public void exchange() {
+        long bucket = loginThrottleService.getCurrentBucket();
+        long oldestBucket = bucket - loginThrottleService.getBuckets();
+        Map<String, Integer> unreported = loginThrottleService.drainUnreportedFailures();
+        try {
+            if (!unreported.isEmpty()) {
+                List<Object[]> rows = new ArrayList<>(unreported.size());
+                unreported.forEach((identity, failures) -> rows.add(new Object[]{identity, nodeId, bucket, failures}));
+                jdbcTemplate.batchUpdate(INSERT_FAILURES, rows);
+            }
+            Map<String, Integer> clusterFailures = new HashMap<>();
+            jdbcTemplate.query(SELECT_FAILURES, rs -> {
+                clusterFailures.put(rs.getString(1), rs.getInt(2));
+            }, nodeId, oldestBucket, maxIdentities);
+            loginThrottleService.applyClusterFailures(clusterFailures);
+            jdbcTemplate.update(DELETE_EXPIRED, oldestBucket, DELETE_BATCH_SIZE);
+        } catch (DataAccessException e) {
+            log.error("Exchanging the login failures with the other nodes was failed", e);
+        }
+    }
+}
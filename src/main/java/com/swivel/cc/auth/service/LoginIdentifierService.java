@@ -0,0 +1,131 @@
+package com.swivel.cc.auth.service;
+
+import com.swivel.cc.auth.domain.entity.LoginIdentifier;
+import com.swivel.cc.auth.domain.entity.User;
+import com.swivel.cc.auth.exception.AuthServiceException;
+import com.swivel.cc.auth.repository.LoginIdentifierRepository;
+import com.swivel.cc.auth.repository.UserRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.dao.DataAccessException;
+import org.springframework.stereotype.Service;
+
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+/**
+ * Resolves usernames to users through the login identifier table.
+ * <p>
+ * The identifiers of a user are saved on every create and update of the user. They are inserted, never merged, so an
+ * identifier held by another user fails the save on the primary key instead of moving to this user. Users saved
+ * before the table existed are resolved with the user table on the first miss and get their identifiers saved then.
+ */
+@Slf4j
+@Service
+public class LoginIdentifierService {
+
+    private static final String FAILED_GET_USER = "Getting user from database was failed";
+    private static final String FAILED_SAVE_LOGIN_IDENTIFIERS = "Saving login identifiers to database was failed";
+    private final LoginIdentifierRepository loginIdentifierRepository;
+    private final UserRepository userRepository;
+
+    @Autowired
+    public LoginIdentifierService(LoginIdentifierRepository loginIdentifierRepository,
+                                  UserRepository userRepository) {
+        this.loginIdentifierRepository = loginIdentifierRepository;
+        this.userRepository = userRepository;
+    }
+
+    /**
+     * This method returns the user of a username.
+     *
+     * @param userName user id, mobile no or email
+     * @return user
+     */
+    public Optional<User> findUser(String userName) {
+        return findLoginIdentifier(userName).map(LoginIdentifier::getUser);
+    }
+
+    /**
+     * This method returns the login identifier of a username together with its user.
+     *
+     * @param userName user id, mobile no or email
+     * @return login identifier
+     */
+    public Optional<LoginIdentifier> findLoginIdentifier(String userName) {
+        if (userName == null || userName.isEmpty()) {
+            return Optional.empty();
+        }
+        String identifier = LoginIdentifier.normalize(userName);
+        try {
+            Optional<LoginIdentifier> loginIdentifier = loginIdentifierRepository.findWithUserByIdentifier(identifier);
+            if (loginIdentifier.isPresent()) {
+                return loginIdentifier;
+            }
+            Optional<User> user = LoginIdentifier.isUserId(userName) ? userRepository.findById(userName) :
+                    Optional.ofNullable(userRepository.findByMobileNoAsUserNameOrEmail(userName, userName));
+            if (user.isEmpty()) {
+                return Optional.empty();
+            }
+            return Optional.of(backfillLoginIdentifiers(user.get(), identifier));
+        } catch (DataAccessException e) {
+            throw new AuthServiceException(FAILED_GET_USER, e);
+        }
+    }
+
+    /**
+     * This method saves the identifiers of a user and removes the identifiers the user no longer has. The new
+     * identifiers are inserted, so an identifier of another user fails the save.
+     *
+     * @param user user
+     * @return login identifiers of the user
+     */
+    public List<LoginIdentifier> saveLoginIdentifiers(User user) {
+        try {
+            List<LoginIdentifier> loginIdentifiers = LoginIdentifier.of(user);
+            Set<String> identifiers = loginIdentifiers.stream().map(LoginIdentifier::getIdentifier)
+                    .collect(Collectors.toSet());
+            List<LoginIdentifier> existing = loginIdentifierRepository.findByUserId(user.getId());
+            List<LoginIdentifier> removed = existing.stream()
+                    .filter(loginIdentifier -> !identifiers.contains(loginIdentifier.getIdentifier()))
+                    .collect(Collectors.toList());
+            if (!removed.isEmpty()) {
+                loginIdentifierRepository.deleteAll(removed);
+            }
+            Set<String> existingIdentifiers = existing.stream().map(LoginIdentifier::getIdentifier)
+                    .collect(Collectors.toSet());
+            for (LoginIdentifier loginIdentifier : loginIdentifiers) {
+                if (!existingIdentifiers.contains(loginIdentifier.getIdentifier())) {
+                    loginIdentifierRepository.insert(loginIdentifier.getIdentifier(),
+                            loginIdentifier.getType().name(), user.getId());
+                }
+            }
+            return loginIdentifiers;
+        } catch (DataAccessException e) {
+            throw new AuthServiceException(FAILED_SAVE_LOGIN_IDENTIFIERS, e);
+        }
+    }
+
+    /**
+     * Saves the identifiers of a user found in the user table only, so the next lookup is a single point lookup.
+     * A login does not fail when the identifiers can not be saved, e.g. when a concurrent login saved them first.
+     *
+     * @param user       user
+     * @param identifier normalized identifier the user was looked up with
+     * @return login identifier of the lookup
+     */
+    private LoginIdentifier backfillLoginIdentifiers(User user, String identifier) {
+        log.debug("Saving missing login identifiers of user: {}", user.getId());
+        List<LoginIdentifier> loginIdentifiers;
+        try {
+            loginIdentifiers = saveLoginIdentifiers(user);
+        } catch (AuthServiceException e) {
+            log.warn("Saving missing login identifiers of user: {} was failed", user.getId(), e);
+            loginIdentifiers = LoginIdentifier.of(user);
+        }
+        return loginIdentifiers.stream().filter(saved -> saved.getIdentifier().equals(identifier))
+                .findFirst().orElse(loginIdentifiers.get(0));
+    }
+}
@@ -0,0 +1,297 @@
+package com.swivel.cc.auth.service;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.swivel.cc.auth.domain.response.LoginOffenderResponseDto;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Counts the failed logins and password resets per username and per client ip, so abusive identities are rejected
+ * before the user is read and the password is hashed.
+ * <p>
+ * The failures of an identity are counted in a sliding window split into buckets. Every bucket holds its time slot
+ * and its count in one long, so a failure is recorded with a single compare-and-set and no lock. Once an identity
+ * reaches its failure limit within the window it is blocked, for a backoff doubling with every further failure.
+ * A successful login clears the failures of the username, not those of the ip.
+ * <p>
+ * With the cluster exchange enabled (see {@link LoginFailureExchangeService}) the failures recorded on the other
+ * nodes are added to the local ones.
+ */
+@Slf4j
+@Service
+public class LoginThrottleService {
+
+    public static final String USERNAME = "username";
+    public static final String IP = "ip";
+    private static final String CACHE_NAME = "login.throttle";
+    private static final String SEPARATOR = ":";
+    private static final int COUNT_BITS = 20;
+    private static final long COUNT_MASK = (1L << COUNT_BITS) - 1;
+    private static final int MAX_BACKOFF_SHIFT = 30;
+    private final boolean enabled;
+    private final boolean clusterEnabled;
+    private final int usernameMaxFailures;
+    private final int ipMaxFailures;
+    private final int buckets;
+    private final long bucketMillis;
+    private final long backoffMillis;
+    private final long maxBackoffMillis;
+    private final Cache<String, FailureWindow> windows;
+    private final ConcurrentMap<String, Integer> unreportedFailures = new ConcurrentHashMap<>();
+    private volatile Map<String, Integer> clusterFailures = Collections.emptyMap();
+    private final Counter rejected;
+
+    @Autowired
+    public LoginThrottleService(MeterRegistry meterRegistry,
+                                @Value("${application.login-throttle.enabled}") boolean enabled,
+                                @Value("${application.login-throttle.cluster.enabled}") boolean clusterEnabled,
+                                @Value("${application.login-throttle.username-max-failures}") int usernameMaxFailures,
+                                @Value("${application.login-throttle.ip-max-failures}") int ipMaxFailures,
+                                @Value("${application.login-throttle.window-seconds}") long windowSeconds,
+                                @Value("${application.login-throttle.window-buckets}") int buckets,
+                                @Value("${application.login-throttle.backoff-millis}") long backoffMillis,
+                                @Value("${application.login-throttle.max-backoff-millis}") long maxBackoffMillis,
+                                @Value("${application.login-throttle.maximum-size}") long maximumSize) {
+        this.enabled = enabled;
+        this.clusterEnabled = clusterEnabled;
+        this.usernameMaxFailures = usernameMaxFailures;
+        this.ipMaxFailures = ipMaxFailures;
+        this.buckets = buckets;
+        this.bucketMillis = Math.max(1, TimeUnit.SECONDS.toMillis(windowSeconds) / buckets);
+        this.backoffMillis = backoffMillis;
+        this.maxBackoffMillis = maxBackoffMillis;
+        this.windows = CaffeineCacheMetrics.monitor(meterRegistry, Caffeine.newBuilder()
+                .maximumSize(maximumSize)
+                .expireAfterAccess(Duration.ofMillis(bucketMillis * buckets + maxBackoffMillis))
+                .recordStats()
+                .<String, FailureWindow>build(), CACHE_NAME);
+        this.rejected = meterRegistry.counter("login.throttle.rejected");
+    }
+
+    /**
+     * This method returns how long a login of the username from the client ip is blocked.
+     *
+     * @param username username, null when the request has none
+     * @param clientIp client ip
+     * @return milliseconds until the identities may try again, 0 if they are not blocked
+     */
+    public long getRetryAfterMillis(String username, String clientIp) {
+        if (!enabled) {
+            return 0;
+        }
+        long now = System.currentTimeMillis();
+        long blockedUntil = Math.max(getBlockedUntil(key(USERNAME, username)), getBlockedUntil(key(IP, clientIp)));
+        if (blockedUntil <= now) {
+            return 0;
+        }
+        rejected.increment();
+        return blockedUntil - now;
+    }
+
+    /**
+     * This method records a failed login or password reset.
+     *
+     * @param username username, null when the request has none
+     * @param clientIp client ip
+     */
+    public void recordFailure(String username, String clientIp) {
+        if (!enabled) {
+            return;
+        }
+        long now = System.currentTimeMillis();
+        recordFailure(key(USERNAME, username), usernameMaxFailures, now);
+        recordFailure(key(IP, clientIp), ipMaxFailures, now);
+    }
+
+    /**
+     * This method clears the failures of a username after a successful login.
+     *
+     * @param username username
+     */
+    public void recordSuccess(String username) {
+        String key = key(USERNAME, username);
+        if (enabled && key != null) {
+            windows.invalidate(key);
+        }
+    }
+
+    /**
+     * This method returns the identities with the most failures within the window.
+     *
+     * @param limit maximum number of identities
+     * @return offenders ordered by failures
+     */
+    public List<LoginOffenderResponseDto> getTopOffenders(int limit) {
+        long now = System.currentTimeMillis();
+        Map<String, Integer> remote = clusterFailures;
+        List<LoginOffenderResponseDto> offenders = new ArrayList<>();
+        for (Map.Entry<String, FailureWindow> entry : windows.asMap().entrySet()) {
+            String key = entry.getKey();
+            int failures = entry.getValue().count(now) + remote.getOrDefault(key, 0);
+            long blockedUntil = entry.getValue().blockedUntil.get();
+            if (failures > 0 || blockedUntil > now) {
+                int separator = key.indexOf(SEPARATOR);
+                offenders.add(new LoginOffenderResponseDto(key.substring(0, separator),
+                        key.substring(separator + 1), failures, blockedUntil > now ? blockedUntil : 0));
+            }
+        }
+        offenders.sort(Comparator.comparingInt(LoginOffenderResponseDto::getFailures).reversed());
+        return offenders.size() > limit ? new ArrayList<>(offenders.subList(0, limit)) : offenders;
+    }
+
+    /**
+     * This method returns the failures recorded since the last call, by identity, for the other nodes.
+     *
+     * @return failures by identity
+     */
+    public Map<String, Integer> drainUnreportedFailures() {
+        Map<String, Integer> drained = new HashMap<>();
+        for (String key : unreportedFailures.keySet()) {
+            Integer failures = unreportedFailures.remove(key);
+            if (failures != null) {
+                drained.put(key, failures);
+            }
+        }
+        return drained;
+    }
+
+    /**
+     * This method replaces the failures recorded on the other nodes within the window. Identities reaching their
+     * limit with these failures are blocked here too.
+     *
+     * @param failures failures of the other nodes by identity
+     */
+    public void applyClusterFailures(Map<String, Integer> failures) {
+        clusterFailures = Collections.unmodifiableMap(new HashMap<>(failures));
+        long now = System.currentTimeMillis();
+        for (Map.Entry<String, Integer> entry : failures.entrySet()) {
+            int maxFailures = entry.getKey().startsWith(IP + SEPARATOR) ? ipMaxFailures : usernameMaxFailures;
+            FailureWindow window = windows.getIfPresent(entry.getKey());
+            int total = entry.getValue() + (window == null ? 0 : window.count(now));
+            if (total >= maxFailures) {
+                windows.get(entry.getKey(), key -> new FailureWindow(buckets)).block(now + getBackoff(total,
+                        maxFailures));
+            }
+        }
+    }
+
+    /**
+     * This method returns the time slot of a failure recorded now, shared by the nodes exchanging their failures.
+     *
+     * @return current bucket
+     */
+    public long getCurrentBucket() {
+        return System.currentTimeMillis() / bucketMillis;
+    }
+
+    /**
+     * This method returns the number of buckets of the window.
+     *
+     * @return buckets
+     */
+    public int getBuckets() {
+        return buckets;
+    }
+
+    private void recordFailure(String key, int maxFailures, long now) {
+        if (key == null) {
+            return;
+        }
+        FailureWindow window = windows.get(key, k -> new FailureWindow(buckets));
+        int failures = window.record(now) + clusterFailures.getOrDefault(key, 0);
+        if (clusterEnabled) {
+            unreportedFailures.merge(key, 1, Integer::sum);
+        }
+        if (failures >= maxFailures) {
+            long backoff = getBackoff(failures, maxFailures);
+            window.block(now + backoff);
+            log.warn("Blocked login of {} for {} ms after {} failures", key, backoff, failures);
+        }
+    }
+
+    private long getBackoff(int failures, int maxFailures) {
+        int shift = Math.min(failures - maxFailures, MAX_BACKOFF_SHIFT);
+        return Math.min(maxBackoffMillis, backoffMillis << shift);
+    }
+
+    private long getBlockedUntil(String key) {
+        FailureWindow window = key == null ? null : windows.getIfPresent(key);
+        return window == null ? 0 : window.blockedUntil.get();
+    }
+
+    private static String key(String type, String identity) {
+        if (identity == null || identity.trim().isEmpty()) {
+            return null;
+        }
+        return type + SEPARATOR + identity.trim().toLowerCase(Locale.ROOT);
+    }
+
+    /**
+     * Failures of one identity in a sliding window of buckets, and the time until the identity is blocked. A bucket
+     * holds its time slot in the high bits and its count in the low bits, a bucket of an older slot is reset by the
+     * first failure of its new slot.
+     */
+    private final class FailureWindow {
+
+        private final AtomicLongArray slots;
+        private final AtomicLong blockedUntil = new AtomicLong();
+
+        FailureWindow(int buckets) {
+            this.slots = new AtomicLongArray(buckets);
+        }
+
+        int record(long now) {
+            long slot = now / bucketMillis;
+            int index = (int) (slot % slots.length());
+            while (true) {
+                long current = slots.get(index);
+                long next;
+                if (current >>> COUNT_BITS == slot) {
+                    next = (current & COUNT_MASK) == COUNT_MASK ? current : current + 1;
+                } else {
+                    next = (slot << COUNT_BITS) | 1;
+                }
+                if (slots.compareAndSet(index, current, next)) {
+                    break;
+                }
+            }
+            return count(now);
+        }
+
+        int count(long now) {
+            long oldestSlot = now / bucketMillis - slots.length();
+            int count = 0;
+            for (int i = 0; i < slots.length(); i++) {
+                long current = slots.get(i);
+                if (current >>> COUNT_BITS > oldestSlot) {
+                    count += (int) (current & COUNT_MASK);
+                }
+            }
+            return count;
+        }
+
+        void block(long until) {
+            blockedUntil.accumulateAndGet(until, Math::max);
+        }
+    }
+}
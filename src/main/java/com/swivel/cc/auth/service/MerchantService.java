@@ -13,6 +13,7 @@ import com.swivel.cc.auth.exception.*;
 import com.swivel.cc.auth.repository.*;
 import com.swivel.cc.auth.service.factories.MerchantProfileRepositoryFactory;
 import com.swivel.cc.auth.service.factories.MerchantStatusRepositoryFactory;
+import com.swivel.cc.auth.util.IdGenerator;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.dao.DataAccessException;
@@ -26,7 +27,10 @@ import org.springframework.transaction.annotation.Transactional;
 import java.util.ArrayList;
 import java.util.Date;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.function.Function;
+import java.util.stream.Collectors;
 
 import static com.swivel.cc.auth.enums.ApprovalStatus.*;
 
@@ -54,6 +58,9 @@ public class MerchantService {
     private final ApprovedBankBusinessRepository approvedBankBusinessRepository;
     private final MerchantBankSearchIndexRepository merchantBankSearchIndexRepository;
     private final BlockedMerchantRepository blockedMerchantRepository;
+    private final MerchantReadModelRepository merchantReadModelRepository;
+    private final UserCacheService userCacheService;
+    private final IdGenerator idGenerator;
     NotificationMetaData notificationMetaData;
     @Autowired
     Translator translator;
@@ -63,7 +70,9 @@ public class MerchantService {
                            MerchantBankSearchIndexRepository merchantBankSearchIndexRepository,
                            MerchantStatusRepositoryFactory merchantStatusRepositoryFactory,
                            MerchantProfileRepositoryFactory merchantProfileRepositoryFactory,
-                           ApprovedBankBusinessRepository approvedBankBusinessRepository) {
+                           ApprovedBankBusinessRepository approvedBankBusinessRepository,
+                           MerchantReadModelRepository merchantReadModelRepository,
+                           UserCacheService userCacheService, IdGenerator idGenerator) {
 
         this.notificationService = notificationService;
         this.merchantBankSearchIndexRepository = merchantBankSearchIndexRepository;
@@ -81,6 +90,9 @@ public class MerchantService {
         this.blockedMerchantRepository =
                 (BlockedMerchantRepository) merchantStatusRepositoryFactory.getRepository(BLOCKED);
         this.approvedBankBusinessRepository = approvedBankBusinessRepository;
+        this.merchantReadModelRepository = merchantReadModelRepository;
+        this.userCacheService = userCacheService;
+        this.idGenerator = idGenerator;
     }
 
     /**
@@ -104,6 +116,7 @@ public class MerchantService {
      *
      * @param merchantStatusUpdateRequestDto merchantStatusUpdateRequest
      */
+    @Transactional
     public void updateMerchantApprovalStatus(MerchantStatusUpdateRequestDto merchantStatusUpdateRequestDto,
                                              String timeZone) {
         try {
@@ -135,6 +148,8 @@ public class MerchantService {
                 }
                 merchant.setUpdatedAt(new Date());
                 userRepository.save(merchant);
+                userCacheService.evict(merchant);
+                refreshMerchantReadModel(merchant.getId());
                 sendNotification(notificationMetaData);
             } else {
                 throw new InvalidUserException("Invalid user id");
@@ -262,7 +277,7 @@ public class MerchantService {
     }
 
     /**
-     * This method saves business info in database.
+     * This method saves business info in database and refreshes the merchant read model.
      *
      * @param business business
      */
@@ -279,6 +294,7 @@ public class MerchantService {
                 merchantSearchIndex.get().setBusiness(business);
                 merchantBankSearchIndexRepository.save(merchantSearchIndex.get());
             }
+            refreshMerchantReadModel(business.getMerchant().getId());
         } catch (DataAccessException e) {
             throw new AuthServiceException("Saving business data to database was failed", e);
         }
@@ -329,13 +345,34 @@ public class MerchantService {
     }
 
     /**
-     * This method is used to get latest approved business profile with userId.
+     * This method is used to get latest approved business profile with userId from the merchant read model.
      *
      * @param userId   userId
      * @param roleType roleType
      * @return existing business info
      */
     public Business getApprovedBusinessInfoByUserId(String userId, RoleType roleType) {
+        try {
+            Optional<MerchantReadModel> merchantReadModel = merchantReadModelRepository.findById(userId);
+            if (merchantReadModel.isEmpty()) {
+                validateMerchantId(userId);
+                merchantReadModel = refreshMerchantReadModel(userId);
+            }
+            return merchantReadModel.filter(readModel -> readModel.getUserRole() == roleType)
+                    .map(MerchantReadModel::toApprovedBusiness).orElse(null);
+        } catch (DataAccessException e) {
+            throw new AuthServiceException("Failed to get latest approved business profile from database.", e);
+        }
+    }
+
+    /**
+     * This method reads the approved business profile with userId from the business tables.
+     *
+     * @param userId   userId
+     * @param roleType roleType
+     * @return approved business or null
+     */
+    private Business readApprovedBusiness(String userId, RoleType roleType) {
         try {
             Business business;
             if (roleType.equals(RoleType.MERCHANT)) {
@@ -398,7 +435,7 @@ public class MerchantService {
      * @param merchantId merchantId
      */
     public void validateMerchantId(String merchantId) {
-        Optional<User> user = userRepository.findById(merchantId);
+        Optional<User> user = userCacheService.getById(merchantId, userRepository::findById);
         if (user.isEmpty()) {
             throw new InvalidUserException(INVALID_MERCHANT_ID);
         }
@@ -448,7 +485,7 @@ public class MerchantService {
             existingPendingContact.get().update(contactRequestDto);
             contact = existingPendingContact.get();
         } else {
-            contact = new Contact(contactRequestDto, user, roleType);
+            contact = new Contact(contactRequestDto, user, roleType, idGenerator);
         }
         saveContact(contact);
         return contact;
@@ -476,6 +513,7 @@ public class MerchantService {
      * @param businessRequestDto businessRequestDto
      * @return business profile
      */
+    @Transactional
     public Business createOrUpdateBusiness(BusinessRequestDto businessRequestDto, RoleType toUserType) {
         User user = getBusinessProfileUserById(businessRequestDto.getMerchantId());
         if (!toUserType.toString().equals(user.getRole().getName()))
@@ -487,7 +525,7 @@ public class MerchantService {
             existingPendingBusiness.get().update(businessRequestDto);
             business = existingPendingBusiness.get();
         } else {
-            business = new Business(businessRequestDto, user);
+            business = new Business(businessRequestDto, user, idGenerator);
         }
         saveBusiness(business, toUserType);
         return business;
@@ -629,19 +667,15 @@ public class MerchantService {
      */
     public List<Business> getBulkMerchantList(List<String> merchantIds, RoleType userType) {
         try {
+            Map<String, MerchantReadModel> merchantReadModels = merchantReadModelRepository.findAllById(merchantIds)
+                    .stream().collect(Collectors.toMap(MerchantReadModel::getUserId, Function.identity()));
             List<Business> businessList = new ArrayList<>();
-            if (RoleType.MERCHANT.equals(userType)) {
-                for (String merchantId : merchantIds) {
-                    Optional<ApprovedBusiness> approvedBusiness = approvedBusinessRepository.findByMerchantId(merchantId);
-                    approvedBusiness.ifPresent(business -> businessList.add(business.getBusiness()));
-                }
-            } else {
-                Optional<List<ApprovedBankBusiness>> approvedBankBusinesses =
-                        approvedBankBusinessRepository.findAllByBankIdIn(merchantIds);
-                if (approvedBankBusinesses.isPresent()) {
-                    approvedBankBusinesses.get().forEach(approvedBankBusiness ->
-                            businessList.add(new Business(approvedBankBusiness.getBankBusiness())));
-                }
+            for (String merchantId : merchantIds) {
+                Optional<MerchantReadModel> merchantReadModel = Optional.ofNullable(merchantReadModels.get(merchantId))
+                        .or(() -> refreshMerchantReadModel(merchantId));
+                merchantReadModel.filter(readModel -> readModel.getUserRole() == userType)
+                        .map(MerchantReadModel::toApprovedBusiness)
+                        .ifPresent(businessList::add);
             }
             return businessList;
         } catch (DataAccessException e) {
@@ -690,21 +724,18 @@ public class MerchantService {
     }
 
     /**
-     * This method is used to get merchant business profile details at login.
+     * This method is used to get merchant business profile details at login from the merchant read model.
      *
-     * @param merchantId merchantId
+     * @param merchantReadModel merchant read model or null
      * @return merchant business profile details.
      */
-    public BusinessProfile getMerchantOrBankLoginResponse(String merchantId, String roleType) {
-        BusinessProfile businessProfile = new BusinessProfile();
-        Optional<Business> business = getLatestBusinessProfileByMerchantId(merchantId, roleType);
-        if (business.isEmpty()) {
+    public BusinessProfile getMerchantOrBankLoginResponse(MerchantReadModel merchantReadModel) {
+        if (merchantReadModel == null) {
+            BusinessProfile businessProfile = new BusinessProfile();
             businessProfile.setUpdated(false);
-        } else {
-            businessProfile.setUpdated(true);
-            businessProfile.setApprovalStatus(business.get().getApprovalStatus());
+            return businessProfile;
         }
-        return businessProfile;
+        return merchantReadModel.toBusinessProfile();
     }
 
     /**
@@ -740,30 +771,60 @@ public class MerchantService {
      * @return true/false
      */
     public boolean isMerchantOrBankActive(String merchantId) {
+        return getMerchantReadModel(merchantId).map(MerchantReadModel::isActive).orElse(false);
+    }
+
+    /**
+     * This method is used to get the read model of a merchant or bank with one primary key read. A merchant without a
+     * read model yet, like merchants created before it existed, gets it built from the business tables.
+     *
+     * @param merchantId merchantId
+     * @return merchant read model or empty if the user is not a merchant or bank
+     */
+    public Optional<MerchantReadModel> getMerchantReadModel(String merchantId) {
+        try {
+            Optional<MerchantReadModel> merchantReadModel = merchantReadModelRepository.findById(merchantId);
+            return merchantReadModel.isPresent() ? merchantReadModel : refreshMerchantReadModel(merchantId);
+        } catch (DataAccessException e) {
+            throw new AuthServiceException("Failed to read merchant read model from the db.", e);
+        }
+    }
+
+    /**
+     * This method rebuilds the read model of a merchant or bank from the user and business tables. It is called in
+     * the transaction of every change of the merchant approval status or business profiles.
+     *
+     * @param merchantId merchantId
+     * @return merchant read model or empty if the user is not a merchant or bank
+     */
+    public Optional<MerchantReadModel> refreshMerchantReadModel(String merchantId) {
         try {
             Optional<User> merchant = userRepository.findById(merchantId);
-            if (merchant.isPresent()) {
-                ApprovalStatus userApprovalStatus = merchant.get().getApprovalStatus();
-                String userRole = merchant.get().getRole().getName();
-                if ((userApprovalStatus == APPROVED || userApprovalStatus == UNBLOCKED) &&
-                        userRole.equals(RoleType.MERCHANT.toString())) {
-                    Optional<ApprovedBusiness> approvedBusiness =
-                            approvedBusinessRepository.findByMerchantId(merchantId);
-                    return approvedBusiness.isPresent();
-                }
-                if ((userApprovalStatus == APPROVED || userApprovalStatus == UNBLOCKED) &&
-                        userRole.equals(RoleType.BANK.toString())) {
-                    Optional<ApprovedBankBusiness> approvedBankBusiness =
-                            approvedBankBusinessRepository.findByBankId(merchantId);
-                    return approvedBankBusiness.isPresent();
-                }
+            if (merchant.isEmpty() || !isMerchantOrBankRole(merchant.get().getRole().getName())) {
+                return Optional.empty();
             }
-            return false;
+            RoleType roleType = RoleType.valueOf(merchant.get().getRole().getName());
+            Business approvedBusiness = readApprovedBusiness(merchantId, roleType);
+            Business latestBusiness = approvedBusiness != null ? null :
+                    getLatestBusinessInfoByUserId(merchantId, roleType).orElse(null);
+            MerchantReadModel merchantReadModel = new MerchantReadModel(merchant.get(), approvedBusiness, latestBusiness);
+            merchantReadModelRepository.save(merchantReadModel);
+            return Optional.of(merchantReadModel);
         } catch (DataAccessException e) {
-            throw new AuthServiceException("Failed to read user/approvedBusiness from the db to verify isActive for merchant.", e);
+            throw new AuthServiceException("Saving merchant read model to database was failed", e);
         }
     }
 
+    /**
+     * This method checks whether a role is merchant or bank.
+     *
+     * @param roleName role name
+     * @return true/false
+     */
+    private boolean isMerchantOrBankRole(String roleName) {
+        return RoleType.MERCHANT.toString().equals(roleName) || RoleType.BANK.toString().equals(roleName);
+    }
+
     /**
      * This method is used to get active merchants count.
      *
@@ -784,7 +845,7 @@ public class MerchantService {
      */
     private void addCommentForBlockedMerchant(MerchantStatusUpdateRequestDto merchantStatusUpdateRequestDto) {
         try {
-            BlockedMerchant blockedMerchant = new BlockedMerchant(merchantStatusUpdateRequestDto);
+            BlockedMerchant blockedMerchant = new BlockedMerchant(merchantStatusUpdateRequestDto, idGenerator);
             blockedMerchantRepository.save(blockedMerchant);
         } catch (DataAccessException e) {
             throw new AuthServiceException("Saving blocked-merchant comment to database was failed", e);
@@ -0,0 +1,261 @@
+package com.swivel.cc.auth.service;
+
+import com.swivel.cc.auth.domain.entity.Permission;
+import com.swivel.cc.auth.domain.entity.Role;
+import com.swivel.cc.auth.repository.RoleRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.annotation.Lazy;
+import org.springframework.context.event.EventListener;
+import org.springframework.dao.DataAccessException;
+import org.springframework.http.HttpMethod;
+import org.springframework.security.core.GrantedAuthority;
+import org.springframework.stereotype.Service;
+import org.springframework.util.AntPathMatcher;
+import org.springframework.web.bind.annotation.RequestMethod;
+import org.springframework.web.servlet.mvc.method.RequestMappingInfo;
+import org.springframework.web.servlet.mvc.method.annotation.RequestMappingHandlerMapping;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Authorizes requests with the permissions of the roles, as stored in the permission_role table.
+ * <p>
+ * The endpoints of the controllers are numbered once, by http method and path template. A permission whose resource
+ * name is a path pattern, e.g. {@code /api/v1/merchants/**}, grants the endpoints matching the pattern and the method
+ * of the permission (any method when it has none). The grants of every role are compiled into a bitset over the
+ * endpoints, so checking a request is a bit test per role in the token. Endpoints not named by any permission are
+ * left to the security configuration.
+ * <p>
+ * The bitsets are compiled again when roles or permissions change and replaced in one step, so a request sees either
+ * the old or the new grants.
+ */
+@Slf4j
+@Service
+public class PermissionAuthorizationService {
+
+    private static final String PATH_PREFIX = "/";
+    private static final String ANY_METHOD = "*";
+    private static final HttpMethod[] HTTP_METHODS = HttpMethod.values();
+    private final RoleRepository roleRepository;
+    private final RequestMappingHandlerMapping handlerMapping;
+    private final boolean enabled;
+    private final AntPathMatcher pathMatcher = new AntPathMatcher();
+    private volatile EndpointTable endpointTable;
+    private volatile Grants grants;
+
+    /**
+     * The handler mapping is injected lazily, as it is created together with the interceptor using this service.
+     *
+     * @param roleRepository role repository
+     * @param handlerMapping handler mapping of the controllers
+     * @param enabled        enabled
+     */
+    @Autowired
+    public PermissionAuthorizationService(RoleRepository roleRepository,
+                                          @Lazy @Qualifier("requestMappingHandlerMapping")
+                                                  RequestMappingHandlerMapping handlerMapping,
+                                          @Value("${application.permission-authorization.enabled}") boolean enabled) {
+        this.roleRepository = roleRepository;
+        this.handlerMapping = handlerMapping;
+        this.enabled = enabled;
+    }
+
+    /**
+     * This method checks whether the given authorities may call an endpoint.
+     *
+     * @param method      http method of the request
+     * @param pattern     path template of the endpoint the request is mapped to
+     * @param authorities authorities of the request
+     * @return false if the endpoint is granted by permissions and none of the roles has it
+     */
+    public boolean isAllowed(HttpMethod method, String pattern, Collection<? extends GrantedAuthority> authorities) {
+        EndpointTable table = endpointTable;
+        Grants current = grants;
+        if (table == null || current == null || method == null || pattern == null) {
+            return true;
+        }
+        int[] endpoints = table.endpointsByPattern.get(pattern);
+        if (endpoints == null) {
+            return true;
+        }
+        int endpoint = endpoints[method.ordinal()];
+        if (endpoint < 0 || !current.governedEndpoints.get(endpoint)) {
+            return true;
+        }
+        for (GrantedAuthority authority : authorities) {
+            BitSet roleEndpoints = current.endpointsByRole.get(authority.getAuthority());
+            if (roleEndpoints != null && roleEndpoints.get(endpoint)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Compile the grants when the application is ready, the controllers are mapped by then.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void warmUp() {
+        rebuild();
+    }
+
+    /**
+     * Compile the grants of all roles from the database and replace the current ones. When the roles cannot be
+     * read the current grants are kept.
+     */
+    public synchronized void rebuild() {
+        if (!enabled) {
+            return;
+        }
+        EndpointTable table = endpointTable;
+        if (table == null) {
+            table = createEndpointTable();
+            endpointTable = table;
+        }
+        try {
+            grants = compile(table, roleRepository.findAll());
+            log.debug("Compiled the permission grants of {} endpoints", grants.governedEndpoints.cardinality());
+        } catch (DataAccessException e) {
+            log.error("Compiling the permission grants was failed, keeping the current grants", e);
+        }
+    }
+
+    /**
+     * This method compiles the endpoints granted to each role.
+     *
+     * @param table endpoint table
+     * @param roles roles with their permissions
+     * @return grants
+     */
+    private Grants compile(EndpointTable table, List<Role> roles) {
+        Map<Integer, BitSet> endpointsByPermission = new HashMap<>();
+        Map<String, BitSet> endpointsByRole = new HashMap<>();
+        BitSet governedEndpoints = new BitSet(table.size());
+        for (Role role : roles) {
+            BitSet roleEndpoints = new BitSet(table.size());
+            List<Permission> permissions = role.getPermissions() == null ? Collections.emptyList() :
+                    role.getPermissions();
+            for (Permission permission : permissions) {
+                BitSet permissionEndpoints = endpointsByPermission.computeIfAbsent(permission.getId(),
+                        id -> match(table, permission));
+                roleEndpoints.or(permissionEndpoints);
+                governedEndpoints.or(permissionEndpoints);
+            }
+            endpointsByRole.put(role.getName(), roleEndpoints);
+        }
+        return new Grants(Collections.unmodifiableMap(endpointsByRole), governedEndpoints);
+    }
+
+    /**
+     * This method returns the endpoints granted by a permission.
+     *
+     * @param table      endpoint table
+     * @param permission permission
+     * @return endpoints, empty when the resource of the permission is not a path pattern
+     */
+    private BitSet match(EndpointTable table, Permission permission) {
+        BitSet endpoints = new BitSet(table.size());
+        String resourcePattern = permission.getResource() == null ? null : permission.getResource().getName();
+        if (resourcePattern == null || !resourcePattern.startsWith(PATH_PREFIX)) {
+            return endpoints;
+        }
+        String method = permission.getMethod() == null ? null : permission.getMethod().trim().toUpperCase(Locale.ROOT);
+        boolean anyMethod = method == null || method.isEmpty() || ANY_METHOD.equals(method);
+        HttpMethod httpMethod = anyMethod ? null : HttpMethod.resolve(method);
+        if (!anyMethod && httpMethod == null) {
+            log.warn("Permission {} has the unknown method {}, it grants no endpoint", permission.getId(), method);
+            return endpoints;
+        }
+        for (int endpoint = 0; endpoint < table.size(); endpoint++) {
+            if ((anyMethod || httpMethod == table.methods.get(endpoint))
+                    && pathMatcher.match(resourcePattern, table.patterns.get(endpoint))) {
+                endpoints.set(endpoint);
+            }
+        }
+        return endpoints;
+    }
+
+    /**
+     * This method numbers the endpoints of the controllers, one per http method and path template. A HEAD request
+     * without an own mapping runs the GET handler, so it shares the endpoint of GET.
+     *
+     * @return endpoint table
+     */
+    private EndpointTable createEndpointTable() {
+        Map<String, int[]> endpointsByPattern = new HashMap<>();
+        List<String> patterns = new ArrayList<>();
+        List<HttpMethod> methods = new ArrayList<>();
+        for (RequestMappingInfo mapping : handlerMapping.getHandlerMethods().keySet()) {
+            Set<RequestMethod> requestMethods = mapping.getMethodsCondition().getMethods();
+            for (String pattern : mapping.getPatternsCondition().getPatterns()) {
+                int[] endpoints = endpointsByPattern.computeIfAbsent(pattern, p -> {
+                    int[] none = new int[HTTP_METHODS.length];
+                    Arrays.fill(none, -1);
+                    return none;
+                });
+                for (HttpMethod httpMethod : HTTP_METHODS) {
+                    if (endpoints[httpMethod.ordinal()] < 0 && (requestMethods.isEmpty()
+                            || requestMethods.contains(RequestMethod.valueOf(httpMethod.name())))) {
+                        endpoints[httpMethod.ordinal()] = patterns.size();
+                        patterns.add(pattern);
+                        methods.add(httpMethod);
+                    }
+                }
+            }
+        }
+        for (int[] endpoints : endpointsByPattern.values()) {
+            if (endpoints[HttpMethod.HEAD.ordinal()] < 0) {
+                endpoints[HttpMethod.HEAD.ordinal()] = endpoints[HttpMethod.GET.ordinal()];
+            }
+        }
+        log.debug("Numbered {} endpoints of {} path templates", patterns.size(), endpointsByPattern.size());
+        return new EndpointTable(endpointsByPattern, patterns, methods);
+    }
+
+    /**
+     * Endpoints of the controllers, numbered by http method and path template.
+     */
+    private static final class EndpointTable {
+
+        private final Map<String, int[]> endpointsByPattern;
+        private final List<String> patterns;
+        private final List<HttpMethod> methods;
+
+        EndpointTable(Map<String, int[]> endpointsByPattern, List<String> patterns, List<HttpMethod> methods) {
+            this.endpointsByPattern = endpointsByPattern;
+            this.patterns = patterns;
+            this.methods = methods;
+        }
+
+        int size() {
+            return patterns.size();
+        }
+    }
+
+    /**
+     * Endpoints granted to each role by name, and the endpoints granted by any permission.
+     */
+    private static final class Grants {
+
+        private final Map<String, BitSet> endpointsByRole;
+        private final BitSet governedEndpoints;
+
+        Grants(Map<String, BitSet> endpointsByRole, BitSet governedEndpoints) {
+            this.endpointsByRole = endpointsByRole;
+            this.governedEndpoints = governedEndpoints;
+        }
+    }
+}
@@ -0,0 +1,136 @@
+package com.swivel.cc.auth.service;
+
+import com.swivel.cc.auth.domain.entity.RevokedToken;
+import com.swivel.cc.auth.domain.response.RevokedTokenResponseDto;
+import com.swivel.cc.auth.exception.AuthServiceException;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.MediaType;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+/**
+ * Feed of token revocations for services caching token validations, sent as server-sent events.
+ * <p>
+ * Every revocation is recorded in oauth_revoked_token, whose id is the sequence number of the event. A subscriber
+ * resumes after the sequence number of its Last-Event-ID, or starts with the next revocation. One poller reads the
+ * revocations after the lowest cursor of all subscribers and sends each subscriber the ones after its own cursor.
+ * Sequence numbers are committed out of order by concurrent transactions, so the revocations after a missing number
+ * are held back until it is committed or the gap timeout passed.
+ * Revocations are removed once the token expired, a subscriber resuming later only misses expired tokens.
+ */
+@Slf4j
+@Service
+public class RevocationFeedService {
+
+    private static final String EVENT_NAME = "revocation";
+    private final RevokedTokenService revokedTokenService;
+    private final long gapTimeoutMillis;
+    private final int pageSize;
+    private final long emitterTimeoutMillis;
+    private final List<Subscriber> subscribers = new CopyOnWriteArrayList<>();
+
+    @Autowired
+    public RevocationFeedService(RevokedTokenService revokedTokenService, MeterRegistry meterRegistry,
+                                 @Value("${application.token-revocation-feed.gap-timeout-millis}")
+                                         long gapTimeoutMillis,
+                                 @Value("${application.token-revocation-feed.page-size}") int pageSize,
+                                 @Value("${application.token-revocation-feed.emitter-timeout-millis}")
+                                         long emitterTimeoutMillis) {
+        this.revokedTokenService = revokedTokenService;
+        this.gapTimeoutMillis = gapTimeoutMillis;
+        this.pageSize = pageSize;
+        this.emitterTimeoutMillis = emitterTimeoutMillis;
+        Gauge.builder("token.revocation.feed.subscribers", subscribers, List::size).register(meterRegistry);
+    }
+
+    /**
+     * This method subscribes to the revocations. The events are sent by the next poll.
+     *
+     * @param lastEventId sequence number of the last event received, null to start with the next revocation
+     * @return emitter of the revocation events
+     */
+    public SseEmitter subscribe(Long lastEventId) {
+        long cursor = lastEventId == null ? revokedTokenService.getLatestSequence() : lastEventId;
+        SseEmitter emitter = new SseEmitter(emitterTimeoutMillis);
+        Subscriber subscriber = new Subscriber(emitter, cursor);
+        emitter.onCompletion(() -> subscribers.remove(subscriber));
+        emitter.onTimeout(() -> subscribers.remove(subscriber));
+        emitter.onError(e -> subscribers.remove(subscriber));
+        subscribers.add(subscriber);
+        log.debug("Subscribed to token revocations after sequence: {}", cursor);
+        return emitter;
+    }
+
+    /**
+     * Send the new revocations to the subscribers.
+     */
+    @Scheduled(fixedDelayString = "${application.token-revocation-feed.poll-interval-millis}")
+    public void publish() {
+        if (subscribers.isEmpty()) {
+            return;
+        }
+        long sequence = subscribers.stream().mapToLong(Subscriber::getCursor).min().orElse(0);
+        try {
+            List<RevokedToken> revocations;
+            do {
+                revocations = revokedTokenService.getRevocationsAfter(sequence, gapTimeoutMillis, pageSize);
+                for (Subscriber subscriber : subscribers) {
+                    subscriber.send(revocations);
+                }
+                if (!revocations.isEmpty()) {
+                    sequence = revocations.get(revocations.size() - 1).getId();
+                }
+            } while (revocations.size() == pageSize);
+        } catch (AuthServiceException e) {
+            log.error("Publishing token revocations was failed", e);
+        }
+    }
+
+    /**
+     * Emitter of a subscriber with the sequence number of the last event sent to it.
+     */
+    private class Subscriber {
+
+        private final SseEmitter emitter;
+        private volatile long cursor;
+
+        Subscriber(SseEmitter emitter, long cursor) {
+            this.emitter = emitter;
+            this.cursor = cursor;
+        }
+
+        long getCursor() {
+            return cursor;
+        }
+
+        /**
+         * Send the revocations after the cursor, a subscriber which can not be sent to is removed.
+         *
+         * @param revocations revocations ordered by sequence number
+         */
+        void send(List<RevokedToken> revocations) {
+            try {
+                for (RevokedToken revocation : revocations) {
+                    if (revocation.getId() > cursor) {
+                        emitter.send(SseEmitter.event().id(String.valueOf(revocation.getId())).name(EVENT_NAME)
+                                .data(new RevokedTokenResponseDto(revocation), MediaType.APPLICATION_JSON));
+                        cursor = revocation.getId();
+                    }
+                }
+            } catch (IOException | IllegalStateException e) {
+                log.debug("Removing token revocation subscriber after sequence: {}", cursor, e);
+                subscribers.remove(this);
+                emitter.completeWithError(e);
+            }
+        }
+    }
+}
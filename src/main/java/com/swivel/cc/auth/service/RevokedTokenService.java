@@ -0,0 +1,119 @@
+package com.swivel.cc.auth.service;
+
+import com.swivel.cc.auth.domain.entity.RevokedToken;
+import com.swivel.cc.auth.exception.AuthServiceException;
+import com.swivel.cc.auth.repository.RevokedTokenRepository;
+import com.swivel.cc.auth.util.TokenKeyUtils;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.dao.DataAccessException;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.security.oauth2.common.OAuth2AccessToken;
+import org.springframework.security.oauth2.provider.OAuth2Authentication;
+import org.springframework.stereotype.Service;
+
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Date;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Revoked token service. Self-contained tokens stay valid until they expire,
+ * so revocations are kept here for the services which verify tokens locally.
+ */
+@Slf4j
+@Service
+public class RevokedTokenService {
+
+    private final RevokedTokenRepository revokedTokenRepository;
+
+    @Autowired
+    public RevokedTokenService(RevokedTokenRepository revokedTokenRepository) {
+        this.revokedTokenRepository = revokedTokenRepository;
+    }
+
+    /**
+     * This method records a revoked access token. Tokens without an expiry can not be used after they are
+     * removed from the token store, so nothing is recorded for them.
+     *
+     * @param accessToken    revoked access token
+     * @param authentication authentication of the token
+     */
+    public void recordRevocation(OAuth2AccessToken accessToken, OAuth2Authentication authentication) {
+        if (accessToken == null || accessToken.getExpiration() == null || accessToken.isExpired()) {
+            return;
+        }
+        try {
+            String userName = authentication == null ? null : authentication.getName();
+            String clientId = authentication == null ? null : authentication.getOAuth2Request().getClientId();
+            revokedTokenRepository.save(new RevokedToken(TokenKeyUtils.extractTokenKey(accessToken.getValue()),
+                    userName, clientId, accessToken.getExpiration()));
+        } catch (DataAccessException e) {
+            throw new AuthServiceException("Saving revoked token to database was failed.", e);
+        }
+    }
+
+    /**
+     * This method returns the revocations recorded after a sequence number, up to the first gap in the sequence
+     * numbers. Concurrent transactions commit their sequence numbers out of order, so a missing number may still be
+     * committed and the revocations after it are held back. A gap is skipped once the revocation after it is older
+     * than the gap timeout: its number was rolled back or its revocation expired and was removed.
+     *
+     * @param sequence         last sequence number already read
+     * @param gapTimeoutMillis time the revocations after a gap are held back
+     * @param limit            maximum number of revocations
+     * @return revocations ordered by sequence number
+     */
+    public List<RevokedToken> getRevocationsAfter(long sequence, long gapTimeoutMillis, int limit) {
+        List<RevokedToken> revocations;
+        try {
+            revocations = revokedTokenRepository.findByIdGreaterThanOrderByIdAsc(sequence, PageRequest.of(0, limit));
+        } catch (DataAccessException e) {
+            throw new AuthServiceException("Reading revoked tokens from database was failed.", e);
+        }
+        long gapDeadline = System.currentTimeMillis() - gapTimeoutMillis;
+        long expected = sequence + 1;
+        for (int i = 0; i < revocations.size(); i++) {
+            RevokedToken revocation = revocations.get(i);
+            if (revocation.getId() != expected && revocation.getRevokedAt().getTime() > gapDeadline) {
+                log.debug("Holding back token revocations after the missing sequence: {}", expected);
+                return revocations.subList(0, i);
+            }
+            expected = revocation.getId() + 1;
+        }
+        return revocations;
+    }
+
+    /**
+     * This method returns the sequence number of the latest revocation.
+     *
+     * @return latest sequence number, 0 when there is no revocation
+     */
+    public long getLatestSequence() {
+        try {
+            Long latestId = revokedTokenRepository.findLatestId();
+            return latestId == null ? 0 : latestId;
+        } catch (DataAccessException e) {
+            throw new AuthServiceException("Reading revoked tokens from database was failed.", e);
+        }
+    }
+
+    /**
+     * This method returns which of the given token ids (md5 of the token values) are revoked and not expired yet.
+     *
+     * @param tokenIds token ids
+     * @return revoked token ids
+     */
+    public Set<String> getRevokedTokenIds(Collection<String> tokenIds) {
+        if (tokenIds.isEmpty()) {
+            return Collections.emptySet();
+        }
+        try {
+            return new HashSet<>(revokedTokenRepository.findRevokedTokenIds(tokenIds, new Date()));
+        } catch (DataAccessException e) {
+            throw new AuthServiceException("Reading revoked tokens from database was failed.", e);
+        }
+    }
+}
@@ -0,0 +1,87 @@
+package com.swivel.cc.auth.service;
+
+import com.swivel.cc.auth.domain.entity.Role;
+import com.swivel.cc.auth.exception.AuthServiceException;
+import com.swivel.cc.auth.repository.RoleRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataAccessException;
+import org.springframework.stereotype.Service;
+
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * In-memory catalogue of the roles with their permissions, used to rehydrate the authorities of stored tokens
+ * from the role id. The catalogue is reloaded when it is older than the refresh interval or an unknown role is read.
+ */
+@Slf4j
+@Service
+public class RoleCatalogueService {
+
+    private static final long MIN_RELOAD_MILLIS = 1000;
+    private final RoleRepository roleRepository;
+    private final long refreshMillis;
+    private volatile Map<Integer, Role> roles = Collections.emptyMap();
+    private volatile long loadedAt;
+
+    @Autowired
+    public RoleCatalogueService(RoleRepository roleRepository,
+                                @Value("${application.role-catalogue.refresh-seconds}") long refreshSeconds) {
+        this.roleRepository = roleRepository;
+        this.refreshMillis = refreshSeconds * 1000;
+    }
+
+    /**
+     * This method returns the role of the given id.
+     *
+     * @param roleId role id
+     * @return role or null if there is no such role
+     */
+    public Role getRole(int roleId) {
+        long seenLoadedAt = loadedAt;
+        long age = System.currentTimeMillis() - seenLoadedAt;
+        Role role = roles.get(roleId);
+        if (age > refreshMillis || (role == null && age > MIN_RELOAD_MILLIS)) {
+            reloadIfNotReloadedSince(seenLoadedAt);
+            role = roles.get(roleId);
+        }
+        return role;
+    }
+
+    /**
+     * Reload the catalogue from the database.
+     */
+    public synchronized void reload() {
+        reloadIfNotReloadedSince(loadedAt);
+    }
+
+    /**
+     * Mark the catalogue as stale, it is reloaded on the next read.
+     */
+    public synchronized void invalidate() {
+        loadedAt = 0;
+    }
+
+    /**
+     * Reload the catalogue unless another thread already did it while this one was waiting.
+     *
+     * @param seenLoadedAt load time seen by the caller
+     */
+    private synchronized void reloadIfNotReloadedSince(long seenLoadedAt) {
+        if (loadedAt != seenLoadedAt) {
+            return;
+        }
+        try {
+            Map<Integer, Role> loaded = new HashMap<>();
+            roleRepository.findAll().forEach(role -> loaded.put(role.getId(), role));
+            roles = Collections.unmodifiableMap(loaded);
+            loadedAt = System.currentTimeMillis();
+            log.debug("Loaded {} roles to the role catalogue", loaded.size());
+        } catch (DataAccessException e) {
+            throw new AuthServiceException("Reading roles from database was failed.", e);
+        }
+    }
+}
@@ -0,0 +1,291 @@
+package com.swivel.cc.auth.service;
+
+import com.swivel.cc.auth.domain.ResourcePermission;
+import com.swivel.cc.auth.domain.entity.Resource;
+import com.swivel.cc.auth.domain.entity.Role;
+import com.swivel.cc.auth.exception.AuthServiceException;
+import com.swivel.cc.auth.repository.ResourceRepository;
+import com.swivel.cc.auth.repository.RoleRepository;
+import com.swivel.cc.auth.util.ListUtils;
+import com.swivel.cc.auth.wrapper.CachedRoleResponseWrapper;
+import com.swivel.cc.auth.wrapper.PermissionsWrapper;
+import com.swivel.cc.auth.wrapper.RoleResponseWrapper;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.dao.DataAccessException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.math.BigInteger;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.Collectors;
+
+/**
+ * Role and permission payload of the login responses, built once per role instead of on every login.
+ * <p>
+ * The payload is built for every role at startup, together with its json. It is invalidated when the role, permission
+ * or resource entities are written through JPA (see {@code RolePermissionChangeListener}), and when the checksum of
+ * those tables changes, which covers rows changed directly in the database.
+ * <p>
+ * Every payload carries the version of its permissions, a hash of the role with its permissions, so clients
+ * receiving the compact payload only fetch the permissions when the version changed. Access tokens are stamped with
+ * the same version, the authorities of a token with an older version are re-resolved when it is used.
+ */
+@Slf4j
+@Service
+public class RoleResponseCacheService {
+
+    private static final String CHECKSUM_TABLES = "CHECKSUM TABLE role, permission, permission_role, resource";
+    private static final String FAILED_TO_LOAD = "Reading roles and resources from database was failed.";
+    private static final String SHA_256 = "SHA-256";
+    private static final int VERSION_LENGTH = 16;
+    private final RoleRepository roleRepository;
+    private final ResourceRepository resourceRepository;
+    private final JdbcTemplate jdbcTemplate;
+    private final RoleCatalogueService roleCatalogueService;
+    private final PermissionAuthorizationService permissionAuthorizationService;
+    private volatile Snapshot snapshot;
+    private final AtomicLong generation = new AtomicLong();
+
+    @Autowired
+    public RoleResponseCacheService(RoleRepository roleRepository, ResourceRepository resourceRepository,
+                                    JdbcTemplate jdbcTemplate, RoleCatalogueService roleCatalogueService,
+                                    PermissionAuthorizationService permissionAuthorizationService) {
+        this.roleRepository = roleRepository;
+        this.resourceRepository = resourceRepository;
+        this.jdbcTemplate = jdbcTemplate;
+        this.roleCatalogueService = roleCatalogueService;
+        this.permissionAuthorizationService = permissionAuthorizationService;
+    }
+
+    /**
+     * This method returns the login response payload of a role with all its permissions.
+     *
+     * @param role role
+     * @return role response or null if the role is null
+     */
+    public RoleResponseWrapper getRoleResponse(Role role) {
+        return role == null ? null : getRoleResponses(role).full;
+    }
+
+    /**
+     * This method returns the compact login response payload of a role, which only carries the version of its
+     * permissions.
+     *
+     * @param role role
+     * @return compact role response or null if the role is null
+     */
+    public RoleResponseWrapper getCompactRoleResponse(Role role) {
+        return role == null ? null : getRoleResponses(role).compact;
+    }
+
+    /**
+     * This method returns the current payload of a role with all its permissions.
+     *
+     * @param roleId role id
+     * @return role response or null if there is no such role
+     */
+    public RoleResponseWrapper getRoleResponse(int roleId) {
+        RoleResponses roleResponses = getSnapshot().roleResponses.get(roleId);
+        return roleResponses == null ? null : roleResponses.full;
+    }
+
+    /**
+     * This method returns the current version of the permissions of a role.
+     *
+     * @param roleId role id
+     * @return permissions version or null if there is no such role
+     */
+    public String getPermissionsVersion(int roleId) {
+        RoleResponseWrapper roleResponse = getRoleResponse(roleId);
+        return roleResponse == null ? null : roleResponse.getPermissionsVersion();
+    }
+
+    /**
+     * This method drops the cached payloads, they are built again on the next login.
+     */
+    public void invalidate() {
+        generation.incrementAndGet();
+        snapshot = null;
+        log.debug("Invalidated the cached role responses");
+    }
+
+    /**
+     * Build the cache when the application is ready, so the first logins do not pay for it.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void warmUp() {
+        load();
+    }
+
+    /**
+     * Rebuild the cache when the role, permission or resource tables changed. The role catalogue is invalidated too,
+     * so tokens re-resolved for the new permissions version get the new permissions, and the permission grants are
+     * compiled again.
+     */
+    @Scheduled(fixedDelayString = "${application.role-response-cache.check-interval-millis}",
+            initialDelayString = "${application.role-response-cache.check-interval-millis}")
+    public void checkForChanges() {
+        Snapshot current = snapshot;
+        if (current == null) {
+            return;
+        }
+        try {
+            if (!current.checksum.equals(readChecksum())) {
+                log.info("Role or resource tables changed, rebuilding the cached role responses");
+                invalidate();
+                roleCatalogueService.invalidate();
+                permissionAuthorizationService.rebuild();
+                load();
+            }
+        } catch (DataAccessException | AuthServiceException e) {
+            log.error("Checking the role and resource tables for changes was failed", e);
+        }
+    }
+
+    /**
+     * Returns the payloads of a role, built from the given role if it was not in the tables when the cache was built.
+     *
+     * @param role role
+     * @return role responses
+     */
+    private RoleResponses getRoleResponses(Role role) {
+        Snapshot current = getSnapshot();
+        RoleResponses roleResponses = current.roleResponses.get(role.getId());
+        if (roleResponses == null) {
+            log.debug("Role {} is not cached yet, building its response", role.getId());
+            return createRoleResponses(role, current.resources);
+        }
+        return roleResponses;
+    }
+
+    private Snapshot getSnapshot() {
+        Snapshot current = snapshot;
+        return current == null ? load() : current;
+    }
+
+    /**
+     * Load the payloads of all roles unless another thread already did it while this one was waiting.
+     * A snapshot loaded while the cache was invalidated is returned but not kept.
+     *
+     * @return snapshot
+     */
+    private synchronized Snapshot load() {
+        Snapshot current = snapshot;
+        if (current != null) {
+            return current;
+        }
+        long loadingGeneration = generation.get();
+        try {
+            String checksum = readChecksum();
+            List<Resource> resources = resourceRepository.findAll();
+            Map<Integer, RoleResponses> roleResponses = new HashMap<>();
+            for (Role role : roleRepository.findAll()) {
+                roleResponses.put(role.getId(), createRoleResponses(role, resources));
+            }
+            Snapshot loaded = new Snapshot(checksum, resources, Collections.unmodifiableMap(roleResponses));
+            if (loadingGeneration == generation.get()) {
+                snapshot = loaded;
+            }
+            log.debug("Cached the responses of {} roles", roleResponses.size());
+            return loaded;
+        } catch (DataAccessException e) {
+            throw new AuthServiceException(FAILED_TO_LOAD, e);
+        }
+    }
+
+    /**
+     * Build the payloads of a role. The permissions are the permitted resources followed by the default resources
+     * without duplicates.
+     *
+     * @param role      role
+     * @param resources all resources
+     * @return full and compact role response
+     */
+    private RoleResponses createRoleResponses(Role role, List<Resource> resources) {
+        RoleResponseWrapper roleResponseWrapper = new RoleResponseWrapper();
+        roleResponseWrapper.setId(role.getId());
+        roleResponseWrapper.setName(role.getName());
+        PermissionsWrapper permissionsWrapper = new PermissionsWrapper(
+                role.getPermissions() == null ? Collections.emptyList() : role.getPermissions());
+        permissionsWrapper.attachResources(resources);
+        List<ResourcePermission> permissions = permissionsWrapper
+                .getResourcePermissions()
+                .stream().filter(ListUtils.distinctByKey(ResourcePermission::getResourceId))
+                .collect(Collectors.toList());
+        roleResponseWrapper.setPermissions(permissions);
+        String version = hash(roleResponseWrapper.toJson());
+        roleResponseWrapper.setPermissionsVersion(version);
+        RoleResponseWrapper compact = new RoleResponseWrapper(role.getId(), role.getName(), null, version);
+        return new RoleResponses(new CachedRoleResponseWrapper(roleResponseWrapper),
+                new CachedRoleResponseWrapper(compact));
+    }
+
+    /**
+     * Hash a json to a short version.
+     *
+     * @param json json
+     * @return version
+     */
+    private String hash(String json) {
+        try {
+            byte[] digest = MessageDigest.getInstance(SHA_256).digest(json.getBytes(StandardCharsets.UTF_8));
+            return String.format("%064x", new BigInteger(1, digest)).substring(0, VERSION_LENGTH);
+        } catch (NoSuchAlgorithmException e) {
+            throw new AuthServiceException("SHA-256 algorithm not available.", e);
+        }
+    }
+
+    /**
+     * Read the checksum of the role, permission and resource tables.
+     *
+     * @return checksum of all tables
+     */
+    private String readChecksum() {
+        StringBuilder checksum = new StringBuilder();
+        jdbcTemplate.query(CHECKSUM_TABLES, rs -> {
+            checksum.append(rs.getString(2)).append(';');
+        });
+        return checksum.toString();
+    }
+
+    /**
+     * Payloads of all roles with the resources and table checksum they were built from.
+     */
+    private static class Snapshot {
+
+        private final String checksum;
+        private final List<Resource> resources;
+        private final Map<Integer, RoleResponses> roleResponses;
+
+        Snapshot(String checksum, List<Resource> resources, Map<Integer, RoleResponses> roleResponses) {
+            this.checksum = checksum;
+            this.resources = resources;
+            this.roleResponses = roleResponses;
+        }
+    }
+
+    /**
+     * Full and compact payload of a role.
+     */
+    private static class RoleResponses {
+
+        private final RoleResponseWrapper full;
+        private final RoleResponseWrapper compact;
+
+        RoleResponses(RoleResponseWrapper full, RoleResponseWrapper compact) {
+            this.full = full;
+            this.compact = compact;
+        }
+    }
+}
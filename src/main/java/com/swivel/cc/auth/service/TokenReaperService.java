@@ -0,0 +1,326 @@
+package com.swivel.cc.auth.service;
+
+import com.swivel.cc.auth.configuration.TokenShards;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.dao.DataAccessException;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.time.LocalDate;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Removes expired rows from the token tables.
+ * <p>
+ * The expiry of a token is inside its serialized value, so access and refresh token rows are reaped by their
+ * created_at once they are older than the longest validity: the configured maximum age, or the longest validity of
+ * the clients in oauth_client_details when that is longer. When a client issues tokens which never expire the table
+ * is not reaped at all. In delete mode rows are deleted in small batches by key
+ * with a pause between the batches, so the reaper never holds locks on large ranges. In partition mode the token
+ * tables are range partitioned by day on created_at (see schema.sql) and whole expired partitions are dropped, while
+ * partitions for the next days are created ahead. The token tables of every token shard are reaped, the revoked
+ * tokens only live on the main datasource.
+ * <p>
+ * A run holds a named lock of the main database, so only one node reaps at a time and the others skip their run.
+ */
+@Slf4j
+@Service
+@ConditionalOnProperty(name = "application.token-reaper.enabled", havingValue = "true")
+public class TokenReaperService {
+
+    private static final String MODE_PARTITION = "partition";
+    private static final String MAX_VALUE = "MAXVALUE";
+    private static final String MAX_PARTITION = "pmax";
+    private static final long SECONDS_PER_DAY = 86400;
+    private static final DateTimeFormatter PARTITION_NAME_FORMAT = DateTimeFormatter.ofPattern("'p'yyyyMMdd");
+    private static final String SELECT_PARTITIONS = "SELECT PARTITION_NAME, PARTITION_DESCRIPTION " +
+            "FROM information_schema.PARTITIONS WHERE TABLE_SCHEMA = DATABASE() AND TABLE_NAME = ? " +
+            "AND PARTITION_NAME IS NOT NULL";
+    private static final String METRIC_RECLAIMED = "token.reaper.rows.reclaimed";
+    private static final String METRIC_PARTITIONS_DROPPED = "token.reaper.partitions.dropped";
+    private static final String TAG_TABLE = "table";
+    private static final String LOCK_NAME = "token_reaper";
+    private static final String GET_LOCK = "SELECT GET_LOCK(?, 0)";
+    private static final String RELEASE_LOCK = "SELECT RELEASE_LOCK(?)";
+    private static final String SELECT_CLIENT_VALIDITY = "SELECT MAX(%1$s) AS max_validity, " +
+            "MIN(%1$s) AS min_validity FROM oauth_client_details";
+    private static final long NEVER_EXPIRES = -1;
+    private final TokenShards tokenShards;
+    private final MeterRegistry meterRegistry;
+    private final boolean partitioned;
+    private final int batchSize;
+    private final long batchPauseMillis;
+    private final int maxBatchesPerRun;
+    private final int partitionDaysAhead;
+    private final List<ReapTarget> targets = new ArrayList<>();
+    private final ReapTarget revokedTokens;
+    private final AtomicLong currentRunRows = new AtomicLong();
+    private final AtomicLong lastRunRows = new AtomicLong();
+    private final AtomicLong lastRunFinishedAt = new AtomicLong();
+
+    @Autowired
+    public TokenReaperService(TokenShards tokenShards, MeterRegistry meterRegistry,
+                              @Value("${application.token-reaper.mode}") String mode,
+                              @Value("${application.token-reaper.batch-size}") int batchSize,
+                              @Value("${application.token-reaper.batch-pause-millis}") long batchPauseMillis,
+                              @Value("${application.token-reaper.max-batches-per-run}") int maxBatchesPerRun,
+                              @Value("${application.token-reaper.access-token-max-age-seconds}")
+                                      long accessTokenMaxAgeSeconds,
+                              @Value("${application.token-reaper.refresh-token-max-age-seconds}")
+                                      long refreshTokenMaxAgeSeconds,
+                              @Value("${application.token-reaper.partition-days-ahead}") int partitionDaysAhead) {
+        this.tokenShards = tokenShards;
+        this.meterRegistry = meterRegistry;
+        this.partitioned = MODE_PARTITION.equals(mode);
+        this.batchSize = batchSize;
+        this.batchPauseMillis = batchPauseMillis;
+        this.maxBatchesPerRun = maxBatchesPerRun;
+        this.partitionDaysAhead = partitionDaysAhead;
+        targets.add(new ReapTarget("oauth_access_token", "authentication_id", "created_at",
+                accessTokenMaxAgeSeconds, "access_token_validity"));
+        targets.add(new ReapTarget("oauth_refresh_token", "token_id", "created_at", refreshTokenMaxAgeSeconds,
+                "refresh_token_validity"));
+        this.revokedTokens = new ReapTarget("oauth_revoked_token", "id", "expires_at", 0, null);
+        Gauge.builder("token.reaper.current.run.rows", currentRunRows, AtomicLong::get).register(meterRegistry);
+        Gauge.builder("token.reaper.last.run.rows", lastRunRows, AtomicLong::get).register(meterRegistry);
+        Gauge.builder("token.reaper.last.run.finished", lastRunFinishedAt, AtomicLong::get)
+                .baseUnit("milliseconds").register(meterRegistry);
+    }
+
+    /**
+     * Reap the expired rows of all token tables.
+     */
+    @Scheduled(fixedDelayString = "${application.token-reaper.interval-millis}",
+            initialDelayString = "${application.token-reaper.interval-millis}")
+    public void reap() {
+        try {
+            tokenShards.getJdbcTemplate(0).execute((ConnectionCallback<Boolean>) connection -> {
+                if (!lock(connection, GET_LOCK)) {
+                    log.debug("Token reaper is running on another node, skipping this run");
+                    return false;
+                }
+                try {
+                    reapAll();
+                    return true;
+                } finally {
+                    lock(connection, RELEASE_LOCK);
+                }
+            });
+        } catch (DataAccessException e) {
+            log.error("Locking the token reaper was failed", e);
+        }
+    }
+
+    /**
+     * Reap the expired rows of all token tables, while holding the reaper lock.
+     */
+    private void reapAll() {
+        currentRunRows.set(0);
+        long start = System.currentTimeMillis();
+        Map<ReapTarget, Long> maxAges = new HashMap<>();
+        for (ReapTarget target : targets) {
+            try {
+                maxAges.put(target, getMaxAgeSeconds(target));
+            } catch (DataAccessException e) {
+                log.error("Reading the token validity of the clients for {} was failed", target.table, e);
+            }
+        }
+        for (int shard = 0; shard < tokenShards.size(); shard++) {
+            JdbcTemplate jdbcTemplate = tokenShards.getJdbcTemplate(shard);
+            for (ReapTarget target : targets) {
+                Long maxAgeSeconds = maxAges.get(target);
+                if (maxAgeSeconds == null || maxAgeSeconds == NEVER_EXPIRES) {
+                    continue;
+                }
+                try {
+                    if (partitioned) {
+                        dropExpiredPartitions(jdbcTemplate, target, maxAgeSeconds);
+                        createPartitionsAhead(jdbcTemplate, target);
+                    } else {
+                        deleteExpiredRows(jdbcTemplate, target, maxAgeSeconds);
+                    }
+                } catch (DataAccessException e) {
+                    log.error("Reaping expired tokens from {} of shard {} was failed", target.table, shard, e);
+                }
+            }
+        }
+        try {
+            deleteExpiredRows(tokenShards.getJdbcTemplate(0), revokedTokens, revokedTokens.maxAgeSeconds);
+        } catch (DataAccessException e) {
+            log.error("Reaping expired tokens from {} was failed", revokedTokens.table, e);
+        }
+        lastRunRows.set(currentRunRows.get());
+        lastRunFinishedAt.set(System.currentTimeMillis());
+        log.info("Token reaper reclaimed {} rows in {} ms", currentRunRows.get(),
+                System.currentTimeMillis() - start);
+    }
+
+    /**
+     * Returns the age after which the rows of a table are expired, at least the configured maximum age and at least
+     * the longest validity a client has.
+     *
+     * @param target table to reap
+     * @return maximum age in seconds, NEVER_EXPIRES if a client issues tokens which never expire
+     */
+    private long getMaxAgeSeconds(ReapTarget target) {
+        Map<String, Object> validity = tokenShards.getJdbcTemplate(0).queryForMap(
+                String.format(SELECT_CLIENT_VALIDITY, target.validityColumn));
+        Number minValidity = (Number) validity.get("min_validity");
+        Number maxValidity = (Number) validity.get("max_validity");
+        if (minValidity != null && minValidity.longValue() <= 0) {
+            log.warn("A client issues tokens which never expire, {} is not reaped", target.table);
+            return NEVER_EXPIRES;
+        }
+        return maxValidity == null ? target.maxAgeSeconds : Math.max(target.maxAgeSeconds, maxValidity.longValue());
+    }
+
+    /**
+     * Take or release the named reaper lock on a connection. The lock is held by the connection, so it is released
+     * on the same connection, and released by the database if the connection is lost.
+     *
+     * @param connection connection of the main database
+     * @param sql        GET_LOCK or RELEASE_LOCK statement
+     * @return true if the statement succeeded
+     * @throws SQLException on database error
+     */
+    private static boolean lock(Connection connection, String sql) throws SQLException {
+        try (PreparedStatement statement = connection.prepareStatement(sql)) {
+            statement.setString(1, LOCK_NAME);
+            try (ResultSet resultSet = statement.executeQuery()) {
+                return resultSet.next() && resultSet.getInt(1) == 1;
+            }
+        }
+    }
+
+    /**
+     * Delete the expired rows of a table in batches. Each batch selects the keys of the oldest expired rows and
+     * deletes them by key.
+     *
+     * @param jdbcTemplate  jdbc template of the shard
+     * @param target        table to reap
+     * @param maxAgeSeconds age after which the rows are expired
+     */
+    private void deleteExpiredRows(JdbcTemplate jdbcTemplate, ReapTarget target, long maxAgeSeconds) {
+        Timestamp cutoff = new Timestamp(System.currentTimeMillis() - maxAgeSeconds * 1000);
+        String selectSql = "SELECT " + target.keyColumn + " FROM " + target.table + " WHERE " + target.timeColumn +
+                " < ? ORDER BY " + target.timeColumn + " LIMIT ?";
+        Counter reclaimed = meterRegistry.counter(METRIC_RECLAIMED, TAG_TABLE, target.table);
+        for (int batch = 0; batch < maxBatchesPerRun; batch++) {
+            List<Object> keys = jdbcTemplate.queryForList(selectSql, Object.class, cutoff, batchSize);
+            if (keys.isEmpty()) {
+                return;
+            }
+            String deleteSql = "DELETE FROM " + target.table + " WHERE " + target.keyColumn + " IN (" +
+                    String.join(",", Collections.nCopies(keys.size(), "?")) + ") AND " + target.timeColumn + " < ?";
+            List<Object> args = new ArrayList<>(keys);
+            args.add(cutoff);
+            int deleted = jdbcTemplate.update(deleteSql, args.toArray());
+            reclaimed.increment(deleted);
+            currentRunRows.addAndGet(deleted);
+            log.debug("Token reaper deleted {} rows from {}", deleted, target.table);
+            if (keys.size() < batchSize || !pause()) {
+                return;
+            }
+        }
+    }
+
+    /**
+     * Drop the partitions of a table whose upper bound is older than the cutoff.
+     *
+     * @param jdbcTemplate  jdbc template of the shard
+     * @param target        partitioned table
+     * @param maxAgeSeconds age after which the rows are expired
+     */
+    private void dropExpiredPartitions(JdbcTemplate jdbcTemplate, ReapTarget target, long maxAgeSeconds) {
+        long cutoffSeconds = System.currentTimeMillis() / 1000 - maxAgeSeconds;
+        for (Map<String, Object> partition : jdbcTemplate.queryForList(SELECT_PARTITIONS, target.table)) {
+            String name = (String) partition.get("PARTITION_NAME");
+            String description = (String) partition.get("PARTITION_DESCRIPTION");
+            if (!MAX_VALUE.equals(description) && Long.parseLong(description) <= cutoffSeconds) {
+                jdbcTemplate.execute("ALTER TABLE " + target.table + " DROP PARTITION " + name);
+                meterRegistry.counter(METRIC_PARTITIONS_DROPPED, TAG_TABLE, target.table).increment();
+                log.info("Token reaper dropped partition {} of {}", name, target.table);
+            }
+        }
+    }
+
+    /**
+     * Split daily partitions off the catch-all partition until the partitions reach the configured days ahead.
+     *
+     * @param jdbcTemplate jdbc template of the shard
+     * @param target partitioned table
+     */
+    private void createPartitionsAhead(JdbcTemplate jdbcTemplate, ReapTarget target) {
+        long highestBound = 0;
+        for (Map<String, Object> partition : jdbcTemplate.queryForList(SELECT_PARTITIONS, target.table)) {
+            String description = (String) partition.get("PARTITION_DESCRIPTION");
+            if (!MAX_VALUE.equals(description)) {
+                highestBound = Math.max(highestBound, Long.parseLong(description));
+            }
+        }
+        long today = System.currentTimeMillis() / 1000 / SECONDS_PER_DAY * SECONDS_PER_DAY;
+        long from = Math.max(highestBound, today);
+        long until = today + (partitionDaysAhead + 1) * SECONDS_PER_DAY;
+        for (long lowerBound = from; lowerBound < until; lowerBound += SECONDS_PER_DAY) {
+            String name = LocalDate.ofEpochDay(lowerBound / SECONDS_PER_DAY).format(PARTITION_NAME_FORMAT);
+            jdbcTemplate.execute("ALTER TABLE " + target.table + " REORGANIZE PARTITION " + MAX_PARTITION +
+                    " INTO (PARTITION " + name + " VALUES LESS THAN (" + (lowerBound + SECONDS_PER_DAY) + "), " +
+                    "PARTITION " + MAX_PARTITION + " VALUES LESS THAN " + MAX_VALUE + ")");
+            log.info("Token reaper created partition {} of {}", name, target.table);
+        }
+    }
+
+    /**
+     * Pause between two batches.
+     *
+     * @return false if the reaper thread was interrupted
+     */
+    private boolean pause() {
+        try {
+            Thread.sleep(batchPauseMillis);
+            return true;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return false;
+        }
+    }
+
+    /**
+     * A token table with its key and time columns, and the column of the client validity of its tokens.
+     */
+    private static class ReapTarget {
+
+        private final String table;
+        private final String keyColumn;
+        private final String timeColumn;
+        private final long maxAgeSeconds;
+        private final String validityColumn;
+
+        ReapTarget(String table, String keyColumn, String timeColumn, long maxAgeSeconds, String validityColumn) {
+            this.table = table;
+            this.keyColumn = keyColumn;
+            this.timeColumn = timeColumn;
+            this.maxAgeSeconds = maxAgeSeconds;
+            this.validityColumn = validityColumn;
+        }
+    }
+}
@@ -0,0 +1,244 @@
+package com.swivel.cc.auth.service;
+
+import com.swivel.cc.auth.configuration.AuthTokenServices;
+import com.swivel.cc.auth.configuration.CachingTokenStore;
+import com.swivel.cc.auth.configuration.TokenShards;
+import com.swivel.cc.auth.domain.entity.User;
+import com.swivel.cc.auth.exception.AuthServiceException;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.dao.DataAccessException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.security.oauth2.provider.OAuth2Authentication;
+import org.springframework.security.oauth2.provider.token.TokenStore;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Predicate;
+
+/**
+ * Set based token revocation. Each operation removes the matching access tokens together with their refresh tokens
+ * in a single statement instead of revoking token by token, and records the revoked access tokens for services which
+ * verify jwt access tokens locally.
+ * <p>
+ * The revoked tokens are always recorded on the main datasource. On the additional token shards the matching rows
+ * are read and recorded on the main datasource before they are deleted, and tokens of a role are matched by the user
+ * ids of the role, as the user table only lives on the main datasource. The transaction only covers the main
+ * datasource, so a failing shard leaves the shards before it revoked; revoking again is safe.
+ */
+@Slf4j
+@Service
+public class TokenRevocationService {
+
+    private static final String SELECT_CLIENTS = "SELECT DISTINCT at.client_id ";
+    private static final String RECORD_TOKENS = "INSERT INTO oauth_revoked_token " +
+            "(token_id, user_name, client_id, revoked_at, expires_at) " +
+            "SELECT at.token_id, at.user_name, at.client_id, NOW(), DATE_ADD(NOW(), INTERVAL ? SECOND) ";
+    private static final String OF_CLIENT = " AND at.client_id = ?";
+    private static final String FROM_USER = "FROM oauth_access_token at WHERE at.user_name = ?";
+    private static final String DELETE_BY_USER = "DELETE at, rt FROM oauth_access_token at " +
+            "LEFT JOIN oauth_refresh_token rt ON rt.token_id = at.refresh_token WHERE at.user_name = ?";
+    private static final String FROM_ROLE = "FROM oauth_access_token at JOIN `user` u ON u.id = at.user_name " +
+            "WHERE u.role_id = ?";
+    private static final String DELETE_BY_ROLE = "DELETE at, rt FROM oauth_access_token at " +
+            "JOIN `user` u ON u.id = at.user_name " +
+            "LEFT JOIN oauth_refresh_token rt ON rt.token_id = at.refresh_token WHERE u.role_id = ?";
+    private static final String FROM_CLIENT = "FROM oauth_access_token at WHERE at.client_id = ?";
+    private static final String DELETE_BY_CLIENT = "DELETE at, rt FROM oauth_access_token at " +
+            "LEFT JOIN oauth_refresh_token rt ON rt.token_id = at.refresh_token WHERE at.client_id = ?";
+    private static final String SELECT_USERS_OF_ROLE = "SELECT id FROM `user` WHERE role_id = ?";
+    private static final String SELECT_SHARD_TOKENS = "SELECT at.token_id, at.user_name, at.client_id " +
+            "FROM oauth_access_token at WHERE ";
+    private static final String DELETE_SHARD_TOKENS = "DELETE at, rt FROM oauth_access_token at " +
+            "LEFT JOIN oauth_refresh_token rt ON rt.token_id = at.refresh_token WHERE ";
+    private static final String RECORD_SHARD_TOKEN = "INSERT INTO oauth_revoked_token " +
+            "(token_id, user_name, client_id, revoked_at, expires_at) " +
+            "VALUES (?, ?, ?, NOW(), DATE_ADD(NOW(), INTERVAL ? SECOND))";
+    private static final String BY_USER = "at.user_name = ?";
+    private static final String BY_CLIENT = "at.client_id = ?";
+    private static final int USER_CHUNK_SIZE = 500;
+    private static final String FAILED_TO_REVOKE = "Revoking tokens from database was failed";
+    private final TokenShards tokenShards;
+    private final JdbcTemplate jdbcTemplate;
+    private final TokenStore tokenStore;
+    private final AuthTokenServices authTokenServices;
+
+    @Autowired
+    public TokenRevocationService(TokenShards tokenShards, @Qualifier("tokenStore") TokenStore tokenStore,
+                                  AuthTokenServices authTokenServices) {
+        this.tokenShards = tokenShards;
+        this.jdbcTemplate = tokenShards.getJdbcTemplate(0);
+        this.tokenStore = tokenStore;
+        this.authTokenServices = authTokenServices;
+    }
+
+    /**
+     * This method revokes all tokens of a user.
+     *
+     * @param userId userId
+     * @return number of removed token rows
+     */
+    @Transactional
+    public int revokeByUser(String userId) {
+        int removed = revoke(FROM_USER, DELETE_BY_USER, userId);
+        for (int shard = 1; shard < tokenShards.size(); shard++) {
+            removed += revokeOnShard(shard, BY_USER, Collections.singletonList(userId));
+        }
+        evictCached(authentication -> userId.equals(authentication.getName()));
+        log.debug("Revoked tokens of user: {}, removed rows: {}", userId, removed);
+        return removed;
+    }
+
+    /**
+     * This method revokes all tokens of the users holding a role. It is not needed after the permissions of the role
+     * changed, tokens with an older permissions version get the current permissions when they are used.
+     *
+     * @param roleId roleId
+     * @return number of removed token rows
+     */
+    @Transactional
+    public int revokeByRole(int roleId) {
+        int removed = revoke(FROM_ROLE, DELETE_BY_ROLE, roleId);
+        if (tokenShards.size() > 1) {
+            removed += revokeUsersOnShards(roleId);
+        }
+        evictCached(authentication -> authentication.getPrincipal() instanceof User
+                && ((User) authentication.getPrincipal()).getRole() != null
+                && ((User) authentication.getPrincipal()).getRole().getId() == roleId);
+        log.debug("Revoked tokens of role: {}, removed rows: {}", roleId, removed);
+        return removed;
+    }
+
+    /**
+     * This method revokes all tokens issued to a client.
+     *
+     * @param clientId clientId
+     * @return number of removed token rows
+     */
+    @Transactional
+    public int revokeByClient(String clientId) {
+        int removed = revokeOfClient(clientId);
+        for (int shard = 1; shard < tokenShards.size(); shard++) {
+            removed += revokeOnShard(shard, BY_CLIENT, Collections.singletonList(clientId));
+        }
+        evictCached(authentication -> clientId.equals(authentication.getOAuth2Request().getClientId()));
+        log.debug("Revoked tokens of client: {}, removed rows: {}", clientId, removed);
+        return removed;
+    }
+
+    /**
+     * Record the matching access tokens as revoked and delete them with their refresh tokens.
+     * The expiry of a token is inside its serialized value, so the revocation is kept for the access token validity
+     * of its client, the tokens are recorded client by client.
+     *
+     * @param from      from clause selecting the access tokens
+     * @param deleteSql multi table delete of access and refresh tokens
+     * @param key       user id or role id
+     * @return number of removed token rows
+     */
+    private int revoke(String from, String deleteSql, Object key) {
+        try {
+            for (String clientId : jdbcTemplate.queryForList(SELECT_CLIENTS + from, String.class, key)) {
+                jdbcTemplate.update(RECORD_TOKENS + from + OF_CLIENT, getValidity(clientId), key, clientId);
+            }
+            return jdbcTemplate.update(deleteSql, key);
+        } catch (DataAccessException e) {
+            throw new AuthServiceException(FAILED_TO_REVOKE, e);
+        }
+    }
+
+    /**
+     * Record the access tokens of a client as revoked and delete them with their refresh tokens.
+     *
+     * @param clientId clientId
+     * @return number of removed token rows
+     */
+    private int revokeOfClient(String clientId) {
+        try {
+            jdbcTemplate.update(RECORD_TOKENS + FROM_CLIENT, getValidity(clientId), clientId);
+            return jdbcTemplate.update(DELETE_BY_CLIENT, clientId);
+        } catch (DataAccessException e) {
+            throw new AuthServiceException(FAILED_TO_REVOKE, e);
+        }
+    }
+
+    /**
+     * Returns the access token validity the token services resolve for a client.
+     *
+     * @param clientId client id
+     * @return access token validity in seconds
+     */
+    private int getValidity(String clientId) {
+        return authTokenServices.getAccessTokenValiditySeconds(clientId);
+    }
+
+    /**
+     * Revoke the tokens of the users of a role on the additional shards, in chunks of user ids.
+     *
+     * @param roleId roleId
+     * @return number of removed token rows
+     */
+    private int revokeUsersOnShards(int roleId) {
+        List<Object> userIds;
+        try {
+            userIds = jdbcTemplate.queryForList(SELECT_USERS_OF_ROLE, Object.class, roleId);
+        } catch (DataAccessException e) {
+            throw new AuthServiceException(FAILED_TO_REVOKE, e);
+        }
+        int removed = 0;
+        for (int from = 0; from < userIds.size(); from += USER_CHUNK_SIZE) {
+            List<Object> chunk = userIds.subList(from, Math.min(from + USER_CHUNK_SIZE, userIds.size()));
+            String byUsers = "at.user_name IN (" + String.join(",", Collections.nCopies(chunk.size(), "?")) + ")";
+            for (int shard = 1; shard < tokenShards.size(); shard++) {
+                removed += revokeOnShard(shard, byUsers, chunk);
+            }
+        }
+        return removed;
+    }
+
+    /**
+     * Record the matching access tokens of an additional shard as revoked on the main datasource and delete them
+     * with their refresh tokens.
+     *
+     * @param shard     shard
+     * @param condition condition on the access token table
+     * @param args      arguments of the condition
+     * @return number of removed token rows
+     */
+    private int revokeOnShard(int shard, String condition, List<Object> args) {
+        JdbcTemplate shardJdbcTemplate = tokenShards.getJdbcTemplate(shard);
+        try {
+            List<Object[]> revoked = new ArrayList<>();
+            Map<String, Integer> validities = new HashMap<>();
+            shardJdbcTemplate.query(SELECT_SHARD_TOKENS + condition, rs -> {
+                String clientId = rs.getString(3);
+                revoked.add(new Object[]{rs.getString(1), rs.getString(2), clientId,
+                        validities.computeIfAbsent(clientId, this::getValidity)});
+            }, args.toArray());
+            if (revoked.isEmpty()) {
+                return 0;
+            }
+            jdbcTemplate.batchUpdate(RECORD_SHARD_TOKEN, revoked);
+            return shardJdbcTemplate.update(DELETE_SHARD_TOKENS + condition, args.toArray());
+        } catch (DataAccessException e) {
+            throw new AuthServiceException(FAILED_TO_REVOKE, e);
+        }
+    }
+
+    /**
+     * Evict the cached tokens of this instance, other instances drop them when their cache entries expire.
+     *
+     * @param predicate matches the authentications to evict
+     */
+    private void evictCached(Predicate<OAuth2Authentication> predicate) {
+        if (tokenStore instanceof CachingTokenStore) {
+            ((CachingTokenStore) tokenStore).evictMatching(predicate);
+        }
+    }
+}
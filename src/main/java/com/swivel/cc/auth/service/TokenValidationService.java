@@ -0,0 +1,150 @@
+package com.swivel.cc.auth.service;
+
+import com.swivel.cc.auth.configuration.BatchJdbcTokenStore;
+import com.swivel.cc.auth.configuration.BatchJdbcTokenStore.StoredAccessToken;
+import com.swivel.cc.auth.domain.entity.User;
+import com.swivel.cc.auth.domain.response.TokenClaimsResponseDto;
+import com.swivel.cc.auth.enums.TokenStatus;
+import com.swivel.cc.auth.exception.AuthServiceException;
+import com.swivel.cc.auth.util.TokenKeyUtils;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.dao.DataAccessException;
+import org.springframework.security.oauth2.common.OAuth2AccessToken;
+import org.springframework.security.oauth2.provider.OAuth2Authentication;
+import org.springframework.security.oauth2.provider.token.TokenStore;
+import org.springframework.security.oauth2.provider.token.store.JdbcTokenStore;
+import org.springframework.stereotype.Service;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Validates access tokens for other services, reading the token and its authentication through the cache-backed
+ * token store only. Batches of tokens are read with one query per token shard. Tokens not found are looked up in the
+ * revoked tokens, so a revoked token has the same status in both paths.
+ */
+@Service
+public class TokenValidationService {
+
+    private final TokenStore tokenStore;
+    private final JdbcTokenStore jdbcTokenStore;
+    private final RevokedTokenService revokedTokenService;
+
+    @Autowired
+    public TokenValidationService(@Qualifier("tokenStore") TokenStore tokenStore,
+                                  @Qualifier("jdbcTokenStore") JdbcTokenStore jdbcTokenStore,
+                                  RevokedTokenService revokedTokenService) {
+        this.tokenStore = tokenStore;
+        this.jdbcTokenStore = jdbcTokenStore;
+        this.revokedTokenService = revokedTokenService;
+    }
+
+    /**
+     * This method validates an access token and returns its claims.
+     *
+     * @param tokenValue access token value
+     * @return claims of an active token, otherwise only the status
+     */
+    public TokenClaimsResponseDto validate(String tokenValue) {
+        try {
+            OAuth2AccessToken accessToken = tokenStore.readAccessToken(tokenValue);
+            if (accessToken == null) {
+                boolean revoked = tokenValue != null && !revokedTokenService.getRevokedTokenIds(
+                        Collections.singleton(TokenKeyUtils.extractTokenKey(tokenValue))).isEmpty();
+                return new TokenClaimsResponseDto(revoked ? TokenStatus.REVOKED : TokenStatus.INVALID);
+            }
+            if (accessToken.isExpired()) {
+                return new TokenClaimsResponseDto(TokenStatus.EXPIRED);
+            }
+            OAuth2Authentication authentication = tokenStore.readAuthentication(tokenValue);
+            if (authentication == null || !(authentication.getPrincipal() instanceof User)) {
+                return new TokenClaimsResponseDto(TokenStatus.INVALID);
+            }
+            return toClaims(accessToken, (User) authentication.getPrincipal());
+        } catch (DataAccessException e) {
+            throw new AuthServiceException("Reading access token from database was failed", e);
+        }
+    }
+
+    /**
+     * This method validates a batch of access tokens.
+     *
+     * @param tokenValues access token values
+     * @return claims of the tokens, in the order of the given values
+     */
+    public List<TokenClaimsResponseDto> validate(List<String> tokenValues) {
+        try {
+            Map<String, StoredAccessToken> accessTokens = readAccessTokens(tokenValues);
+            Map<String, String> missingTokenIds = new HashMap<>();
+            for (String tokenValue : tokenValues) {
+                if (tokenValue != null && !accessTokens.containsKey(tokenValue)) {
+                    missingTokenIds.put(tokenValue, TokenKeyUtils.extractTokenKey(tokenValue));
+                }
+            }
+            Set<String> revokedTokenIds = revokedTokenService.getRevokedTokenIds(missingTokenIds.values());
+
+            List<TokenClaimsResponseDto> claims = new ArrayList<>(tokenValues.size());
+            for (String tokenValue : tokenValues) {
+                StoredAccessToken storedAccessToken = accessTokens.get(tokenValue);
+                if (storedAccessToken == null) {
+                    claims.add(new TokenClaimsResponseDto(revokedTokenIds.contains(missingTokenIds.get(tokenValue)) ?
+                            TokenStatus.REVOKED : TokenStatus.INVALID));
+                } else {
+                    claims.add(toClaims(storedAccessToken.getAccessToken(), storedAccessToken.getAuthentication()));
+                }
+            }
+            return claims;
+        } catch (DataAccessException e) {
+            throw new AuthServiceException("Reading access tokens from database was failed", e);
+        }
+    }
+
+    /**
+     * Read the stored tokens with one query per shard, or one by one when the jdbc token store does not read
+     * batches.
+     *
+     * @param tokenValues access token values
+     * @return stored access tokens by token value
+     */
+    private Map<String, StoredAccessToken> readAccessTokens(List<String> tokenValues) {
+        Set<String> distinctTokenValues = new LinkedHashSet<>(tokenValues);
+        distinctTokenValues.remove(null);
+        if (jdbcTokenStore instanceof BatchJdbcTokenStore) {
+            return ((BatchJdbcTokenStore) jdbcTokenStore).readAccessTokens(distinctTokenValues);
+        }
+        Map<String, StoredAccessToken> accessTokens = new HashMap<>();
+        for (String tokenValue : distinctTokenValues) {
+            OAuth2AccessToken accessToken = jdbcTokenStore.readAccessToken(tokenValue);
+            OAuth2Authentication authentication = accessToken == null ? null :
+                    jdbcTokenStore.readAuthentication(tokenValue);
+            if (authentication != null) {
+                accessTokens.put(tokenValue, new StoredAccessToken(accessToken, authentication));
+            }
+        }
+        return accessTokens;
+    }
+
+    private TokenClaimsResponseDto toClaims(OAuth2AccessToken accessToken, OAuth2Authentication authentication) {
+        if (accessToken.isExpired()) {
+            return new TokenClaimsResponseDto(TokenStatus.EXPIRED);
+        }
+        if (!(authentication.getPrincipal() instanceof User)) {
+            return new TokenClaimsResponseDto(TokenStatus.INVALID);
+        }
+        return toClaims(accessToken, (User) authentication.getPrincipal());
+    }
+
+    private TokenClaimsResponseDto toClaims(OAuth2AccessToken accessToken, User user) {
+        Long exp = accessToken.getExpiration() == null ? null :
+                TimeUnit.MILLISECONDS.toSeconds(accessToken.getExpiration().getTime());
+        return new TokenClaimsResponseDto(TokenStatus.ACTIVE, user.getId(),
+                user.getRole() == null ? null : user.getRole().getName(), exp);
+    }
+}
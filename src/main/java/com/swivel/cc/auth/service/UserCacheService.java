@@ -0,0 +1,155 @@
+package com.swivel.cc.auth.service;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.swivel.cc.auth.domain.entity.User;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronizationAdapter;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.Duration;
+import java.util.Locale;
+import java.util.Optional;
+import java.util.function.Function;
+
+/**
+ * In-process cache of users by id, mobile number and email.
+ * <p>
+ * The cache holds snapshots of the users and hands out copies, so callers may change and save what they get without
+ * touching the cached state. A missing user is not cached, so a user created on another node is found at once. Every
+ * write path of a user evicts the old and the new mobile number and email of the user. Evictions are repeated after
+ * the transaction commits, so a read racing with the write does not cache the old row. Other nodes see a change once
+ * their entries expire, which is why uniqueness checks and password checks read the database instead.
+ */
+@Slf4j
+@Service
+public class UserCacheService {
+
+    private static final String CACHE_BY_ID = "users.by-id";
+    private static final String CACHE_BY_MOBILE_NO = "users.by-mobile-no";
+    private static final String CACHE_BY_EMAIL = "users.by-email";
+    private final boolean enabled;
+    private final Cache<String, User> usersById;
+    private final Cache<String, User> usersByMobileNo;
+    private final Cache<String, User> usersByEmail;
+
+    @Autowired
+    public UserCacheService(MeterRegistry meterRegistry,
+                            @Value("${application.user-cache.enabled}") boolean enabled,
+                            @Value("${application.user-cache.maximum-size}") long maximumSize,
+                            @Value("${application.user-cache.time-to-live-seconds}") long timeToLiveSeconds) {
+        this.enabled = enabled;
+        this.usersById = createCache(meterRegistry, CACHE_BY_ID, maximumSize, timeToLiveSeconds);
+        this.usersByMobileNo = createCache(meterRegistry, CACHE_BY_MOBILE_NO, maximumSize, timeToLiveSeconds);
+        this.usersByEmail = createCache(meterRegistry, CACHE_BY_EMAIL, maximumSize, timeToLiveSeconds);
+    }
+
+    /**
+     * This method returns the user of an id, loading it when it is not cached.
+     *
+     * @param userId userId
+     * @param loader reads the user from the database
+     * @return copy of the user
+     */
+    public Optional<User> getById(String userId, Function<String, Optional<User>> loader) {
+        return get(usersById, userId, loader);
+    }
+
+    /**
+     * This method returns the user of a mobile number, loading it when it is not cached.
+     *
+     * @param mobileNo mobileNo
+     * @param loader   reads the user from the database
+     * @return copy of the user
+     */
+    public Optional<User> getByMobileNo(String mobileNo, Function<String, Optional<User>> loader) {
+        return get(usersByMobileNo, mobileNo, loader);
+    }
+
+    /**
+     * This method returns the user of an email, loading it when it is not cached.
+     *
+     * @param email  email, matched case insensitively
+     * @param loader reads the user from the database
+     * @return copy of the user
+     */
+    public Optional<User> getByEmail(String email, Function<String, Optional<User>> loader) {
+        if (!enabled || email == null) {
+            return loader.apply(email);
+        }
+        return Optional.ofNullable(usersByEmail.get(emailKey(email), k -> loader.apply(email).map(User::new)
+                .orElse(null))).map(User::new);
+    }
+
+    /**
+     * This method evicts the entries of the id, mobile number and email of a user, now and after the running
+     * transaction commits. Called with the user before and after a change, so the old values are evicted too.
+     *
+     * @param user user
+     */
+    public void evict(User user) {
+        if (!enabled || user == null) {
+            return;
+        }
+        String userId = user.getId();
+        String mobileNo = user.getMobileNo();
+        String email = user.getEmail();
+        invalidate(userId, mobileNo, email);
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronizationAdapter() {
+                @Override
+                public void afterCommit() {
+                    invalidate(userId, mobileNo, email);
+                }
+            });
+        }
+    }
+
+    /**
+     * Returns a copy of the cached user of a key. The loader returning no user leaves the key uncached.
+     */
+    private Optional<User> get(Cache<String, User> cache, String key, Function<String, Optional<User>> loader) {
+        if (!enabled || key == null) {
+            return loader.apply(key);
+        }
+        return Optional.ofNullable(cache.get(key, k -> loader.apply(k).map(User::new).orElse(null))).map(User::new);
+    }
+
+    private void invalidate(String userId, String mobileNo, String email) {
+        if (userId != null) {
+            usersById.invalidate(userId);
+        }
+        if (mobileNo != null) {
+            usersByMobileNo.invalidate(mobileNo);
+        }
+        if (email != null) {
+            usersByEmail.invalidate(emailKey(email));
+        }
+        log.debug("Evicted cached user: {}", userId);
+    }
+
+    /**
+     * Emails are compared case insensitively by the database, so they are cached by their lower-cased value.
+     *
+     * @param email email
+     * @return cache key
+     */
+    private static String emailKey(String email) {
+        return email.toLowerCase(Locale.ROOT);
+    }
+
+    private static Cache<String, User> createCache(MeterRegistry meterRegistry, String name, long maximumSize,
+                                                   long timeToLiveSeconds) {
+        Cache<String, User> cache = Caffeine.newBuilder()
+                .maximumSize(maximumSize)
+                .expireAfterWrite(Duration.ofSeconds(timeToLiveSeconds))
+                .recordStats()
+                .build();
+        return CaffeineCacheMetrics.monitor(meterRegistry, cache, name);
+    }
+}
@@ -2,10 +2,13 @@ package com.swivel.cc.auth.service;
 
 import com.swivel.cc.auth.domain.AuthUserDetail;
 import com.swivel.cc.auth.domain.entity.User;
-import com.swivel.cc.auth.repository.UserDetailRepository;
+import com.swivel.cc.auth.exception.AuthServiceException;
+import com.swivel.cc.auth.repository.UserRepository;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.dao.DataAccessException;
 import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.security.core.userdetails.UserDetailsPasswordService;
 import org.springframework.security.core.userdetails.UserDetailsService;
 import org.springframework.security.core.userdetails.UsernameNotFoundException;
 import org.springframework.stereotype.Service;
@@ -17,26 +20,55 @@ import java.util.Optional;
  */
 @Slf4j
 @Service("userDetailsService")
-public class UserDetailService implements UserDetailsService {
+public class UserDetailService implements UserDetailsService, UserDetailsPasswordService {
 
-    private final UserDetailRepository userDetailRepository;
+    private final LoginIdentifierService loginIdentifierService;
+    private final UserRepository userRepository;
+    private final UserCacheService userCacheService;
 
     @Autowired
-    public UserDetailService(UserDetailRepository userDetailRepository) {
-        this.userDetailRepository = userDetailRepository;
+    public UserDetailService(LoginIdentifierService loginIdentifierService, UserRepository userRepository,
+                             UserCacheService userCacheService) {
+        this.loginIdentifierService = loginIdentifierService;
+        this.userRepository = userRepository;
+        this.userCacheService = userCacheService;
     }
 
+    /**
+     * Load the user of a mobile no, email or user id with one lookup of the login identifier table.
+     *
+     * @param name mobile no, email or user id
+     * @return user details
+     */
     @Override
     public UserDetails loadUserByUsername(String name) {
 
-        Optional<User> user = userDetailRepository.findByMobileNoAsUserNameOrEmail(name, name);
-
+        Optional<User> user = loginIdentifierService.findUser(name);
         if (user.isEmpty()) {
-            user = userDetailRepository.findById(name);
-            if (user.isEmpty()) {
-                throw new UsernameNotFoundException("Invalid username or Password");
-            }
+            throw new UsernameNotFoundException("Invalid username or Password");
         }
         return new AuthUserDetail(user.get());
     }
+
+    /**
+     * Replace the password hash of a user after a successful login, when the stored hash has another cost than the
+     * configured one.
+     *
+     * @param userDetails user details
+     * @param newPassword password hashed with the configured cost
+     * @return user details with the new hash
+     */
+    @Override
+    public UserDetails updatePassword(UserDetails userDetails, String newPassword) {
+        AuthUserDetail user = (AuthUserDetail) userDetails;
+        try {
+            userRepository.updatePassword(user.getId(), newPassword);
+            user.setPassword(newPassword);
+            userCacheService.evict(user);
+            log.debug("Upgraded the password hash of user: {}", user.getId());
+            return user;
+        } catch (DataAccessException e) {
+            throw new AuthServiceException("Upgrading password hash was failed", e);
+        }
+    }
 }
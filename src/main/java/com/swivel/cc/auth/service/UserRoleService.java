@@ -8,6 +8,7 @@ import com.swivel.cc.auth.exception.AuthServiceException;
 import com.swivel.cc.auth.exception.InvalidRoleException;
 import com.swivel.cc.auth.exception.InvalidUserException;
 import com.swivel.cc.auth.repository.MerchantBankSearchIndexRepository;
+import com.swivel.cc.auth.repository.MerchantReadModelRepository;
 import com.swivel.cc.auth.repository.RoleRepository;
 import com.swivel.cc.auth.repository.UserRepository;
 import lombok.extern.slf4j.Slf4j;
@@ -17,13 +18,8 @@ import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.domain.Sort;
-import org.springframework.security.oauth2.common.OAuth2AccessToken;
-import org.springframework.security.oauth2.provider.token.DefaultTokenServices;
-import org.springframework.security.oauth2.provider.token.store.JdbcTokenStore;
 import org.springframework.stereotype.Service;
 
-import java.util.ArrayList;
-import java.util.Collection;
 import java.util.Optional;
 
 /**
@@ -35,27 +31,30 @@ public class UserRoleService {
 
     private static final String FAILED_GET_USER_ROLE = "Getting user or role from database was failed";
     private static final String FAILED_UPDATE_USER_ROLE = "Updating user role to database was failed";
-    private static final String FAILED_TO_GET_TOKEN = "Getting token from database was failed";
     private static final String SORT_BY_UPDATED_AT = "updatedAt";
     private static final String SORT_BY_JOINED_ON = "joinedOn";
     private static final String SORT_BY_FULL_NAME = "fullName";
     private static final String ALL = "ALL";
     private final UserRepository userRepository;
-    private final JdbcTokenStore tokenStore;
     private final RoleRepository roleRepository;
-    private final DefaultTokenServices defaultTokenServices;
+    private final TokenRevocationService tokenRevocationService;
     private final MerchantBankSearchIndexRepository merchantBankSearchIndexRepository;
+    private final MerchantReadModelRepository merchantReadModelRepository;
+    private final UserCacheService userCacheService;
 
 
     @Autowired
-    public UserRoleService(UserRepository userRepository, JdbcTokenStore tokenStore, RoleRepository roleRepository,
-                           DefaultTokenServices defaultTokenServices,
-                           MerchantBankSearchIndexRepository merchantBankSearchIndexRepository) {
+    public UserRoleService(UserRepository userRepository, RoleRepository roleRepository,
+                           TokenRevocationService tokenRevocationService,
+                           MerchantBankSearchIndexRepository merchantBankSearchIndexRepository,
+                           MerchantReadModelRepository merchantReadModelRepository,
+                           UserCacheService userCacheService) {
         this.userRepository = userRepository;
-        this.tokenStore = tokenStore;
         this.roleRepository = roleRepository;
-        this.defaultTokenServices = defaultTokenServices;
+        this.tokenRevocationService = tokenRevocationService;
         this.merchantBankSearchIndexRepository = merchantBankSearchIndexRepository;
+        this.merchantReadModelRepository = merchantReadModelRepository;
+        this.userCacheService = userCacheService;
     }
 
     /**
@@ -81,7 +80,8 @@ public class UserRoleService {
     }
 
     /**
-     * This method updates the user role and revokes tokens.
+     * This method updates the user role and revokes tokens. The merchant read model of the user is dropped, it is
+     * rebuilt with the new role on the next read.
      *
      * @param user user
      * @param role role
@@ -89,41 +89,15 @@ public class UserRoleService {
     private void updateValidUserRole(User user, Role role) {
         try {
             user.setRole(role);
-            revokeTokens(user.getId());
+            tokenRevocationService.revokeByUser(user.getId());
             userRepository.save(user);
+            userCacheService.evict(user);
+            merchantReadModelRepository.findById(user.getId()).ifPresent(merchantReadModelRepository::delete);
         } catch (DataAccessException e) {
             throw new AuthServiceException(FAILED_UPDATE_USER_ROLE, e);
         }
     }
 
-    /**
-     * This method revokes the token.
-     *
-     * @param userId userId
-     */
-    private void revokeTokens(String userId) {
-        Collection<OAuth2AccessToken> accessTokens = getTokenByUserId(userId);
-        for (OAuth2AccessToken token : new ArrayList<>(accessTokens)) {
-            if (token != null) {
-                defaultTokenServices.revokeToken(token.getValue());
-            }
-        }
-    }
-
-    /**
-     * This method return the token of a user
-     *
-     * @param userId userId
-     * @return OAuth2AccessToken
-     */
-    private Collection<OAuth2AccessToken> getTokenByUserId(String userId) {
-        try {
-            return tokenStore.findTokensByUserName(userId);
-        } catch (DataAccessException e) {
-            throw new AuthServiceException(FAILED_TO_GET_TOKEN, e);
-        }
-    }
-
     /**
      * This method filter users by role and firstname.
      *
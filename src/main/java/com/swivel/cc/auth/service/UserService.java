@@ -8,9 +8,11 @@ import com.swivel.cc.auth.domain.response.UpdatedMobileNoListResponseDto;
 import com.swivel.cc.auth.domain.response.UpdatedMobileNoResponseDto;
 import com.swivel.cc.auth.enums.ApprovalStatus;
 import com.swivel.cc.auth.enums.ErrorResponseStatusType;
+import com.swivel.cc.auth.enums.LoginIdentifierType;
 import com.swivel.cc.auth.enums.RoleType;
 import com.swivel.cc.auth.exception.*;
 import com.swivel.cc.auth.repository.*;
+import com.swivel.cc.auth.util.IdGenerator;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.dao.DataAccessException;
@@ -22,6 +24,7 @@ import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.security.oauth2.common.OAuth2AccessToken;
 import org.springframework.security.oauth2.provider.token.store.JdbcTokenStore;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
 import java.time.LocalDate;
 import java.time.ZoneId;
@@ -58,6 +61,9 @@ public class UserService {
     private final MerchantService merchantService;
     private final MerchantBankSearchIndexRepository merchantBankSearchIndexRepository;
     private final ApprovedBankBusinessRepository approvedBankBusinessRepository;
+    private final LoginIdentifierService loginIdentifierService;
+    private final UserCacheService userCacheService;
+    private final IdGenerator idGenerator;
 
     @Autowired
     public UserService(UserRepository userRepository, PasswordEncoder passwordEncoder,
@@ -65,7 +71,9 @@ public class UserService {
                        PasswordResetTokenRepository passwordResetTokenRepository, RoleRepository roleRepository,
                        NotificationService notificationService, MerchantService merchantService,
                        MerchantBankSearchIndexRepository merchantBankSearchIndexRepository,
-                       ApprovedBankBusinessRepository approvedBankBusinessRepository) {
+                       ApprovedBankBusinessRepository approvedBankBusinessRepository,
+                       LoginIdentifierService loginIdentifierService, UserCacheService userCacheService,
+                       IdGenerator idGenerator) {
         this.userRepository = userRepository;
         this.passwordEncoder = passwordEncoder;
         this.tokenStore = tokenStore;
@@ -76,6 +84,9 @@ public class UserService {
         this.merchantService = merchantService;
         this.merchantBankSearchIndexRepository = merchantBankSearchIndexRepository;
         this.approvedBankBusinessRepository = approvedBankBusinessRepository;
+        this.loginIdentifierService = loginIdentifierService;
+        this.userCacheService = userCacheService;
+        this.idGenerator = idGenerator;
     }
 
     /**
@@ -83,9 +94,12 @@ public class UserService {
      *
      * @param user user
      */
+    @Transactional
     public void createUser(User user) {
         try {
             userRepository.save(user);
+            loginIdentifierService.saveLoginIdentifiers(user);
+            userCacheService.evict(user);
             if (user.getRole().getId() == RoleType.MERCHANT.getId() || user.getRole().getId() == RoleType.BANK.getId()) {
                 MerchantBankSearchIndex merchantBankSearchIndex = new MerchantBankSearchIndex(user);
                 merchantBankSearchIndexRepository.save(merchantBankSearchIndex);
@@ -95,6 +109,16 @@ public class UserService {
         }
     }
 
+    /**
+     * This method hashes a password on the password hashing executor.
+     *
+     * @param password raw password
+     * @return encoded password
+     */
+    public String encodePassword(String password) {
+        return passwordEncoder.encode(password);
+    }
+
     /**
      * This method returns the default role
      *
@@ -113,10 +137,13 @@ public class UserService {
      *
      * @param user user
      */
+    @Transactional
     public void createUnregisteredUser(User user) {
         try {
             if (!isMobileNoExist(user.getMobileNo())) {
                 userRepository.save(user);
+                loginIdentifierService.saveLoginIdentifiers(user);
+                userCacheService.evict(user);
             } else {
                 throw new MobileNoAlreadyExistsException(EXISTING_MOBILE_NUMBER);
             }
@@ -132,15 +159,13 @@ public class UserService {
      * @return true/false
      */
     public boolean isAlreadyRegisteredUser(String mobileNo) {
-        if (isMobileNoExist(mobileNo)) {
-            User user = userRepository.findByMobileNo(mobileNo);
-            return user.isRegisteredUser();
-        }
-        return false;
+        Optional<User> user = findUserByMobileNo(mobileNo);
+        return user.isPresent() && user.get().isRegisteredUser();
     }
 
     /**
-     * This method checks the existence of the given mobile no.
+     * This method checks the existence of the given mobile no. It reads the database, as the user cache of this node
+     * may not hold a change made on another node yet.
      *
      * @param mobileNo mobile no
      * @return true/false
@@ -153,6 +178,16 @@ public class UserService {
         }
     }
 
+    /**
+     * This method returns the user of a mobile no from the user cache.
+     *
+     * @param mobileNo mobile no
+     * @return user
+     */
+    private Optional<User> findUserByMobileNo(String mobileNo) {
+        return userCacheService.getByMobileNo(mobileNo, no -> Optional.ofNullable(userRepository.findByMobileNo(no)));
+    }
+
     /**
      * This method returns existing user by mobile no.
      *
@@ -162,9 +197,9 @@ public class UserService {
     public User getUserByMobileNo(String mobileNo) {
 
         try {
-            User user = userRepository.findByMobileNo(mobileNo);
-            if (user != null) {
-                return user;
+            Optional<User> user = findUserByMobileNo(mobileNo);
+            if (user.isPresent()) {
+                return user.get();
             } else {
                 throw new InvalidUserException(ErrorResponseStatusType.INVALID_MOBILE_NO.getMessage());
             }
@@ -181,9 +216,11 @@ public class UserService {
      */
     public User getRegisteredUser(String userName) {
         try {
-            User user = userRepository.findByMobileNoOrEmailAndIsRegisteredUserTrue(userName, userName);
-            if (user != null) {
-                return user;
+            Optional<LoginIdentifier> loginIdentifier = loginIdentifierService.findLoginIdentifier(userName);
+            if (loginIdentifier.isPresent() && loginIdentifier.get().getType() != LoginIdentifierType.USER_ID
+                    && (loginIdentifier.get().getType() != LoginIdentifierType.EMAIL
+                    || loginIdentifier.get().getUser().isRegisteredUser())) {
+                return loginIdentifier.get().getUser();
             } else {
                 throw new InvalidUserException(USER_NOT_FOUND);
             }
@@ -199,6 +236,26 @@ public class UserService {
      * @return user
      */
     public User getUserByUserId(String userId) {
+        try {
+            Optional<User> user = userCacheService.getById(userId, userRepository::findById);
+            if (user.isPresent()) {
+                return user.get();
+            } else {
+                throw new InvalidUserException(ErrorResponseStatusType.INVALID_USER_ID.getMessage());
+            }
+        } catch (DataAccessException e) {
+            throw new AuthServiceException(FAILED_GET_USER, e);
+        }
+    }
+
+    /**
+     * This method returns existing user by user Id from the database, bypassing the user cache. Used where a stale
+     * user must not be acted on, e.g. when the current password is verified.
+     *
+     * @param userId userId
+     * @return user
+     */
+    private User getUserFromDatabase(String userId) {
         try {
             Optional<User> user = userRepository.findById(userId);
             if (user.isPresent()) {
@@ -212,7 +269,8 @@ public class UserService {
     }
 
     /**
-     * This method checks the existence of the given email address.
+     * This method checks the existence of the given email address. It reads the database, as the user cache of this
+     * node may not hold a change made on another node yet.
      *
      * @param email email address
      * @return true/false
@@ -242,6 +300,7 @@ public class UserService {
             }
             userByUserId.setUpdatedAt(new Date());
             userRepository.save(userByUserId);
+            userCacheService.evict(userByUserId);
             return updateMerchantBankSearchIndex(userByUserId);
         } catch (DataAccessException e) {
             throw new AuthServiceException(FAILED_UPDATE_USER, e);
@@ -273,9 +332,11 @@ public class UserService {
      * @param userEmailUpdateRequestDto userEmailUpdateRequestDto
      * @return user
      */
+    @Transactional
     public User updateEmail(UserEmailUpdateRequestDto userEmailUpdateRequestDto) {
         try {
             User userByUserId = getUserByUserId(userEmailUpdateRequestDto.getUserId());
+            User previousUser = new User(userByUserId);
 
             if (updateOnlyForNullEmail(userEmailUpdateRequestDto, userByUserId))
                 throw new EmailAlreadyExistsException(EXISTING_EMAIL_ADDRESS);
@@ -285,6 +346,9 @@ public class UserService {
 
             userByUserId.setUpdatedAt(new Date());
             userRepository.save(userByUserId);
+            loginIdentifierService.saveLoginIdentifiers(userByUserId);
+            userCacheService.evict(previousUser);
+            userCacheService.evict(userByUserId);
             return userByUserId;
         } catch (DataAccessException e) {
             throw new AuthServiceException(FAILED_TO_UPDATE_EMAIL, e);
@@ -318,9 +382,11 @@ public class UserService {
      * @param mobileUpdateRequestDto mobileUpdateRequestDto
      * @return user
      */
+    @Transactional
     public User updateMobileNo(UserMobileUpdateRequestDto mobileUpdateRequestDto) {
         try {
             User userByUserId = getUserByUserId(mobileUpdateRequestDto.getUserId());
+            User previousUser = new User(userByUserId);
             String mobileNo = mobileUpdateRequestDto.getMobileNo().getNo();
 
             if (!userByUserId.getMobileNo().equals(mobileNo)) {
@@ -333,6 +399,9 @@ public class UserService {
             }
             userByUserId.setUpdatedAt(new Date());
             userRepository.save(userByUserId);
+            loginIdentifierService.saveLoginIdentifiers(userByUserId);
+            userCacheService.evict(previousUser);
+            userCacheService.evict(userByUserId);
             return userByUserId;
         } catch (DataAccessException e) {
             throw new AuthServiceException(FAILED_TO_UPDATE_MOBILE, e);
@@ -346,12 +415,13 @@ public class UserService {
      */
     public void updatePassword(UserPasswordUpdateRequestDto userPasswordUpdateRequestDto) {
         try {
-            User userByUserId = getUserByUserId(userPasswordUpdateRequestDto.getUserId());
+            User userByUserId = getUserFromDatabase(userPasswordUpdateRequestDto.getUserId());
             if (passwordEncoder.matches(userPasswordUpdateRequestDto.getPassword(),
                     userByUserId.getPassword())) {
                 userByUserId.setPassword(passwordEncoder.encode(userPasswordUpdateRequestDto.getNewPassword()));
                 userByUserId.setUpdatedAt(new Date());
                 userRepository.save(userByUserId);
+                userCacheService.evict(userByUserId);
             } else {
                 throw new InvalidPasswordException(FAILED_TO_UPDATE_PSW);
             }
@@ -372,7 +442,7 @@ public class UserService {
             if (existingToken != null) {
                 passwordResetTokenRepository.delete(existingToken);
             }
-            PasswordResetToken passwordResetToken = new PasswordResetToken(userByUserId);
+            PasswordResetToken passwordResetToken = new PasswordResetToken(userByUserId, idGenerator);
             passwordResetTokenRepository.save(passwordResetToken);
             notificationService.sendPasswordResetSms(mobileNoRequestDto, passwordResetToken.getToken());
         } catch (DataAccessException e) {
@@ -404,6 +474,7 @@ public class UserService {
             user.setPassword(passwordEncoder.encode(resetPasswordRequestDto.getPassword()));
             user.setUpdatedAt(new Date());
             userRepository.save(user);
+            userCacheService.evict(user);
             passwordResetTokenRepository.delete(passwordResetToken);
             return user;
         } catch (DataAccessException e) {
@@ -522,8 +593,8 @@ public class UserService {
      */
     public boolean isPendingMerchant(String userName) {
         try {
-            User user = userRepository.findByMobileNoAsUserNameOrEmail(userName, userName);
-            return user != null && user.getApprovalStatus() == ApprovalStatus.PENDING;
+            Optional<User> user = loginIdentifierService.findUser(userName);
+            return user.isPresent() && user.get().getApprovalStatus() == ApprovalStatus.PENDING;
         } catch (DataAccessException e) {
             throw new AuthServiceException(FAILED_GET_USER, e);
         }
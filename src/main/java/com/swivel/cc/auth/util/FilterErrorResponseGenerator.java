@@ -11,11 +11,26 @@ import org.springframework.stereotype.Component;
 
 import javax.servlet.http.HttpServletResponse;
 import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
 
+/**
+ * Writes the error responses of the filters.
+ * <p>
+ * The error bodies only depend on the error type and the locale of the error bundle, so each body is serialized once
+ * and the encoded bytes are written on every later error. Bodies are kept by the bundle locale, not the locale of
+ * the request, so the number of bodies is bounded by the shipped bundles.
+ */
 @Component
 public class FilterErrorResponseGenerator {
 
+    private static final ObjectMapper OBJECT_MAPPER = new ObjectMapper();
+    private static final String CONTENT_TYPE = "Content-Type";
+    private static final String APPLICATION_JSON = "application/json";
     private final Translator translator;
+    private final Map<Locale, Map<ErrorResponseStatusType, byte[]>> encodedBodies = new ConcurrentHashMap<>();
 
     @Autowired
     public FilterErrorResponseGenerator(Translator translator) {
@@ -31,15 +46,37 @@ public class FilterErrorResponseGenerator {
      */
     public void sendErrorResponse(HttpServletResponse response, ErrorResponseStatusType type,
                                   HttpStatus httpStatus) throws IOException {
-        ErrorResponseWrapper errorResponseWrapper = new ErrorResponseWrapper(type,
-                translator.toLocale(type.getCodeString(type.getCode())), null);
-
-        byte[] responseToSend = restResponseBytes(errorResponseWrapper);
-        response.setHeader("Content-Type", "application/json");
+        byte[] responseToSend = getEncodedBody(type);
+        response.setHeader(CONTENT_TYPE, APPLICATION_JSON);
         response.setStatus(httpStatus.value());
+        response.setContentLength(responseToSend.length);
         response.getOutputStream().write(responseToSend);
     }
 
+    /**
+     * This method returns the encoded error body of the given type in the language of the request.
+     *
+     * @param type error type
+     * @return encoded error body
+     * @throws IOException IOException
+     */
+    private byte[] getEncodedBody(ErrorResponseStatusType type) throws IOException {
+        Map<ErrorResponseStatusType, byte[]> bodies = encodedBodies.computeIfAbsent(
+                translator.getErrorMessageLocale(), locale -> new ConcurrentHashMap<>());
+        try {
+            return bodies.computeIfAbsent(type, errorType -> {
+                try {
+                    return restResponseBytes(new ErrorResponseWrapper(errorType,
+                            translator.toLocale(errorType.getCodeString(errorType.getCode())), null));
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+            });
+        } catch (UncheckedIOException e) {
+            throw e.getCause();
+        }
+    }
+
     /**
      * Generate a response
      *
@@ -48,8 +85,7 @@ public class FilterErrorResponseGenerator {
      * @throws IOException IOException
      */
     private byte[] restResponseBytes(ResponseWrapper responseWrapper) throws IOException {
-        String serialized = new ObjectMapper().writeValueAsString(responseWrapper);
-        return serialized.getBytes();
+        return OBJECT_MAPPER.writeValueAsBytes(responseWrapper);
     }
 
 }
@@ -0,0 +1,121 @@
+package com.swivel.cc.auth.util;
+
+import com.swivel.cc.auth.exception.AuthServiceException;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.nio.ByteBuffer;
+import java.security.DrbgParameters;
+import java.security.NoSuchAlgorithmException;
+import java.security.SecureRandom;
+import java.util.UUID;
+
+/**
+ * Generator of entity ids, token values and numeric codes.
+ * <p>
+ * {@link UUID#randomUUID()} draws from one shared {@link SecureRandom}, which every concurrent sign up and login
+ * waits on. Here every thread has its own DRBG, seeded from the system entropy source and personalized with the
+ * thread, so threads never share generator state.
+ * <p>
+ * Ids are random version 4 uuids by default. With time ordered ids they are version 7 uuids, which start with the
+ * creation time in milliseconds, so new primary keys are appended to the end of their index. Token values are always
+ * random, as they must not reveal when they were issued. They are written without dashes, which tells them apart from
+ * the {@link UUID} values the token services create before the {@code TokenValueEnhancer} replaces them.
+ */
+@Component
+public class IdGenerator {
+
+    private static final String DRBG = "DRBG";
+    private static final int SECURITY_STRENGTH = 256;
+    private static final long VERSION_4 = 0x4000L;
+    private static final long VERSION_7 = 0x7000L;
+    private static final long VERSION_MASK = 0xF000L;
+    private static final long VARIANT = 0x8000000000000000L;
+    private static final long VARIANT_MASK = 0xC000000000000000L;
+    private static final int HEX_DIGITS = 16;
+    private final ThreadLocal<SecureRandom> randoms = ThreadLocal.withInitial(IdGenerator::createRandom);
+    private final boolean timeOrdered;
+
+    @Autowired
+    public IdGenerator(@Value("${application.id-generator.time-ordered-ids}") boolean timeOrdered) {
+        this.timeOrdered = timeOrdered;
+    }
+
+    /**
+     * Returns a new id with the given prefix, e.g. uid- for users.
+     *
+     * @param prefix prefix
+     * @return id
+     */
+    public String nextId(String prefix) {
+        return prefix + (timeOrdered ? timeOrderedUuid() : randomUuid());
+    }
+
+    /**
+     * Returns a new random access or refresh token value, a version 4 uuid without dashes.
+     *
+     * @return token value
+     */
+    public String nextTokenValue() {
+        SecureRandom random = randoms.get();
+        long mostSigBits = (random.nextLong() & ~VERSION_MASK) | VERSION_4;
+        long leastSigBits = (random.nextLong() & ~VARIANT_MASK) | VARIANT;
+        return toHex(mostSigBits) + toHex(leastSigBits);
+    }
+
+    /**
+     * Returns a random number between zero (inclusive) and the bound (exclusive), used for numeric codes.
+     *
+     * @param bound bound
+     * @return random number
+     */
+    public int nextNumber(int bound) {
+        return randoms.get().nextInt(bound);
+    }
+
+    /**
+     * Returns a random version 4 uuid.
+     *
+     * @return uuid
+     */
+    public String randomUuid() {
+        SecureRandom random = randoms.get();
+        long mostSigBits = (random.nextLong() & ~VERSION_MASK) | VERSION_4;
+        long leastSigBits = (random.nextLong() & ~VARIANT_MASK) | VARIANT;
+        return new UUID(mostSigBits, leastSigBits).toString();
+    }
+
+    /**
+     * Returns a version 7 uuid, 48 bits of unix time in milliseconds followed by 74 random bits.
+     *
+     * @return uuid
+     */
+    public String timeOrderedUuid() {
+        SecureRandom random = randoms.get();
+        long mostSigBits = (System.currentTimeMillis() << 16) | VERSION_7 | (random.nextInt() & 0x0FFFL);
+        long leastSigBits = (random.nextLong() & ~VARIANT_MASK) | VARIANT;
+        return new UUID(mostSigBits, leastSigBits).toString();
+    }
+
+    private static String toHex(long bits) {
+        String hex = Long.toHexString(bits);
+        return "0".repeat(HEX_DIGITS - hex.length()) + hex;
+    }
+
+    /**
+     * Creates the DRBG of the calling thread.
+     *
+     * @return random
+     */
+    private static SecureRandom createRandom() {
+        byte[] personalization = ByteBuffer.allocate(2 * Long.BYTES).putLong(Thread.currentThread().getId())
+                .putLong(System.nanoTime()).array();
+        try {
+            return SecureRandom.getInstance(DRBG, DrbgParameters.instantiation(SECURITY_STRENGTH,
+                    DrbgParameters.Capability.RESEED_ONLY, personalization));
+        } catch (NoSuchAlgorithmException e) {
+            throw new AuthServiceException("DRBG algorithm not available.", e);
+        }
+    }
+}
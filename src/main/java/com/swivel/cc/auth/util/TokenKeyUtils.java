@@ -0,0 +1,35 @@
+package com.swivel.cc.auth.util;
+
+import com.swivel.cc.auth.exception.AuthServiceException;
+
+import java.math.BigInteger;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+
+public class TokenKeyUtils {
+
+    private static final String MD5 = "MD5";
+
+    private TokenKeyUtils() {}
+
+    /**
+     * Returns the key under which the jdbc token store persists a token value.
+     * Same digest as JdbcTokenStore#extractTokenKey, so the result matches the token_id columns.
+     *
+     * @param tokenValue token value
+     * @return token key
+     */
+    public static String extractTokenKey(String tokenValue) {
+        if (tokenValue == null) {
+            return null;
+        }
+        try {
+            MessageDigest digest = MessageDigest.getInstance(MD5);
+            byte[] bytes = digest.digest(tokenValue.getBytes(StandardCharsets.UTF_8));
+            return String.format("%032x", new BigInteger(1, bytes));
+        } catch (NoSuchAlgorithmException e) {
+            throw new AuthServiceException("MD5 algorithm not available.", e);
+        }
+    }
+}
@@ -0,0 +1,42 @@
+package com.swivel.cc.auth.wrapper;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.JsonSerializable;
+import com.fasterxml.jackson.databind.SerializerProvider;
+import com.fasterxml.jackson.databind.jsontype.TypeSerializer;
+
+import java.io.IOException;
+import java.util.Collections;
+
+/**
+ * Role response shared by all logins of a role. It is serialized from the json rendered when it was built, so it must
+ * not be modified.
+ */
+public class CachedRoleResponseWrapper extends RoleResponseWrapper implements JsonSerializable {
+
+    private final String json;
+
+    public CachedRoleResponseWrapper(RoleResponseWrapper roleResponseWrapper) {
+        super(roleResponseWrapper.getId(), roleResponseWrapper.getName(),
+                roleResponseWrapper.getPermissions() == null ? null :
+                        Collections.unmodifiableList(roleResponseWrapper.getPermissions()),
+                roleResponseWrapper.getPermissionsVersion());
+        this.json = roleResponseWrapper.toJson();
+    }
+
+    @Override
+    public String toJson() {
+        return json;
+    }
+
+    @Override
+    public void serialize(JsonGenerator jsonGenerator, SerializerProvider serializerProvider) throws IOException {
+        jsonGenerator.writeRawValue(json);
+    }
+
+    @Override
+    public void serializeWithType(JsonGenerator jsonGenerator, SerializerProvider serializerProvider,
+                                  TypeSerializer typeSerializer) throws IOException {
+        serialize(jsonGenerator, serializerProvider);
+    }
+}
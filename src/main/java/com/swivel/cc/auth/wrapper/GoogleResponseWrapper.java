@@ -1,12 +1,10 @@
 package com.swivel.cc.auth.wrapper;
 
 import com.swivel.cc.auth.domain.BaseDto;
-import lombok.AllArgsConstructor;
 import lombok.Getter;
 import lombok.Setter;
 import lombok.NoArgsConstructor;
 
-@AllArgsConstructor
 @Getter
 @Setter
 @NoArgsConstructor
@@ -17,6 +15,7 @@ public class GoogleResponseWrapper implements BaseDto {
     private String picture;
     private String locale;
     private boolean email_verified;
+    private String aud;
 
     @Override
     public String toLogJson() {
@@ -1,5 +1,6 @@
 package com.swivel.cc.auth.wrapper;
 
+import com.fasterxml.jackson.annotation.JsonInclude;
 import com.swivel.cc.auth.domain.ResourcePermission;
 import com.swivel.cc.auth.domain.response.ResponseDto;
 import lombok.*;
@@ -16,7 +17,10 @@ public class RoleResponseWrapper implements ResponseDto, Serializable {
 
     private int id;
     private String name;
+    @JsonInclude(JsonInclude.Include.NON_NULL)
     private List<ResourcePermission> permissions;
+    @JsonInclude(JsonInclude.Include.NON_NULL)
+    private String permissionsVersion;
 
     @Override
     public String toLogJson() {
@@ -71,18 +71,13 @@ create table if not exists oauth_access_token (
                                                   user_name VARCHAR(256),
                                                   client_id VARCHAR(256),
                                                   authentication LONG VARBINARY,
-                                                  refresh_token VARCHAR(256)
-);
-
-
-create table if not exists oauth_access_token (
-                                                  token_id VARCHAR(256),
-                                                  token LONG VARBINARY,
-                                                  authentication_id VARCHAR(256) PRIMARY KEY,
-                                                  user_name VARCHAR(256),
-                                                  client_id VARCHAR(256),
-                                                  authentication LONG VARBINARY,
-                                                  refresh_token VARCHAR(256)
+                                                  refresh_token VARCHAR(256),
+                                                  created_at TIMESTAMP NOT NULL DEFAULT CURRENT_TIMESTAMP,
+                                                  key token_id (token_id),
+                                                  key user_name (user_name),
+                                                  key client_id (client_id),
+                                                  key refresh_token (refresh_token),
+                                                  key created_at (created_at)
 );
 
 create table if not exists  oauth_client_details (
@@ -118,7 +113,10 @@ create table if not exists oauth_code (
 create table if not exists oauth_refresh_token (
                                                    token_id VARCHAR(256),
                                                    token LONG VARBINARY,
-                                                   authentication LONG VARBINARY
+                                                   authentication LONG VARBINARY,
+                                                   created_at TIMESTAMP NOT NULL DEFAULT CURRENT_TIMESTAMP,
+                                                   key token_id (token_id),
+                                                   key created_at (created_at)
 );
 
 create table if not exists oauth_client_token (
@@ -129,6 +127,44 @@ create table if not exists oauth_client_token (
                                                   client_id VARCHAR(256)
 );
 
+create table if not exists oauth_revoked_token (
+                                                   id BIGINT NOT NULL AUTO_INCREMENT,
+                                                   token_id VARCHAR(256),
+                                                   user_name VARCHAR(256),
+                                                   client_id VARCHAR(256),
+                                                   revoked_at TIMESTAMP NULL,
+                                                   expires_at TIMESTAMP NULL,
+                                                   primary key (id),
+                                                   key token_id (token_id),
+                                                   key expires_at (expires_at)
+);
+
+-- login failures of every node by identity and time bucket, only used with the login throttle cluster exchange
+create table if not exists login_failure (
+                                             identity VARCHAR(320) NOT NULL,
+                                             node_id VARCHAR(64) NOT NULL,
+                                             bucket BIGINT NOT NULL,
+                                             failures INT NOT NULL,
+                                             primary key (identity, node_id, bucket),
+                                             key bucket (bucket)
+);
+
+-- indexes for existing databases
+-- alter table oauth_access_token add key token_id (token_id), add key user_name (user_name),
+--     add key client_id (client_id), add key refresh_token (refresh_token);
+-- alter table oauth_refresh_token add key token_id (token_id);
+-- alter table oauth_revoked_token add key token_id (token_id);
+-- alter table oauth_access_token add column created_at TIMESTAMP NOT NULL DEFAULT CURRENT_TIMESTAMP,
+--     add key created_at (created_at);
+-- alter table oauth_refresh_token add column created_at TIMESTAMP NOT NULL DEFAULT CURRENT_TIMESTAMP,
+--     add key created_at (created_at);
+
+-- optional daily partitioned layout for the token reaper partition mode, the partition key has to be part of the
+-- primary key. The reaper drops expired partitions and splits new ones off pmax.
+-- alter table oauth_access_token drop primary key, add primary key (authentication_id, created_at)
+--     partition by range (UNIX_TIMESTAMP(created_at)) (partition pmax values less than MAXVALUE);
+-- alter table oauth_refresh_token partition by range (UNIX_TIMESTAMP(created_at))
+--     (partition pmax values less than MAXVALUE);
 
 create table if not exists user_mobile_no (
                                                 user_id VARCHAR(256) NOT NULL,
@@ -138,6 +174,41 @@ create table if not exists user_mobile_no (
                                                 unique key mobileNo (mobileNo)
 );
 
+-- normalized user id, mobile no and email of every user, so a login is a single primary key lookup
+create table if not exists login_identifier (
+                                                identifier VARCHAR(1024) NOT NULL,
+                                                type VARCHAR(32) NOT NULL,
+                                                user_id VARCHAR(1024) NOT NULL,
+                                                primary key (identifier),
+                                                key user_id (user_id)
+);
+
+-- denormalized merchant and bank state maintained by the merchant service, serves login and approved profile reads
+create table if not exists merchant_read_model (
+                                                   userId VARCHAR(1024) NOT NULL,
+                                                   userRole VARCHAR(50),
+                                                   merchantApprovalStatus VARCHAR(50),
+                                                   joinedOn TIMESTAMP NULL,
+                                                   active TINYINT(4) NOT NULL,
+                                                   profileApprovalStatus VARCHAR(50),
+                                                   businessId VARCHAR(1024),
+                                                   businessName VARCHAR(1024),
+                                                   ownerName VARCHAR(1024),
+                                                   mobileNo VARCHAR(100),
+                                                   telephone VARCHAR(100),
+                                                   email VARCHAR(1024),
+                                                   businessRegNo VARCHAR(1024),
+                                                   address VARCHAR(1024),
+                                                   imageUrl VARCHAR(1024),
+                                                   webSite VARCHAR(1024),
+                                                   facebook VARCHAR(1024),
+                                                   instagram VARCHAR(1024),
+                                                   businessCreatedAt TIMESTAMP NULL,
+                                                   businessUpdatedAt TIMESTAMP NULL,
+                                                   businessApprovalStatus VARCHAR(50),
+                                                   primary key (userId)
+) engine=innodb;
+
 INSERT INTO oauth_client_details (client_id, client_secret, web_server_redirect_uri, scope, access_token_validity, refresh_token_validity, resource_ids,
 authorized_grant_types, additional_information)
 VALUES ('tokomobile', '$2y$12$ZwonUte3P7EmlwXHhxrly.egnEv8IzaDrburGbCpIxP2296fw6FAm',
@@ -0,0 +1,103 @@
+package com.swivel.cc.auth.configuration;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * This class tests the {@link AdaptiveConcurrencyLimiter} class.
+ */
+class AdaptiveConcurrencyLimiterTest {
+
+    private static final long FAST = TimeUnit.MILLISECONDS.toNanos(10);
+    private static final long SLOW = TimeUnit.MILLISECONDS.toNanos(1000);
+    private MeterRegistry meterRegistry;
+    private AdaptiveConcurrencyLimiter limiter;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        limiter = new AdaptiveConcurrencyLimiter("grant:password", 2, 6, 500, 0.5, meterRegistry);
+    }
+
+    @Test
+    void Should_RejectRequest_When_LimitIsReachedUntilDeadline() throws InterruptedException {
+        for (int i = 0; i < 4; i++) {
+            assertTrue(limiter.acquire(System.nanoTime()));
+        }
+
+        assertFalse(limiter.acquire(System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(20)));
+        assertEquals(1, meterRegistry.get("token.concurrency.rejected").tag("limiter", "grant:password")
+                .counter().count());
+        assertEquals(4, meterRegistry.get("token.concurrency.in-flight").gauge().value());
+    }
+
+    @Test
+    void Should_DecreaseLimit_When_RequestIsSlow() throws InterruptedException {
+        assertTrue(limiter.acquire(System.nanoTime()));
+        limiter.release(SLOW, false);
+
+        assertEquals(2, limiter.getLimit());
+        limiter.acquire(System.nanoTime());
+        limiter.release(SLOW, false);
+        assertEquals(2, meterRegistry.get("token.concurrency.limit").gauge().value());
+    }
+
+    @Test
+    void Should_DecreaseLimit_When_RequestFailed() throws InterruptedException {
+        assertTrue(limiter.acquire(System.nanoTime()));
+        limiter.release(FAST, true);
+
+        assertEquals(2, limiter.getLimit());
+    }
+
+    @Test
+    void Should_IncreaseLimit_When_FastRequestsUseTheLimit() throws InterruptedException {
+        for (int round = 0; round < 40; round++) {
+            int limit = (int) limiter.getLimit();
+            for (int i = 0; i < limit; i++) {
+                assertTrue(limiter.acquire(System.nanoTime()));
+            }
+            for (int i = 0; i < limit; i++) {
+                limiter.release(FAST, false);
+            }
+        }
+
+        assertEquals(6, limiter.getLimit());
+        assertEquals(0, limiter.getInFlight());
+    }
+
+    @Test
+    void Should_KeepLimit_When_FastRequestsDoNotUseTheLimit() throws InterruptedException {
+        assertTrue(limiter.acquire(System.nanoTime()));
+        limiter.release(FAST, false);
+
+        assertEquals(4, limiter.getLimit());
+    }
+
+    @Test
+    void Should_WakeWaitingRequest_When_SlotIsCancelled() throws InterruptedException {
+        for (int i = 0; i < 4; i++) {
+            limiter.acquire(System.nanoTime());
+        }
+        Thread releasing = new Thread(() -> {
+            try {
+                Thread.sleep(20);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            limiter.cancel();
+        });
+        releasing.start();
+
+        assertTrue(limiter.acquire(System.nanoTime() + TimeUnit.SECONDS.toNanos(5)));
+        releasing.join();
+        assertEquals(4, limiter.getInFlight());
+        assertEquals(4, limiter.getLimit());
+    }
+}
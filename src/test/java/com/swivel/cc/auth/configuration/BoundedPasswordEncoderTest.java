@@ -0,0 +1,78 @@
+package com.swivel.cc.auth.configuration;
+
+import com.swivel.cc.auth.exception.PasswordHashingRejectedException;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * This class tests the {@link BoundedPasswordEncoder} class.
+ */
+class BoundedPasswordEncoderTest {
+
+    private static final String PASSWORD = "Tokoin@123";
+    private SimpleMeterRegistry meterRegistry;
+    private BoundedPasswordEncoder passwordEncoder;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        passwordEncoder = new BoundedPasswordEncoder(4, 2, 4, 5000, meterRegistry);
+    }
+
+    @AfterEach
+    void tearDown() {
+        passwordEncoder.close();
+    }
+
+    @Test
+    void Should_EncodeAndMatchPasswordOnHashingThreads() {
+        String encodedPassword = passwordEncoder.encode(PASSWORD);
+
+        assertTrue(encodedPassword.startsWith("$2a$04$"));
+        assertTrue(passwordEncoder.matches(PASSWORD, encodedPassword));
+        assertFalse(passwordEncoder.matches("wrong", encodedPassword));
+        assertEquals(2, meterRegistry.get("password.hashing.latency").tag("operation", "matches").timer().count());
+    }
+
+    @Test
+    void Should_UpgradeEncoding_When_CostDiffersFromStrength() {
+        assertTrue(passwordEncoder.upgradeEncoding(new BCryptPasswordEncoder(5).encode(PASSWORD)));
+        assertFalse(passwordEncoder.upgradeEncoding(passwordEncoder.encode(PASSWORD)));
+        assertFalse(passwordEncoder.upgradeEncoding(null));
+    }
+
+    @Test
+    void Should_RejectHashing_When_QueueIsFull() {
+        passwordEncoder.close();
+        passwordEncoder = new BoundedPasswordEncoder(12, 1, 1, 30000, meterRegistry);
+        ExecutorService callers = Executors.newFixedThreadPool(4);
+        List<CompletableFuture<String>> hashes = new ArrayList<>();
+        for (int i = 0; i < 4; i++) {
+            hashes.add(CompletableFuture.supplyAsync(() -> passwordEncoder.encode(PASSWORD), callers));
+        }
+
+        long rejections = hashes.stream().filter(hash -> {
+            try {
+                hash.join();
+                return false;
+            } catch (CompletionException e) {
+                return e.getCause() instanceof PasswordHashingRejectedException;
+            }
+        }).count();
+        callers.shutdown();
+        assertTrue(rejections > 0);
+        assertEquals(rejections, meterRegistry.get("password.hashing.rejected").counter().count());
+    }
+}
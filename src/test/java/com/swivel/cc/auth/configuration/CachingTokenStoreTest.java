@@ -0,0 +1,113 @@
+package com.swivel.cc.auth.configuration;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mock;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.oauth2.common.DefaultOAuth2AccessToken;
+import org.springframework.security.oauth2.common.DefaultOAuth2RefreshToken;
+import org.springframework.security.oauth2.common.OAuth2AccessToken;
+import org.springframework.security.oauth2.common.OAuth2RefreshToken;
+import org.springframework.security.oauth2.provider.OAuth2Authentication;
+import org.springframework.security.oauth2.provider.OAuth2Request;
+import org.springframework.security.oauth2.provider.token.TokenStore;
+
+import java.util.Collections;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+import static org.mockito.MockitoAnnotations.initMocks;
+
+/**
+ * This class tests the {@link CachingTokenStore} class.
+ */
+class CachingTokenStoreTest {
+
+    private static final String TOKEN_VALUE = "access-token";
+    private static final String REFRESH_TOKEN_VALUE = "refresh-token";
+    private static final String USER_ID = "uid-1234567890";
+    private static final String CLIENT_ID = "tokomobile";
+    @Mock
+    private TokenStore jdbcTokenStore;
+    private CachingTokenStore cachingTokenStore;
+
+    @BeforeEach
+    void setUp() {
+        initMocks(this);
+        cachingTokenStore = new CachingTokenStore(jdbcTokenStore, 100, 60);
+    }
+
+    @Test
+    void Should_ReadAccessTokenFromDelegateOnlyOnce() {
+        when(jdbcTokenStore.readAccessToken(TOKEN_VALUE)).thenReturn(getSampleAccessToken());
+
+        assertEquals(TOKEN_VALUE, cachingTokenStore.readAccessToken(TOKEN_VALUE).getValue());
+        assertEquals(TOKEN_VALUE, cachingTokenStore.readAccessToken(TOKEN_VALUE).getValue());
+        verify(jdbcTokenStore, times(1)).readAccessToken(TOKEN_VALUE);
+    }
+
+    @Test
+    void Should_NotCacheMissingAccessToken() {
+        when(jdbcTokenStore.readAccessToken(TOKEN_VALUE)).thenReturn(null);
+
+        assertNull(cachingTokenStore.readAccessToken(TOKEN_VALUE));
+        assertNull(cachingTokenStore.readAccessToken(TOKEN_VALUE));
+        verify(jdbcTokenStore, times(2)).readAccessToken(TOKEN_VALUE);
+    }
+
+    @Test
+    void Should_ReturnNewAuthenticationInstance_When_ReadFromCache() {
+        when(jdbcTokenStore.readAuthentication(TOKEN_VALUE)).thenReturn(getSampleAuthentication());
+
+        OAuth2Authentication first = cachingTokenStore.readAuthentication(TOKEN_VALUE);
+        OAuth2Authentication second = cachingTokenStore.readAuthentication(TOKEN_VALUE);
+
+        assertNotSame(first, second);
+        assertEquals(USER_ID, second.getName());
+        verify(jdbcTokenStore, times(1)).readAuthentication(TOKEN_VALUE);
+    }
+
+    @Test
+    void Should_EvictCachedEntries_When_AccessTokenIsRemoved() {
+        OAuth2AccessToken accessToken = getSampleAccessToken();
+        when(jdbcTokenStore.readAccessToken(TOKEN_VALUE)).thenReturn(accessToken);
+        when(jdbcTokenStore.readAuthentication(TOKEN_VALUE)).thenReturn(getSampleAuthentication());
+        cachingTokenStore.readAccessToken(TOKEN_VALUE);
+        cachingTokenStore.readAuthentication(TOKEN_VALUE);
+
+        cachingTokenStore.removeAccessToken(accessToken);
+        when(jdbcTokenStore.readAccessToken(TOKEN_VALUE)).thenReturn(null);
+        when(jdbcTokenStore.readAuthentication(TOKEN_VALUE)).thenReturn(null);
+
+        verify(jdbcTokenStore).removeAccessToken(accessToken);
+        assertNull(cachingTokenStore.readAccessToken(TOKEN_VALUE));
+        assertNull(cachingTokenStore.readAuthentication(TOKEN_VALUE));
+    }
+
+    @Test
+    void Should_EvictCachedAccessToken_When_ItsRefreshTokenIsRemoved() {
+        OAuth2AccessToken accessToken = getSampleAccessToken();
+        when(jdbcTokenStore.readAccessToken(TOKEN_VALUE)).thenReturn(accessToken);
+        cachingTokenStore.readAccessToken(TOKEN_VALUE);
+
+        cachingTokenStore.removeRefreshToken(accessToken.getRefreshToken());
+        cachingTokenStore.readAccessToken(TOKEN_VALUE);
+
+        verify(jdbcTokenStore).removeRefreshToken(accessToken.getRefreshToken());
+        verify(jdbcTokenStore, times(2)).readAccessToken(TOKEN_VALUE);
+    }
+
+    private OAuth2AccessToken getSampleAccessToken() {
+        DefaultOAuth2AccessToken accessToken = new DefaultOAuth2AccessToken(TOKEN_VALUE);
+        OAuth2RefreshToken refreshToken = new DefaultOAuth2RefreshToken(REFRESH_TOKEN_VALUE);
+        accessToken.setRefreshToken(refreshToken);
+        return accessToken;
+    }
+
+    private OAuth2Authentication getSampleAuthentication() {
+        OAuth2Request request = new OAuth2Request(Collections.emptyMap(), CLIENT_ID, Collections.emptyList(),
+                true, Collections.emptySet(), Collections.emptySet(), null, null, null);
+        return new OAuth2Authentication(request,
+                new UsernamePasswordAuthenticationToken(USER_ID, null, Collections.emptyList()));
+    }
+}
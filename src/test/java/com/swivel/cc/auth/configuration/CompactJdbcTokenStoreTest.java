@@ -0,0 +1,121 @@
+package com.swivel.cc.auth.configuration;
+
+import com.swivel.cc.auth.domain.AuthUserDetail;
+import com.swivel.cc.auth.domain.Data;
+import com.swivel.cc.auth.domain.entity.Permission;
+import com.swivel.cc.auth.domain.entity.Role;
+import com.swivel.cc.auth.domain.entity.User;
+import com.swivel.cc.auth.service.RoleCatalogueService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mock;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.GrantedAuthority;
+import org.springframework.security.oauth2.common.DefaultExpiringOAuth2RefreshToken;
+import org.springframework.security.oauth2.common.DefaultOAuth2AccessToken;
+import org.springframework.security.oauth2.common.ExpiringOAuth2RefreshToken;
+import org.springframework.security.oauth2.common.OAuth2AccessToken;
+import org.springframework.security.oauth2.common.util.SerializationUtils;
+import org.springframework.security.oauth2.provider.OAuth2Authentication;
+import org.springframework.security.oauth2.provider.OAuth2Request;
+
+import javax.sql.DataSource;
+import java.util.*;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.when;
+import static org.mockito.MockitoAnnotations.initMocks;
+
+/**
+ * This class tests the {@link CompactJdbcTokenStore} class.
+ */
+class CompactJdbcTokenStoreTest {
+
+    private static final String TOKEN_VALUE = "access-token";
+    private static final String REFRESH_TOKEN_VALUE = "refresh-token";
+    private static final String USER_ID = "uid-1234567890";
+    private static final String CLIENT_ID = "tokomobile";
+    private static final int ROLE_ID = 2;
+    @Mock
+    private DataSource dataSource;
+    @Mock
+    private RoleCatalogueService roleCatalogueService;
+    private CompactJdbcTokenStore compactJdbcTokenStore;
+
+    @BeforeEach
+    void setUp() {
+        initMocks(this);
+        compactJdbcTokenStore = new CompactJdbcTokenStore(dataSource, roleCatalogueService);
+    }
+
+    @Test
+    void Should_KeepTokenFieldsAndDropLoginResponse_When_AccessTokenIsSerialized() {
+        Date expiration = new Date(System.currentTimeMillis() + 60000);
+        DefaultOAuth2AccessToken accessToken = new DefaultOAuth2AccessToken(TOKEN_VALUE);
+        accessToken.setExpiration(expiration);
+        accessToken.setRefreshToken(new DefaultExpiringOAuth2RefreshToken(REFRESH_TOKEN_VALUE, expiration));
+        accessToken.setScope(new HashSet<>(Arrays.asList("READ", "WRITE")));
+        Map<String, Object> additionalInformation = new HashMap<>();
+        additionalInformation.put("jti", "token-id");
+        additionalInformation.put(CustomTokenEnhancer.DATA, new Data());
+        accessToken.setAdditionalInformation(additionalInformation);
+
+        OAuth2AccessToken result = compactJdbcTokenStore.deserializeAccessToken(
+                compactJdbcTokenStore.serializeAccessToken(accessToken));
+
+        assertEquals(TOKEN_VALUE, result.getValue());
+        assertEquals(expiration, result.getExpiration());
+        assertEquals(REFRESH_TOKEN_VALUE, result.getRefreshToken().getValue());
+        assertEquals(expiration, ((ExpiringOAuth2RefreshToken) result.getRefreshToken()).getExpiration());
+        assertEquals(accessToken.getScope(), result.getScope());
+        assertEquals("token-id", result.getAdditionalInformation().get("jti"));
+        assertFalse(result.getAdditionalInformation().containsKey(CustomTokenEnhancer.DATA));
+    }
+
+    @Test
+    void Should_RehydrateAuthoritiesFromRoleCatalogue_When_AuthenticationIsDeserialized() {
+        when(roleCatalogueService.getRole(ROLE_ID)).thenReturn(getSampleRole());
+
+        OAuth2Authentication result = compactJdbcTokenStore.deserializeAuthentication(
+                compactJdbcTokenStore.serializeAuthentication(getSampleAuthentication()));
+
+        assertEquals(USER_ID, result.getName());
+        assertEquals(CLIENT_ID, result.getOAuth2Request().getClientId());
+        assertEquals(USER_ID, ((AuthUserDetail) result.getPrincipal()).getId());
+        assertEquals(new HashSet<>(Arrays.asList("USER", "READ_PROFILE")), result.getAuthorities().stream()
+                .map(GrantedAuthority::getAuthority).collect(Collectors.toSet()));
+    }
+
+    @Test
+    void Should_ReadJavaSerializedRows() {
+        DefaultOAuth2AccessToken accessToken = new DefaultOAuth2AccessToken(TOKEN_VALUE);
+
+        OAuth2AccessToken result = compactJdbcTokenStore.deserializeAccessToken(
+                SerializationUtils.serialize(accessToken));
+
+        assertEquals(TOKEN_VALUE, result.getValue());
+    }
+
+    private Role getSampleRole() {
+        Permission permission = new Permission();
+        permission.setName("READ_PROFILE");
+        Role role = new Role();
+        role.setId(ROLE_ID);
+        role.setName("USER");
+        role.setPermissions(Collections.singletonList(permission));
+        return role;
+    }
+
+    private OAuth2Authentication getSampleAuthentication() {
+        User user = new User();
+        user.setId(USER_ID);
+        user.setFullName("Sample User");
+        user.setRole(getSampleRole());
+        AuthUserDetail principal = new AuthUserDetail(user);
+        OAuth2Request request = new OAuth2Request(Collections.emptyMap(), CLIENT_ID, Collections.emptyList(),
+                true, Collections.singleton("READ"), Collections.emptySet(), null, null, null);
+        return new OAuth2Authentication(request,
+                new UsernamePasswordAuthenticationToken(principal, null, principal.getAuthorities()));
+    }
+}
@@ -0,0 +1,65 @@
+package com.swivel.cc.auth.configuration;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mock;
+import org.springframework.security.crypto.password.PasswordEncoder;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+import static org.mockito.MockitoAnnotations.initMocks;
+
+/**
+ * This class tests the {@link MemoizingSecretEncoder} class.
+ */
+class MemoizingSecretEncoderTest {
+
+    private static final String SECRET = "tokomobile-secret";
+    private static final String HASH = "$2a$10$hashOfTheClientSecret";
+    @Mock
+    private PasswordEncoder delegate;
+    private MemoizingSecretEncoder memoizingSecretEncoder;
+
+    @BeforeEach
+    void setUp() {
+        initMocks(this);
+        memoizingSecretEncoder = new MemoizingSecretEncoder(delegate, 60, new SimpleMeterRegistry());
+    }
+
+    @Test
+    void Should_VerifySecretOnce_When_SameSecretIsPresentedAgain() {
+        when(delegate.matches(SECRET, HASH)).thenReturn(true);
+
+        assertTrue(memoizingSecretEncoder.matches(SECRET, HASH));
+        assertTrue(memoizingSecretEncoder.matches(SECRET, HASH));
+        verify(delegate, times(1)).matches(SECRET, HASH);
+    }
+
+    @Test
+    void Should_VerifyWithDelegate_When_OtherSecretIsPresented() {
+        when(delegate.matches(SECRET, HASH)).thenReturn(true);
+
+        assertTrue(memoizingSecretEncoder.matches(SECRET, HASH));
+        assertFalse(memoizingSecretEncoder.matches("other-secret", HASH));
+        verify(delegate).matches("other-secret", HASH);
+    }
+
+    @Test
+    void Should_NotRememberSecret_When_VerificationFailed() {
+        when(delegate.matches(SECRET, HASH)).thenReturn(false);
+
+        assertFalse(memoizingSecretEncoder.matches(SECRET, HASH));
+        assertFalse(memoizingSecretEncoder.matches(SECRET, HASH));
+        verify(delegate, times(2)).matches(SECRET, HASH);
+    }
+
+    @Test
+    void Should_VerifyWithDelegate_When_StoredHashChanged() {
+        when(delegate.matches(SECRET, HASH)).thenReturn(true);
+        when(delegate.matches(SECRET, "$2a$10$hashOfTheNewSecret")).thenReturn(false);
+
+        assertTrue(memoizingSecretEncoder.matches(SECRET, HASH));
+        assertFalse(memoizingSecretEncoder.matches(SECRET, "$2a$10$hashOfTheNewSecret"));
+    }
+}
@@ -0,0 +1,127 @@
+package com.swivel.cc.auth.configuration;
+
+import com.swivel.cc.auth.domain.AuthUserDetail;
+import com.swivel.cc.auth.domain.entity.Permission;
+import com.swivel.cc.auth.domain.entity.Role;
+import com.swivel.cc.auth.exception.AuthServiceException;
+import com.swivel.cc.auth.service.RoleCatalogueService;
+import com.swivel.cc.auth.service.RoleResponseCacheService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mock;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.GrantedAuthority;
+import org.springframework.security.oauth2.common.DefaultOAuth2AccessToken;
+import org.springframework.security.oauth2.provider.OAuth2Authentication;
+import org.springframework.security.oauth2.provider.OAuth2Request;
+
+import java.util.Collections;
+import java.util.List;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+import static org.mockito.MockitoAnnotations.initMocks;
+
+/**
+ * This class tests the {@link PermissionVersionResolver} class.
+ */
+class PermissionVersionResolverTest {
+
+    private static final String USER_ID = "uid-1234567890";
+    private static final int ROLE_ID = 3;
+    private static final String VERSION = "1a2b3c4d5e6f7a8b";
+    @Mock
+    private RoleResponseCacheService roleResponseCacheService;
+    @Mock
+    private RoleCatalogueService roleCatalogueService;
+    private PermissionVersionResolver permissionVersionResolver;
+
+    @BeforeEach
+    void setUp() {
+        initMocks(this);
+        permissionVersionResolver = new PermissionVersionResolver(roleResponseCacheService, roleCatalogueService);
+    }
+
+    @Test
+    void Should_ReturnStoredAuthentication_When_TokenCarriesCurrentVersion() {
+        when(roleResponseCacheService.getPermissionsVersion(ROLE_ID)).thenReturn(VERSION);
+        OAuth2Authentication authentication = getAuthentication("READ_OFFERS");
+
+        assertSame(authentication, permissionVersionResolver.resolve(getAccessToken(VERSION), authentication));
+        verify(roleCatalogueService, never()).getRole(anyInt());
+    }
+
+    @Test
+    void Should_ReturnCurrentPermissions_When_TokenCarriesOlderVersion() {
+        when(roleResponseCacheService.getPermissionsVersion(ROLE_ID)).thenReturn(VERSION);
+        when(roleCatalogueService.getRole(ROLE_ID)).thenReturn(getRole("WRITE_OFFERS"));
+
+        OAuth2Authentication resolved = permissionVersionResolver.resolve(getAccessToken("0000000000000000"),
+                getAuthentication("READ_OFFERS"));
+        Set<String> authorities = resolved.getAuthorities().stream().map(GrantedAuthority::getAuthority)
+                .collect(Collectors.toSet());
+        assertEquals(Set.of("MERCHANT", "WRITE_OFFERS"), authorities);
+        assertEquals(USER_ID, ((AuthUserDetail) resolved.getPrincipal()).getId());
+        assertTrue(resolved.isAuthenticated());
+    }
+
+    @Test
+    void Should_ReturnCurrentPermissions_When_TokenHasNoVersion() {
+        when(roleResponseCacheService.getPermissionsVersion(ROLE_ID)).thenReturn(VERSION);
+        when(roleCatalogueService.getRole(ROLE_ID)).thenReturn(getRole("WRITE_OFFERS"));
+
+        OAuth2Authentication resolved = permissionVersionResolver.resolve(getAccessToken(null),
+                getAuthentication("READ_OFFERS"));
+        assertTrue(resolved.getAuthorities().stream().anyMatch(a -> "WRITE_OFFERS".equals(a.getAuthority())));
+    }
+
+    @Test
+    void Should_ReturnStoredAuthentication_When_ReadingCurrentVersionFailed() {
+        when(roleResponseCacheService.getPermissionsVersion(ROLE_ID)).thenThrow(new AuthServiceException("failed"));
+        OAuth2Authentication authentication = getAuthentication("READ_OFFERS");
+
+        assertSame(authentication, permissionVersionResolver.resolve(getAccessToken(null), authentication));
+    }
+
+    @Test
+    void Should_ReturnStoredAuthentication_When_TokenHasNoUser() {
+        OAuth2Authentication authentication = new OAuth2Authentication(getRequest(), null);
+
+        assertSame(authentication, permissionVersionResolver.resolve(getAccessToken(null), authentication));
+        verify(roleResponseCacheService, never()).getPermissionsVersion(anyInt());
+    }
+
+    private DefaultOAuth2AccessToken getAccessToken(String version) {
+        DefaultOAuth2AccessToken accessToken = new DefaultOAuth2AccessToken("access-token");
+        if (version != null) {
+            accessToken.setAdditionalInformation(Collections.singletonMap(CustomTokenEnhancer.PERMISSIONS_VERSION,
+                    version));
+        }
+        return accessToken;
+    }
+
+    private OAuth2Authentication getAuthentication(String permissionName) {
+        AuthUserDetail user = new AuthUserDetail();
+        user.setId(USER_ID);
+        user.setRole(getRole(permissionName));
+        List<GrantedAuthority> authorities = List.copyOf(user.getAuthorities());
+        return new OAuth2Authentication(getRequest(), new UsernamePasswordAuthenticationToken(user, null,
+                authorities));
+    }
+
+    private OAuth2Request getRequest() {
+        return new OAuth2Request(Collections.emptyMap(), "tokomobile", Collections.emptyList(), true,
+                Collections.emptySet(), Collections.emptySet(), null, null, null);
+    }
+
+    private Role getRole(String permissionName) {
+        Permission permission = new Permission();
+        permission.setName(permissionName);
+        Role role = new Role("MERCHANT");
+        role.setId(ROLE_ID);
+        role.setPermissions(Collections.singletonList(permission));
+        return role;
+    }
+}
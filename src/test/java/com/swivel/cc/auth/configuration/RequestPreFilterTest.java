@@ -0,0 +1,223 @@
+package com.swivel.cc.auth.configuration;
+
+import com.swivel.cc.auth.domain.AuthUserDetail;
+import com.swivel.cc.auth.domain.entity.User;
+import com.swivel.cc.auth.enums.ErrorResponseStatusType;
+import com.swivel.cc.auth.util.FilterErrorResponseGenerator;
+import com.swivel.cc.auth.util.Validator;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mock;
+import org.springframework.http.HttpStatus;
+import org.springframework.mock.web.MockFilterChain;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.security.oauth2.provider.OAuth2Authentication;
+import org.springframework.security.oauth2.provider.OAuth2Request;
+
+import java.util.Collections;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+import static org.mockito.MockitoAnnotations.initMocks;
+
+/**
+ * This class tests the {@link RequestPreFilter} class.
+ */
+class RequestPreFilterTest {
+
+    private static final String APP_KEY = "auth-app-key";
+    private static final String USER_ID = "uid-1234567890";
+    @Mock
+    private Validator validator;
+    @Mock
+    private FilterErrorResponseGenerator errorResponseGenerator;
+    private RequestPreFilter requestPreFilter;
+    private MockHttpServletResponse response;
+    private MockFilterChain filterChain;
+
+    @BeforeEach
+    void setUp() {
+        initMocks(this);
+        requestPreFilter = new RequestPreFilter(validator, errorResponseGenerator, APP_KEY);
+        response = new MockHttpServletResponse();
+        filterChain = new MockFilterChain();
+    }
+
+    @AfterEach
+    void tearDown() {
+        SecurityContextHolder.clearContext();
+    }
+
+    @Test
+    void Should_PassRequest_When_PathHasNoRoute() throws Exception {
+        requestPreFilter.doFilter(getRequest("GET", "/api/v1/users/uid-1234567890"), response, filterChain);
+
+        assertNotNull(filterChain.getRequest());
+        verifyNoRejection();
+    }
+
+    @Test
+    void Should_RejectWithMissingRequiredFields_When_PasswordGrantHasNoPassword() throws Exception {
+        MockHttpServletRequest request = getRequest("POST", "/oauth/token");
+        request.addParameter("grant_type", "password");
+        request.addParameter("username", "user@example.com");
+
+        requestPreFilter.doFilter(request, response, filterChain);
+
+        assertNull(filterChain.getRequest());
+        verify(errorResponseGenerator).sendErrorResponse(response, ErrorResponseStatusType.MISSING_REQUIRED_FIELDS,
+                HttpStatus.BAD_REQUEST);
+    }
+
+    @Test
+    void Should_RejectWithInvalidUsernameOrPassword_When_PasswordIsInvalid() throws Exception {
+        MockHttpServletRequest request = getRequest("POST", "/oauth/token");
+        request.addParameter("grant_type", "password");
+        request.addParameter("username", "user@example.com");
+        request.addParameter("password", "password");
+
+        requestPreFilter.doFilter(request, response, filterChain);
+
+        assertNull(filterChain.getRequest());
+        verify(errorResponseGenerator).sendErrorResponse(response, ErrorResponseStatusType.INVALID_USERNAME_OR_PASS,
+                HttpStatus.BAD_REQUEST);
+    }
+
+    @Test
+    void Should_PassRequest_When_PasswordGrantIsValid() throws Exception {
+        when(validator.isValidPassword("Password1")).thenReturn(true);
+        MockHttpServletRequest request = getRequest("POST", "/oauth/token");
+        request.addParameter("grant_type", "password");
+        request.addParameter("username", "user@example.com");
+        request.addParameter("password", "Password1");
+
+        requestPreFilter.doFilter(request, response, filterChain);
+
+        assertNotNull(filterChain.getRequest());
+        verifyNoRejection();
+    }
+
+    @Test
+    void Should_PassRequest_When_TokenRequestHasNoGrantType() throws Exception {
+        requestPreFilter.doFilter(getRequest("POST", "/oauth/token"), response, filterChain);
+
+        assertNotNull(filterChain.getRequest());
+        verifyNoRejection();
+    }
+
+    @Test
+    void Should_RejectOnce_When_FacebookTokenRequestHasNoAccessToken() throws Exception {
+        requestPreFilter.doFilter(getRequest("POST", "/oauth/token/facebook"), response, filterChain);
+
+        assertNull(filterChain.getRequest());
+        verify(errorResponseGenerator, times(1)).sendErrorResponse(response,
+                ErrorResponseStatusType.MISSING_REQUIRED_FIELDS, HttpStatus.BAD_REQUEST);
+    }
+
+    @Test
+    void Should_RejectWithUnauthorized_When_UserIdHeaderIsNotUserOfToken() throws Exception {
+        authenticate();
+        MockHttpServletRequest request = getRequest("PUT", "/api/v1/users/email");
+        request.addHeader("User-Id", "uid-0987654321");
+
+        requestPreFilter.doFilter(request, response, filterChain);
+
+        assertNull(filterChain.getRequest());
+        verify(errorResponseGenerator).sendErrorResponse(response, ErrorResponseStatusType.UNAUTHORIZED,
+                HttpStatus.UNAUTHORIZED);
+    }
+
+    @Test
+    void Should_RejectWithUnauthorized_When_UpdateRequestIsNotAuthenticated() throws Exception {
+        MockHttpServletRequest request = getRequest("PUT", "/api/v1/users/password");
+        request.addHeader("User-Id", USER_ID);
+
+        requestPreFilter.doFilter(request, response, filterChain);
+
+        assertNull(filterChain.getRequest());
+        verify(errorResponseGenerator).sendErrorResponse(response, ErrorResponseStatusType.UNAUTHORIZED,
+                HttpStatus.UNAUTHORIZED);
+    }
+
+    @Test
+    void Should_PassRequest_When_UserIdHeaderIsUserOfToken() throws Exception {
+        authenticate();
+        MockHttpServletRequest request = getRequest("PUT", "/api/v1/users/mobileNo");
+        request.addHeader("User-Id", USER_ID);
+
+        requestPreFilter.doFilter(request, response, filterChain);
+
+        assertNotNull(filterChain.getRequest());
+        verifyNoRejection();
+    }
+
+    @Test
+    void Should_PassRequest_When_UpdatePathIsNotPut() throws Exception {
+        requestPreFilter.doFilter(getRequest("GET", "/api/v1/users/email"), response, filterChain);
+
+        assertNotNull(filterChain.getRequest());
+        verifyNoRejection();
+    }
+
+    @Test
+    void Should_RejectWithMissingAppKey_When_InternalRequestHasNoAppKey() throws Exception {
+        requestPreFilter.doFilter(getRequest("POST", "/api/v1/token/introspect"), response, filterChain);
+
+        assertNull(filterChain.getRequest());
+        assertEquals(401, response.getStatus());
+        assertEquals("Missing app key", response.getErrorMessage());
+    }
+
+    @Test
+    void Should_RejectWithInvalidAppKey_When_AppKeyIsWrong() throws Exception {
+        MockHttpServletRequest request = getRequest("GET", "/api/v1/users/mobile-no/updates/uid-1234567890");
+        request.addHeader("app-key", "other-app-key");
+
+        requestPreFilter.doFilter(request, response, filterChain);
+
+        assertNull(filterChain.getRequest());
+        assertEquals(401, response.getStatus());
+        assertEquals("Invalid app key", response.getErrorMessage());
+    }
+
+    @Test
+    void Should_PassRequest_When_WildcardPathHasAppKey() throws Exception {
+        MockHttpServletRequest request = getRequest("GET", "/api/v1/users/mobile-no/updates/uid-1234567890");
+        request.addHeader("app-key", APP_KEY);
+
+        requestPreFilter.doFilter(request, response, filterChain);
+
+        assertNotNull(filterChain.getRequest());
+    }
+
+    @Test
+    void Should_PassRequest_When_PathOnlySharesPrefixOfWildcardPath() throws Exception {
+        requestPreFilter.doFilter(getRequest("GET", "/api/v1/users/mobile-no/updates-list"), response, filterChain);
+
+        assertNotNull(filterChain.getRequest());
+    }
+
+    private void verifyNoRejection() throws Exception {
+        verify(errorResponseGenerator, never()).sendErrorResponse(any(), any(), any());
+    }
+
+    private MockHttpServletRequest getRequest(String method, String path) {
+        MockHttpServletRequest request = new MockHttpServletRequest(method, path);
+        request.setServletPath(path);
+        return request;
+    }
+
+    private void authenticate() {
+        User user = new User();
+        user.setId(USER_ID);
+        UsernamePasswordAuthenticationToken userAuthentication = new UsernamePasswordAuthenticationToken(
+                new AuthUserDetail(user), null, Collections.emptyList());
+        OAuth2Request request = new OAuth2Request(null, "tokomobile", Collections.emptyList(), true,
+                Collections.emptySet(), Collections.emptySet(), "", null, null);
+        SecurityContextHolder.getContext().setAuthentication(new OAuth2Authentication(request, userAuthentication));
+    }
+}
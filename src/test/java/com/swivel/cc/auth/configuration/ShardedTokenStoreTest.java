@@ -0,0 +1,110 @@
+package com.swivel.cc.auth.configuration;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mock;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.oauth2.common.DefaultExpiringOAuth2RefreshToken;
+import org.springframework.security.oauth2.common.DefaultOAuth2AccessToken;
+import org.springframework.security.oauth2.common.ExpiringOAuth2RefreshToken;
+import org.springframework.security.oauth2.common.OAuth2AccessToken;
+import org.springframework.security.oauth2.provider.OAuth2Authentication;
+import org.springframework.security.oauth2.provider.OAuth2Request;
+import org.springframework.security.oauth2.provider.token.store.JdbcTokenStore;
+
+import javax.sql.DataSource;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Date;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+import static org.mockito.MockitoAnnotations.initMocks;
+
+/**
+ * This class tests the {@link ShardedTokenStore} class.
+ */
+class ShardedTokenStoreTest {
+
+    private static final String USER_ID = "uid-1234567890";
+    private static final String CLIENT_ID = "tokomobile";
+    private static final String TOKEN_VALUE = "access-token";
+    private static final String REFRESH_TOKEN_VALUE = "refresh-token";
+    @Mock
+    private DataSource dataSource;
+    @Mock
+    private JdbcTemplate jdbcTemplate;
+    @Mock
+    private JdbcTokenStore firstShard;
+    @Mock
+    private JdbcTokenStore secondShard;
+    private TokenShards tokenShards;
+    private ShardedTokenStore shardedTokenStore;
+
+    @BeforeEach
+    void setUp() {
+        initMocks(this);
+        tokenShards = new TokenShards(Arrays.asList(dataSource, dataSource), Arrays.asList(jdbcTemplate, jdbcTemplate),
+                Arrays.asList(firstShard, secondShard));
+        shardedTokenStore = new ShardedTokenStore(tokenShards);
+    }
+
+    @Test
+    void Should_ReadAccessTokenFromPrefixedShard() {
+        String tokenValue = tokenShards.prefix(1) + TOKEN_VALUE;
+        when(secondShard.readAccessToken(tokenValue)).thenReturn(new DefaultOAuth2AccessToken(tokenValue));
+
+        assertEquals(tokenValue, shardedTokenStore.readAccessToken(tokenValue).getValue());
+        verify(firstShard, never()).readAccessToken(anyString());
+    }
+
+    @Test
+    void Should_ReadAccessTokenFromFirstShard_When_TokenValueIsNotPrefixed() {
+        shardedTokenStore.readAccessToken(TOKEN_VALUE);
+
+        verify(firstShard).readAccessToken(TOKEN_VALUE);
+        verify(secondShard, never()).readAccessToken(anyString());
+    }
+
+    @Test
+    void Should_ReadAccessTokenFromFirstShard_When_PrefixIsOutOfRange() {
+        String tokenValue = tokenShards.prefix(7) + TOKEN_VALUE;
+
+        shardedTokenStore.readAccessToken(tokenValue);
+
+        verify(firstShard).readAccessToken(tokenValue);
+    }
+
+    @Test
+    void Should_FindTokensOfUserOnEveryShard() {
+        when(firstShard.findTokensByUserName(USER_ID))
+                .thenReturn(Collections.singletonList(new DefaultOAuth2AccessToken(TOKEN_VALUE)));
+        when(secondShard.findTokensByUserName(USER_ID)).thenReturn(
+                Collections.singletonList(new DefaultOAuth2AccessToken(tokenShards.prefix(1) + TOKEN_VALUE)));
+
+        assertEquals(2, shardedTokenStore.findTokensByUserName(USER_ID).size());
+    }
+
+    @Test
+    void Should_PrefixTokenValuesWithShardOfAuthentication() {
+        OAuth2Authentication authentication = getSampleAuthentication();
+        DefaultOAuth2AccessToken accessToken = new DefaultOAuth2AccessToken(TOKEN_VALUE);
+        accessToken.setRefreshToken(new DefaultExpiringOAuth2RefreshToken(REFRESH_TOKEN_VALUE, new Date()));
+        String prefix = tokenShards.prefix(tokenShards.shardOf(authentication));
+
+        OAuth2AccessToken enhanced = new ShardPrefixTokenEnhancer(tokenShards).enhance(accessToken, authentication);
+
+        assertEquals(prefix + TOKEN_VALUE, enhanced.getValue());
+        assertEquals(prefix + REFRESH_TOKEN_VALUE, enhanced.getRefreshToken().getValue());
+        assertTrue(enhanced.getRefreshToken() instanceof ExpiringOAuth2RefreshToken);
+        assertEquals(tokenShards.shardOf(authentication), tokenShards.shardOf(enhanced.getValue()));
+    }
+
+    private OAuth2Authentication getSampleAuthentication() {
+        OAuth2Request request = new OAuth2Request(Collections.emptyMap(), CLIENT_ID, Collections.emptyList(),
+                true, Collections.emptySet(), Collections.emptySet(), null, null, null);
+        return new OAuth2Authentication(request,
+                new UsernamePasswordAuthenticationToken(USER_ID, null, Collections.emptyList()));
+    }
+}
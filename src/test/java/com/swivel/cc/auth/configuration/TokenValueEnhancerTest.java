@@ -0,0 +1,79 @@
+package com.swivel.cc.auth.configuration;
+
+import com.swivel.cc.auth.util.IdGenerator;
+import org.junit.jupiter.api.Test;
+import org.springframework.security.oauth2.common.DefaultExpiringOAuth2RefreshToken;
+import org.springframework.security.oauth2.common.DefaultOAuth2AccessToken;
+import org.springframework.security.oauth2.common.ExpiringOAuth2RefreshToken;
+import org.springframework.security.oauth2.common.OAuth2AccessToken;
+import org.springframework.security.oauth2.provider.OAuth2Authentication;
+import org.springframework.security.oauth2.provider.OAuth2Request;
+import org.springframework.security.oauth2.provider.TokenRequest;
+
+import java.util.Collections;
+import java.util.Date;
+import java.util.Map;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * This class tests the {@link TokenValueEnhancer} class.
+ */
+class TokenValueEnhancerTest {
+
+    private static final String CLIENT_ID = "tokomobile";
+    private final TokenValueEnhancer tokenValueEnhancer = new TokenValueEnhancer(new IdGenerator(false));
+
+    @Test
+    void Should_ReplaceValues_When_TokensAreNew() {
+        String accessTokenValue = UUID.randomUUID().toString();
+        String refreshTokenValue = UUID.randomUUID().toString();
+        Date expiration = new Date(System.currentTimeMillis() + 10000);
+
+        OAuth2AccessToken enhanced = tokenValueEnhancer.enhance(getAccessToken(accessTokenValue, refreshTokenValue,
+                expiration), getAuthentication(null));
+
+        assertEquals(32, enhanced.getValue().length());
+        assertEquals(32, enhanced.getRefreshToken().getValue().length());
+        assertNotEquals(enhanced.getValue(), enhanced.getRefreshToken().getValue());
+        assertEquals(expiration, ((ExpiringOAuth2RefreshToken) enhanced.getRefreshToken()).getExpiration());
+    }
+
+    @Test
+    void Should_KeepRefreshToken_When_RefreshTokenIsReusedByRefreshRequest() {
+        String refreshTokenValue = UUID.randomUUID().toString();
+
+        OAuth2AccessToken enhanced = tokenValueEnhancer.enhance(getAccessToken(UUID.randomUUID().toString(),
+                refreshTokenValue, new Date()), getAuthentication(refreshTokenValue));
+
+        assertEquals(32, enhanced.getValue().length());
+        assertEquals(refreshTokenValue, enhanced.getRefreshToken().getValue());
+    }
+
+    @Test
+    void Should_KeepRefreshToken_When_RefreshTokenIsNotUuid() {
+        String refreshTokenValue = "s1-0123456789abcdef0123456789abcdef";
+
+        OAuth2AccessToken enhanced = tokenValueEnhancer.enhance(getAccessToken(UUID.randomUUID().toString(),
+                refreshTokenValue, new Date()), getAuthentication(null));
+
+        assertEquals(refreshTokenValue, enhanced.getRefreshToken().getValue());
+    }
+
+    private static OAuth2AccessToken getAccessToken(String value, String refreshTokenValue, Date expiration) {
+        DefaultOAuth2AccessToken accessToken = new DefaultOAuth2AccessToken(value);
+        accessToken.setRefreshToken(new DefaultExpiringOAuth2RefreshToken(refreshTokenValue, expiration));
+        return accessToken;
+    }
+
+    private static OAuth2Authentication getAuthentication(String refreshTokenValue) {
+        OAuth2Request request = new OAuth2Request(Collections.emptyMap(), CLIENT_ID, Collections.emptyList(), true,
+                Collections.emptySet(), Collections.emptySet(), null, Collections.emptySet(), Collections.emptyMap());
+        if (refreshTokenValue != null) {
+            request = request.refresh(new TokenRequest(Map.of("refresh_token", refreshTokenValue), CLIENT_ID,
+                    Collections.emptySet(), "refresh_token"));
+        }
+        return new OAuth2Authentication(request, null);
+    }
+}
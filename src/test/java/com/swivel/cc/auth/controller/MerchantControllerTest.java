@@ -14,6 +14,7 @@ import com.swivel.cc.auth.exception.AuthServiceException;
 import com.swivel.cc.auth.exception.InvalidUserException;
 import com.swivel.cc.auth.service.MerchantService;
 import com.swivel.cc.auth.service.UserService;
+import com.swivel.cc.auth.util.IdGenerator;
 import com.swivel.cc.auth.util.Validator;
 import org.junit.jupiter.api.AfterEach;
 import org.junit.jupiter.api.BeforeEach;
@@ -74,7 +75,8 @@ class MerchantControllerTest {
     @BeforeEach
     void setUp() {
         initMocks(this);
-        MerchantController merchantController = new MerchantController(translator, merchantService, validator, userService);
+        MerchantController merchantController = new MerchantController(translator, merchantService, validator, userService,
+                new IdGenerator(false));
         mockMvc = MockMvcBuilders.standaloneSetup(merchantController).build();
         this.resourceBundleMessageSource = resourceBundleMessageSourceBean.messageSource();
 
@@ -0,0 +1,83 @@
+package com.swivel.cc.auth.service;
+
+import com.swivel.cc.auth.configuration.AuthTokenServices;
+import com.swivel.cc.auth.configuration.CustomTokenEnhancer;
+import com.swivel.cc.auth.domain.AuthUserDetail;
+import com.swivel.cc.auth.domain.Data;
+import com.swivel.cc.auth.domain.TokenResponse;
+import com.swivel.cc.auth.domain.entity.Permission;
+import com.swivel.cc.auth.domain.entity.Role;
+import com.swivel.cc.auth.domain.entity.User;
+import com.swivel.cc.auth.wrapper.RoleResponseWrapper;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.springframework.security.core.GrantedAuthority;
+import org.springframework.security.oauth2.common.DefaultOAuth2AccessToken;
+import org.springframework.security.oauth2.common.DefaultOAuth2RefreshToken;
+import org.springframework.security.oauth2.provider.OAuth2Authentication;
+
+import java.util.Collections;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+import static org.mockito.MockitoAnnotations.initMocks;
+
+/**
+ * This class tests the {@link CustomTokenService} class.
+ */
+class CustomTokenServiceTest {
+
+    private static final String CLIENT_ID = "tokomobile";
+    private static final String USER_ID = "uid-1234567890";
+    @Mock
+    private AuthTokenServices authTokenServices;
+    private CustomTokenService customTokenService;
+
+    @BeforeEach
+    void setUp() {
+        initMocks(this);
+        customTokenService = new CustomTokenService(authTokenServices, CLIENT_ID);
+    }
+
+    @Test
+    void Should_MintTokenOnceWithRoleOfLoginResponse_When_GeneratingToken() {
+        RoleResponseWrapper roleResponse = new RoleResponseWrapper(2, "USER", null, "1a2b3c4d5e6f7a8b");
+        Data data = new Data();
+        data.setRole(roleResponse);
+        DefaultOAuth2AccessToken accessToken = new DefaultOAuth2AccessToken("access-token");
+        accessToken.setRefreshToken(new DefaultOAuth2RefreshToken("refresh-token"));
+        accessToken.setAdditionalInformation(Collections.singletonMap(CustomTokenEnhancer.DATA, data));
+        when(authTokenServices.createAccessToken(any(OAuth2Authentication.class))).thenReturn(accessToken);
+
+        TokenResponse tokenResponse = customTokenService.generateToken(getUser());
+        assertEquals("access-token", tokenResponse.getAccessToken());
+        assertEquals("refresh-token", tokenResponse.getRefreshToken());
+        assertSame(roleResponse, tokenResponse.getRole());
+
+        ArgumentCaptor<OAuth2Authentication> captor = ArgumentCaptor.forClass(OAuth2Authentication.class);
+        verify(authTokenServices, times(1)).createAccessToken(captor.capture());
+        verify(authTokenServices, never()).setAccessTokenValiditySeconds(anyInt());
+        OAuth2Authentication authentication = captor.getValue();
+        assertEquals(CLIENT_ID, authentication.getOAuth2Request().getClientId());
+        assertEquals(USER_ID, ((AuthUserDetail) authentication.getPrincipal()).getId());
+        Set<String> authorities = authentication.getAuthorities().stream().map(GrantedAuthority::getAuthority)
+                .collect(Collectors.toSet());
+        assertEquals(Set.of("USER", "READ_OFFERS"), authorities);
+    }
+
+    private User getUser() {
+        Permission permission = new Permission();
+        permission.setName("READ_OFFERS");
+        Role role = new Role("USER");
+        role.setId(2);
+        role.setPermissions(Collections.singletonList(permission));
+        User user = new User();
+        user.setId(USER_ID);
+        user.setRole(role);
+        return user;
+    }
+}
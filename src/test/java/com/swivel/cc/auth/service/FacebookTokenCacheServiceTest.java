@@ -0,0 +1,104 @@
+package com.swivel.cc.auth.service;
+
+import com.swivel.cc.auth.exception.InvalidUserException;
+import com.swivel.cc.auth.wrapper.FacebookResponseWrapper;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Function;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * This class tests the {@link FacebookTokenCacheService} class.
+ */
+class FacebookTokenCacheServiceTest {
+
+    private static final String ACCESS_TOKEN = "EAAGm0PX4ZCpsBAKZCZBuL4ZA";
+    private final AtomicInteger validations = new AtomicInteger();
+    private FacebookTokenCacheService facebookTokenCacheService;
+    private FacebookResponseWrapper profile;
+
+    @BeforeEach
+    void setUp() {
+        facebookTokenCacheService = new FacebookTokenCacheService(new SimpleMeterRegistry(), true, 100, 60);
+        profile = new FacebookResponseWrapper("1234567890", "Facebook User", "user@example.com");
+    }
+
+    @Test
+    void Should_ValidateTokenOnce_When_TokenIsUsedTwice() {
+        assertSame(profile, facebookTokenCacheService.get(ACCESS_TOKEN, validator(profile)));
+        assertSame(profile, facebookTokenCacheService.get(ACCESS_TOKEN, validator(profile)));
+
+        assertEquals(1, validations.get());
+    }
+
+    @Test
+    void Should_ValidateTokenAgain_When_ValidationFailed() {
+        Function<String, FacebookResponseWrapper> failingValidator = token -> {
+            validations.incrementAndGet();
+            throw new InvalidUserException("Invalid user token");
+        };
+
+        assertThrows(InvalidUserException.class, () -> facebookTokenCacheService.get(ACCESS_TOKEN, failingValidator));
+        assertThrows(InvalidUserException.class, () -> facebookTokenCacheService.get(ACCESS_TOKEN, failingValidator));
+        assertEquals(2, validations.get());
+    }
+
+    @Test
+    void Should_ValidateEveryTime_When_CacheIsDisabled() {
+        facebookTokenCacheService = new FacebookTokenCacheService(new SimpleMeterRegistry(), false, 100, 60);
+
+        facebookTokenCacheService.get(ACCESS_TOKEN, validator(profile));
+        facebookTokenCacheService.get(ACCESS_TOKEN, validator(profile));
+
+        assertEquals(2, validations.get());
+    }
+
+    @Test
+    void Should_ShareOneValidation_When_TokenIsValidatedConcurrently() throws Exception {
+        CountDownLatch started = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        Function<String, FacebookResponseWrapper> slowValidator = token -> {
+            validations.incrementAndGet();
+            started.countDown();
+            try {
+                release.await(5, TimeUnit.SECONDS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            return profile;
+        };
+        ExecutorService executor = Executors.newFixedThreadPool(4);
+        List<Future<FacebookResponseWrapper>> results = new ArrayList<>();
+        results.add(executor.submit(() -> facebookTokenCacheService.get(ACCESS_TOKEN, slowValidator)));
+        assertTrue(started.await(5, TimeUnit.SECONDS));
+        for (int i = 0; i < 3; i++) {
+            results.add(executor.submit(() -> facebookTokenCacheService.get(ACCESS_TOKEN, slowValidator)));
+        }
+        Thread.sleep(100);
+        release.countDown();
+
+        for (Future<FacebookResponseWrapper> result : results) {
+            assertSame(profile, result.get(5, TimeUnit.SECONDS));
+        }
+        executor.shutdown();
+        assertEquals(1, validations.get());
+    }
+
+    private Function<String, FacebookResponseWrapper> validator(FacebookResponseWrapper facebookProfile) {
+        return token -> {
+            validations.incrementAndGet();
+            return facebookProfile;
+        };
+    }
+}
@@ -0,0 +1,159 @@
+package com.swivel.cc.auth.service;
+
+import com.swivel.cc.auth.exception.AuthServiceException;
+import com.swivel.cc.auth.exception.InvalidUserException;
+import com.swivel.cc.auth.wrapper.GoogleResponseWrapper;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mock;
+import org.springframework.http.CacheControl;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.jwt.JwtHelper;
+import org.springframework.security.jwt.crypto.sign.RsaSigner;
+import org.springframework.security.oauth2.common.util.JsonParserFactory;
+import org.springframework.web.client.ResourceAccessException;
+import org.springframework.web.client.RestTemplate;
+
+import java.math.BigInteger;
+import java.security.KeyPair;
+import java.security.KeyPairGenerator;
+import java.security.interfaces.RSAPrivateKey;
+import java.security.interfaces.RSAPublicKey;
+import java.util.Arrays;
+import java.util.Base64;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+import static org.mockito.MockitoAnnotations.initMocks;
+
+/**
+ * This class tests the {@link GoogleIdTokenValidator} class.
+ */
+class GoogleIdTokenValidatorTest {
+
+    private static final String JWKS_URL = "https://www.googleapis.com/oauth2/v3/certs";
+    private static final String CLIENT_ID = "28788601269.apps.googleusercontent.com";
+    private static final String KEY_ID = "google-key-1";
+    private static final String EMAIL = "user@example.com";
+    @Mock
+    private RestTemplate restTemplate;
+    private GoogleIdTokenValidator googleIdTokenValidator;
+    private KeyPair keyPair;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        initMocks(this);
+        googleIdTokenValidator = new GoogleIdTokenValidator(restTemplate, JWKS_URL, CLIENT_ID + ", other-client");
+        keyPair = generateKeyPair();
+    }
+
+    @Test
+    void Should_ReturnUserAndFetchKeysOnce_When_TokensAreSignedByGoogleKey() {
+        mockJwks((RSAPublicKey) keyPair.getPublic());
+
+        GoogleResponseWrapper user = googleIdTokenValidator.validate(getIdToken(keyPair, getClaims()));
+        googleIdTokenValidator.validate(getIdToken(keyPair, getClaims()));
+
+        assertEquals(EMAIL, user.getEmail());
+        assertEquals("Google User", user.getName());
+        assertTrue(user.isEmail_verified());
+        verify(restTemplate, times(1)).getForEntity(JWKS_URL, String.class);
+    }
+
+    @Test
+    void Should_ThrowInvalidUserException_When_AudienceIsOtherClient() {
+        mockJwks((RSAPublicKey) keyPair.getPublic());
+        Map<String, Object> claims = getClaims();
+        claims.put("aud", "unknown.apps.googleusercontent.com");
+
+        String idToken = getIdToken(keyPair, claims);
+        assertThrows(InvalidUserException.class, () -> googleIdTokenValidator.validate(idToken));
+    }
+
+    @Test
+    void Should_ThrowInvalidUserException_When_TokenIsExpired() {
+        mockJwks((RSAPublicKey) keyPair.getPublic());
+        Map<String, Object> claims = getClaims();
+        claims.put("exp", System.currentTimeMillis() / 1000 - 3600);
+
+        String idToken = getIdToken(keyPair, claims);
+        assertThrows(InvalidUserException.class, () -> googleIdTokenValidator.validate(idToken));
+    }
+
+    @Test
+    void Should_ThrowInvalidUserException_When_IssuerIsNotGoogle() {
+        mockJwks((RSAPublicKey) keyPair.getPublic());
+        Map<String, Object> claims = getClaims();
+        claims.put("iss", "https://issuer.example.com");
+
+        String idToken = getIdToken(keyPair, claims);
+        assertThrows(InvalidUserException.class, () -> googleIdTokenValidator.validate(idToken));
+    }
+
+    @Test
+    void Should_ThrowInvalidUserException_When_TokenIsSignedByOtherKey() throws Exception {
+        mockJwks((RSAPublicKey) keyPair.getPublic());
+
+        String idToken = getIdToken(generateKeyPair(), getClaims());
+        assertThrows(InvalidUserException.class, () -> googleIdTokenValidator.validate(idToken));
+    }
+
+    @Test
+    void Should_ThrowAuthServiceException_When_KeysCannotBeFetched() {
+        when(restTemplate.getForEntity(JWKS_URL, String.class))
+                .thenThrow(new ResourceAccessException("Connection refused"));
+
+        String idToken = getIdToken(keyPair, getClaims());
+        AuthServiceException exception = assertThrows(AuthServiceException.class,
+                () -> googleIdTokenValidator.validate(idToken));
+        assertFalse(exception instanceof InvalidUserException);
+    }
+
+    private void mockJwks(RSAPublicKey publicKey) {
+        Map<String, Object> key = new HashMap<>();
+        key.put("kid", KEY_ID);
+        key.put("kty", "RSA");
+        key.put("alg", "RS256");
+        key.put("n", base64Url(publicKey.getModulus()));
+        key.put("e", base64Url(publicKey.getPublicExponent()));
+        String jwks = JsonParserFactory.create().formatMap(Collections.singletonMap("keys",
+                Collections.singletonList(key)));
+        when(restTemplate.getForEntity(JWKS_URL, String.class)).thenReturn(ResponseEntity.ok()
+                .cacheControl(CacheControl.maxAge(6, TimeUnit.HOURS).cachePublic()).body(jwks));
+    }
+
+    private Map<String, Object> getClaims() {
+        Map<String, Object> claims = new HashMap<>();
+        claims.put("iss", "https://accounts.google.com");
+        claims.put("aud", CLIENT_ID);
+        claims.put("exp", System.currentTimeMillis() / 1000 + 3600);
+        claims.put("email", EMAIL);
+        claims.put("email_verified", true);
+        claims.put("name", "Google User");
+        return claims;
+    }
+
+    private static String getIdToken(KeyPair signingKeyPair, Map<String, Object> claims) {
+        return JwtHelper.encode(JsonParserFactory.create().formatMap(claims),
+                new RsaSigner((RSAPrivateKey) signingKeyPair.getPrivate()),
+                Collections.singletonMap("kid", KEY_ID)).getEncoded();
+    }
+
+    private static KeyPair generateKeyPair() throws Exception {
+        KeyPairGenerator generator = KeyPairGenerator.getInstance("RSA");
+        generator.initialize(2048);
+        return generator.generateKeyPair();
+    }
+
+    private static String base64Url(BigInteger value) {
+        byte[] bytes = value.toByteArray();
+        if (bytes.length > 1 && bytes[0] == 0) {
+            bytes = Arrays.copyOfRange(bytes, 1, bytes.length);
+        }
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(bytes);
+    }
+}
@@ -0,0 +1,141 @@
+package com.swivel.cc.auth.service;
+
+import com.swivel.cc.auth.domain.entity.LoginIdentifier;
+import com.swivel.cc.auth.domain.entity.User;
+import com.swivel.cc.auth.enums.LoginIdentifierType;
+import com.swivel.cc.auth.exception.AuthServiceException;
+import com.swivel.cc.auth.repository.LoginIdentifierRepository;
+import com.swivel.cc.auth.repository.UserRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.springframework.dao.DataAccessException;
+import org.springframework.dao.DataIntegrityViolationException;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+import static org.mockito.MockitoAnnotations.initMocks;
+
+/**
+ * This class tests the {@link LoginIdentifierService} class.
+ */
+class LoginIdentifierServiceTest {
+
+    private static final String USER_ID = "uid-1234567890";
+    private static final String USER_EMAIL = "Rendy@Tokoin.io";
+    private static final String USER_MOBILE_NO = "+62-81123123";
+    @Mock
+    private LoginIdentifierRepository loginIdentifierRepository;
+    @Mock
+    private UserRepository userRepository;
+    private LoginIdentifierService loginIdentifierService;
+    private User user;
+
+    @BeforeEach
+    void setUp() {
+        initMocks(this);
+        loginIdentifierService = new LoginIdentifierService(loginIdentifierRepository, userRepository);
+        user = new User();
+        user.setId(USER_ID);
+        user.setEmail(USER_EMAIL);
+        user.setMobileNo(USER_MOBILE_NO);
+    }
+
+    @Test
+    void Should_ReturnUserWithOneLookup_When_LoginIdentifierExists() {
+        when(loginIdentifierRepository.findWithUserByIdentifier("+6281123123")).thenReturn(
+                Optional.of(new LoginIdentifier("+6281123123", LoginIdentifierType.MOBILE_NO, user)));
+
+        assertEquals(user, loginIdentifierService.findUser(USER_MOBILE_NO).orElseThrow());
+        verify(userRepository, never()).findByMobileNoAsUserNameOrEmail(anyString(), anyString());
+    }
+
+    @Test
+    void Should_LookUpLowerCasedEmail_When_EmailIsGiven() {
+        when(loginIdentifierRepository.findWithUserByIdentifier("rendy@tokoin.io")).thenReturn(
+                Optional.of(new LoginIdentifier("rendy@tokoin.io", LoginIdentifierType.EMAIL, user)));
+
+        assertEquals(user, loginIdentifierService.findUser(USER_EMAIL).orElseThrow());
+    }
+
+    @Test
+    void Should_SaveLoginIdentifiers_When_UserIsOnlyFoundInUserTable() {
+        when(loginIdentifierRepository.findWithUserByIdentifier(USER_ID)).thenReturn(Optional.empty());
+        when(userRepository.findById(USER_ID)).thenReturn(Optional.of(user));
+
+        LoginIdentifier loginIdentifier = loginIdentifierService.findLoginIdentifier(USER_ID).orElseThrow();
+        assertEquals(LoginIdentifierType.USER_ID, loginIdentifier.getType());
+        assertEquals(user, loginIdentifier.getUser());
+        verify(loginIdentifierRepository).insert(USER_ID, "USER_ID", USER_ID);
+        verify(loginIdentifierRepository).insert("+6281123123", "MOBILE_NO", USER_ID);
+        verify(loginIdentifierRepository).insert("rendy@tokoin.io", "EMAIL", USER_ID);
+        verify(userRepository, never()).findByMobileNoAsUserNameOrEmail(anyString(), anyString());
+    }
+
+    @Test
+    void Should_ReturnUser_When_SavingMissingLoginIdentifiersFailed() {
+        when(loginIdentifierRepository.findWithUserByIdentifier("+6281123123")).thenReturn(Optional.empty());
+        when(userRepository.findByMobileNoAsUserNameOrEmail(USER_MOBILE_NO, USER_MOBILE_NO)).thenReturn(user);
+        doThrow(new DataIntegrityViolationException("duplicate")).when(loginIdentifierRepository)
+                .insert(anyString(), anyString(), anyString());
+
+        LoginIdentifier loginIdentifier = loginIdentifierService.findLoginIdentifier(USER_MOBILE_NO).orElseThrow();
+        assertEquals(LoginIdentifierType.MOBILE_NO, loginIdentifier.getType());
+        assertEquals(user, loginIdentifier.getUser());
+        verify(userRepository, never()).findById(anyString());
+    }
+
+    @Test
+    void Should_ReturnEmpty_When_UserDoesNotExist() {
+        when(loginIdentifierRepository.findWithUserByIdentifier(USER_ID)).thenReturn(Optional.empty());
+        when(userRepository.findById(USER_ID)).thenReturn(Optional.empty());
+
+        assertTrue(loginIdentifierService.findUser(USER_ID).isEmpty());
+        verify(loginIdentifierRepository, never()).insert(anyString(), anyString(), anyString());
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void Should_RemoveOldIdentifiers_When_SavingUpdatedUser() {
+        LoginIdentifier oldEmail = new LoginIdentifier("old@tokoin.io", LoginIdentifierType.EMAIL, user);
+        when(loginIdentifierRepository.findByUserId(USER_ID)).thenReturn(new ArrayList<>(List.of(oldEmail,
+                new LoginIdentifier(USER_ID, LoginIdentifierType.USER_ID, user))));
+
+        List<LoginIdentifier> loginIdentifiers = loginIdentifierService.saveLoginIdentifiers(user);
+        assertEquals(3, loginIdentifiers.size());
+        assertEquals("+6281123123", loginIdentifiers.get(1).getIdentifier());
+        assertEquals("rendy@tokoin.io", loginIdentifiers.get(2).getIdentifier());
+        ArgumentCaptor<List<LoginIdentifier>> removed = ArgumentCaptor.forClass(List.class);
+        verify(loginIdentifierRepository).deleteAll(removed.capture());
+        assertEquals(Collections.singletonList(oldEmail), removed.getValue());
+        verify(loginIdentifierRepository, never()).insert(eq(USER_ID), anyString(), anyString());
+        verify(loginIdentifierRepository).insert("rendy@tokoin.io", "EMAIL", USER_ID);
+    }
+
+    @Test
+    void Should_ThrowException_When_IdentifierBelongsToOtherUser() {
+        when(loginIdentifierRepository.findByUserId(USER_ID)).thenReturn(new ArrayList<>());
+        doThrow(new DataIntegrityViolationException("duplicate")).when(loginIdentifierRepository)
+                .insert("rendy@tokoin.io", "EMAIL", USER_ID);
+
+        AuthServiceException exception = assertThrows(AuthServiceException.class, () ->
+                loginIdentifierService.saveLoginIdentifiers(user));
+        assertEquals("Saving login identifiers to database was failed", exception.getMessage());
+    }
+
+    @Test
+    void Should_ThrowException_When_GettingLoginIdentifierFailed() {
+        when(loginIdentifierRepository.findWithUserByIdentifier(USER_ID)).thenThrow(new DataAccessException("failed") {
+        });
+
+        AuthServiceException exception = assertThrows(AuthServiceException.class, () ->
+                loginIdentifierService.findUser(USER_ID));
+        assertEquals("Getting user from database was failed", exception.getMessage());
+    }
+}
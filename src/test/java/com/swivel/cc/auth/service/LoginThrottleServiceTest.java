@@ -0,0 +1,117 @@
+package com.swivel.cc.auth.service;
+
+import com.swivel.cc.auth.domain.response.LoginOffenderResponseDto;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * This class tests the {@link LoginThrottleService} class.
+ */
+class LoginThrottleServiceTest {
+
+    private static final String USERNAME = "+94771234567";
+    private static final String OTHER_USERNAME = "user@example.com";
+    private static final String IP = "10.0.0.1";
+    private static final String OTHER_IP = "10.0.0.2";
+    private LoginThrottleService loginThrottleService;
+
+    @BeforeEach
+    void setUp() {
+        loginThrottleService = createService(true, true);
+    }
+
+    @Test
+    void Should_BlockUsername_When_FailuresReachLimit() {
+        loginThrottleService.recordFailure(USERNAME, IP);
+        loginThrottleService.recordFailure(USERNAME, IP);
+        assertEquals(0, loginThrottleService.getRetryAfterMillis(USERNAME, IP));
+
+        loginThrottleService.recordFailure(USERNAME, IP);
+
+        assertTrue(loginThrottleService.getRetryAfterMillis(USERNAME, OTHER_IP) > 0);
+        assertEquals(0, loginThrottleService.getRetryAfterMillis(OTHER_USERNAME, IP));
+    }
+
+    @Test
+    void Should_BlockIp_When_FailuresOfManyUsernamesReachLimit() {
+        for (int i = 0; i < 5; i++) {
+            loginThrottleService.recordFailure("user" + i, IP);
+        }
+
+        assertTrue(loginThrottleService.getRetryAfterMillis(OTHER_USERNAME, IP) > 0);
+        assertTrue(loginThrottleService.getRetryAfterMillis(null, IP) > 0);
+        assertEquals(0, loginThrottleService.getRetryAfterMillis(OTHER_USERNAME, OTHER_IP));
+    }
+
+    @Test
+    void Should_ClearUsernameFailures_When_LoginSucceeded() {
+        loginThrottleService.recordFailure(USERNAME, IP);
+        loginThrottleService.recordFailure(USERNAME, IP);
+
+        loginThrottleService.recordSuccess(USERNAME);
+        loginThrottleService.recordFailure(USERNAME, OTHER_IP);
+
+        assertEquals(0, loginThrottleService.getRetryAfterMillis(USERNAME, OTHER_IP));
+    }
+
+    @Test
+    void Should_ForgetFailures_When_WindowPassed() throws InterruptedException {
+        loginThrottleService.recordFailure(USERNAME, IP);
+        loginThrottleService.recordFailure(USERNAME, IP);
+
+        Thread.sleep(1100);
+        loginThrottleService.recordFailure(USERNAME, IP);
+
+        assertEquals(0, loginThrottleService.getRetryAfterMillis(USERNAME, IP));
+    }
+
+    @Test
+    void Should_ReturnOffendersOrderedByFailures() {
+        loginThrottleService.recordFailure(USERNAME, IP);
+        loginThrottleService.recordFailure(OTHER_USERNAME, IP);
+        loginThrottleService.recordFailure(OTHER_USERNAME, IP);
+
+        List<LoginOffenderResponseDto> offenders = loginThrottleService.getTopOffenders(2);
+
+        assertEquals(2, offenders.size());
+        assertEquals(LoginThrottleService.IP, offenders.get(0).getType());
+        assertEquals(IP, offenders.get(0).getIdentity());
+        assertEquals(3, offenders.get(0).getFailures());
+        assertEquals(OTHER_USERNAME, offenders.get(1).getIdentity());
+        assertEquals(2, offenders.get(1).getFailures());
+    }
+
+    @Test
+    void Should_BlockUsername_When_FailuresOfOtherNodesReachLimit() {
+        loginThrottleService.recordFailure(USERNAME, IP);
+        Map<String, Integer> unreported = loginThrottleService.drainUnreportedFailures();
+        assertEquals(Integer.valueOf(1), unreported.get("username:" + USERNAME));
+        assertTrue(loginThrottleService.drainUnreportedFailures().isEmpty());
+
+        loginThrottleService.applyClusterFailures(Collections.singletonMap("username:" + USERNAME, 2));
+
+        assertTrue(loginThrottleService.getRetryAfterMillis(USERNAME, OTHER_IP) > 0);
+    }
+
+    @Test
+    void Should_NotBlock_When_ThrottleIsDisabled() {
+        loginThrottleService = createService(false, false);
+        for (int i = 0; i < 10; i++) {
+            loginThrottleService.recordFailure(USERNAME, IP);
+        }
+
+        assertEquals(0, loginThrottleService.getRetryAfterMillis(USERNAME, IP));
+    }
+
+    private static LoginThrottleService createService(boolean enabled, boolean clusterEnabled) {
+        return new LoginThrottleService(new SimpleMeterRegistry(), enabled, clusterEnabled, 3, 5, 1, 4, 60000,
+                600000, 1000);
+    }
+}
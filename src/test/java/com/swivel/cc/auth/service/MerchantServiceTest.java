@@ -1,30 +1,42 @@
 package com.swivel.cc.auth.service;
 
 import com.swivel.cc.auth.domain.entity.Business;
+import com.swivel.cc.auth.domain.entity.MerchantReadModel;
 import com.swivel.cc.auth.domain.entity.Role;
 import com.swivel.cc.auth.domain.entity.User;
 import com.swivel.cc.auth.domain.request.BusinessRequestDto;
 import com.swivel.cc.auth.domain.request.MobileNoRequestDto;
 import com.swivel.cc.auth.enums.ApprovalStatus;
 import com.swivel.cc.auth.enums.RoleType;
+import com.swivel.cc.auth.enums.UserProfileType;
 import com.swivel.cc.auth.exception.AuthServiceException;
 import com.swivel.cc.auth.exception.InvalidUserException;
 import com.swivel.cc.auth.repository.ApprovedBankBusinessRepository;
+import com.swivel.cc.auth.repository.ApprovedBusinessRepository;
 import com.swivel.cc.auth.repository.BusinessRepository;
 import com.swivel.cc.auth.repository.MerchantBankSearchIndexRepository;
+import com.swivel.cc.auth.repository.MerchantReadModelRepository;
 import com.swivel.cc.auth.repository.UserRepository;
 import com.swivel.cc.auth.service.factories.MerchantProfileRepositoryFactory;
 import com.swivel.cc.auth.service.factories.MerchantStatusRepositoryFactory;
+import com.swivel.cc.auth.util.IdGenerator;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
 import org.junit.jupiter.api.AfterEach;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.mockito.Mock;
 import org.springframework.dao.DataAccessException;
 
+import java.util.List;
 import java.util.Optional;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
 import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 import static org.mockito.MockitoAnnotations.initMocks;
@@ -51,12 +63,22 @@ class MerchantServiceTest {
     private MerchantProfileRepositoryFactory merchantProfileRepositoryFactory;
     @Mock
     private ApprovedBankBusinessRepository approvedBankBusinessRepository;
+    @Mock
+    private ApprovedBusinessRepository approvedBusinessRepository;
+    @Mock
+    private MerchantReadModelRepository merchantReadModelRepository;
 
     @BeforeEach
     void setUp() {
         initMocks(this);
+        when(merchantProfileRepositoryFactory.getRepository(UserProfileType.GENERIC)).thenReturn(userRepository);
+        when(merchantProfileRepositoryFactory.getRepository(UserProfileType.BUSINESS)).thenReturn(businessRepository);
+        when(merchantStatusRepositoryFactory.getRepository(ApprovalStatus.APPROVED))
+                .thenReturn(approvedBusinessRepository);
         merchantService = new MerchantService(notificationService, merchantBankSearchIndexRepository,
-                merchantStatusRepositoryFactory, merchantProfileRepositoryFactory, approvedBankBusinessRepository);
+                merchantStatusRepositoryFactory, merchantProfileRepositoryFactory, approvedBankBusinessRepository,
+                merchantReadModelRepository, new UserCacheService(new SimpleMeterRegistry(), false, 1, 1),
+                new IdGenerator(false));
     }
 
     @AfterEach
@@ -259,4 +281,60 @@ class MerchantServiceTest {
         });
         assertEquals("Saving business data to database was failed", exception.getMessage());
     }
-}
\ No newline at end of file
+
+    @Test
+    void Should_ReturnReadModelWithoutReadingBusinessTables_When_MerchantReadModelExists() {
+        MerchantReadModel merchantReadModel = new MerchantReadModel(getMerchant(ApprovalStatus.APPROVED),
+                getBusiness(ApprovalStatus.APPROVED), null);
+        when(merchantReadModelRepository.findById(MERCHANT_ID)).thenReturn(Optional.of(merchantReadModel));
+
+        assertTrue(merchantService.isMerchantOrBankActive(MERCHANT_ID));
+        verify(userRepository, never()).findById(MERCHANT_ID);
+        verify(approvedBusinessRepository, never()).findByMerchantId(MERCHANT_ID);
+    }
+
+    @Test
+    void Should_BuildAndSaveReadModel_When_MerchantReadModelIsMissing() {
+        User merchant = getMerchant(ApprovalStatus.APPROVED);
+        when(userRepository.findById(MERCHANT_ID)).thenReturn(Optional.of(merchant));
+        when(businessRepository.getLatestBusinessByMerchantId(MERCHANT_ID))
+                .thenReturn(Optional.of(getBusiness(ApprovalStatus.PENDING)));
+
+        MerchantReadModel merchantReadModel = merchantService.getMerchantReadModel(MERCHANT_ID).orElseThrow();
+        verify(merchantReadModelRepository).save(any(MerchantReadModel.class));
+        assertFalse(merchantReadModel.isActive());
+        assertEquals(ApprovalStatus.PENDING, merchantReadModel.getProfileApprovalStatus());
+        assertTrue(merchantService.getMerchantOrBankLoginResponse(merchantReadModel).isUpdated());
+        assertNull(merchantReadModel.toApprovedBusiness());
+    }
+
+    @Test
+    void Should_ReturnApprovedBusinessesFromReadModel_When_GettingBulkMerchantList() {
+        MerchantReadModel merchantReadModel = new MerchantReadModel(getMerchant(ApprovalStatus.APPROVED),
+                getBusiness(ApprovalStatus.APPROVED), null);
+        when(merchantReadModelRepository.findAllById(List.of(MERCHANT_ID))).thenReturn(List.of(merchantReadModel));
+
+        List<Business> businessList = merchantService.getBulkMerchantList(List.of(MERCHANT_ID), RoleType.MERCHANT);
+        assertEquals(1, businessList.size());
+        assertEquals("Singer", businessList.get(0).getBusinessName());
+        assertEquals(MERCHANT_ID, businessList.get(0).getMerchant().getId());
+        assertTrue(merchantService.getBulkMerchantList(List.of(MERCHANT_ID), RoleType.BANK).isEmpty());
+    }
+
+    private User getMerchant(ApprovalStatus approvalStatus) {
+        User merchant = new User();
+        merchant.setId(MERCHANT_ID);
+        merchant.setRole(new Role(RoleType.MERCHANT));
+        merchant.setApprovalStatus(approvalStatus);
+        return merchant;
+    }
+
+    private Business getBusiness(ApprovalStatus approvalStatus) {
+        Business business = new Business();
+        business.setId("bisid-123");
+        business.setMerchant(getMerchant(ApprovalStatus.APPROVED));
+        business.setBusinessName("Singer");
+        business.setApprovalStatus(approvalStatus);
+        return business;
+    }
+}
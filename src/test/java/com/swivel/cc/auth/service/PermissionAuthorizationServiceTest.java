@@ -0,0 +1,118 @@
+package com.swivel.cc.auth.service;
+
+import com.swivel.cc.auth.domain.entity.Permission;
+import com.swivel.cc.auth.domain.entity.Resource;
+import com.swivel.cc.auth.domain.entity.Role;
+import com.swivel.cc.auth.repository.RoleRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mock;
+import org.springframework.http.HttpMethod;
+import org.springframework.security.core.GrantedAuthority;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+import org.springframework.web.bind.annotation.RequestMethod;
+import org.springframework.web.method.HandlerMethod;
+import org.springframework.web.servlet.mvc.method.RequestMappingInfo;
+import org.springframework.web.servlet.mvc.method.annotation.RequestMappingHandlerMapping;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+import static org.mockito.MockitoAnnotations.initMocks;
+
+/**
+ * This class tests the {@link PermissionAuthorizationService} class.
+ */
+class PermissionAuthorizationServiceTest {
+
+    private static final String MERCHANT_PATTERN = "/api/v1/merchants/{id}";
+    private static final String OFFER_PATTERN = "/api/v1/offers";
+    private static final List<GrantedAuthority> ADMIN = Collections.singletonList(new SimpleGrantedAuthority("ADMIN"));
+    private static final List<GrantedAuthority> USER = Collections.singletonList(new SimpleGrantedAuthority("USER"));
+    @Mock
+    private RoleRepository roleRepository;
+    @Mock
+    private RequestMappingHandlerMapping handlerMapping;
+    @Mock
+    private HandlerMethod handlerMethod;
+    private PermissionAuthorizationService permissionAuthorizationService;
+
+    @BeforeEach
+    void setUp() {
+        initMocks(this);
+        Map<RequestMappingInfo, HandlerMethod> handlerMethods = new HashMap<>();
+        handlerMethods.put(RequestMappingInfo.paths(MERCHANT_PATTERN).methods(RequestMethod.GET, RequestMethod.PUT)
+                .build(), handlerMethod);
+        handlerMethods.put(RequestMappingInfo.paths(OFFER_PATTERN).methods(RequestMethod.GET).build(), handlerMethod);
+        when(handlerMapping.getHandlerMethods()).thenReturn(handlerMethods);
+        when(roleRepository.findAll()).thenReturn(Arrays.asList(
+                getRole("ADMIN", getPermission(1, "/api/v1/merchants/**", null)),
+                getRole("USER", getPermission(2, "/api/v1/merchants/*", "GET"),
+                        getPermission(3, "offers", "GET"))));
+        permissionAuthorizationService = new PermissionAuthorizationService(roleRepository, handlerMapping, true);
+        permissionAuthorizationService.rebuild();
+    }
+
+    @Test
+    void Should_AllowRequest_When_RoleHasPermissionOfEndpoint() {
+        assertTrue(permissionAuthorizationService.isAllowed(HttpMethod.PUT, MERCHANT_PATTERN, ADMIN));
+        assertTrue(permissionAuthorizationService.isAllowed(HttpMethod.GET, MERCHANT_PATTERN, USER));
+        assertTrue(permissionAuthorizationService.isAllowed(HttpMethod.HEAD, MERCHANT_PATTERN, USER));
+    }
+
+    @Test
+    void Should_DenyRequest_When_NoRoleHasPermissionOfEndpoint() {
+        assertFalse(permissionAuthorizationService.isAllowed(HttpMethod.PUT, MERCHANT_PATTERN, USER));
+        assertFalse(permissionAuthorizationService.isAllowed(HttpMethod.GET, MERCHANT_PATTERN,
+                Collections.emptyList()));
+    }
+
+    @Test
+    void Should_AllowRequest_When_EndpointIsNotGrantedByAnyPermission() {
+        assertTrue(permissionAuthorizationService.isAllowed(HttpMethod.GET, OFFER_PATTERN, Collections.emptyList()));
+        assertTrue(permissionAuthorizationService.isAllowed(HttpMethod.GET, "/api/v1/unknown", USER));
+    }
+
+    @Test
+    void Should_UseNewGrants_When_RolesChanged() {
+        when(roleRepository.findAll()).thenReturn(Collections.singletonList(
+                getRole("USER", getPermission(2, "/api/v1/merchants/*", "*"))));
+
+        permissionAuthorizationService.rebuild();
+
+        assertTrue(permissionAuthorizationService.isAllowed(HttpMethod.PUT, MERCHANT_PATTERN, USER));
+        assertFalse(permissionAuthorizationService.isAllowed(HttpMethod.PUT, MERCHANT_PATTERN, ADMIN));
+        verify(handlerMapping, times(1)).getHandlerMethods();
+    }
+
+    @Test
+    void Should_AllowAllRequests_When_Disabled() {
+        permissionAuthorizationService = new PermissionAuthorizationService(roleRepository, handlerMapping, false);
+        permissionAuthorizationService.rebuild();
+
+        assertTrue(permissionAuthorizationService.isAllowed(HttpMethod.PUT, MERCHANT_PATTERN, USER));
+    }
+
+    private Role getRole(String name, Permission... permissions) {
+        Role role = new Role(name);
+        role.setPermissions(Arrays.asList(permissions));
+        return role;
+    }
+
+    private Permission getPermission(int id, String resourceName, String method) {
+        Resource resource = new Resource();
+        resource.setId(id);
+        resource.setName(resourceName);
+        Permission permission = new Permission();
+        permission.setId(id);
+        permission.setName("PERMISSION_" + id);
+        permission.setMethod(method);
+        permission.setResource(resource);
+        return permission;
+    }
+}
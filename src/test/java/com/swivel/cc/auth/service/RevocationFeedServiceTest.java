@@ -0,0 +1,88 @@
+package com.swivel.cc.auth.service;
+
+import com.swivel.cc.auth.domain.entity.RevokedToken;
+import com.swivel.cc.auth.exception.AuthServiceException;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mock;
+
+import java.util.Collections;
+import java.util.Date;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+import static org.mockito.MockitoAnnotations.initMocks;
+
+/**
+ * This class tests the {@link RevocationFeedService} class.
+ */
+class RevocationFeedServiceTest {
+
+    private static final long GAP_TIMEOUT_MILLIS = 60000;
+    private static final int PAGE_SIZE = 2;
+    @Mock
+    private RevokedTokenService revokedTokenService;
+    private MeterRegistry meterRegistry;
+    private RevocationFeedService revocationFeedService;
+
+    @BeforeEach
+    void setUp() {
+        initMocks(this);
+        meterRegistry = new SimpleMeterRegistry();
+        revocationFeedService = new RevocationFeedService(revokedTokenService, meterRegistry, GAP_TIMEOUT_MILLIS,
+                PAGE_SIZE, 60000);
+    }
+
+    @Test
+    void Should_NotReadRevocations_When_ThereIsNoSubscriber() {
+        revocationFeedService.publish();
+
+        verify(revokedTokenService, never()).getRevocationsAfter(anyLong(), anyLong(), anyInt());
+    }
+
+    @Test
+    void Should_ReadAfterLowestCursorUntilLastPage_When_Publishing() {
+        revocationFeedService.subscribe(12L);
+        revocationFeedService.subscribe(5L);
+        when(revokedTokenService.getRevocationsAfter(5, GAP_TIMEOUT_MILLIS, PAGE_SIZE))
+                .thenReturn(List.of(getRevokedToken(8), getRevokedToken(13)));
+        when(revokedTokenService.getRevocationsAfter(13, GAP_TIMEOUT_MILLIS, PAGE_SIZE))
+                .thenReturn(Collections.singletonList(getRevokedToken(14)));
+
+        revocationFeedService.publish();
+        assertEquals(2, meterRegistry.get("token.revocation.feed.subscribers").gauge().value());
+        verify(revokedTokenService).getRevocationsAfter(13, GAP_TIMEOUT_MILLIS, PAGE_SIZE);
+
+        revocationFeedService.publish();
+        verify(revokedTokenService).getRevocationsAfter(14, GAP_TIMEOUT_MILLIS, PAGE_SIZE);
+    }
+
+    @Test
+    void Should_StartWithNextRevocation_When_SubscribingWithoutLastEventId() {
+        when(revokedTokenService.getLatestSequence()).thenReturn(42L);
+        revocationFeedService.subscribe(null);
+
+        revocationFeedService.publish();
+        verify(revokedTokenService).getRevocationsAfter(42, GAP_TIMEOUT_MILLIS, PAGE_SIZE);
+    }
+
+    @Test
+    void Should_KeepSubscribers_When_ReadingRevocationsFailed() {
+        revocationFeedService.subscribe(5L);
+        when(revokedTokenService.getRevocationsAfter(5, GAP_TIMEOUT_MILLIS, PAGE_SIZE))
+                .thenThrow(new AuthServiceException("failed"));
+
+        revocationFeedService.publish();
+        assertEquals(1, meterRegistry.get("token.revocation.feed.subscribers").gauge().value());
+    }
+
+    private RevokedToken getRevokedToken(long id) {
+        RevokedToken revokedToken = new RevokedToken("token-" + id, "uid-1234567890", "tokomobile",
+                new Date(System.currentTimeMillis() + 3600_000L));
+        revokedToken.setId(id);
+        return revokedToken;
+    }
+}
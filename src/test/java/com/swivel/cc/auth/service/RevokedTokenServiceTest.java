@@ -0,0 +1,115 @@
+package com.swivel.cc.auth.service;
+
+import com.swivel.cc.auth.domain.entity.RevokedToken;
+import com.swivel.cc.auth.exception.AuthServiceException;
+import com.swivel.cc.auth.repository.RevokedTokenRepository;
+import com.swivel.cc.auth.util.TokenKeyUtils;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.oauth2.common.DefaultOAuth2AccessToken;
+import org.springframework.security.oauth2.provider.OAuth2Authentication;
+import org.springframework.security.oauth2.provider.OAuth2Request;
+
+import java.util.Collections;
+import java.util.Date;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+import static org.mockito.MockitoAnnotations.initMocks;
+
+/**
+ * This class tests the {@link RevokedTokenService} class.
+ */
+class RevokedTokenServiceTest {
+
+    private static final String TOKEN_VALUE = "access-token";
+    private static final String USER_ID = "uid-1234567890";
+    private static final String CLIENT_ID = "tokomobile";
+    private static final long GAP_TIMEOUT_MILLIS = 60000;
+    @Mock
+    private RevokedTokenRepository revokedTokenRepository;
+    private RevokedTokenService revokedTokenService;
+
+    @BeforeEach
+    void setUp() {
+        initMocks(this);
+        revokedTokenService = new RevokedTokenService(revokedTokenRepository);
+    }
+
+    @Test
+    void Should_SaveTokenKey_When_RecordingRevocation() {
+        DefaultOAuth2AccessToken accessToken = new DefaultOAuth2AccessToken(TOKEN_VALUE);
+        accessToken.setExpiration(new Date(System.currentTimeMillis() + 60000));
+
+        revokedTokenService.recordRevocation(accessToken, getSampleAuthentication());
+
+        ArgumentCaptor<RevokedToken> captor = ArgumentCaptor.forClass(RevokedToken.class);
+        verify(revokedTokenRepository).save(captor.capture());
+        assertEquals(TokenKeyUtils.extractTokenKey(TOKEN_VALUE), captor.getValue().getTokenId());
+        assertEquals(USER_ID, captor.getValue().getUserName());
+        assertEquals(CLIENT_ID, captor.getValue().getClientId());
+    }
+
+    @Test
+    void Should_NotSave_When_TokenIsExpired() {
+        DefaultOAuth2AccessToken accessToken = new DefaultOAuth2AccessToken(TOKEN_VALUE);
+        accessToken.setExpiration(new Date(System.currentTimeMillis() - 60000));
+
+        revokedTokenService.recordRevocation(accessToken, getSampleAuthentication());
+
+        verify(revokedTokenRepository, never()).save(any());
+    }
+
+    @Test
+    void Should_ThrowAuthServiceException_When_ReadingRevocationsFailed() {
+        when(revokedTokenRepository.findByIdGreaterThanOrderByIdAsc(eq(5L), any()))
+                .thenThrow(new DataIntegrityViolationException(""));
+
+        assertThrows(AuthServiceException.class,
+                () -> revokedTokenService.getRevocationsAfter(5, GAP_TIMEOUT_MILLIS, 10));
+    }
+
+    @Test
+    void Should_HoldBackRevocationsAfterGap_When_GapIsRecent() {
+        when(revokedTokenRepository.findByIdGreaterThanOrderByIdAsc(eq(5L), any())).thenReturn(
+                List.of(getRevokedToken(6, 0), getRevokedToken(7, 0), getRevokedToken(9, 0)));
+
+        List<RevokedToken> revocations = revokedTokenService.getRevocationsAfter(5, GAP_TIMEOUT_MILLIS, 10);
+
+        assertEquals(2, revocations.size());
+        assertEquals(7L, revocations.get(1).getId());
+    }
+
+    @Test
+    void Should_SkipGap_When_RevocationAfterGapIsOlderThanGapTimeout() {
+        when(revokedTokenRepository.findByIdGreaterThanOrderByIdAsc(eq(5L), any())).thenReturn(
+                List.of(getRevokedToken(8, GAP_TIMEOUT_MILLIS + 1000), getRevokedToken(9, 0)));
+
+        List<RevokedToken> revocations = revokedTokenService.getRevocationsAfter(5, GAP_TIMEOUT_MILLIS, 10);
+
+        assertEquals(2, revocations.size());
+    }
+
+    private RevokedToken getRevokedToken(long id, long ageMillis) {
+        RevokedToken revokedToken = new RevokedToken("token-" + id, USER_ID, CLIENT_ID,
+                new Date(System.currentTimeMillis() + 3600_000L));
+        revokedToken.setId(id);
+        revokedToken.setRevokedAt(new Date(System.currentTimeMillis() - ageMillis));
+        return revokedToken;
+    }
+
+    private OAuth2Authentication getSampleAuthentication() {
+        OAuth2Request request = new OAuth2Request(Collections.emptyMap(), CLIENT_ID, Collections.emptyList(),
+                true, Collections.emptySet(), Collections.emptySet(), null, null, null);
+        return new OAuth2Authentication(request,
+                new UsernamePasswordAuthenticationToken(USER_ID, null, Collections.emptyList()));
+    }
+}
@@ -0,0 +1,148 @@
+package com.swivel.cc.auth.service;
+
+import com.swivel.cc.auth.domain.entity.Permission;
+import com.swivel.cc.auth.domain.entity.Resource;
+import com.swivel.cc.auth.domain.entity.Role;
+import com.swivel.cc.auth.repository.ResourceRepository;
+import com.swivel.cc.auth.repository.RoleRepository;
+import com.swivel.cc.auth.wrapper.RoleResponseWrapper;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mock;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+
+import java.sql.ResultSet;
+import java.util.Arrays;
+import java.util.Collections;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+import static org.mockito.MockitoAnnotations.initMocks;
+
+/**
+ * This class tests the {@link RoleResponseCacheService} class.
+ */
+class RoleResponseCacheServiceTest {
+
+    private static final int ROLE_ID = 3;
+    @Mock
+    private RoleRepository roleRepository;
+    @Mock
+    private ResourceRepository resourceRepository;
+    @Mock
+    private JdbcTemplate jdbcTemplate;
+    @Mock
+    private ResultSet resultSet;
+    @Mock
+    private RoleCatalogueService roleCatalogueService;
+    @Mock
+    private PermissionAuthorizationService permissionAuthorizationService;
+    private RoleResponseCacheService roleResponseCacheService;
+    private Role role;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        initMocks(this);
+        roleResponseCacheService = new RoleResponseCacheService(roleRepository, resourceRepository, jdbcTemplate,
+                roleCatalogueService, permissionAuthorizationService);
+        role = getSampleRole();
+        when(roleRepository.findAll()).thenReturn(Collections.singletonList(role));
+        when(resourceRepository.findAll()).thenReturn(Arrays.asList(getResource(1, "offers", false),
+                getResource(2, "home", true)));
+        when(resultSet.getString(2)).thenReturn("100");
+        doAnswer(invocation -> {
+            ((RowCallbackHandler) invocation.getArgument(1)).processRow(resultSet);
+            return null;
+        }).when(jdbcTemplate).query(anyString(), any(RowCallbackHandler.class));
+    }
+
+    @Test
+    void Should_ReturnPermittedAndDefaultResources() {
+        RoleResponseWrapper roleResponse = roleResponseCacheService.getRoleResponse(role);
+
+        assertEquals(ROLE_ID, roleResponse.getId());
+        assertEquals(2, roleResponse.getPermissions().size());
+        assertEquals(roleResponse.toJson(), new RoleResponseWrapper(roleResponse.getId(), roleResponse.getName(),
+                roleResponse.getPermissions(), roleResponse.getPermissionsVersion()).toJson());
+    }
+
+    @Test
+    void Should_ReturnOnlyPermissionsVersion_When_CompactResponseIsRequested() {
+        RoleResponseWrapper roleResponse = roleResponseCacheService.getRoleResponse(role);
+        RoleResponseWrapper compactResponse = roleResponseCacheService.getCompactRoleResponse(role);
+
+        assertNull(compactResponse.getPermissions());
+        assertNotNull(roleResponse.getPermissionsVersion());
+        assertEquals(roleResponse.getPermissionsVersion(), compactResponse.getPermissionsVersion());
+        assertFalse(compactResponse.toJson().contains("\"permissions\""));
+    }
+
+    @Test
+    void Should_ChangePermissionsVersion_When_PermissionsOfRoleChanged() {
+        String version = roleResponseCacheService.getRoleResponse(ROLE_ID).getPermissionsVersion();
+        role.setPermissions(Collections.emptyList());
+        roleResponseCacheService.invalidate();
+
+        assertNotEquals(version, roleResponseCacheService.getRoleResponse(ROLE_ID).getPermissionsVersion());
+    }
+
+    @Test
+    void Should_LoadRolesAndResourcesOnlyOnce() {
+        roleResponseCacheService.getRoleResponse(role);
+        roleResponseCacheService.getRoleResponse(role);
+
+        verify(roleRepository, times(1)).findAll();
+        verify(resourceRepository, times(1)).findAll();
+    }
+
+    @Test
+    void Should_ReloadRoles_When_CacheIsInvalidated() {
+        roleResponseCacheService.getRoleResponse(role);
+        roleResponseCacheService.invalidate();
+        roleResponseCacheService.getRoleResponse(role);
+
+        verify(roleRepository, times(2)).findAll();
+    }
+
+    @Test
+    void Should_ReloadRoles_When_TablesChecksumChanged() throws Exception {
+        roleResponseCacheService.getRoleResponse(role);
+        roleResponseCacheService.checkForChanges();
+        verify(roleRepository, times(1)).findAll();
+
+        when(resultSet.getString(2)).thenReturn("200");
+        roleResponseCacheService.checkForChanges();
+
+        verify(roleRepository, times(2)).findAll();
+        verify(roleCatalogueService).invalidate();
+        verify(permissionAuthorizationService).rebuild();
+    }
+
+    @Test
+    void Should_ReturnPermissionsVersionOfRole() {
+        assertEquals(roleResponseCacheService.getRoleResponse(role).getPermissionsVersion(),
+                roleResponseCacheService.getPermissionsVersion(ROLE_ID));
+        assertNull(roleResponseCacheService.getPermissionsVersion(99));
+    }
+
+    private Role getSampleRole() {
+        Permission permission = new Permission();
+        permission.setId(10);
+        permission.setName("READ_OFFERS");
+        permission.setResource(getResource(1, "offers", false));
+        Role sampleRole = new Role("MERCHANT");
+        sampleRole.setId(ROLE_ID);
+        sampleRole.setPermissions(Collections.singletonList(permission));
+        return sampleRole;
+    }
+
+    private Resource getResource(int id, String name, boolean isDefault) {
+        Resource resource = new Resource();
+        resource.setId(id);
+        resource.setName(name);
+        resource.setDefault(isDefault);
+        return resource;
+    }
+}
@@ -0,0 +1,134 @@
+package com.swivel.cc.auth.service;
+
+import com.swivel.cc.auth.configuration.TokenShards;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.security.oauth2.provider.token.store.JdbcTokenStore;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.Timestamp;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+import static org.mockito.MockitoAnnotations.initMocks;
+
+/**
+ * This class tests the {@link TokenReaperService} class.
+ */
+class TokenReaperServiceTest {
+
+    private static final int BATCH_SIZE = 2;
+    @Mock
+    private JdbcTemplate jdbcTemplate;
+    @Mock
+    private DataSource dataSource;
+    @Mock
+    private JdbcTokenStore jdbcTokenStore;
+    @Mock
+    private Connection connection;
+    @Mock
+    private PreparedStatement statement;
+    @Mock
+    private ResultSet resultSet;
+    private MeterRegistry meterRegistry;
+    private TokenReaperService tokenReaperService;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        initMocks(this);
+        when(jdbcTemplate.execute(any(ConnectionCallback.class))).thenAnswer(invocation ->
+                ((ConnectionCallback<?>) invocation.getArgument(0)).doInConnection(connection));
+        when(connection.prepareStatement(anyString())).thenReturn(statement);
+        when(statement.executeQuery()).thenReturn(resultSet);
+        when(resultSet.next()).thenReturn(true);
+        when(resultSet.getInt(1)).thenReturn(1);
+        meterRegistry = new SimpleMeterRegistry();
+        tokenReaperService = new TokenReaperService(getSingleShard(), meterRegistry, "delete", BATCH_SIZE, 0, 10,
+                7200, 2592000, 3);
+    }
+
+    @Test
+    void Should_DeleteExpiredRowsInBatches_When_Reaping() {
+        when(jdbcTemplate.queryForList(contains("FROM oauth_access_token"), eq(Object.class), any(), eq(BATCH_SIZE)))
+                .thenReturn(Arrays.asList("a", "b"), Collections.singletonList("c"));
+        when(jdbcTemplate.queryForList(contains("FROM oauth_refresh_token"), eq(Object.class), any(), eq(BATCH_SIZE)))
+                .thenReturn(Collections.emptyList());
+        when(jdbcTemplate.queryForList(contains("FROM oauth_revoked_token"), eq(Object.class), any(), eq(BATCH_SIZE)))
+                .thenReturn(Collections.emptyList());
+        when(jdbcTemplate.update(startsWith("DELETE FROM oauth_access_token"), any(Object[].class)))
+                .thenReturn(2, 1);
+
+        tokenReaperService.reap();
+
+        verify(jdbcTemplate, times(2)).update(startsWith("DELETE FROM oauth_access_token"), any(Object[].class));
+        assertEquals(3, meterRegistry.counter("token.reaper.rows.reclaimed", "table", "oauth_access_token")
+                .count());
+        assertEquals(3, meterRegistry.get("token.reaper.last.run.rows").gauge().value());
+    }
+
+    @Test
+    void Should_KeepRowsOfLongestClientValidity_When_ClientValidityIsLongerThanMaxAge() {
+        when(jdbcTemplate.queryForMap(contains("MAX(access_token_validity)"))).thenReturn(getValidity(600, 86400));
+        when(jdbcTemplate.queryForList(anyString(), eq(Object.class), any(), eq(BATCH_SIZE)))
+                .thenReturn(Collections.emptyList());
+        long now = System.currentTimeMillis();
+
+        tokenReaperService.reap();
+
+        ArgumentCaptor<Timestamp> cutoff = ArgumentCaptor.forClass(Timestamp.class);
+        verify(jdbcTemplate).queryForList(contains("FROM oauth_access_token"), eq(Object.class), cutoff.capture(),
+                eq(BATCH_SIZE));
+        assertTrue(cutoff.getValue().getTime() <= now - 86400000L);
+    }
+
+    @Test
+    void Should_NotReapTable_When_ClientTokensNeverExpire() {
+        when(jdbcTemplate.queryForMap(contains("MAX(refresh_token_validity)"))).thenReturn(getValidity(-1, 86400));
+        when(jdbcTemplate.queryForList(anyString(), eq(Object.class), any(), eq(BATCH_SIZE)))
+                .thenReturn(Collections.emptyList());
+
+        tokenReaperService.reap();
+
+        verify(jdbcTemplate, never()).queryForList(contains("FROM oauth_refresh_token"), eq(Object.class), any(),
+                anyInt());
+        verify(jdbcTemplate).queryForList(contains("FROM oauth_access_token"), eq(Object.class), any(),
+                eq(BATCH_SIZE));
+    }
+
+    @Test
+    void Should_SkipRun_When_AnotherNodeHoldsTheLock() throws Exception {
+        when(resultSet.getInt(1)).thenReturn(0);
+
+        tokenReaperService.reap();
+
+        verify(jdbcTemplate, never()).queryForList(anyString(), eq(Object.class), any(), anyInt());
+        verify(statement, times(1)).executeQuery();
+    }
+
+    private Map<String, Object> getValidity(int minValidity, int maxValidity) {
+        Map<String, Object> validity = new HashMap<>();
+        validity.put("min_validity", minValidity);
+        validity.put("max_validity", maxValidity);
+        return validity;
+    }
+
+    private TokenShards getSingleShard() {
+        return new TokenShards(Collections.singletonList(dataSource), Collections.singletonList(jdbcTemplate),
+                Collections.singletonList(jdbcTokenStore));
+    }
+}
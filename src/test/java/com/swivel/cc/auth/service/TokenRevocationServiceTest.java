@@ -0,0 +1,75 @@
+package com.swivel.cc.auth.service;
+
+import com.swivel.cc.auth.configuration.AuthTokenServices;
+import com.swivel.cc.auth.configuration.CachingTokenStore;
+import com.swivel.cc.auth.configuration.TokenShards;
+import com.swivel.cc.auth.exception.AuthServiceException;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mock;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.security.oauth2.provider.token.store.JdbcTokenStore;
+
+import javax.sql.DataSource;
+import java.util.Collections;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+import static org.mockito.MockitoAnnotations.initMocks;
+
+/**
+ * This class tests the {@link TokenRevocationService} class.
+ */
+class TokenRevocationServiceTest {
+
+    private static final String USER_ID = "uid-1234567890";
+    private static final String CLIENT_ID = "tokomobile";
+    private static final int TOKEN_VALIDITY = 3600;
+    @Mock
+    private JdbcTemplate jdbcTemplate;
+    @Mock
+    private DataSource dataSource;
+    @Mock
+    private JdbcTokenStore jdbcTokenStore;
+    @Mock
+    private CachingTokenStore cachingTokenStore;
+    @Mock
+    private AuthTokenServices authTokenServices;
+    private TokenRevocationService tokenRevocationService;
+
+    @BeforeEach
+    void setUp() {
+        initMocks(this);
+        tokenRevocationService = new TokenRevocationService(getSingleShard(), cachingTokenStore, authTokenServices);
+    }
+
+    @Test
+    void Should_RecordDeleteAndEvict_When_RevokingTokensOfUser() {
+        when(jdbcTemplate.queryForList(startsWith("SELECT DISTINCT"), eq(String.class), eq(USER_ID)))
+                .thenReturn(Collections.singletonList(CLIENT_ID));
+        when(authTokenServices.getAccessTokenValiditySeconds(CLIENT_ID)).thenReturn(TOKEN_VALIDITY);
+        when(jdbcTemplate.update(startsWith("DELETE"), eq(USER_ID))).thenReturn(2);
+
+        assertEquals(2, tokenRevocationService.revokeByUser(USER_ID));
+        verify(jdbcTemplate).update(startsWith("INSERT INTO oauth_revoked_token"), eq(TOKEN_VALIDITY), eq(USER_ID),
+                eq(CLIENT_ID));
+        verify(cachingTokenStore).evictMatching(any());
+    }
+
+    @Test
+    void Should_ThrowAuthServiceException_When_RevokingTokensFailed() {
+        when(jdbcTemplate.update(startsWith("DELETE"), eq(USER_ID)))
+                .thenThrow(new DataIntegrityViolationException(""));
+
+        assertThrows(AuthServiceException.class, () -> tokenRevocationService.revokeByUser(USER_ID));
+        verify(cachingTokenStore, never()).evictMatching(any());
+    }
+
+    private TokenShards getSingleShard() {
+        return new TokenShards(Collections.singletonList(dataSource), Collections.singletonList(jdbcTemplate),
+                Collections.singletonList(jdbcTokenStore));
+    }
+}
@@ -0,0 +1,156 @@
+package com.swivel.cc.auth.service;
+
+import com.swivel.cc.auth.configuration.BatchJdbcTokenStore;
+import com.swivel.cc.auth.configuration.BatchJdbcTokenStore.StoredAccessToken;
+import com.swivel.cc.auth.domain.AuthUserDetail;
+import com.swivel.cc.auth.domain.entity.Role;
+import com.swivel.cc.auth.domain.response.TokenClaimsResponseDto;
+import com.swivel.cc.auth.enums.TokenStatus;
+import com.swivel.cc.auth.exception.AuthServiceException;
+import com.swivel.cc.auth.util.TokenKeyUtils;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mock;
+import org.springframework.dao.DataAccessException;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.oauth2.common.DefaultOAuth2AccessToken;
+import org.springframework.security.oauth2.provider.OAuth2Authentication;
+import org.springframework.security.oauth2.provider.OAuth2Request;
+import org.springframework.security.oauth2.provider.token.TokenStore;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Date;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+import static org.mockito.MockitoAnnotations.initMocks;
+
+/**
+ * This class tests the {@link TokenValidationService} class.
+ */
+class TokenValidationServiceTest {
+
+    private static final String TOKEN = "8a1f6e0e-2c2b-4c3a-9d3e-1f0b2a7c9e11";
+    private static final String USER_ID = "uid-1234567890";
+    private static final String EXPIRED_TOKEN = "0c6b1f1e-7a4e-4f9a-8d55-6a9e0c1b2d33";
+    private static final String REVOKED_TOKEN = "5e2d7c4b-1a3f-4b6e-9c8d-7f0a1b2c3d44";
+    private static final String UNKNOWN_TOKEN = "unknown";
+    @Mock
+    private TokenStore tokenStore;
+    @Mock
+    private BatchJdbcTokenStore jdbcTokenStore;
+    @Mock
+    private RevokedTokenService revokedTokenService;
+    private TokenValidationService tokenValidationService;
+
+    @BeforeEach
+    void setUp() {
+        initMocks(this);
+        tokenValidationService = new TokenValidationService(tokenStore, jdbcTokenStore, revokedTokenService);
+    }
+
+    @Test
+    void Should_ReturnClaims_When_TokenIsActive() {
+        Date expiration = new Date(System.currentTimeMillis() + 3600_000L);
+        DefaultOAuth2AccessToken accessToken = new DefaultOAuth2AccessToken(TOKEN);
+        accessToken.setExpiration(expiration);
+        when(tokenStore.readAccessToken(TOKEN)).thenReturn(accessToken);
+        when(tokenStore.readAuthentication(TOKEN)).thenReturn(getAuthentication());
+
+        TokenClaimsResponseDto claims = tokenValidationService.validate(TOKEN);
+        assertEquals(TokenStatus.ACTIVE, claims.getStatus());
+        assertEquals(USER_ID, claims.getUserId());
+        assertEquals("USER", claims.getRole());
+        assertEquals(expiration.getTime() / 1000, claims.getExp());
+    }
+
+    @Test
+    void Should_ReturnExpiredWithoutReadingAuthentication_When_TokenIsExpired() {
+        DefaultOAuth2AccessToken accessToken = new DefaultOAuth2AccessToken(TOKEN);
+        accessToken.setExpiration(new Date(System.currentTimeMillis() - 1000));
+        when(tokenStore.readAccessToken(TOKEN)).thenReturn(accessToken);
+
+        TokenClaimsResponseDto claims = tokenValidationService.validate(TOKEN);
+        assertEquals(TokenStatus.EXPIRED, claims.getStatus());
+        assertNull(claims.getUserId());
+        verify(tokenStore, never()).readAuthentication(anyString());
+    }
+
+    @Test
+    void Should_ReturnInvalid_When_TokenDoesNotExist() {
+        when(tokenStore.readAccessToken(TOKEN)).thenReturn(null);
+
+        assertEquals(TokenStatus.INVALID, tokenValidationService.validate(TOKEN).getStatus());
+    }
+
+    @Test
+    void Should_ReturnRevoked_When_TokenWasRevoked() {
+        when(tokenStore.readAccessToken(REVOKED_TOKEN)).thenReturn(null);
+        when(revokedTokenService.getRevokedTokenIds(Collections.singleton(
+                TokenKeyUtils.extractTokenKey(REVOKED_TOKEN)))).thenReturn(Set.of(
+                TokenKeyUtils.extractTokenKey(REVOKED_TOKEN)));
+
+        assertEquals(TokenStatus.REVOKED, tokenValidationService.validate(REVOKED_TOKEN).getStatus());
+    }
+
+    @Test
+    void Should_ThrowException_When_ReadingTokenFailed() {
+        when(tokenStore.readAccessToken(TOKEN)).thenThrow(new DataAccessException("failed") {
+        });
+
+        AuthServiceException exception = assertThrows(AuthServiceException.class, () ->
+                tokenValidationService.validate(TOKEN));
+        assertEquals("Reading access token from database was failed", exception.getMessage());
+    }
+
+    @Test
+    void Should_ReturnStatusOfEveryTokenInRequestOrder_When_ValidatingBatch() {
+        DefaultOAuth2AccessToken activeToken = new DefaultOAuth2AccessToken(TOKEN);
+        activeToken.setExpiration(new Date(System.currentTimeMillis() + 3600_000L));
+        DefaultOAuth2AccessToken expiredToken = new DefaultOAuth2AccessToken(EXPIRED_TOKEN);
+        expiredToken.setExpiration(new Date(System.currentTimeMillis() - 1000));
+        when(jdbcTokenStore.readAccessTokens(anyCollection())).thenReturn(Map.of(
+                TOKEN, new StoredAccessToken(activeToken, getAuthentication()),
+                EXPIRED_TOKEN, new StoredAccessToken(expiredToken, getAuthentication())));
+        when(revokedTokenService.getRevokedTokenIds(anyCollection())).thenReturn(
+                Set.of(TokenKeyUtils.extractTokenKey(REVOKED_TOKEN)));
+
+        List<TokenClaimsResponseDto> claims = tokenValidationService.validate(
+                Arrays.asList(REVOKED_TOKEN, TOKEN, UNKNOWN_TOKEN, EXPIRED_TOKEN, TOKEN));
+        assertEquals(5, claims.size());
+        assertEquals(TokenStatus.REVOKED, claims.get(0).getStatus());
+        assertEquals(TokenStatus.ACTIVE, claims.get(1).getStatus());
+        assertEquals(USER_ID, claims.get(1).getUserId());
+        assertEquals(TokenStatus.INVALID, claims.get(2).getStatus());
+        assertEquals(TokenStatus.EXPIRED, claims.get(3).getStatus());
+        assertEquals(TokenStatus.ACTIVE, claims.get(4).getStatus());
+        verify(jdbcTokenStore, times(1)).readAccessTokens(anyCollection());
+        verify(tokenStore, never()).readAccessToken(anyString());
+    }
+
+    @Test
+    void Should_ThrowException_When_ReadingBatchFailed() {
+        when(jdbcTokenStore.readAccessTokens(anyCollection())).thenThrow(new DataAccessException("failed") {
+        });
+
+        AuthServiceException exception = assertThrows(AuthServiceException.class, () ->
+                tokenValidationService.validate(Collections.singletonList(TOKEN)));
+        assertEquals("Reading access tokens from database was failed", exception.getMessage());
+    }
+
+    private OAuth2Authentication getAuthentication() {
+        Role role = new Role();
+        role.setName("USER");
+        AuthUserDetail user = new AuthUserDetail();
+        user.setId(USER_ID);
+        user.setRole(role);
+        OAuth2Request request = new OAuth2Request(Collections.emptyMap(), "tokomobile", Collections.emptyList(),
+                true, Collections.emptySet(), Collections.emptySet(), null, null, null);
+        return new OAuth2Authentication(request, new UsernamePasswordAuthenticationToken(user, null,
+                Collections.emptyList()));
+    }
+}
@@ -0,0 +1,92 @@
+package com.swivel.cc.auth.service;
+
+import com.swivel.cc.auth.domain.entity.User;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Function;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * This class tests the {@link UserCacheService} class.
+ */
+class UserCacheServiceTest {
+
+    private static final String USER_ID = "uid-1234567890";
+    private static final String USER_EMAIL = "rendy@tokoin.io";
+    private static final String USER_MOBILE_NO = "+62-81123123";
+    private final AtomicInteger loads = new AtomicInteger();
+    private SimpleMeterRegistry meterRegistry;
+    private UserCacheService userCacheService;
+    private User user;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        userCacheService = new UserCacheService(meterRegistry, true, 100, 60);
+        user = new User();
+        user.setId(USER_ID);
+        user.setEmail(USER_EMAIL);
+        user.setMobileNo(USER_MOBILE_NO);
+        user.setFullName("Rendy");
+    }
+
+    @Test
+    void Should_LoadUserOnce_When_UserIsReadTwice() {
+        userCacheService.getById(USER_ID, loader(user));
+        Optional<User> cached = userCacheService.getById(USER_ID, loader(user));
+
+        assertEquals(1, loads.get());
+        assertEquals("Rendy", cached.orElseThrow().getFullName());
+        assertEquals(1.0, meterRegistry.get("cache.gets").tag("cache", "users.by-id").tag("result", "hit")
+                .functionCounter().count());
+    }
+
+    @Test
+    void Should_ReturnCopies_When_CachedUserIsChangedByCaller() {
+        userCacheService.getById(USER_ID, loader(user)).orElseThrow().setFullName("Changed");
+        user.setFullName("Changed too");
+
+        assertEquals("Rendy", userCacheService.getById(USER_ID, loader(user)).orElseThrow().getFullName());
+    }
+
+    @Test
+    void Should_LoadUserAgain_When_UserDidNotExist() {
+        assertTrue(userCacheService.getByEmail(USER_EMAIL, loader(null)).isEmpty());
+        assertTrue(userCacheService.getByEmail("Rendy@Tokoin.io", loader(user)).isPresent());
+        assertTrue(userCacheService.getByEmail(USER_EMAIL, loader(user)).isPresent());
+
+        assertEquals(2, loads.get());
+    }
+
+    @Test
+    void Should_LoadUserAgain_When_UserWasEvicted() {
+        userCacheService.getByMobileNo(USER_MOBILE_NO, loader(user));
+        userCacheService.getByEmail(USER_EMAIL, loader(user));
+        userCacheService.evict(user);
+
+        assertTrue(userCacheService.getByMobileNo(USER_MOBILE_NO, loader(user)).isPresent());
+        assertTrue(userCacheService.getByEmail(USER_EMAIL, loader(user)).isPresent());
+        assertEquals(4, loads.get());
+    }
+
+    @Test
+    void Should_AlwaysLoadUser_When_CacheIsDisabled() {
+        userCacheService = new UserCacheService(meterRegistry, false, 100, 60);
+        userCacheService.getById(USER_ID, loader(user));
+        userCacheService.getById(USER_ID, loader(user));
+
+        assertEquals(2, loads.get());
+    }
+
+    private Function<String, Optional<User>> loader(User result) {
+        return key -> {
+            loads.incrementAndGet();
+            return Optional.ofNullable(result);
+        };
+    }
+}
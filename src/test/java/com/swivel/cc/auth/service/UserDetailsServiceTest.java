@@ -1,7 +1,8 @@
 package com.swivel.cc.auth.service;
 
+import com.swivel.cc.auth.domain.AuthUserDetail;
 import com.swivel.cc.auth.domain.entity.User;
-import com.swivel.cc.auth.repository.UserDetailRepository;
+import com.swivel.cc.auth.repository.UserRepository;
 import org.junit.jupiter.api.AfterEach;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
@@ -10,6 +11,7 @@ import org.springframework.security.core.userdetails.UsernameNotFoundException;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 import static org.mockito.MockitoAnnotations.initMocks;
 
@@ -19,14 +21,18 @@ class UserDetailsServiceTest {
     private static final String USER_MOBILE_NO = "+6281123123";
 
     @Mock
-    private UserDetailRepository userDetailRepository;
+    private LoginIdentifierService loginIdentifierService;
+    @Mock
+    private UserRepository userRepository;
+    @Mock
+    private UserCacheService userCacheService;
     @Mock
     private UserDetailService userDetailService;
 
     @BeforeEach
     void setUp() {
         initMocks(this);
-        userDetailService = new UserDetailService(userDetailRepository);
+        userDetailService = new UserDetailService(loginIdentifierService, userRepository, userCacheService);
     }
 
     @AfterEach
@@ -35,11 +41,23 @@ class UserDetailsServiceTest {
     @Test
     void Should_ThrowException_When_UserNotFound() {
 
-        when(userDetailRepository.findByMobileNoAsUserNameOrEmail(USER_MOBILE_NO, USER_EMAIL))
-                .thenReturn(java.util.Optional.of(new User()));
+        when(loginIdentifierService.findUser(USER_MOBILE_NO)).thenReturn(java.util.Optional.of(new User()));
+        when(loginIdentifierService.findUser(USER_EMAIL)).thenReturn(java.util.Optional.empty());
         UsernameNotFoundException exception = assertThrows(UsernameNotFoundException.class, () ->
                 userDetailService.loadUserByUsername(USER_EMAIL));
         assertEquals("Invalid username or Password", exception.getMessage());
     }
 
+    @Test
+    void Should_SaveNewHashAndEvictUser_When_PasswordIsUpgraded() {
+        User user = new User();
+        user.setId("uid-1234567890");
+        user.setPassword("$2a$08$old");
+        AuthUserDetail userDetail = new AuthUserDetail(user);
+
+        userDetailService.updatePassword(userDetail, "$2a$12$new");
+        verify(userRepository).updatePassword("uid-1234567890", "$2a$12$new");
+        verify(userCacheService).evict(userDetail);
+        assertEquals("$2a$12$new", userDetail.getPassword());
+    }
 }
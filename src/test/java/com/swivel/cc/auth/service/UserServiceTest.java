@@ -1,16 +1,20 @@
 package com.swivel.cc.auth.service;
 
+import com.swivel.cc.auth.domain.entity.LoginIdentifier;
 import com.swivel.cc.auth.domain.entity.PasswordResetToken;
 import com.swivel.cc.auth.domain.entity.Role;
 import com.swivel.cc.auth.domain.entity.User;
 import com.swivel.cc.auth.domain.entity.UserMobileNo;
 import com.swivel.cc.auth.domain.request.*;
 import com.swivel.cc.auth.enums.Language;
+import com.swivel.cc.auth.enums.LoginIdentifierType;
 import com.swivel.cc.auth.enums.RoleType;
 import com.swivel.cc.auth.exception.AuthServiceException;
 import com.swivel.cc.auth.exception.InvalidPasswordException;
 import com.swivel.cc.auth.exception.InvalidUserException;
 import com.swivel.cc.auth.repository.*;
+import com.swivel.cc.auth.util.IdGenerator;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
 import org.junit.jupiter.api.AfterEach;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
@@ -75,13 +79,17 @@ class UserServiceTest {
     private NotificationService notificationService;
     @Mock
     private ApprovedBankBusinessRepository approvedBankBusinessRepository;
+    @Mock
+    private LoginIdentifierService loginIdentifierService;
 
     @BeforeEach
     void setUp() {
         initMocks(this);
         userService = new UserService(userRepository, passwordEncoder, jdbcTokenStore,
                 userMobileRepository, passwordResetTokenRepository, roleRepository, notificationService,
-                merchantService, merchantBankSearchIndexRepository, approvedBankBusinessRepository);
+                merchantService, merchantBankSearchIndexRepository, approvedBankBusinessRepository,
+                loginIdentifierService, new UserCacheService(new SimpleMeterRegistry(), false, 1, 1),
+                new IdGenerator(false));
     }
 
     @AfterEach
@@ -155,6 +163,7 @@ class UserServiceTest {
         when(userRepository.save(user)).thenReturn(user);
         userService.createUser(user);
         verify(userRepository).save(user);
+        verify(loginIdentifierService).saveLoginIdentifiers(user);
     }
 
     @Test
@@ -808,11 +817,19 @@ class UserServiceTest {
 //                userService.getDefaultRole());
 //        assertEquals("Failed to get role", exception.getMessage());
 //    }
+    @Test
+    void Should_ThrowInvalidUserException_When_UserNameIsUserId() {
+        when(loginIdentifierService.findLoginIdentifier(USER_ID))
+                .thenReturn(Optional.of(new LoginIdentifier(USER_ID, LoginIdentifierType.USER_ID, user)));
+        InvalidUserException exception = assertThrows(InvalidUserException.class, () ->
+                userService.getRegisteredUser(USER_ID));
+        assertEquals("User not found", exception.getMessage());
+    }
+
     @Test
     void Should_ThrowException_When_GetRegisteredUserFailed() {
-        when(userRepository.findByMobileNoOrEmailAndIsRegisteredUserTrue(USER_NAME, USER_NAME))
-                .thenThrow(new DataAccessException("failed") {
-                });
+        when(loginIdentifierService.findLoginIdentifier(USER_NAME)).thenThrow(new DataAccessException("failed") {
+        });
         AuthServiceException exception = assertThrows(AuthServiceException.class, () ->
                 userService.getRegisteredUser(USER_NAME));
         assertEquals("Getting user from database was failed", exception.getMessage());
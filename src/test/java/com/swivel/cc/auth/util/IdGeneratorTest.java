@@ -0,0 +1,81 @@
+package com.swivel.cc.auth.util;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * This class tests the {@link IdGenerator} class.
+ */
+class IdGeneratorTest {
+
+    private final IdGenerator idGenerator = new IdGenerator(false);
+    private final IdGenerator timeOrderedIdGenerator = new IdGenerator(true);
+
+    @Test
+    void Should_ReturnPrefixedRandomUuid_When_IdsAreNotTimeOrdered() {
+        String id = idGenerator.nextId("uid-");
+
+        assertTrue(id.startsWith("uid-"));
+        UUID uuid = UUID.fromString(id.substring(4));
+        assertEquals(4, uuid.version());
+        assertEquals(2, uuid.variant());
+    }
+
+    @Test
+    void Should_ReturnUuidsStartingWithCreationTime_When_IdsAreTimeOrdered() throws Exception {
+        long before = System.currentTimeMillis();
+        String first = timeOrderedIdGenerator.nextId("bisid-").substring(6);
+        Thread.sleep(2);
+        String second = timeOrderedIdGenerator.nextId("bisid-").substring(6);
+
+        UUID uuid = UUID.fromString(first);
+        assertEquals(7, uuid.version());
+        assertEquals(2, uuid.variant());
+        long millis = uuid.getMostSignificantBits() >>> 16;
+        assertTrue(millis >= before && millis <= System.currentTimeMillis());
+        assertTrue(first.compareTo(second) < 0);
+    }
+
+    @Test
+    void Should_ReturnRandomTokenValueWithoutDashes_When_IdsAreTimeOrdered() {
+        String value = timeOrderedIdGenerator.nextTokenValue();
+
+        assertEquals(32, value.length());
+        UUID uuid = UUID.fromString(value.replaceFirst("(.{8})(.{4})(.{4})(.{4})(.{12})", "$1-$2-$3-$4-$5"));
+        assertEquals(4, uuid.version());
+        assertEquals(2, uuid.variant());
+    }
+
+    @Test
+    void Should_ReturnDistinctIds_When_GeneratedOnManyThreads() throws Exception {
+        Set<String> ids = ConcurrentHashMap.newKeySet();
+        ExecutorService executor = Executors.newFixedThreadPool(8);
+        for (int i = 0; i < 8; i++) {
+            executor.execute(() -> {
+                for (int j = 0; j < 1000; j++) {
+                    ids.add(idGenerator.randomUuid());
+                }
+            });
+        }
+        executor.shutdown();
+        assertTrue(executor.awaitTermination(10, TimeUnit.SECONDS));
+
+        assertEquals(8000, ids.size());
+    }
+
+    @Test
+    void Should_ReturnNumberBelowBound() {
+        for (int i = 0; i < 1000; i++) {
+            int number = idGenerator.nextNumber(999999);
+            assertTrue(number >= 0 && number < 999999);
+        }
+    }
+}